@@ -3,8 +3,12 @@ package uk.co.gresearch.siembol.alerts.common;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectReader;
+import uk.co.gresearch.siembol.common.utils.EventFormat;
 
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 public interface AlertingEngine {
      ObjectReader JSON_READER = new ObjectMapper()
@@ -19,9 +23,30 @@ public interface AlertingEngine {
         }
     }
 
+    default AlertingResult evaluate(byte[] event) {
+        try {
+            Map<String, Object> eventMap = EventFormat.readEvent(event);
+            return evaluate(eventMap);
+        } catch (Exception e) {
+            return AlertingResult.fromException(e);
+        }
+    }
+
     AlertingResult evaluate(Map<String, Object> event);
 
     AlertingEngineType getAlertingEngineType();
 
+    default Optional<Set<String>> getReferencedFields() {
+        return Optional.empty();
+    }
+
+    default Optional<List<Set<String>>> getRulesRequiredFields() {
+        return Optional.empty();
+    }
+
+    default Optional<Map<String, Set<String>>> getRulesReferencedFields() {
+        return Optional.empty();
+    }
+
     default void clean() {}
 }
@@ -7,11 +7,13 @@ import org.apache.commons.lang3.tuple.Pair;
 import uk.co.gresearch.siembol.common.jsonschema.JsonSchemaValidator;
 import uk.co.gresearch.siembol.common.jsonschema.SiembolJsonSchemaValidator;
 import uk.co.gresearch.siembol.common.testing.TestingLogger;
+import uk.co.gresearch.siembol.common.utils.TimeProvider;
 import uk.co.gresearch.siembol.alerts.common.*;
 import uk.co.gresearch.siembol.alerts.correlationengine.AlertCounterMetadata;
 import uk.co.gresearch.siembol.alerts.correlationengine.CorrelationEngineImpl;
 import uk.co.gresearch.siembol.alerts.correlationengine.CorrelationRule;
 import uk.co.gresearch.siembol.alerts.model.*;
+import uk.co.gresearch.siembol.alerts.protection.RuleProtectionSystem;
 
 import java.io.IOException;
 import java.util.ArrayList;
@@ -33,9 +35,23 @@ public class AlertingCorrelationRulesCompiler implements AlertingCompiler {
             new ObjectMapper().readerFor(CorrelationRuleDto.class);
     private static final String NOT_IMPLEMENTED_YET_MSG = "Not implememented yet";
     private final JsonSchemaValidator jsonSchemaValidator;
+    private final RuleProtectionSystem ruleProtection;
+    private final TimeProvider timeProvider;
 
     AlertingCorrelationRulesCompiler(JsonSchemaValidator jsonSchemaValidator) {
+        this(jsonSchemaValidator, null);
+    }
+
+    AlertingCorrelationRulesCompiler(JsonSchemaValidator jsonSchemaValidator, RuleProtectionSystem ruleProtection) {
+        this(jsonSchemaValidator, ruleProtection, new TimeProvider());
+    }
+
+    AlertingCorrelationRulesCompiler(JsonSchemaValidator jsonSchemaValidator,
+                                     RuleProtectionSystem ruleProtection,
+                                     TimeProvider timeProvider) {
         this.jsonSchemaValidator = jsonSchemaValidator;
+        this.ruleProtection = ruleProtection;
+        this.timeProvider = timeProvider;
     }
 
     @Override
@@ -106,6 +122,8 @@ public class AlertingCorrelationRulesCompiler implements AlertingCompiler {
             AlertingEngine engine = new CorrelationEngineImpl.Builder()
                     .constants(generalConstants)
                     .protections(generalProtections)
+                    .ruleProtection(ruleProtection)
+                    .timeProvider(timeProvider)
                     .correlationRules(rulesList)
                     .build();
 
@@ -133,8 +151,18 @@ public class AlertingCorrelationRulesCompiler implements AlertingCompiler {
     }
 
     public static AlertingCompiler createAlertingCorrelationRulesCompiler() throws Exception {
+        return createAlertingCorrelationRulesCompiler(null);
+    }
+
+    public static AlertingCompiler createAlertingCorrelationRulesCompiler(RuleProtectionSystem ruleProtection) throws Exception {
+        JsonSchemaValidator validator = new SiembolJsonSchemaValidator(CorrelationRulesDto.class);
+        return new AlertingCorrelationRulesCompiler(validator, ruleProtection);
+    }
+
+    public static AlertingCompiler createAlertingCorrelationRulesCompiler(RuleProtectionSystem ruleProtection,
+                                                                          TimeProvider timeProvider) throws Exception {
         JsonSchemaValidator validator = new SiembolJsonSchemaValidator(CorrelationRulesDto.class);
-        return new AlertingCorrelationRulesCompiler(validator);
+        return new AlertingCorrelationRulesCompiler(validator, ruleProtection, timeProvider);
     }
 
     @Override
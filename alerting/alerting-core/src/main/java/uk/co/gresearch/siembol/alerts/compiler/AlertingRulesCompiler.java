@@ -12,6 +12,7 @@ import uk.co.gresearch.siembol.common.testing.TestingLogger;
 import uk.co.gresearch.siembol.alerts.common.*;
 import uk.co.gresearch.siembol.alerts.engine.*;
 import uk.co.gresearch.siembol.alerts.model.*;
+import uk.co.gresearch.siembol.alerts.protection.RuleProtectionSystem;
 
 import java.io.IOException;
 import java.util.ArrayList;
@@ -39,10 +40,16 @@ public class AlertingRulesCompiler implements AlertingCompiler {
     private static final String EXCEPTION_EVENTS_MSG = "Exception events:";
 
     private final JsonSchemaValidator jsonSchemaValidator;
+    private final RuleProtectionSystem ruleProtection;
     private final List<TagDto> testOutputContants;
 
     AlertingRulesCompiler(JsonSchemaValidator jsonSchemaValidator) {
+        this(jsonSchemaValidator, null);
+    }
+
+    AlertingRulesCompiler(JsonSchemaValidator jsonSchemaValidator, RuleProtectionSystem ruleProtection) {
         this.jsonSchemaValidator = jsonSchemaValidator;
+        this.ruleProtection = ruleProtection;
 
         final TagDto testConstant = new TagDto();
         testConstant.setTagName(TEST_FIELD_NAME);
@@ -128,6 +135,7 @@ public class AlertingRulesCompiler implements AlertingCompiler {
             AlertingEngine engine = new AlertingEngineImpl.Builder()
                     .constants(generalConstants)
                     .protections(generalProtections)
+                    .ruleProtection(ruleProtection)
                     .rules(rulesList)
                     .build();
 
@@ -191,7 +199,11 @@ public class AlertingRulesCompiler implements AlertingCompiler {
     }
 
     public static AlertingCompiler createAlertingRulesCompiler() throws Exception {
+        return createAlertingRulesCompiler(null);
+    }
+
+    public static AlertingCompiler createAlertingRulesCompiler(RuleProtectionSystem ruleProtection) throws Exception {
         JsonSchemaValidator validator = new SiembolJsonSchemaValidator(RulesDto.class);
-        return new AlertingRulesCompiler(validator);
+        return new AlertingRulesCompiler(validator, ruleProtection);
     }
 }
@@ -3,11 +3,15 @@ import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
 import uk.co.gresearch.siembol.common.utils.TimeProvider;
 import uk.co.gresearch.siembol.alerts.common.*;
+import uk.co.gresearch.siembol.alerts.protection.RuleProtectionLimits;
+import uk.co.gresearch.siembol.alerts.protection.RuleProtectionSystem;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.Optional;
+import java.util.Set;
 
 import static uk.co.gresearch.siembol.alerts.common.AlertingTags.CORRELATION_KEY_TAG_NAME;
 
@@ -17,12 +21,16 @@ public class CorrelationEngineImpl implements AlertingEngine {
     private final List<CorrelationRule> correlationRules;
     private final TimeProvider timeProvider;
     private final List<Pair<String, Object>> outputFields;
+    private final RuleProtectionSystem ruleProtection;
+    private final Map<String, RuleProtectionLimits> ruleProtectionLimits;
 
     CorrelationEngineImpl(Builder builder) {
         alertToCorrelationRulesMap = builder.alertToCorrelationRulesMap;
         correlationRules = builder.correlationRules;
         timeProvider = builder.timeProvider;
         this.outputFields = builder.outputFields;
+        this.ruleProtection = builder.ruleProtection;
+        this.ruleProtectionLimits = builder.ruleProtectionLimits;
     }
 
     @Override
@@ -45,7 +53,8 @@ public class CorrelationEngineImpl implements AlertingEngine {
             AlertingResult result = correlationRule.match(alert);
             if (result.getStatusCode() == AlertingResult.StatusCode.ERROR) {
                 exceptionsEvents.add(result.getAttributes().getEvent());
-            } else if (result.getAttributes().getEvaluationResult() == EvaluationResult.MATCH) {
+            } else if (result.getAttributes().getEvaluationResult() == EvaluationResult.MATCH
+                    && !isRuleThrottled(correlationRule, exceptionsEvents)) {
                 Map<String, Object> outAlert = result.getAttributes().getEvent();
                 outputFields.forEach(x -> outAlert.putIfAbsent(x.getKey(), x.getValue()));
                 outputCorrelationAlerts.add(outAlert);
@@ -67,6 +76,25 @@ public class CorrelationEngineImpl implements AlertingEngine {
         return new AlertingResult(AlertingResult.StatusCode.OK, attributes);
     }
 
+    private boolean isRuleThrottled(CorrelationRule rule, List<Map<String, Object>> exceptionsEvents) {
+        RuleProtectionLimits limits = ruleProtectionLimits.get(rule.getFullRuleName());
+        if (limits == null) {
+            return false;
+        }
+
+        Optional<String> limitMessage = limits.incrementAndCheck(ruleProtection);
+        if (!limitMessage.isPresent()) {
+            return false;
+        }
+
+        Map<String, Object> exceptionEvent = new HashMap<>();
+        exceptionEvent.put(AlertingFields.RULE_NAME.getCorrelationAlertingName(), rule.getRuleName());
+        exceptionEvent.put(AlertingFields.FULL_RULE_NAME.getCorrelationAlertingName(), rule.getFullRuleName());
+        exceptionEvent.put(AlertingFields.EXCEPTION.getCorrelationAlertingName(), limitMessage.get());
+        exceptionsEvents.add(exceptionEvent);
+        return true;
+    }
+
     @Override
     public AlertingEngineType getAlertingEngineType() {
         return AlertingEngineType.SIEMBOL_CORRELATION_ALERTS;
@@ -80,6 +108,16 @@ public class CorrelationEngineImpl implements AlertingEngine {
         }
     }
 
+    public Set<String> getAlertNames() {
+        return alertToCorrelationRulesMap.keySet();
+    }
+
+    public Map<String, Integer> getRulesStateSize() {
+        Map<String, Integer> ret = new HashMap<>();
+        correlationRules.forEach(x -> ret.put(x.getFullRuleName(), x.getStateSize()));
+        return ret;
+    }
+
     public static class Builder {
         private static final String MISSING_ARGUMENTS = "Missing required correlation alerting engine properties";
         private Map<String, List<CorrelationRule>> alertToCorrelationRulesMap = new HashMap<>();
@@ -89,6 +127,8 @@ public class CorrelationEngineImpl implements AlertingEngine {
         private List<Pair<String, String>> constants;
         private List<Pair<String, Object>> protections;
         private List<Pair<String, Object>> outputFields = new ArrayList<>();
+        private RuleProtectionSystem ruleProtection;
+        private Map<String, RuleProtectionLimits> ruleProtectionLimits = new HashMap<>();
 
         public Builder timeProvider(TimeProvider timeProvider) {
             this.timeProvider = timeProvider;
@@ -110,6 +150,11 @@ public class CorrelationEngineImpl implements AlertingEngine {
             return this;
         }
 
+        public Builder ruleProtection(RuleProtectionSystem ruleProtection) {
+            this.ruleProtection = ruleProtection;
+            return this;
+        }
+
         public AlertingEngine build() {
             if (correlationRules == null
                     || correlationRules.isEmpty()
@@ -132,6 +177,18 @@ public class CorrelationEngineImpl implements AlertingEngine {
             constants.forEach(x -> outputFields.add(ImmutablePair.of(x.getLeft(), x.getRight())));
             protections.forEach(x -> outputFields.add(ImmutablePair.of(x.getLeft(), x.getRight())));
 
+            if (ruleProtection != null) {
+                for (CorrelationRule rule : correlationRules) {
+                    List<Pair<String, Object>> ruleProtections = new ArrayList<>(protections);
+                    ruleProtections.addAll(rule.getProtections());
+                    RuleProtectionLimits.fromProtections(rule.getFullRuleName(),
+                            ruleProtections,
+                            AlertingFields.MAX_PER_HOUR_FIELD.getCorrelationAlertingName(),
+                            AlertingFields.MAX_PER_DAY_FIELD.getCorrelationAlertingName())
+                            .ifPresent(x -> ruleProtectionLimits.put(rule.getFullRuleName(), x));
+                }
+            }
+
             return new CorrelationEngineImpl(this);
         }
     }
@@ -66,6 +66,16 @@ public class CorrelationRule extends AbstractRule {
         alertCounters.keySet().removeIf(x -> cleanAlertCounters(alertCounters.get(x), waterMark));
     }
 
+    public int getStateSize() {
+        int ret = 0;
+        for (ArrayList<AlertCounter> counters : alertCounters.values()) {
+            for (AlertCounter counter : counters) {
+                ret += counter.getSize();
+            }
+        }
+        return ret;
+    }
+
     public List<String> getAlertNames() {
         return alertToCounterIndex
                 .keySet()
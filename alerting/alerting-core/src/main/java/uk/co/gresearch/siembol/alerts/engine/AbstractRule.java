@@ -8,9 +8,11 @@ import uk.co.gresearch.siembol.alerts.common.AlertingResult;
 import uk.co.gresearch.siembol.common.testing.TestingLogger;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 public abstract class AbstractRule {
     private final String ruleName;
@@ -18,6 +20,7 @@ public abstract class AbstractRule {
 
     private final List<Pair<String, Object>> outputFields;
     private final List<Pair<String, String>> variableOutputFields;
+    private final List<Pair<String, Object>> protections;
 
     protected final TestingLogger logger;
     protected AbstractRule(Builder<?> builder) {
@@ -25,6 +28,7 @@ public abstract class AbstractRule {
         this.fullRuleName = builder.fullRuleName;
         this.outputFields = builder.outputFields;
         this.variableOutputFields = builder.variableOutputFields;
+        this.protections = builder.protections;
         this.logger = builder.logger;
     }
 
@@ -36,6 +40,10 @@ public abstract class AbstractRule {
         return fullRuleName;
     }
 
+    public List<Pair<String, Object>> getProtections() {
+        return protections;
+    }
+
     public void addOutputFieldsToEvent(Map<String, Object> event) {
         outputFields.forEach(x -> event.put(x.getKey(), x.getValue()));
         for (Pair<String, String> variableOutputField : variableOutputFields) {
@@ -46,6 +54,12 @@ public abstract class AbstractRule {
         }
     }
 
+    public Set<String> getTagsReferencedFields() {
+        Set<String> ret = new HashSet<>();
+        variableOutputFields.forEach(x -> ret.addAll(EvaluationLibrary.getVariableNames(x.getValue())));
+        return ret;
+    }
+
     public abstract AlertingResult match(Map<String, Object> log);
 
     public static abstract class Builder<T extends AbstractRule> {
@@ -4,6 +4,8 @@ import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
 import uk.co.gresearch.siembol.alerts.common.*;
+import uk.co.gresearch.siembol.alerts.protection.RuleProtectionLimits;
+import uk.co.gresearch.siembol.alerts.protection.RuleProtectionSystem;
 
 import java.util.*;
 
@@ -12,12 +14,16 @@ public class AlertingEngineImpl implements AlertingEngine {
     private final Map<String, List<Rule>> sourceToRulesTable;
     private final List<Rule> allSourceRules;
     private final List<Pair<String, Object>> outputFields;
+    private final RuleProtectionSystem ruleProtection;
+    private final Map<String, RuleProtectionLimits> ruleProtectionLimits;
 
     private AlertingEngineImpl(Builder builder) {
         this.sourceToRulesTable = builder.sourceToRulesTable;
         this.outputFields = builder.outputFields;
         this.sourceField = builder.sourceField;
         this.allSourceRules = builder.allSourceRules;
+        this.ruleProtection = builder.ruleProtection;
+        this.ruleProtectionLimits = builder.ruleProtectionLimits;
     }
 
     @Override
@@ -58,6 +64,37 @@ public class AlertingEngineImpl implements AlertingEngine {
         return AlertingEngineType.SIEMBOL_ALERTS;
     }
 
+    @Override
+    public Optional<Set<String>> getReferencedFields() {
+        Set<String> ret = new HashSet<>();
+        ret.add(sourceField);
+        for (Rule rule : getAllRules()) {
+            ret.addAll(rule.getReferencedFields());
+            ret.addAll(rule.getTagsReferencedFields());
+        }
+        return Optional.of(ret);
+    }
+
+    @Override
+    public Optional<List<Set<String>>> getRulesRequiredFields() {
+        List<Set<String>> ret = new ArrayList<>();
+        getAllRules().forEach(x -> ret.add(x.getRequiredFields()));
+        return Optional.of(ret);
+    }
+
+    @Override
+    public Optional<Map<String, Set<String>>> getRulesReferencedFields() {
+        Map<String, Set<String>> ret = new HashMap<>();
+        getAllRules().forEach(x -> ret.put(x.getFullRuleName(), x.getReferencedFields()));
+        return Optional.of(ret);
+    }
+
+    private List<Rule> getAllRules() {
+        List<Rule> ret = new ArrayList<>(allSourceRules);
+        sourceToRulesTable.values().forEach(ret::addAll);
+        return ret;
+    }
+
     private Map<String, Object> createEventFromRule(Rule rule, Map<String, Object> event) {
         Map<String, Object> ret = new HashMap<>(event);
         ret.put(AlertingFields.RULE_NAME.getAlertingName(), rule.getRuleName());
@@ -65,13 +102,33 @@ public class AlertingEngineImpl implements AlertingEngine {
         return ret;
     }
 
+    private boolean isRuleThrottled(Rule rule, List<Map<String, Object>> exceptionsEvents) {
+        RuleProtectionLimits limits = ruleProtectionLimits.get(rule.getFullRuleName());
+        if (limits == null) {
+            return false;
+        }
+
+        Optional<String> limitMessage = limits.incrementAndCheck(ruleProtection);
+        if (!limitMessage.isPresent()) {
+            return false;
+        }
+
+        Map<String, Object> exceptionEvent = new HashMap<>();
+        exceptionEvent.put(AlertingFields.RULE_NAME.getAlertingName(), rule.getRuleName());
+        exceptionEvent.put(AlertingFields.FULL_RULE_NAME.getAlertingName(), rule.getFullRuleName());
+        exceptionEvent.put(AlertingFields.EXCEPTION.getAlertingName(), limitMessage.get());
+        exceptionsEvents.add(exceptionEvent);
+        return true;
+    }
+
     private void evaluateRuleInternally(Rule rule,
                                         Map<String, Object> event,
                                         List<Map<String, Object>> outputEvents,
                                         List<Map<String, Object>> exceptionsEvents) {
         try {
             AlertingResult result = rule.match(event);
-            if (result.getAttributes().getEvaluationResult() != EvaluationResult.MATCH) {
+            if (result.getAttributes().getEvaluationResult() != EvaluationResult.MATCH
+                    || isRuleThrottled(rule, exceptionsEvents)) {
                 return;
             }
 
@@ -97,6 +154,8 @@ public class AlertingEngineImpl implements AlertingEngine {
         private List<Pair<String, String>> constants;
         private List<Pair<String, Object>> protections;
         private List<Pair<String, Object>> outputFields = new ArrayList<>();
+        private RuleProtectionSystem ruleProtection;
+        private Map<String, RuleProtectionLimits> ruleProtectionLimits = new HashMap<>();
 
         public Builder sourceField(String sourceField) {
             this.sourceField = sourceField;
@@ -123,6 +182,11 @@ public class AlertingEngineImpl implements AlertingEngine {
             return this;
         }
 
+        public Builder ruleProtection(RuleProtectionSystem ruleProtection) {
+            this.ruleProtection = ruleProtection;
+            return this;
+        }
+
         public AlertingEngine build() {
             if (rules == null
                     || rules.isEmpty()
@@ -134,6 +198,18 @@ public class AlertingEngineImpl implements AlertingEngine {
             constants.forEach(x -> outputFields.add(ImmutablePair.of(x.getLeft(), x.getRight())));
             protections.forEach(x -> outputFields.add(ImmutablePair.of(x.getLeft(), x.getRight())));
 
+            if (ruleProtection != null) {
+                for (Pair<String, Rule> rule : rules) {
+                    List<Pair<String, Object>> ruleProtections = new ArrayList<>(protections);
+                    ruleProtections.addAll(rule.getRight().getProtections());
+                    RuleProtectionLimits.fromProtections(rule.getRight().getFullRuleName(),
+                            ruleProtections,
+                            AlertingFields.MAX_PER_HOUR_FIELD.getAlertingName(),
+                            AlertingFields.MAX_PER_DAY_FIELD.getAlertingName())
+                            .ifPresent(x -> ruleProtectionLimits.put(rule.getRight().getFullRuleName(), x));
+                }
+            }
+
             rules.forEach(x -> {
                 if (sourceToRulesTable.containsKey(x.getLeft())) {
                     sourceToRulesTable.get(x.getLeft()).add(x.getRight());
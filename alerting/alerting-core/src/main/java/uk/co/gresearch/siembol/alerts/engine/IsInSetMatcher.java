@@ -43,6 +43,13 @@ public class IsInSetMatcher extends RuleMatcher {
                 : EvaluationResult.NO_MATCH;
     }
 
+    @Override
+    public Set<String> getReferencedFields() {
+        Set<String> ret = super.getReferencedFields();
+        variableStrings.forEach(x -> ret.addAll(EvaluationLibrary.getVariableNames(x)));
+        return ret;
+    }
+
     public static Builder<IsInSetMatcher> builder() {
 
         return new Builder<IsInSetMatcher>() {
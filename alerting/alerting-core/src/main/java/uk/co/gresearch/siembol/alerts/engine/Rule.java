@@ -38,6 +38,25 @@ public class Rule extends AbstractRule {
     }
 
 
+    public Set<String> getReferencedFields() {
+        Set<String> ret = new HashSet<>();
+        matchers.forEach(x -> ret.addAll(x.getReferencedFields()));
+        return ret;
+    }
+
+    public Set<String> getRequiredFields() {
+        Set<String> ret = new HashSet<>();
+        for (RuleMatcher matcher : matchers) {
+            if (!matcher.isNegated()) {
+                ret.add(matcher.getFieldName());
+            }
+            if (matcher.CanModifyEvent()) {
+                break;
+            }
+        }
+        return ret;
+    }
+
     public boolean canModifyEvent() {
         return flags.contains(RuleFlags.CAN_MODIFY_EVENT);
     }
@@ -1,7 +1,9 @@
 package uk.co.gresearch.siembol.alerts.engine;
 
 import uk.co.gresearch.siembol.alerts.common.EvaluationResult;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 public abstract class RuleMatcher {
     private final static String MISSING_FIELD_NAME = "Missing field name";
@@ -32,6 +34,20 @@ public abstract class RuleMatcher {
         return result;
     }
 
+    public String getFieldName() {
+        return fieldName;
+    }
+
+    public boolean isNegated() {
+        return isNegated;
+    }
+
+    public Set<String> getReferencedFields() {
+        Set<String> ret = new HashSet<>();
+        ret.add(fieldName);
+        return ret;
+    }
+
     protected boolean CanModifyEvent() {
         return false;
     }
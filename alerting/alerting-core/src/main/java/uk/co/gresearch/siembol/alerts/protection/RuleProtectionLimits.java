@@ -0,0 +1,63 @@
+package uk.co.gresearch.siembol.alerts.protection;
+
+import org.apache.commons.lang3.tuple.Pair;
+import uk.co.gresearch.siembol.alerts.common.AlertingAttributes;
+
+import java.util.List;
+import java.util.Optional;
+
+public class RuleProtectionLimits {
+    private static final String LIMIT_EXCEEDED_MSG =
+            "The rule: %s reaches the limit\n hourly matches: %d, daily matches: %d";
+    private final String fullRuleName;
+    private final int maxPerHour;
+    private final int maxPerDay;
+
+    RuleProtectionLimits(String fullRuleName, int maxPerHour, int maxPerDay) {
+        this.fullRuleName = fullRuleName;
+        this.maxPerHour = maxPerHour;
+        this.maxPerDay = maxPerDay;
+    }
+
+    public static Optional<RuleProtectionLimits> fromProtections(String fullRuleName,
+                                                                 List<Pair<String, Object>> protections,
+                                                                 String maxPerHourField,
+                                                                 String maxPerDayField) {
+        Object maxPerHour = null;
+        Object maxPerDay = null;
+        for (Pair<String, Object> protection : protections) {
+            if (maxPerHourField.equals(protection.getKey())) {
+                maxPerHour = protection.getValue();
+            } else if (maxPerDayField.equals(protection.getKey())) {
+                maxPerDay = protection.getValue();
+            }
+        }
+
+        if (!(maxPerHour instanceof Number) || !(maxPerDay instanceof Number)) {
+            return Optional.empty();
+        }
+
+        return Optional.of(new RuleProtectionLimits(fullRuleName,
+                ((Number) maxPerHour).intValue(),
+                ((Number) maxPerDay).intValue()));
+    }
+
+    public Optional<String> incrementAndCheck(RuleProtectionSystem ruleProtection) {
+        AlertingAttributes matches = ruleProtection.incrementRuleMatches(fullRuleName).getAttributes();
+        int hourlyMatches = matches.getHourlyMatches();
+        int dailyMatches = matches.getDailyMatches();
+        if (hourlyMatches <= maxPerHour && dailyMatches <= maxPerDay) {
+            return Optional.empty();
+        }
+
+        return Optional.of(String.format(LIMIT_EXCEEDED_MSG, fullRuleName, hourlyMatches, dailyMatches));
+    }
+
+    public int getMaxPerHour() {
+        return maxPerHour;
+    }
+
+    public int getMaxPerDay() {
+        return maxPerDay;
+    }
+}
@@ -2,40 +2,68 @@ package uk.co.gresearch.siembol.alerts.protection;
 
 import uk.co.gresearch.siembol.alerts.common.AlertingAttributes;
 import uk.co.gresearch.siembol.alerts.common.AlertingResult;
+import uk.co.gresearch.siembol.common.utils.TimeProvider;
 
-import java.util.Map;
-import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 public class RuleProtectionSystemImpl implements RuleProtectionSystem {
     private static final String UNKNOWN_RULE = "No matches of the rule %s";
-    private final Map<String, SimpleCounter> ruleCounters = new HashMap<>();
+    private static final long HOUR_WINDOW_MS = TimeUnit.HOURS.toMillis(1);
+    private static final int HOUR_WINDOW_BUCKETS = 60;
+    private static final long DAY_WINDOW_MS = TimeUnit.DAYS.toMillis(1);
+    private static final int DAY_WINDOW_BUCKETS = 96;
+    private static final RuleProtectionSystem SHARED_INSTANCE = new RuleProtectionSystemImpl();
 
+    private final ConcurrentHashMap<String, RuleCounter> ruleCounters = new ConcurrentHashMap<>();
+    private final TimeProvider timeProvider;
+
+    public RuleProtectionSystemImpl() {
+        this(new TimeProvider());
+    }
+
+    RuleProtectionSystemImpl(TimeProvider timeProvider) {
+        this.timeProvider = timeProvider;
+    }
+
+    /**
+     * Returns the rule protection system shared by all callers in the JVM.
+     * The rules are protected by their matches of all executors in a storm worker.
+     */
+    public static RuleProtectionSystem getSharedInstance() {
+        return SHARED_INSTANCE;
+    }
 
     @Override
     public AlertingResult incrementRuleMatches(String fullRuleName) {
-        if (!ruleCounters.containsKey(fullRuleName)) {
-            ruleCounters.put(fullRuleName, new SimpleCounter());
-        }
-
-        SimpleCounter counter = ruleCounters.get(fullRuleName);
-        counter.updateAndIncrement();
+        RuleCounter counter = ruleCounters.computeIfAbsent(fullRuleName, x -> new RuleCounter(timeProvider));
 
         AlertingAttributes attr = new AlertingAttributes();
-        attr.setHourlyMatches(counter.getHourlyMatches());
-        attr.setDailyMatches(counter.getDailyMatches());
+        attr.setHourlyMatches(counter.hourlyMatches.incrementAndGet());
+        attr.setDailyMatches(counter.dailyMatches.incrementAndGet());
         return new AlertingResult(AlertingResult.StatusCode.OK, attr);
     }
 
     @Override
     public AlertingResult getRuleMatches(String fullRuleName) {
-        if (!ruleCounters.containsKey(fullRuleName)) {
+        RuleCounter counter = ruleCounters.get(fullRuleName);
+        if (counter == null) {
             return AlertingResult.fromErrorMessage(String.format(UNKNOWN_RULE, fullRuleName));
         }
 
-        SimpleCounter counter = ruleCounters.get(fullRuleName);
         AlertingAttributes attr = new AlertingAttributes();
-        attr.setHourlyMatches(counter.getHourlyMatches());
-        attr.setDailyMatches(counter.getDailyMatches());
+        attr.setHourlyMatches(counter.hourlyMatches.get());
+        attr.setDailyMatches(counter.dailyMatches.get());
         return new AlertingResult(AlertingResult.StatusCode.OK, attr);
     }
+
+    private static class RuleCounter {
+        private final SlidingWindowCounter hourlyMatches;
+        private final SlidingWindowCounter dailyMatches;
+
+        RuleCounter(TimeProvider timeProvider) {
+            hourlyMatches = new SlidingWindowCounter(timeProvider, HOUR_WINDOW_MS, HOUR_WINDOW_BUCKETS);
+            dailyMatches = new SlidingWindowCounter(timeProvider, DAY_WINDOW_MS, DAY_WINDOW_BUCKETS);
+        }
+    }
 }
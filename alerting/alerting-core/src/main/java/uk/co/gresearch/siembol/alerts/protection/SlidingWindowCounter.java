@@ -0,0 +1,64 @@
+package uk.co.gresearch.siembol.alerts.protection;
+
+import uk.co.gresearch.siembol.common.utils.TimeProvider;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free counter of events in a sliding time window.
+ * The window is split into buckets. Every bucket stores its bucket id in the upper 32 bits
+ * and the number of events in the lower 32 bits, so it can be reset and incremented by a single CAS.
+ * Buckets that are older than the window are ignored when the counter is evaluated.
+ */
+public class SlidingWindowCounter {
+    private static final String WRONG_ARGUMENTS_MSG = "Window size and number of buckets should be positive";
+    private static final int COUNT_BITS = 32;
+    private static final long COUNT_MASK = 0xFFFFFFFFL;
+
+    private final TimeProvider timeProvider;
+    private final long bucketSizeMs;
+    private final AtomicLongArray buckets;
+
+    public SlidingWindowCounter(long windowSizeMs, int numBuckets) {
+        this(new TimeProvider(), windowSizeMs, numBuckets);
+    }
+
+    SlidingWindowCounter(TimeProvider timeProvider, long windowSizeMs, int numBuckets) {
+        if (windowSizeMs <= 0 || numBuckets <= 0 || windowSizeMs < numBuckets) {
+            throw new IllegalArgumentException(WRONG_ARGUMENTS_MSG);
+        }
+
+        this.timeProvider = timeProvider;
+        this.bucketSizeMs = windowSizeMs / numBuckets;
+        this.buckets = new AtomicLongArray(numBuckets);
+    }
+
+    public int incrementAndGet() {
+        long bucketId = getCurrentBucketId();
+        int index = (int) (bucketId % buckets.length());
+        long stamp = bucketId << COUNT_BITS;
+        buckets.getAndUpdate(index, x -> (x & ~COUNT_MASK) == stamp ? x + 1 : stamp | 1);
+        return sum(bucketId);
+    }
+
+    public int get() {
+        return sum(getCurrentBucketId());
+    }
+
+    private long getCurrentBucketId() {
+        return (timeProvider.getCurrentTimeInMs() / bucketSizeMs) & COUNT_MASK;
+    }
+
+    private int sum(long currentBucketId) {
+        long ret = 0;
+        long oldestBucketId = currentBucketId - buckets.length();
+        for (int i = 0; i < buckets.length(); i++) {
+            long bucket = buckets.get(i);
+            long bucketId = bucket >>> COUNT_BITS;
+            if (bucketId > oldestBucketId && bucketId <= currentBucketId) {
+                ret += bucket & COUNT_MASK;
+            }
+        }
+        return (int) Math.min(ret, Integer.MAX_VALUE);
+    }
+}
@@ -11,6 +11,7 @@ import uk.co.gresearch.siembol.alerts.common.*;
 
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 
@@ -146,4 +147,18 @@ public class CorrelationEngineTest {
         Mockito.verify(rule2, times(1)).clean(currentTime);
         Mockito.verify(timeProvider, times(1)).getCurrentTimeInMs();
     }
+
+    @Test
+    public void testAlertNamesAndStateSize() {
+        when(rule1.getFullRuleName()).thenReturn("rule1_v1");
+        when(rule2.getFullRuleName()).thenReturn("rule2_v1");
+        when(rule1.getStateSize()).thenReturn(3);
+        when(rule2.getStateSize()).thenReturn(0);
+
+        CorrelationEngineImpl correlationEngine = (CorrelationEngineImpl) engine;
+        Assert.assertEquals(new HashSet<>(Arrays.asList("alert1", "alert2")), correlationEngine.getAlertNames());
+        Map<String, Integer> stateSize = correlationEngine.getRulesStateSize();
+        Assert.assertEquals(Integer.valueOf(3), stateSize.get("rule1_v1"));
+        Assert.assertEquals(Integer.valueOf(0), stateSize.get("rule2_v1"));
+    }
 }
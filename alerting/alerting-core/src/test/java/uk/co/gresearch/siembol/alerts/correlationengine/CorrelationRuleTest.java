@@ -225,6 +225,19 @@ public class CorrelationRuleTest {
     }
 
 
+    @Test
+    public void stateSize() {
+        rule = builder.build();
+        Assert.assertEquals(0, rule.getStateSize());
+        createAlert(1, correlationKey, "alert1", 30000).forEach(x -> rule.match(x));
+        createAlert(3, correlationKey, "alert2", 30001).forEach(x -> rule.match(x));
+        createAlert(1, "5.6.7.8", "alert3", 30002).forEach(x -> rule.match(x));
+        Assert.assertEquals(4, rule.getStateSize());
+
+        rule.clean(30002 + timeWindowInMs + maxTimeLagInSec * 1000 + 1);
+        Assert.assertEquals(0, rule.getStateSize());
+    }
+
     private List<Map<String, Object>> createAlert(int numbers, String key, String alertName, long processingTime) {
         Map<String, Object> alert = new HashMap<>();
         alert.put(AlertingFields.RULE_NAME.getAlertingName(), alertName);
@@ -11,10 +11,13 @@ import uk.co.gresearch.siembol.alerts.common.EvaluationResult;
 import uk.co.gresearch.siembol.alerts.common.AlertingEngine;
 import uk.co.gresearch.siembol.alerts.common.AlertingFields;
 import uk.co.gresearch.siembol.alerts.common.AlertingResult;
+import uk.co.gresearch.siembol.alerts.protection.RuleProtectionSystemImpl;
 
 import java.util.*;
 
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.mockito.internal.verification.VerificationModeFactory.times;
 
 public class AlertingEngineImplTest {
     /**
@@ -178,6 +181,91 @@ public class AlertingEngineImplTest {
         Assert.assertEquals(EvaluationResult.NO_MATCH, ret.getAttributes().getEvaluationResult());
     }
 
+    @Test
+    public void testRuleProtection() {
+        protections = Arrays.asList(Pair.of(AlertingFields.MAX_PER_HOUR_FIELD.getAlertingName(), 1),
+                Pair.of(AlertingFields.MAX_PER_DAY_FIELD.getAlertingName(), 10));
+        when(rule1.getProtections()).thenReturn(new ArrayList<>());
+        when(rule2.getProtections()).thenReturn(
+                Arrays.asList(Pair.of(AlertingFields.MAX_PER_HOUR_FIELD.getAlertingName(), 2),
+                        Pair.of(AlertingFields.MAX_PER_DAY_FIELD.getAlertingName(), 10)));
+
+        engine = new AlertingEngineImpl.Builder()
+                .constants(constants)
+                .protections(protections)
+                .ruleProtection(new RuleProtectionSystemImpl())
+                .rules(rules)
+                .sourceField("source_type")
+                .wildcardSource("*")
+                .build();
+
+        AlertingResult ret = engine.evaluate(knownSourceType);
+        Assert.assertEquals(AlertingResult.StatusCode.OK, ret.getStatusCode());
+        Assert.assertEquals(2, ret.getAttributes().getOutputEvents().size());
+        Assert.assertNull(ret.getAttributes().getExceptionEvents());
+
+        ret = engine.evaluate(knownSourceType);
+        Assert.assertEquals(AlertingResult.StatusCode.OK, ret.getStatusCode());
+        Assert.assertEquals(EvaluationResult.MATCH, ret.getAttributes().getEvaluationResult());
+        Assert.assertEquals(1, ret.getAttributes().getOutputEvents().size());
+        Assert.assertEquals("rule2_v1",
+                ret.getAttributes().getOutputEvents().get(0).get("siembol_alerts_full_rule_name"));
+        Assert.assertEquals(1, ret.getAttributes().getExceptionEvents().size());
+        Assert.assertEquals("rule1_v1",
+                ret.getAttributes().getExceptionEvents().get(0).get("siembol_alerts_full_rule_name"));
+        Assert.assertTrue(ret.getAttributes().getExceptionEvents().get(0)
+                .get(AlertingFields.EXCEPTION.getAlertingName()).toString()
+                .contains("The rule: rule1_v1 reaches the limit"));
+        Assert.assertFalse(ret.getAttributes().getExceptionEvents().get(0).containsKey("source_type"));
+
+        ret = engine.evaluate(knownSourceType);
+        Assert.assertEquals(AlertingResult.StatusCode.OK, ret.getStatusCode());
+        Assert.assertEquals(EvaluationResult.NO_MATCH, ret.getAttributes().getEvaluationResult());
+        Assert.assertNull(ret.getAttributes().getOutputEvents());
+        Assert.assertEquals(2, ret.getAttributes().getExceptionEvents().size());
+        verify(rule1, times(1)).addOutputFieldsToEvent(ArgumentMatchers.<Map<String, Object>>any());
+        verify(rule2, times(2)).addOutputFieldsToEvent(ArgumentMatchers.<Map<String, Object>>any());
+    }
+
+    @Test
+    public void testNoRuleProtectionWithoutLimits() {
+        when(rule1.getProtections()).thenReturn(new ArrayList<>());
+        when(rule2.getProtections()).thenReturn(new ArrayList<>());
+
+        engine = new AlertingEngineImpl.Builder()
+                .constants(constants)
+                .protections(protections)
+                .ruleProtection(new RuleProtectionSystemImpl())
+                .rules(rules)
+                .sourceField("source_type")
+                .wildcardSource("*")
+                .build();
+
+        for (int i = 0; i < 3; i++) {
+            AlertingResult ret = engine.evaluate(knownSourceType);
+            Assert.assertEquals(AlertingResult.StatusCode.OK, ret.getStatusCode());
+            Assert.assertEquals(2, ret.getAttributes().getOutputEvents().size());
+            Assert.assertNull(ret.getAttributes().getExceptionEvents());
+        }
+    }
+
+    @Test
+    public void testRulesReferencedFields() {
+        when(rule1.getReferencedFields()).thenReturn(new HashSet<>(Arrays.asList("a", "b")));
+        when(rule2.getReferencedFields()).thenReturn(new HashSet<>(Arrays.asList("c")));
+        when(rule1.getRequiredFields()).thenReturn(new HashSet<>(Arrays.asList("a")));
+        when(rule2.getRequiredFields()).thenReturn(new HashSet<>());
+        when(rule2.getTagsReferencedFields()).thenReturn(new HashSet<>(Arrays.asList("d")));
+
+        Map<String, Set<String>> rulesFields = engine.getRulesReferencedFields().get();
+        Assert.assertEquals(2, rulesFields.size());
+        Assert.assertEquals(new HashSet<>(Arrays.asList("a", "b")), rulesFields.get("rule1_v1"));
+        Assert.assertEquals(new HashSet<>(Arrays.asList("c")), rulesFields.get("rule2_v1"));
+        Assert.assertEquals(new HashSet<>(Arrays.asList("source_type", "a", "b", "c", "d")),
+                engine.getReferencedFields().get());
+        Assert.assertEquals(2, engine.getRulesRequiredFields().get().size());
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void missingRules()  {
         engine = new AlertingEngineImpl.Builder()
@@ -175,4 +175,35 @@ public class RuleTest {
                 .protections(protections)
                 .build();
     }
+
+    @Test
+    public void testReferencedAndRequiredFields() {
+        RuleMatcher negatedMatcher = IsInSetMatcher.builder()
+                .data("1.2.3.4\n${ip_dst_addr}")
+                .fieldName("ip_src_addr")
+                .isNegated(true)
+                .build();
+        RuleMatcher regexMatcher = RegexMatcher.builder()
+                .pattern("http://(?<host>[^/]*).*")
+                .fieldName("url")
+                .build();
+        RuleMatcher hostMatcher = IsInSetMatcher.builder()
+                .data("evil.com")
+                .fieldName("host")
+                .build();
+
+        rule = Rule.builder()
+                .matchers(Arrays.asList(negatedMatcher, regexMatcher, hostMatcher))
+                .name(name)
+                .version(version)
+                .tags(Arrays.asList(Pair.of("detection_source", "alerts"),
+                        Pair.of("analyst_note", "${user} visited ${host}")))
+                .protections(protections)
+                .build();
+
+        Assert.assertEquals(new HashSet<>(Arrays.asList("ip_src_addr", "ip_dst_addr", "url", "host")),
+                rule.getReferencedFields());
+        Assert.assertEquals(new HashSet<>(Arrays.asList("user", "host")), rule.getTagsReferencedFields());
+        Assert.assertEquals(new HashSet<>(Arrays.asList("url")), rule.getRequiredFields());
+    }
 }
@@ -0,0 +1,83 @@
+package uk.co.gresearch.siembol.alerts.protection;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import uk.co.gresearch.siembol.common.utils.TimeProvider;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+
+public class SlidingWindowCounterTest {
+    private TimeProvider provider;
+    private SlidingWindowCounter counter;
+    private final long windowSize = 60000L;
+    private final int numBuckets = 60;
+    private final long startTime = 1000L * windowSize;
+
+    @Before
+    public void setUp() {
+        provider = Mockito.mock(TimeProvider.class);
+        when(provider.getCurrentTimeInMs()).thenReturn(startTime);
+        counter = new SlidingWindowCounter(provider, windowSize, numBuckets);
+    }
+
+    @Test
+    public void testNoChange() {
+        Assert.assertEquals(0, counter.get());
+        Assert.assertEquals(1, counter.incrementAndGet());
+        Assert.assertEquals(2, counter.incrementAndGet());
+        Assert.assertEquals(2, counter.get());
+    }
+
+    @Test
+    public void testSlidingBuckets() {
+        counter.incrementAndGet();
+        when(provider.getCurrentTimeInMs()).thenReturn(startTime + windowSize / 2);
+        Assert.assertEquals(2, counter.incrementAndGet());
+
+        when(provider.getCurrentTimeInMs()).thenReturn(startTime + windowSize);
+        Assert.assertEquals(1, counter.get());
+        Assert.assertEquals(2, counter.incrementAndGet());
+
+        when(provider.getCurrentTimeInMs()).thenReturn(startTime + 2 * windowSize);
+        Assert.assertEquals(0, counter.get());
+    }
+
+    @Test
+    public void testReuseOfExpiredBucket() {
+        counter.incrementAndGet();
+        counter.incrementAndGet();
+        when(provider.getCurrentTimeInMs()).thenReturn(startTime + 3 * windowSize);
+        Assert.assertEquals(1, counter.incrementAndGet());
+    }
+
+    @Test
+    public void testConcurrentIncrements() throws InterruptedException {
+        int numThreads = 4;
+        int numIncrements = 10000;
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < numThreads; i++) {
+            Thread thread = new Thread(() -> {
+                for (int j = 0; j < numIncrements; j++) {
+                    counter.incrementAndGet();
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assert.assertEquals(numThreads * numIncrements, counter.get());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWrongArguments() {
+        new SlidingWindowCounter(provider, windowSize, 0);
+    }
+}
@@ -2,11 +2,14 @@ package uk.co.gresearch.siembol.spark;
 import org.apache.spark.SparkConf;
 import org.apache.spark.api.java.JavaSparkContext;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import uk.co.gresearch.siembol.alerts.common.AlertingEngineType;
 
 import java.util.Base64;
 
 public class AlertingSpark {
     private static final String OUT_MSG = "Matches total: %d\n, Exceptions total:%d\n, Matches: %s\n, Exceptions: %s\n";
+    private static final String CORRELATION_OUT_MSG = "Alerts total: %d\n, Exceptions total:%d\n, Exceptions: %s\n";
+    private static final String RULES_STATS_MSG = "Rules statistics: %s\n";
     private static final String APP_NAME = "AlertingSpark";
     private static final String MISSING_ATTRIBUTES = "Missing testing attributes";
     public static void main(String[] args) throws Exception {
@@ -22,18 +25,41 @@ public class AlertingSpark {
         JavaSparkContext sc = new JavaSparkContext(new SparkConf()
                 .setAppName(APP_NAME));
 
-        AlertingSparkJob job = new AlertingSparkJob.Builder()
+        if (AlertingEngineType.valueOfName(attributes.getAlertingEngine())
+                == AlertingEngineType.SIEMBOL_CORRELATION_ALERTS) {
+            evaluateCorrelationRules(sc, attributes);
+        } else {
+            evaluateRules(sc, attributes);
+        }
+    }
+
+    private static void evaluateRules(JavaSparkContext sc, AlertingSparkAttributes attributes) throws Exception {
+        AlertingSparkResult ret = attributes.getCachePath() == null
+                ? new AlertingSparkJob.Builder()
                 .sparkContext(sc)
                 .suffix(attributes.getSuffix())
+                .inputFormat(attributes.getInputFormat())
                 .logPath(attributes.getLogPath())
                 .maxResult(attributes.getMaxResult())
                 .alertingRules(attributes.getRules())
                 .fromDate(attributes.getFromDate())
                 .toDate(attributes.getToDate())
                 .sourceType(attributes.getSourceType())
-                .build();
-
-        AlertingSparkResult ret = job.eval();
+                .build()
+                .eval()
+                : new IncrementalAlertingSparkJob.Builder()
+                .sparkContext(sc)
+                .cachePath(attributes.getCachePath())
+                .suffix(attributes.getSuffix())
+                .inputFormat(attributes.getInputFormat())
+                .logPath(attributes.getLogPath())
+                .maxResult(attributes.getMaxResult())
+                .alertingRules(attributes.getRules())
+                .fromDate(attributes.getFromDate())
+                .toDate(attributes.getToDate())
+                .sourceType(attributes.getSourceType())
+                .build()
+                .eval();
         sc.close();
 
         System.out.printf(OUT_MSG,
@@ -41,5 +67,34 @@ public class AlertingSpark {
                 ret.getExceptionsTotal(),
                 String.join("\n", ret.getMatches()),
                 String.join("\n", ret.getExceptions()));
+        System.out.printf(RULES_STATS_MSG, new ObjectMapper()
+                .writerWithDefaultPrettyPrinter()
+                .writeValueAsString(ret.getRulesStats()));
+    }
+
+    private static void evaluateCorrelationRules(JavaSparkContext sc,
+                                                 AlertingSparkAttributes attributes) throws Exception {
+        CorrelationSparkJob job = new CorrelationSparkJob.Builder()
+                .sparkContext(sc)
+                .suffix(attributes.getSuffix())
+                .logPath(attributes.getLogPath())
+                .maxResult(attributes.getMaxResult())
+                .numPartitions(attributes.getNumPartitions())
+                .correlationRules(attributes.getRules())
+                .fromDate(attributes.getFromDate())
+                .toDate(attributes.getToDate())
+                .sourceType(attributes.getSourceType())
+                .build();
+
+        CorrelationSparkResult ret = job.eval();
+        sc.close();
+
+        System.out.printf(CORRELATION_OUT_MSG,
+                ret.getAlertsTotal(),
+                ret.getExceptionsTotal(),
+                String.join("\n", ret.getExceptions()));
+        System.out.printf(RULES_STATS_MSG, new ObjectMapper()
+                .writerWithDefaultPrettyPrinter()
+                .writeValueAsString(ret.getRulesStats()));
     }
 }
@@ -15,8 +15,16 @@ public class AlertingSparkAttributes {
     private String toDate;
     private String rules;
     private String suffix = "snappy";
+    @JsonProperty("input_format")
+    private InputFormat inputFormat = InputFormat.TEXT;
     @JsonProperty("log_path")
     private String logPath;
+    @JsonProperty("alerting_engine")
+    private String alertingEngine = "siembol_alerts";
+    @JsonProperty("num_partitions")
+    private Integer numPartitions;
+    @JsonProperty("cache_path")
+    private String cachePath;
 
     public String getSourceType() {
         return sourceType;
@@ -71,6 +79,38 @@ public class AlertingSparkAttributes {
         this.suffix = suffix;
     }
 
+    public InputFormat getInputFormat() {
+        return inputFormat;
+    }
+
+    public void setInputFormat(InputFormat inputFormat) {
+        this.inputFormat = inputFormat;
+    }
+
+    public String getAlertingEngine() {
+        return alertingEngine;
+    }
+
+    public void setAlertingEngine(String alertingEngine) {
+        this.alertingEngine = alertingEngine;
+    }
+
+    public Integer getNumPartitions() {
+        return numPartitions;
+    }
+
+    public void setNumPartitions(Integer numPartitions) {
+        this.numPartitions = numPartitions;
+    }
+
+    public String getCachePath() {
+        return cachePath;
+    }
+
+    public void setCachePath(String cachePath) {
+        this.cachePath = cachePath;
+    }
+
     public String getLogPath() {
         return logPath;
     }
@@ -0,0 +1,83 @@
+package uk.co.gresearch.siembol.spark;
+
+import org.apache.commons.lang3.SerializationUtils;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Cache of backtesting results stored in a Hadoop compatible file system (local, hdfs, ...).
+ * An entry is identified by a content key and a date partition and it is stored in a file cache_path/key/date.
+ */
+public class AlertingSparkCache {
+    private static final String HASH_ALGORITHM = "SHA-256";
+    private static final String TMP_FILE_FORMAT = ".%s.tmp";
+    private static final String HASH_SEPARATOR = "\n";
+    private final FileSystem fileSystem;
+    private final Path cachePath;
+
+    public AlertingSparkCache(String cachePath, Configuration configuration) throws IOException {
+        this.fileSystem = FileSystem.get(URI.create(cachePath), configuration);
+        this.cachePath = new Path(cachePath);
+    }
+
+    public Optional<AlertingSparkResult> get(String key, String date) throws IOException {
+        Path path = getPath(key, date);
+        if (!fileSystem.exists(path)) {
+            return Optional.empty();
+        }
+
+        try (FSDataInputStream is = fileSystem.open(path)) {
+            return Optional.of(SerializationUtils.<AlertingSparkResult>deserialize(is));
+        } catch (Exception e) {
+            //NOTE: corrupted or incompatible entries are evaluated again
+            return Optional.empty();
+        }
+    }
+
+    public void put(String key, String date, AlertingSparkResult result) throws IOException {
+        Path path = getPath(key, date);
+        Path tmpPath = new Path(path.getParent(), String.format(TMP_FILE_FORMAT, UUID.randomUUID()));
+        try (FSDataOutputStream os = fileSystem.create(tmpPath, true)) {
+            SerializationUtils.serialize(result, os);
+        }
+
+        fileSystem.delete(path, false);
+        if (!fileSystem.rename(tmpPath, path)) {
+            fileSystem.delete(tmpPath, false);
+            throw new IOException(String.format("Can not store cache entry %s", path));
+        }
+    }
+
+    public static String getKey(String... parts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance(HASH_ALGORITHM);
+            for (String part : parts) {
+                digest.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+                digest.update(HASH_SEPARATOR.getBytes(StandardCharsets.UTF_8));
+            }
+
+            StringBuilder sb = new StringBuilder();
+            for (byte b : digest.digest()) {
+                sb.append(String.format("%02x", b));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Path getPath(String key, String date) {
+        return new Path(new Path(cachePath, key), date);
+    }
+}
@@ -1,29 +1,83 @@
 package uk.co.gresearch.siembol.spark;
 
 import uk.co.gresearch.siembol.alerts.common.AlertingEngine;
+import uk.co.gresearch.siembol.alerts.common.AlertingResult;
 import uk.co.gresearch.siembol.alerts.compiler.AlertingRulesCompiler;
 
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public class AlertingSparkEngine implements Serializable {
     private static final long serialVersionUID = 1L;
+    private static final int MAX_COMPILED_ENGINES = 4;
+    //NOTE: engines are shared by all tasks of an executor so the rules are compiled once per executor.
+    //The least recently used engines are evicted in order to bound the memory of long living processes
+    private static final Map<String, AlertingEngine> COMPILED_ENGINES =
+            new LinkedHashMap<String, AlertingEngine>(MAX_COMPILED_ENGINES + 1, 1.0f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, AlertingEngine> eldest) {
+                    return size() > MAX_COMPILED_ENGINES;
+                }
+            };
     private transient AlertingEngine alertingEngine;
+    private transient Map<String, Set<String>> rulesFields;
     private String rules;
 
     public AlertingSparkResult eval(String event, int maxResult) {
-        return new AlertingSparkResult(alertingEngine.evaluate(event), maxResult);
+        return eval(event, AlertingSparkResult.emptyResult(maxResult));
+    }
+
+    public AlertingSparkResult eval(String event, AlertingSparkResult result) {
+        return result.add(alertingEngine.evaluate(event), rulesFields);
     }
 
     public AlertingSparkEngine(String rules) throws Exception {
         this.rules = rules;
-        alertingEngine = AlertingRulesCompiler
-                .createAlertingRulesCompiler()
-                .compile(rules)
-                .getAttributes()
-                .getEngine();
+        init();
+    }
+
+    public Set<String> getReferencedFields() {
+        return alertingEngine.getReferencedFields().orElse(new HashSet<>());
+    }
+
+    public List<Set<String>> getRulesRequiredFields() {
+        return alertingEngine.getRulesRequiredFields().orElse(new ArrayList<>());
+    }
+
+    private void init() throws Exception {
+        alertingEngine = getCompiledEngine(rules);
+        rulesFields = alertingEngine.getRulesReferencedFields().orElse(new HashMap<>());
+    }
+
+    private static synchronized AlertingEngine getCompiledEngine(String rules) throws Exception {
+        AlertingEngine engine = COMPILED_ENGINES.get(rules);
+        if (engine == null) {
+            AlertingResult compileResult = AlertingRulesCompiler
+                    .createAlertingRulesCompiler()
+                    .compile(rules);
+            if (compileResult.getStatusCode() != AlertingResult.StatusCode.OK) {
+                throw new IllegalArgumentException(compileResult.getAttributes().getException());
+            }
+
+            engine = compileResult.getAttributes().getEngine();
+            COMPILED_ENGINES.put(rules, engine);
+        }
+        return engine;
+    }
+
+    static synchronized int getCompiledEnginesSize() {
+        return COMPILED_ENGINES.size();
     }
 
     private void writeObject(ObjectOutputStream os) throws IOException {
@@ -33,11 +87,7 @@ public class AlertingSparkEngine implements Serializable {
     private void readObject(ObjectInputStream is) throws IOException, ClassNotFoundException {
         rules = is.readUTF();
         try {
-            alertingEngine = AlertingRulesCompiler
-                    .createAlertingRulesCompiler()
-                    .compile(rules)
-                    .getAttributes()
-                    .getEngine();
+            init();
         } catch (Exception e) {
             throw new IOException();
         }
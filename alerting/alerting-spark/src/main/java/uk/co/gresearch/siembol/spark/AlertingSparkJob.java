@@ -1,23 +1,41 @@
 package uk.co.gresearch.siembol.spark;
 
+import org.apache.spark.api.java.JavaPairRDD;
 import org.apache.spark.api.java.JavaRDD;
 import org.apache.spark.api.java.JavaSparkContext;
+import org.apache.spark.sql.Column;
+import org.apache.spark.sql.Dataset;
+import org.apache.spark.sql.Row;
+import org.apache.spark.sql.SparkSession;
+import scala.Tuple2;
+import uk.co.gresearch.siembol.common.constants.SiembolMessageFields;
 
 import java.io.Serializable;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
+import static org.apache.spark.sql.functions.col;
+import static org.apache.spark.sql.functions.lit;
+
 public class AlertingSparkJob implements Serializable {
     private static final long serialVersionUID = 1L;
+    private static final String MISSING_DATES_MSG = "Events are not split by dates in the alerts spark job";
     private final JavaRDD<String> rdd;
+    private final JavaPairRDD<String, String> datesRdd;
     private final AlertingSparkEngine alertingSparkEngine;
     private final int maxResult;
 
     public AlertingSparkJob(Builder builder) {
         this.rdd = builder.rdd;
+        this.datesRdd = builder.datesRdd;
         this.alertingSparkEngine = builder.alertingSparkEngine;
         this.maxResult = builder.maxResult;
     }
@@ -25,24 +43,46 @@ public class AlertingSparkJob implements Serializable {
     AlertingSparkResult eval() {
         return rdd
                 .filter(x -> !x.isEmpty())
-                .map(x -> alertingSparkEngine.eval(x, maxResult))
-                .filter(x -> !x.isEmpty())
-                .fold(AlertingSparkResult.emptyResult(maxResult), (x , y) -> x.merge(y));
+                .aggregate(AlertingSparkResult.emptyResult(maxResult),
+                        (x, y) -> alertingSparkEngine.eval(y, x),
+                        (x, y) -> x.merge(y));
+    }
+
+    /**
+     * Evaluates the events of all dates in a single job and returns the results split by date.
+     * Dates without any event are not present in the returned map.
+     */
+    Map<String, AlertingSparkResult> evalPerDate() {
+        if (datesRdd == null) {
+            throw new IllegalStateException(MISSING_DATES_MSG);
+        }
+
+        return new HashMap<>(datesRdd
+                .filter(x -> !x._2().isEmpty())
+                .aggregateByKey(AlertingSparkResult.emptyResult(maxResult),
+                        (x, y) -> alertingSparkEngine.eval(y, x),
+                        (x, y) -> x.merge(y))
+                .collectAsMap());
     }
 
     public static class Builder {
         private static final String MISSING_ARGUMENTS_MSG = "Missing arguments for alerts spark job";
         private static final String WRONG_DATE_MSG = "date_from should not be after date_to";
+        private static final String SOURCE_TYPE_FIELD = "source_type";
+        private static final String COLUMN_FORMAT = "`%s`";
         private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE;
         private int maxResult = 100;
         private String rules;
         private String logPath;
         private String suffix = "snappy";
+        private InputFormat inputFormat = InputFormat.TEXT;
         private JavaSparkContext sc;
         private JavaRDD<String> rdd;
+        private JavaPairRDD<String, String> datesRdd;
         private String sourceType;
         private String fromDate;
         private String toDate;
+        private List<String> dates;
         private AlertingSparkEngine alertingSparkEngine;
 
         public Builder alertingRules(String rules) {
@@ -70,6 +110,11 @@ public class AlertingSparkJob implements Serializable {
             return this;
         }
 
+        public Builder inputFormat(InputFormat inputFormat) {
+            this.inputFormat = inputFormat;
+            return this;
+        }
+
         public Builder sourceType(String sourceType) {
             this.sourceType = sourceType;
             return this;
@@ -85,6 +130,11 @@ public class AlertingSparkJob implements Serializable {
             return this;
         }
 
+        public Builder dates(List<String> dates) {
+            this.dates = dates;
+            return this;
+        }
+
         public Builder rdd(JavaRDD<String> rdd) {
             this.rdd = rdd;
             return this;
@@ -93,28 +143,106 @@ public class AlertingSparkJob implements Serializable {
         @SuppressWarnings({"unchecked", "rawtypes"})
         public AlertingSparkJob build() throws Exception {
             if (rules == null
+                    || inputFormat == null
                     || logPath == null
                     || sc == null
                     || sourceType == null
-                    || toDate == null
-                    || fromDate == null) {
+                    || (dates == null && (toDate == null || fromDate == null))) {
                 throw new IllegalArgumentException(MISSING_ARGUMENTS_MSG);
             }
 
             alertingSparkEngine = new AlertingSparkEngine(rules);
             if (rdd == null) {
-                List<String> paths = getPaths(logPath + sourceType, suffix, fromDate, toDate);
-                List<JavaRDD<String>> dateRddList = paths.stream()
-                        .map(x -> sc.textFile(x))
-                        .collect(Collectors.toList());
+                List<JavaPairRDD<String, String>> dateRddList = new ArrayList<>();
+                for (String date : dates != null ? dates : getDates(fromDate, toDate)) {
+                    JavaRDD<String> dateRdd = inputFormat.isColumnar()
+                            ? readColumnar(getPath(logPath + sourceType, null, date))
+                            : sc.textFile(getPath(logPath + sourceType, suffix, date));
+                    dateRddList.add(dateRdd.mapToPair(x -> new Tuple2<>(date, x)));
+                }
 
-                rdd = sc.union(dateRddList.toArray(new JavaRDD[dateRddList.size()]));
+                datesRdd = sc.union(dateRddList.toArray(new JavaPairRDD[dateRddList.size()]));
+                rdd = datesRdd.values();
             }
             return new AlertingSparkJob(this);
         }
 
-        private List<String> getPaths(String logPrefix, String suffix, String fromDate, String toDate) {
-            List<String> paths = new ArrayList<>();
+        private JavaRDD<String> readColumnar(String path) {
+            Dataset<Row> dataset = SparkSession.builder()
+                    .sparkContext(sc.sc())
+                    .getOrCreate()
+                    .read()
+                    .format(inputFormat.getName())
+                    .load(path);
+
+            Set<String> columns = new HashSet<>(Arrays.asList(dataset.columns()));
+            if (columns.contains(SOURCE_TYPE_FIELD)) {
+                dataset = dataset.filter(getColumn(SOURCE_TYPE_FIELD).equalTo(sourceType));
+            }
+
+            Column requiredFieldsFilter = getRequiredFieldsFilter(columns);
+            if (requiredFieldsFilter != null) {
+                dataset = dataset.filter(requiredFieldsFilter);
+            }
+
+            //NOTE: timestamp is not referenced by the rules but it is used in the rule statistics
+            Set<String> referencedFields = new HashSet<>(alertingSparkEngine.getReferencedFields());
+            referencedFields.add(SiembolMessageFields.TIMESTAMP.toString());
+            List<Column> referencedColumns = referencedFields.stream()
+                    .filter(columns::contains)
+                    .sorted()
+                    .map(this::getColumn)
+                    .collect(Collectors.toList());
+            if (!referencedColumns.isEmpty()) {
+                dataset = dataset.select(referencedColumns.toArray(new Column[referencedColumns.size()]));
+            }
+
+            return dataset.toJSON().javaRDD();
+        }
+
+        private Column getRequiredFieldsFilter(Set<String> columns) {
+            List<Set<String>> rulesRequiredFields = alertingSparkEngine.getRulesRequiredFields();
+            if (rulesRequiredFields.isEmpty()) {
+                return null;
+            }
+
+            Column ret = lit(false);
+            for (Set<String> requiredFields : rulesRequiredFields) {
+                if (requiredFields.isEmpty()) {
+                    return null;
+                }
+                if (!columns.containsAll(requiredFields)) {
+                    //NOTE: the rule can not match since some of its required fields are missing in the input
+                    continue;
+                }
+
+                Column ruleFilter = lit(true);
+                for (String field : requiredFields) {
+                    ruleFilter = ruleFilter.and(getColumn(field).isNotNull());
+                }
+                ret = ret.or(ruleFilter);
+            }
+            return ret;
+        }
+
+        private Column getColumn(String field) {
+            return col(String.format(COLUMN_FORMAT, field));
+        }
+
+        static List<String> getPaths(String logPrefix, String suffix, String fromDate, String toDate) {
+            return getDates(fromDate, toDate).stream()
+                    .map(x -> getPath(logPrefix, suffix, x))
+                    .collect(Collectors.toList());
+        }
+
+        static String getPath(String logPrefix, String suffix, String date) {
+            return suffix == null
+                    ? String.format("%s/%s", logPrefix, date)
+                    : String.format("%s/%s/*.%s", logPrefix, date, suffix);
+        }
+
+        static List<String> getDates(String fromDate, String toDate) {
+            List<String> dates = new ArrayList<>();
             LocalDate start = LocalDate.from(DATE_FORMATTER.parse(fromDate));
             LocalDate end = LocalDate.from(DATE_FORMATTER.parse(toDate));
             if (start.isAfter(end)) {
@@ -122,9 +250,9 @@ public class AlertingSparkJob implements Serializable {
             }
 
             for (LocalDate date = start; !date.isAfter(end); date = date.plusDays(1)) {
-                paths.add(String.format("%s/%s/*.%s", logPrefix, DATE_FORMATTER.format(date), suffix));
+                dates.add(DATE_FORMATTER.format(date));
             }
-            return paths;
+            return dates;
         }
     }
 }
@@ -5,51 +5,53 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectWriter;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import uk.co.gresearch.siembol.alerts.common.AlertingFields;
 import uk.co.gresearch.siembol.alerts.common.AlertingResult;
 
 import java.io.Serializable;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 
 public class AlertingSparkResult implements Serializable {
     private static final long serialVersionUID = 1L;
     private static final ObjectWriter JSON_WRITER = new ObjectMapper()
             .writerFor(new TypeReference<Map<String, Object>>() { });
     private static final String ERROR_STATUS_CODE_MSG = "Status code: %s";
+    private static final String UNKNOWN_RULE = "unknown";
     private final int maxResult;
     private int matchesTotal;
     private int exceptionsTotal;
-    private final ArrayList<String> matches;
+    private final LinkedHashMap<String, AlertingSparkRuleStats> rulesStats;
     private final ArrayList<String> exceptions;
 
     private AlertingSparkResult(int maxResult) {
         this.maxResult = maxResult;
         matchesTotal = 0;
         exceptionsTotal = 0;
-        matches = new ArrayList<>();
+        rulesStats = new LinkedHashMap<>();
         exceptions = new ArrayList<>();
     }
 
     public AlertingSparkResult(AlertingResult alertingResult, int maxResult) {
-        this.maxResult = maxResult;
-        ArrayList<String> allMatches = new ArrayList<>();
-        ArrayList<String> allExceptions = new ArrayList<>();
+        this(maxResult);
+        add(alertingResult, new HashMap<>());
+    }
+
+    public AlertingSparkResult add(AlertingResult alertingResult, Map<String, Set<String>> rulesFields) {
         if (alertingResult.getStatusCode() != AlertingResult.StatusCode.OK) {
             String exception = alertingResult.getAttributes().getException() == null
                     ? String.format(ERROR_STATUS_CODE_MSG, alertingResult.getStatusCode())
                     : alertingResult.getAttributes().getException();
 
-            allExceptions.add(exception);
+            addException(exception);
         }
 
         if (alertingResult.getAttributes().getExceptionEvents() != null) {
             alertingResult.getAttributes().getExceptionEvents()
                     .forEach( x -> {
                         try {
-                            allExceptions.add(JSON_WRITER.writeValueAsString(x));
+                            addExceptionEvent(x);
                         } catch (JsonProcessingException e) {
-                            allExceptions.add(ExceptionUtils.getStackTrace(e));
+                            addException(ExceptionUtils.getStackTrace(e));
                         }
                     });
         }
@@ -58,36 +60,62 @@ public class AlertingSparkResult implements Serializable {
             alertingResult.getAttributes().getOutputEvents()
                     .forEach( x -> {
                         try {
-                            allMatches.add(JSON_WRITER.writeValueAsString(x));
+                            addMatch(x, rulesFields);
                         } catch (Exception e) {
-                            allExceptions.add(ExceptionUtils.getStackTrace(e));
+                            addException(ExceptionUtils.getStackTrace(e));
                         }
                     });
         }
 
-        matchesTotal = allMatches.size();
-        exceptionsTotal = allExceptions.size();
-        matches = allMatches.size() > maxResult
-                ? new ArrayList<>(allMatches.subList(0, maxResult))
-                : allMatches;
+        return this;
+    }
+
+    private void addException(String exception) {
+        exceptionsTotal++;
+        if (exception != null && exceptions.size() < maxResult) {
+            exceptions.add(exception);
+        }
+    }
+
+    private void addExceptionEvent(Map<String, Object> exceptionEvent) throws JsonProcessingException {
+        Object ruleName = exceptionEvent.get(AlertingFields.FULL_RULE_NAME.getAlertingName());
+        if (ruleName == null) {
+            addException(exceptions.size() < maxResult ? JSON_WRITER.writeValueAsString(exceptionEvent) : null);
+            return;
+        }
 
-        exceptions = allExceptions.size() > maxResult
-                ? new ArrayList<>(allExceptions.subList(0, maxResult))
-                : allExceptions;
+        AlertingSparkRuleStats ruleStats = getRuleStats(ruleName.toString());
+        ruleStats.addException(ruleStats.acceptsException() ? JSON_WRITER.writeValueAsString(exceptionEvent) : null);
+        exceptionsTotal++;
+    }
+
+    private AlertingSparkRuleStats getRuleStats(String ruleName) {
+        return rulesStats.computeIfAbsent(ruleName, x -> new AlertingSparkRuleStats(maxResult));
+    }
+
+    private void addMatch(Map<String, Object> match, Map<String, Set<String>> rulesFields) throws Exception {
+        Object ruleName = match.get(AlertingFields.FULL_RULE_NAME.getAlertingName());
+        String ruleKey = ruleName == null ? UNKNOWN_RULE : ruleName.toString();
+
+        AlertingSparkRuleStats ruleStats = getRuleStats(ruleKey);
+        if (ruleStats.acceptsSample()) {
+            ruleStats.addSample(JSON_WRITER.writeValueAsString(match));
+        }
+        ruleStats.addMatch(match, rulesFields.getOrDefault(ruleKey, Collections.emptySet()));
+        matchesTotal++;
     }
 
     public AlertingSparkResult merge(AlertingSparkResult other) {
         matchesTotal += other.matchesTotal;
         exceptionsTotal += other.exceptionsTotal;
 
-        if (!other.matches.isEmpty()
-                && matches.size() < maxResult) {
-            other.matches.forEach(x -> {
-                if (matches.size() < maxResult) {
-                    matches.add(x);
-                }
-            });
-        }
+        other.rulesStats.forEach((k, v) -> {
+            if (rulesStats.containsKey(k)) {
+                rulesStats.get(k).merge(v);
+            } else {
+                rulesStats.put(k, v);
+            }
+        });
 
         if (!other.exceptions.isEmpty()
                 && exceptions.size() < maxResult) {
@@ -110,11 +138,40 @@ public class AlertingSparkResult implements Serializable {
     }
 
     public List<String> getMatches() {
-        return matches;
+        List<String> ret = new ArrayList<>();
+        rulesStats.values().forEach(x -> ret.addAll(x.getMatches()));
+        return ret;
+    }
+
+    public Map<String, AlertingSparkRuleStats> getRulesStats() {
+        return rulesStats;
     }
 
     public List<String> getExceptions() {
-        return exceptions;
+        List<String> ret = new ArrayList<>(exceptions);
+        rulesStats.values().forEach(x -> ret.addAll(x.getExceptions()));
+        return ret;
+    }
+
+    public AlertingSparkResult getRuleResult(String ruleName) {
+        AlertingSparkResult ret = new AlertingSparkResult(maxResult);
+        AlertingSparkRuleStats ruleStats = rulesStats.get(ruleName);
+        if (ruleStats != null) {
+            ret.rulesStats.put(ruleName, ruleStats);
+            ret.matchesTotal = (int) ruleStats.getMatchesTotal();
+            ret.exceptionsTotal = (int) ruleStats.getExceptionsTotal();
+        }
+        return ret;
+    }
+
+    public AlertingSparkResult getResultWithoutRules() {
+        AlertingSparkResult ret = new AlertingSparkResult(maxResult);
+        ret.exceptions.addAll(exceptions);
+        ret.exceptionsTotal = exceptionsTotal;
+        for (AlertingSparkRuleStats ruleStats : rulesStats.values()) {
+            ret.exceptionsTotal -= ruleStats.getExceptionsTotal();
+        }
+        return ret;
     }
 
     public boolean isEmpty() {
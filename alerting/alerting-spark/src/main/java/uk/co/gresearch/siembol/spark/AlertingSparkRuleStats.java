@@ -0,0 +1,127 @@
+package uk.co.gresearch.siembol.spark;
+
+import uk.co.gresearch.siembol.common.constants.SiembolMessageFields;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+public class AlertingSparkRuleStats implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private static final String UNKNOWN_DAY = "unknown";
+    private static final String OTHER_VALUES = "_other_values";
+    private final int maxResult;
+    private long matchesTotal;
+    private long exceptionsTotal;
+    private final TreeMap<String, Long> matchesPerDay;
+    private final TreeMap<String, HashMap<String, Long>> fieldsHistograms;
+    private final ArrayList<String> matches;
+    private final ArrayList<String> exceptions;
+
+    public AlertingSparkRuleStats(int maxResult) {
+        this.maxResult = maxResult;
+        matchesTotal = 0;
+        exceptionsTotal = 0;
+        matchesPerDay = new TreeMap<>();
+        fieldsHistograms = new TreeMap<>();
+        matches = new ArrayList<>();
+        exceptions = new ArrayList<>();
+    }
+
+    public void addMatch(Map<String, Object> event, Set<String> fields) {
+        matchesTotal++;
+        matchesPerDay.merge(getDay(event), 1L, Long::sum);
+        for (String field : fields) {
+            Object value = event.get(field);
+            if (value != null) {
+                addToHistogram(fieldsHistograms.computeIfAbsent(field, x -> new HashMap<>()), value.toString(), 1L);
+            }
+        }
+    }
+
+    public boolean acceptsSample() {
+        return matches.size() < maxResult;
+    }
+
+    public void addSample(String match) {
+        if (acceptsSample()) {
+            matches.add(match);
+        }
+    }
+
+    public boolean acceptsException() {
+        return exceptions.size() < maxResult;
+    }
+
+    public void addException(String exception) {
+        exceptionsTotal++;
+        if (exception != null && acceptsException()) {
+            exceptions.add(exception);
+        }
+    }
+
+    public AlertingSparkRuleStats merge(AlertingSparkRuleStats other) {
+        matchesTotal += other.matchesTotal;
+        exceptionsTotal += other.exceptionsTotal;
+        other.exceptions.forEach(x -> {
+            if (acceptsException()) {
+                exceptions.add(x);
+            }
+        });
+        other.matchesPerDay.forEach((k, v) -> matchesPerDay.merge(k, v, Long::sum));
+        other.fieldsHistograms.forEach((field, histogram) -> {
+            HashMap<String, Long> current = fieldsHistograms.computeIfAbsent(field, x -> new HashMap<>());
+            histogram.forEach((k, v) -> addToHistogram(current, k, v));
+        });
+        other.matches.forEach(this::addSample);
+        return this;
+    }
+
+    public long getMatchesTotal() {
+        return matchesTotal;
+    }
+
+    public long getExceptionsTotal() {
+        return exceptionsTotal;
+    }
+
+    public List<String> getExceptions() {
+        return exceptions;
+    }
+
+    public Map<String, Long> getMatchesPerDay() {
+        return matchesPerDay;
+    }
+
+    public Map<String, ? extends Map<String, Long>> getFieldsHistograms() {
+        return fieldsHistograms;
+    }
+
+    public List<String> getMatches() {
+        return matches;
+    }
+
+    private void addToHistogram(Map<String, Long> histogram, String value, long count) {
+        //NOTE: the number of distinct values is bounded, the rest is counted together
+        String key = histogram.containsKey(value) || histogram.size() < maxResult ? value : OTHER_VALUES;
+        histogram.merge(key, count, Long::sum);
+    }
+
+    private static String getDay(Map<String, Object> event) {
+        Object timestamp = event.get(SiembolMessageFields.TIMESTAMP.toString());
+        if (!(timestamp instanceof Number)) {
+            return UNKNOWN_DAY;
+        }
+
+        return Instant.ofEpochMilli(((Number) timestamp).longValue())
+                .atZone(ZoneOffset.UTC)
+                .toLocalDate()
+                .toString();
+    }
+}
@@ -0,0 +1,16 @@
+package uk.co.gresearch.siembol.spark;
+
+import scala.Tuple2;
+
+import java.io.Serializable;
+import java.util.Comparator;
+
+public class CorrelationKeyComparator implements Comparator<Tuple2<String, Long>>, Serializable {
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public int compare(Tuple2<String, Long> first, Tuple2<String, Long> second) {
+        int ret = first._1().compareTo(second._1());
+        return ret != 0 ? ret : Long.compare(first._2(), second._2());
+    }
+}
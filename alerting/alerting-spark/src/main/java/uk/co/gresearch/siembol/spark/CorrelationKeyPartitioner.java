@@ -0,0 +1,24 @@
+package uk.co.gresearch.siembol.spark;
+
+import org.apache.spark.Partitioner;
+import scala.Tuple2;
+
+public class CorrelationKeyPartitioner extends Partitioner {
+    private static final long serialVersionUID = 1L;
+    private final int numPartitions;
+
+    public CorrelationKeyPartitioner(int numPartitions) {
+        this.numPartitions = numPartitions;
+    }
+
+    @Override
+    public int numPartitions() {
+        return numPartitions;
+    }
+
+    @Override
+    public int getPartition(Object key) {
+        Object correlationKey = ((Tuple2<?, ?>) key)._1();
+        return Math.floorMod(correlationKey.hashCode(), numPartitions);
+    }
+}
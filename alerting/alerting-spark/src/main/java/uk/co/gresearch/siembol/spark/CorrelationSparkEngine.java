@@ -0,0 +1,109 @@
+package uk.co.gresearch.siembol.spark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import scala.Tuple2;
+import uk.co.gresearch.siembol.alerts.common.AlertingEngine;
+import uk.co.gresearch.siembol.alerts.common.AlertingFields;
+import uk.co.gresearch.siembol.alerts.common.AlertingResult;
+import uk.co.gresearch.siembol.alerts.compiler.AlertingCorrelationRulesCompiler;
+import uk.co.gresearch.siembol.alerts.correlationengine.CorrelationEngineImpl;
+import uk.co.gresearch.siembol.common.constants.SiembolMessageFields;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static uk.co.gresearch.siembol.alerts.common.AlertingTags.CORRELATION_KEY_TAG_NAME;
+
+public class CorrelationSparkEngine implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private static final ObjectReader JSON_READER = new ObjectMapper()
+            .readerFor(new TypeReference<Map<String, Object>>() { });
+    private static final String UNSUPPORTED_ENGINE_MSG = "Unsupported correlation alerting engine";
+    //NOTE: the state of all keys is removed when this time is used for cleaning
+    private static final long CLEAN_ALL_TIME = Long.MAX_VALUE / 2;
+    private transient Set<String> alertNames;
+    private String rules;
+
+    public CorrelationSparkEngine(String rules) throws Exception {
+        this.rules = rules;
+        alertNames = new HashSet<>(compile(new ReplayTimeProvider()).getAlertNames());
+    }
+
+    public Set<String> getAlertNames() {
+        return alertNames;
+    }
+
+    public List<Tuple2<Tuple2<String, Long>, String>> getSortingKey(String alert) {
+        List<Tuple2<Tuple2<String, Long>, String>> ret = new ArrayList<>();
+        try {
+            Map<String, Object> alertMap = JSON_READER.readValue(alert);
+            Object ruleName = alertMap.get(AlertingFields.RULE_NAME.getAlertingName());
+            Object key = alertMap.get(CORRELATION_KEY_TAG_NAME.toString());
+            Object timestamp = alertMap.get(SiembolMessageFields.TIMESTAMP.toString());
+            if (alertNames.contains(ruleName) && key instanceof String && timestamp instanceof Number) {
+                ret.add(new Tuple2<>(new Tuple2<>((String) key, ((Number) timestamp).longValue()), alert));
+            }
+        } catch (Exception e) {
+            //NOTE: alerts that can not be correlated are skipped
+        }
+        return ret;
+    }
+
+    public CorrelationSparkResult replay(Iterator<Tuple2<Tuple2<String, Long>, String>> sortedAlerts,
+                                         int maxResult) throws Exception {
+        ReplayTimeProvider timeProvider = new ReplayTimeProvider();
+        CorrelationEngineImpl engine = compile(timeProvider);
+        CorrelationSparkResult result = CorrelationSparkResult.emptyResult(maxResult);
+
+        String currentKey = null;
+        while (sortedAlerts.hasNext()) {
+            Tuple2<Tuple2<String, Long>, String> current = sortedAlerts.next();
+            if (currentKey != null && !currentKey.equals(current._1()._1())) {
+                timeProvider.setCurrentTimeInMs(CLEAN_ALL_TIME);
+                engine.clean();
+            }
+
+            currentKey = current._1()._1();
+            timeProvider.setCurrentTimeInMs(current._1()._2());
+            result.add(engine.evaluate(current._2()));
+            result.updateStateSize(engine.getRulesStateSize());
+        }
+        return result;
+    }
+
+    private CorrelationEngineImpl compile(ReplayTimeProvider timeProvider) throws Exception {
+        AlertingResult compileResult = AlertingCorrelationRulesCompiler
+                .createAlertingCorrelationRulesCompiler(null, timeProvider)
+                .compile(rules);
+        if (compileResult.getStatusCode() != AlertingResult.StatusCode.OK) {
+            throw new IllegalArgumentException(compileResult.getAttributes().getException());
+        }
+
+        AlertingEngine engine = compileResult.getAttributes().getEngine();
+        if (!(engine instanceof CorrelationEngineImpl)) {
+            throw new IllegalArgumentException(UNSUPPORTED_ENGINE_MSG);
+        }
+        return (CorrelationEngineImpl) engine;
+    }
+
+    private void writeObject(ObjectOutputStream os) throws IOException {
+        os.writeUTF(rules);
+        os.writeObject(new HashSet<>(alertNames));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream is) throws IOException, ClassNotFoundException {
+        rules = is.readUTF();
+        alertNames = (Set<String>) is.readObject();
+    }
+}
@@ -0,0 +1,127 @@
+package uk.co.gresearch.siembol.spark;
+
+import org.apache.spark.api.java.JavaRDD;
+import org.apache.spark.api.java.JavaSparkContext;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class CorrelationSparkJob implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private final JavaRDD<String> rdd;
+    private final CorrelationSparkEngine correlationSparkEngine;
+    private final int maxResult;
+    private final int numPartitions;
+
+    public CorrelationSparkJob(Builder builder) {
+        this.rdd = builder.rdd;
+        this.correlationSparkEngine = builder.correlationSparkEngine;
+        this.maxResult = builder.maxResult;
+        this.numPartitions = builder.numPartitions;
+    }
+
+    CorrelationSparkResult eval() {
+        return rdd
+                .filter(x -> !x.isEmpty())
+                .flatMapToPair(x -> correlationSparkEngine.getSortingKey(x).iterator())
+                .repartitionAndSortWithinPartitions(new CorrelationKeyPartitioner(numPartitions),
+                        new CorrelationKeyComparator())
+                .mapPartitions(x -> Collections.singletonList(correlationSparkEngine.replay(x, maxResult))
+                        .iterator())
+                .fold(CorrelationSparkResult.emptyResult(maxResult), (x, y) -> x.merge(y));
+    }
+
+    public static class Builder {
+        private static final String MISSING_ARGUMENTS_MSG = "Missing arguments for correlation alerts spark job";
+        private int maxResult = 100;
+        private Integer numPartitions;
+        private String rules;
+        private String logPath;
+        private String suffix = "snappy";
+        private JavaSparkContext sc;
+        private JavaRDD<String> rdd;
+        private String sourceType;
+        private String fromDate;
+        private String toDate;
+        private CorrelationSparkEngine correlationSparkEngine;
+
+        public Builder correlationRules(String rules) {
+            this.rules = rules;
+            return this;
+        }
+
+        public Builder maxResult(int maxResult) {
+            this.maxResult = maxResult;
+            return this;
+        }
+
+        public Builder numPartitions(Integer numPartitions) {
+            this.numPartitions = numPartitions;
+            return this;
+        }
+
+        public Builder sparkContext(JavaSparkContext sc) {
+            this.sc = sc;
+            return this;
+        }
+
+        public Builder logPath(String logPath) {
+            this.logPath = logPath;
+            return this;
+        }
+
+        public Builder suffix(String suffix) {
+            this.suffix = suffix;
+            return this;
+        }
+
+        public Builder sourceType(String sourceType) {
+            this.sourceType = sourceType;
+            return this;
+        }
+
+        public Builder fromDate(String fromDate) {
+            this.fromDate = fromDate;
+            return this;
+        }
+
+        public Builder toDate(String toDate) {
+            this.toDate = toDate;
+            return this;
+        }
+
+        public Builder rdd(JavaRDD<String> rdd) {
+            this.rdd = rdd;
+            return this;
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        public CorrelationSparkJob build() throws Exception {
+            if (rules == null
+                    || logPath == null
+                    || sc == null
+                    || sourceType == null
+                    || toDate == null
+                    || fromDate == null) {
+                throw new IllegalArgumentException(MISSING_ARGUMENTS_MSG);
+            }
+
+            correlationSparkEngine = new CorrelationSparkEngine(rules);
+            if (numPartitions == null) {
+                numPartitions = sc.defaultParallelism();
+            }
+
+            if (rdd == null) {
+                List<String> paths = AlertingSparkJob.Builder.getPaths(logPath + sourceType, suffix, fromDate, toDate);
+                List<JavaRDD<String>> dateRddList = paths.stream()
+                        .map(x -> sc.textFile(x))
+                        .collect(Collectors.toList());
+
+                rdd = sc.union(dateRddList.toArray(new JavaRDD[dateRddList.size()]));
+            }
+            return new CorrelationSparkJob(this);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package uk.co.gresearch.siembol.spark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import uk.co.gresearch.siembol.alerts.common.AlertingFields;
+import uk.co.gresearch.siembol.alerts.common.AlertingResult;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class CorrelationSparkResult implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private static final ObjectWriter JSON_WRITER = new ObjectMapper()
+            .writerFor(new TypeReference<Map<String, Object>>() { });
+    private static final String ERROR_STATUS_CODE_MSG = "Status code: %s";
+    private static final String UNKNOWN_RULE = "unknown";
+    private final int maxResult;
+    private long alertsTotal;
+    private long exceptionsTotal;
+    private final TreeMap<String, CorrelationSparkRuleStats> rulesStats;
+    private final ArrayList<String> exceptions;
+
+    private CorrelationSparkResult(int maxResult) {
+        this.maxResult = maxResult;
+        alertsTotal = 0;
+        exceptionsTotal = 0;
+        rulesStats = new TreeMap<>();
+        exceptions = new ArrayList<>();
+    }
+
+    public CorrelationSparkResult add(AlertingResult alertingResult) {
+        alertsTotal++;
+        if (alertingResult.getStatusCode() != AlertingResult.StatusCode.OK) {
+            addException(alertingResult.getAttributes().getException() == null
+                    ? String.format(ERROR_STATUS_CODE_MSG, alertingResult.getStatusCode())
+                    : alertingResult.getAttributes().getException());
+            return this;
+        }
+
+        if (alertingResult.getAttributes().getExceptionEvents() != null) {
+            alertingResult.getAttributes().getExceptionEvents().forEach(x -> addException(toJson(x)));
+        }
+
+        if (alertingResult.getAttributes().getOutputEvents() != null) {
+            alertingResult.getAttributes().getOutputEvents().forEach(this::addFire);
+        }
+        return this;
+    }
+
+    public void updateStateSize(Map<String, Integer> rulesStateSize) {
+        rulesStateSize.forEach((k, v) -> getRuleStats(k).updateStateSize(v));
+    }
+
+    public CorrelationSparkResult merge(CorrelationSparkResult other) {
+        alertsTotal += other.alertsTotal;
+        exceptionsTotal += other.exceptionsTotal;
+        other.rulesStats.forEach((k, v) -> getRuleStats(k).merge(v));
+        other.exceptions.forEach(x -> {
+            if (exceptions.size() < maxResult) {
+                exceptions.add(x);
+            }
+        });
+        return this;
+    }
+
+    public long getAlertsTotal() {
+        return alertsTotal;
+    }
+
+    public long getExceptionsTotal() {
+        return exceptionsTotal;
+    }
+
+    public List<String> getExceptions() {
+        return exceptions;
+    }
+
+    public Map<String, CorrelationSparkRuleStats> getRulesStats() {
+        return rulesStats;
+    }
+
+    public static CorrelationSparkResult emptyResult(int maxResult) {
+        return new CorrelationSparkResult(maxResult);
+    }
+
+    private void addFire(Map<String, Object> alert) {
+        Object ruleName = alert.get(AlertingFields.FULL_RULE_NAME.getCorrelationAlertingName());
+        CorrelationSparkRuleStats ruleStats = getRuleStats(ruleName == null ? UNKNOWN_RULE : ruleName.toString());
+        ruleStats.addFire();
+        if (ruleStats.acceptsSample()) {
+            ruleStats.addSample(toJson(alert));
+        }
+    }
+
+    private void addException(String exception) {
+        exceptionsTotal++;
+        if (exceptions.size() < maxResult) {
+            exceptions.add(exception);
+        }
+    }
+
+    private CorrelationSparkRuleStats getRuleStats(String ruleName) {
+        return rulesStats.computeIfAbsent(ruleName, x -> new CorrelationSparkRuleStats(maxResult));
+    }
+
+    private static String toJson(Map<String, Object> event) {
+        try {
+            return JSON_WRITER.writeValueAsString(event);
+        } catch (Exception e) {
+            return ExceptionUtils.getStackTrace(e);
+        }
+    }
+}
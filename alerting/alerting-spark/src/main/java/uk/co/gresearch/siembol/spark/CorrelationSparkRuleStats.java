@@ -0,0 +1,57 @@
+package uk.co.gresearch.siembol.spark;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+public class CorrelationSparkRuleStats implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private final int maxResult;
+    private long firesTotal;
+    private int peakStateSize;
+    private final ArrayList<String> matches;
+
+    public CorrelationSparkRuleStats(int maxResult) {
+        this.maxResult = maxResult;
+        firesTotal = 0;
+        peakStateSize = 0;
+        matches = new ArrayList<>();
+    }
+
+    public void addFire() {
+        firesTotal++;
+    }
+
+    public void updateStateSize(int stateSize) {
+        peakStateSize = Math.max(peakStateSize, stateSize);
+    }
+
+    public boolean acceptsSample() {
+        return matches.size() < maxResult;
+    }
+
+    public void addSample(String match) {
+        if (acceptsSample()) {
+            matches.add(match);
+        }
+    }
+
+    public CorrelationSparkRuleStats merge(CorrelationSparkRuleStats other) {
+        firesTotal += other.firesTotal;
+        peakStateSize = Math.max(peakStateSize, other.peakStateSize);
+        other.matches.forEach(this::addSample);
+        return this;
+    }
+
+    public long getFiresTotal() {
+        return firesTotal;
+    }
+
+    public int getPeakStateSize() {
+        return peakStateSize;
+    }
+
+    public List<String> getMatches() {
+        return matches;
+    }
+}
@@ -0,0 +1,276 @@
+package uk.co.gresearch.siembol.spark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.spark.api.java.JavaSparkContext;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Backtesting job that reuses results of previous runs.
+ * Results are cached per rule and date partition, so only rules with changed definitions
+ * and partitions without cached results are evaluated.
+ */
+public class IncrementalAlertingSparkJob {
+    private static final ObjectMapper JSON_MAPPER = new ObjectMapper();
+    private static final String RULES_FIELD = "rules";
+    private static final String RULES_VERSION_FIELD = "rules_version";
+    private static final String RULE_NAME_FIELD = "rule_name";
+    private static final String RULE_VERSION_FIELD = "rule_version";
+    private static final String FULL_RULE_NAME_FORMAT = "%s_v%d";
+    private static final String EVENTS_KEY = "events";
+
+    private final JavaSparkContext sc;
+    private final AlertingSparkCache cache;
+    private final ObjectNode rulesRoot;
+    private final LinkedHashMap<String, JsonNode> rules;
+    private final LinkedHashMap<String, String> rulesKeys;
+    private final String eventsKey;
+    private final List<String> dates;
+    private final String logPath;
+    private final String suffix;
+    private final InputFormat inputFormat;
+    private final String sourceType;
+    private final int maxResult;
+
+    private IncrementalAlertingSparkJob(Builder builder) {
+        this.sc = builder.sc;
+        this.cache = builder.cache;
+        this.rulesRoot = builder.rulesRoot;
+        this.rules = builder.rulesByName;
+        this.rulesKeys = builder.rulesKeys;
+        this.eventsKey = builder.eventsKey;
+        this.dates = builder.dates;
+        this.logPath = builder.logPath;
+        this.suffix = builder.suffix;
+        this.inputFormat = builder.inputFormat;
+        this.sourceType = builder.sourceType;
+        this.maxResult = builder.maxResult;
+    }
+
+    AlertingSparkResult eval() throws Exception {
+        Map<String, Map<String, AlertingSparkResult>> rulesResults = new HashMap<>();
+        Map<String, AlertingSparkResult> eventsResults = new HashMap<>();
+        Map<String, List<String>> missingRulesByDate = new LinkedHashMap<>();
+        Set<String> missingRules = new LinkedHashSet<>();
+        for (String date : dates) {
+            Map<String, AlertingSparkResult> dateResults = new HashMap<>();
+            List<String> dateMissingRules = new ArrayList<>();
+            cache.get(eventsKey, date).ifPresent(x -> eventsResults.put(date, x));
+            for (Map.Entry<String, String> ruleKey : rulesKeys.entrySet()) {
+                Optional<AlertingSparkResult> cached = cache.get(ruleKey.getValue(), date);
+                if (cached.isPresent()) {
+                    dateResults.put(ruleKey.getKey(), cached.get());
+                } else {
+                    dateMissingRules.add(ruleKey.getKey());
+                }
+            }
+            rulesResults.put(date, dateResults);
+            if (!dateMissingRules.isEmpty()) {
+                missingRulesByDate.put(date, dateMissingRules);
+                missingRules.addAll(dateMissingRules);
+            }
+        }
+
+        if (!missingRulesByDate.isEmpty()) {
+            //NOTE: all missing dates are evaluated in a single job and the results are split by date
+            Map<String, AlertingSparkResult> missingResults = evalDates(
+                    new ArrayList<>(missingRulesByDate.keySet()), missingRules);
+            LocalDate today = LocalDate.now(ZoneOffset.UTC);
+            for (String date : missingRulesByDate.keySet()) {
+                AlertingSparkResult dateResult = missingResults.getOrDefault(date,
+                        AlertingSparkResult.emptyResult(maxResult));
+                //NOTE: the partition of the current day can be still written so its results are not cached
+                boolean cacheable = LocalDate.parse(date).isBefore(today);
+                for (String rule : missingRulesByDate.get(date)) {
+                    AlertingSparkResult ruleResult = dateResult.getRuleResult(rule);
+                    rulesResults.get(date).put(rule, ruleResult);
+                    if (cacheable) {
+                        cache.put(rulesKeys.get(rule), date, ruleResult);
+                    }
+                }
+
+                AlertingSparkResult eventsResult = dateResult.getResultWithoutRules();
+                eventsResults.put(date, eventsResult);
+                if (cacheable) {
+                    cache.put(eventsKey, date, eventsResult);
+                }
+            }
+        }
+
+        AlertingSparkResult ret = AlertingSparkResult.emptyResult(maxResult);
+        for (String date : dates) {
+            if (eventsResults.containsKey(date)) {
+                ret.merge(eventsResults.get(date));
+            }
+            for (String rule : rulesKeys.keySet()) {
+                ret.merge(rulesResults.get(date).get(rule));
+            }
+        }
+        return ret;
+    }
+
+    private Map<String, AlertingSparkResult> evalDates(List<String> datesToEvaluate,
+                                                       Set<String> rulesNames) throws Exception {
+        ArrayNode rulesToEvaluate = JSON_MAPPER.createArrayNode();
+        rulesNames.forEach(x -> rulesToEvaluate.add(rules.get(x)));
+        ObjectNode rulesJson = rulesRoot.deepCopy();
+        rulesJson.set(RULES_FIELD, rulesToEvaluate);
+
+        return new AlertingSparkJob.Builder()
+                .sparkContext(sc)
+                .alertingRules(rulesJson.toString())
+                .logPath(logPath)
+                .suffix(suffix)
+                .inputFormat(inputFormat)
+                .sourceType(sourceType)
+                .maxResult(maxResult)
+                .dates(datesToEvaluate)
+                .build()
+                .evalPerDate();
+    }
+
+    static LinkedHashMap<String, JsonNode> getRulesByName(ObjectNode rulesRoot) {
+        LinkedHashMap<String, JsonNode> ret = new LinkedHashMap<>();
+        JsonNode rules = rulesRoot.get(RULES_FIELD);
+        if (rules == null || !rules.isArray()) {
+            throw new IllegalArgumentException(Builder.WRONG_RULES_MSG);
+        }
+
+        for (JsonNode rule : rules) {
+            if (!rule.hasNonNull(RULE_NAME_FIELD) || !rule.hasNonNull(RULE_VERSION_FIELD)) {
+                throw new IllegalArgumentException(Builder.WRONG_RULES_MSG);
+            }
+            ret.put(String.format(FULL_RULE_NAME_FORMAT,
+                    rule.get(RULE_NAME_FIELD).asText(),
+                    rule.get(RULE_VERSION_FIELD).asInt()), rule);
+        }
+        return ret;
+    }
+
+    static String getRuleKey(String context, ObjectNode rulesRoot, JsonNode rule) {
+        ObjectNode ruleJson = rulesRoot.deepCopy();
+        //NOTE: rules version is increased after any change of rules so it is not a part of the rule content
+        ruleJson.remove(RULES_VERSION_FIELD);
+        ruleJson.set(RULES_FIELD, JSON_MAPPER.createArrayNode().add(rule));
+        return AlertingSparkCache.getKey(context, ruleJson.toString());
+    }
+
+    public static class Builder {
+        private static final String MISSING_ARGUMENTS_MSG = "Missing arguments for incremental alerts spark job";
+        private static final String WRONG_RULES_MSG = "Wrong alerting rules for incremental alerts spark job";
+        private int maxResult = 100;
+        private String rules;
+        private String logPath;
+        private String suffix = "snappy";
+        private InputFormat inputFormat = InputFormat.TEXT;
+        private JavaSparkContext sc;
+        private String sourceType;
+        private String fromDate;
+        private String toDate;
+        private String cachePath;
+        private AlertingSparkCache cache;
+        private ObjectNode rulesRoot;
+        private LinkedHashMap<String, JsonNode> rulesByName;
+        private LinkedHashMap<String, String> rulesKeys;
+        private String eventsKey;
+        private List<String> dates;
+
+        public Builder alertingRules(String rules) {
+            this.rules = rules;
+            return this;
+        }
+
+        public Builder maxResult(int maxResult) {
+            this.maxResult = maxResult;
+            return this;
+        }
+
+        public Builder sparkContext(JavaSparkContext sc) {
+            this.sc = sc;
+            return this;
+        }
+
+        public Builder logPath(String logPath) {
+            this.logPath = logPath;
+            return this;
+        }
+
+        public Builder suffix(String suffix) {
+            this.suffix = suffix;
+            return this;
+        }
+
+        public Builder inputFormat(InputFormat inputFormat) {
+            this.inputFormat = inputFormat;
+            return this;
+        }
+
+        public Builder sourceType(String sourceType) {
+            this.sourceType = sourceType;
+            return this;
+        }
+
+        public Builder fromDate(String fromDate) {
+            this.fromDate = fromDate;
+            return this;
+        }
+
+        public Builder toDate(String toDate) {
+            this.toDate = toDate;
+            return this;
+        }
+
+        public Builder cachePath(String cachePath) {
+            this.cachePath = cachePath;
+            return this;
+        }
+
+        public IncrementalAlertingSparkJob build() throws IOException {
+            if (rules == null
+                    || inputFormat == null
+                    || logPath == null
+                    || sc == null
+                    || sourceType == null
+                    || toDate == null
+                    || fromDate == null
+                    || cachePath == null) {
+                throw new IllegalArgumentException(MISSING_ARGUMENTS_MSG);
+            }
+
+            JsonNode rulesNode = JSON_MAPPER.readTree(rules);
+            if (!rulesNode.isObject()) {
+                throw new IllegalArgumentException(WRONG_RULES_MSG);
+            }
+
+            rulesRoot = (ObjectNode) rulesNode;
+            rulesByName = getRulesByName(rulesRoot);
+            rulesRoot.remove(RULES_FIELD);
+
+            String context = AlertingSparkCache.getKey(logPath,
+                    sourceType,
+                    suffix,
+                    inputFormat.getName(),
+                    String.valueOf(maxResult));
+            rulesKeys = new LinkedHashMap<>();
+            rulesByName.forEach((k, v) -> rulesKeys.put(k, getRuleKey(context, rulesRoot, v)));
+            eventsKey = AlertingSparkCache.getKey(context, EVENTS_KEY);
+
+            dates = AlertingSparkJob.Builder.getDates(fromDate, toDate);
+            cache = new AlertingSparkCache(cachePath, sc.hadoopConfiguration());
+            return new IncrementalAlertingSparkJob(this);
+        }
+    }
+}
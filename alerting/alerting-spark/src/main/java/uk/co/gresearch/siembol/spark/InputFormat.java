@@ -0,0 +1,30 @@
+package uk.co.gresearch.siembol.spark;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public enum InputFormat {
+    @JsonProperty("text") TEXT("text", false),
+    @JsonProperty("parquet") PARQUET("parquet", true),
+    @JsonProperty("orc") ORC("orc", true);
+
+    private final String name;
+    private final boolean columnar;
+
+    InputFormat(String name, boolean columnar) {
+        this.name = name;
+        this.columnar = columnar;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isColumnar() {
+        return columnar;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
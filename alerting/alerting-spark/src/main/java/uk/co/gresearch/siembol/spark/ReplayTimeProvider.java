@@ -0,0 +1,29 @@
+package uk.co.gresearch.siembol.spark;
+
+import uk.co.gresearch.siembol.common.utils.TimeProvider;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+public class ReplayTimeProvider extends TimeProvider {
+    private long currentTime = 0;
+
+    public void setCurrentTimeInMs(long currentTime) {
+        this.currentTime = currentTime;
+    }
+
+    @Override
+    public int getDays() {
+        return Instant.ofEpochMilli(currentTime).atZone(ZoneOffset.UTC).getDayOfYear();
+    }
+
+    @Override
+    public int getHour() {
+        return Instant.ofEpochMilli(currentTime).atZone(ZoneOffset.UTC).getHour();
+    }
+
+    @Override
+    public long getCurrentTimeInMs() {
+        return currentTime;
+    }
+}
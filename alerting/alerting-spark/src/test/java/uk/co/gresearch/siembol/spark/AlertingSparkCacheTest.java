@@ -0,0 +1,117 @@
+package uk.co.gresearch.siembol.spark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.adrianwalker.multilinestring.Multiline;
+import org.apache.hadoop.conf.Configuration;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import uk.co.gresearch.siembol.alerts.common.AlertingAttributes;
+import uk.co.gresearch.siembol.alerts.common.AlertingResult;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+public class AlertingSparkCacheTest {
+    /**
+     *{
+     *  "rules_version" :1,
+     *  "tags" : [ { "tag_name" : "detection_source", "tag_value" : "siembol_alerts" } ],
+     *  "rules" : [ {
+     *      "rule_name" : "rule1",
+     *      "rule_version" : 1,
+     *      "rule_author" : "dummy",
+     *      "rule_description": "Testing rule",
+     *      "source_type" : "*",
+     *      "matchers" : [ {
+     *          "matcher_type" : "REGEX_MATCH",
+     *          "is_negated" : false,
+     *          "field" : "is_alert",
+     *          "data" : "(?i)true" }
+     *          ]
+     *  },
+     *  {
+     *      "rule_name" : "rule2",
+     *      "rule_version" : 3,
+     *      "rule_author" : "dummy",
+     *      "rule_description": "Testing rule",
+     *      "source_type" : "*",
+     *      "matchers" : [ {
+     *          "matcher_type" : "REGEX_MATCH",
+     *          "is_negated" : false,
+     *          "field" : "host",
+     *          "data" : "secret" }
+     *          ]
+     *  }]
+     *}
+     **/
+    @Multiline
+    public static String rules;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private AlertingSparkCache cache;
+    private AlertingSparkResult result;
+
+    @Before
+    public void setUp() throws Exception {
+        cache = new AlertingSparkCache(folder.getRoot().toURI().toString(), new Configuration());
+        Map<String, Object> match = new HashMap<>();
+        match.put("siembol_alerts_full_rule_name", "rule1_v1");
+        AlertingAttributes attributes = new AlertingAttributes();
+        attributes.setOutputEvents(Arrays.asList(match));
+        result = new AlertingSparkResult(new AlertingResult(AlertingResult.StatusCode.OK, attributes), 100);
+    }
+
+    @Test
+    public void missingEntry() throws Exception {
+        Assert.assertFalse(cache.get("key", "2021-01-01").isPresent());
+    }
+
+    @Test
+    public void putAndGet() throws Exception {
+        cache.put("key", "2021-01-01", result);
+        Optional<AlertingSparkResult> cached = cache.get("key", "2021-01-01");
+        Assert.assertTrue(cached.isPresent());
+        Assert.assertEquals(1, cached.get().getMatchesTotal());
+        Assert.assertEquals(1, cached.get().getRulesStats().get("rule1_v1").getMatchesTotal());
+        Assert.assertFalse(cache.get("key", "2021-01-02").isPresent());
+
+        cache.put("key", "2021-01-01", AlertingSparkResult.emptyResult(100));
+        Assert.assertTrue(cache.get("key", "2021-01-01").get().isEmpty());
+    }
+
+    @Test
+    public void rulesKeys() throws Exception {
+        ObjectNode rulesRoot = (ObjectNode) new ObjectMapper().readTree(rules);
+        Map<String, ?> rulesByName = IncrementalAlertingSparkJob.getRulesByName(rulesRoot);
+        Assert.assertEquals(Arrays.asList("rule1_v1", "rule2_v3"), Arrays.asList(rulesByName.keySet().toArray()));
+
+        String rule1Key = IncrementalAlertingSparkJob.getRuleKey("context",
+                rulesRoot, rulesRoot.get("rules").get(0));
+        String rule2Key = IncrementalAlertingSparkJob.getRuleKey("context",
+                rulesRoot, rulesRoot.get("rules").get(1));
+        Assert.assertNotEquals(rule1Key, rule2Key);
+
+        ObjectNode changedRoot = (ObjectNode) new ObjectMapper().readTree(rules
+                .replace("\"rules_version\" :1", "\"rules_version\" :2")
+                .replace("secret", "public"));
+        Assert.assertEquals(rule1Key, IncrementalAlertingSparkJob.getRuleKey("context",
+                changedRoot, changedRoot.get("rules").get(0)));
+        Assert.assertNotEquals(rule2Key, IncrementalAlertingSparkJob.getRuleKey("context",
+                changedRoot, changedRoot.get("rules").get(1)));
+        Assert.assertNotEquals(rule1Key, IncrementalAlertingSparkJob.getRuleKey("other_context",
+                rulesRoot, rulesRoot.get("rules").get(0)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void missingRules() throws Exception {
+        IncrementalAlertingSparkJob.getRulesByName(new ObjectMapper().createObjectNode());
+    }
+}
@@ -60,4 +60,15 @@ public class AlertingSparkEngineTest {
         Assert.assertTrue(ret.getExceptions().equals(retClone.getExceptions()));
         Assert.assertTrue(ret.getMatches().equals(retClone.getMatches()));
     }
+
+    @Test
+    public void compiledEnginesBoundedTest() throws Exception {
+        for (int i = 1; i <= 10; i++) {
+            AlertingSparkEngine engine = new AlertingSparkEngine(
+                    isAlertRules.replace("\"rules_version\" :1", String.format("\"rules_version\" :%d", i)));
+            Assert.assertEquals(1, engine.eval(goodAlert, 100).getMatchesTotal());
+            Assert.assertTrue(AlertingSparkEngine.getCompiledEnginesSize() <= 4);
+        }
+        Assert.assertEquals(4, AlertingSparkEngine.getCompiledEnginesSize());
+    }
 }
@@ -1,12 +1,19 @@
 package uk.co.gresearch.siembol.spark;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.adrianwalker.multilinestring.Multiline;
 import org.apache.spark.SparkConf;
 import org.apache.spark.api.java.JavaRDD;
 import org.apache.spark.api.java.JavaSparkContext;
+import org.apache.spark.sql.Encoders;
+import org.apache.spark.sql.SparkSession;
 import org.junit.*;
+import org.junit.rules.TemporaryFolder;
 
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 
 public class AlertingSparkJobTest {
@@ -57,6 +64,36 @@ public class AlertingSparkJobTest {
     @Multiline
     public static String eventWithoutAlert;
 
+    /**
+     *{
+     *  "rules_version" :1,
+     *  "tags" : [ { "tag_name" : "detection_source", "tag_value" : "siembol_alerts" } ],
+     *  "rules" : [ {
+     *      "rule_name" : "test_rule",
+     *      "rule_version" : 1,
+     *      "rule_author" : "dummy",
+     *      "rule_protection" : {
+     *          "max_per_hour" : 100,
+     *          "max_per_day" : 10000
+     *      },
+     *      "rule_description": "Testing rule",
+     *      "source_type" : "*",
+     *      "tags" : [ { "tag_name" : "analyst_note", "tag_value" : "alert for ${user}" } ],
+     *      "matchers" : [ {
+     *          "matcher_type" : "REGEX_MATCH",
+     *          "is_negated" : false,
+     *          "field" : "is_alert",
+     *          "data" : "(?i)true" }
+     *          ]
+     *  }]
+     *}
+     **/
+    @Multiline
+    public static String isAlertRulesWithVariableTag;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
     private JavaSparkContext sc;
     private AlertingSparkJob job;
     private int maxResult = 100;
@@ -124,6 +161,48 @@ public class AlertingSparkJobTest {
         Assert.assertEquals(0, result.getExceptions().size());
     }
 
+    @Test
+    public void columnarInputTest() throws Exception {
+        String logPath = folder.getRoot().getAbsolutePath() + "/";
+        List<String> events = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            events.add(String.format(
+                    "{\"source_type\":\"secret\",\"is_alert\":\"true\",\"user\":\"john\"," +
+                            "\"timestamp\":%d,\"dummy_field_int\":1}", 1561161600000L + i));
+            events.add("{\"source_type\":\"secret\",\"user\":\"john\",\"timestamp\":1561161600000}");
+            events.add("{\"source_type\":\"other\",\"is_alert\":\"true\",\"timestamp\":1561161600000}");
+        }
+        SparkSession spark = SparkSession.builder().sparkContext(sc.sc()).getOrCreate();
+        spark.read()
+                .json(spark.createDataset(events, Encoders.STRING()))
+                .write()
+                .parquet(logPath + "secret/2019-06-22");
+
+        job = new AlertingSparkJob.Builder()
+                .sparkContext(sc)
+                .inputFormat(InputFormat.PARQUET)
+                .sourceType("secret")
+                .fromDate("2019-06-22")
+                .toDate("2019-06-22")
+                .logPath(logPath)
+                .alertingRules(isAlertRulesWithVariableTag)
+                .maxResult(maxResult)
+                .build();
+
+        AlertingSparkResult result = job.eval();
+        Assert.assertEquals(10, result.getMatchesTotal());
+        Assert.assertEquals(0, result.getExceptionsTotal());
+        Assert.assertEquals(10, result.getMatches().size());
+        Assert.assertEquals(Long.valueOf(10),
+                result.getRulesStats().get("test_rule_v1").getMatchesPerDay().get("2019-06-22"));
+
+        Map<String, Object> match = new ObjectMapper()
+                .readValue(result.getMatches().get(0), new TypeReference<Map<String, Object>>() {});
+        Assert.assertEquals("alert for john", match.get("analyst_note"));
+        Assert.assertEquals("secret", match.get("source_type"));
+        Assert.assertFalse(match.containsKey("dummy_field_int"));
+    }
+
     @Test
     @Ignore
     public void hdfsRddTest() throws Exception {
@@ -0,0 +1,114 @@
+package uk.co.gresearch.siembol.spark;
+
+import org.adrianwalker.multilinestring.Multiline;
+import org.apache.commons.lang3.SerializationUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import scala.Tuple2;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class CorrelationSparkEngineTest {
+    /**
+     *{
+     *  "rules_version" :1,
+     *  "tags" : [ { "tag_name" : "detection_source", "tag_value" : "siembol_correlation_alerts" } ],
+     *  "rules" : [ {
+     *      "rule_name" : "test_rule",
+     *      "rule_version" : 1,
+     *      "rule_author" : "dummy",
+     *      "rule_description": "Testing rule",
+     *      "correlation_attributes" : {
+     *          "time_unit" : "seconds",
+     *          "time_window" : 10,
+     *          "time_computation_type" : "processing_time",
+     *          "alerts" : [
+     *          {
+     *              "alert" : "alert1",
+     *              "threshold" : 2
+     *          },
+     *          {
+     *              "alert" : "alert2",
+     *              "threshold" : 1
+     *         }]
+     *      }
+     *  }]
+     *}
+     **/
+    @Multiline
+    public static String correlationRules;
+
+    private static final String ALERT_FORMAT =
+            "{\"siembol_alerts_rule_name\":\"%s\",\"correlation_key\":\"%s\",\"timestamp\":%d}";
+    private CorrelationSparkEngine engine;
+    private List<Tuple2<Tuple2<String, Long>, String>> alerts;
+
+    @Before
+    public void setUp() throws Exception {
+        engine = new CorrelationSparkEngine(correlationRules);
+        alerts = new ArrayList<>();
+    }
+
+    private void addAlert(String alertName, String key, long timestamp) {
+        alerts.addAll(engine.getSortingKey(String.format(ALERT_FORMAT, alertName, key, timestamp)));
+    }
+
+    @Test
+    public void getSortingKeyTest() {
+        addAlert("alert1", "a", 1000L);
+        Assert.assertEquals(1, alerts.size());
+        Assert.assertEquals("a", alerts.get(0)._1()._1());
+        Assert.assertEquals(Long.valueOf(1000L), alerts.get(0)._1()._2());
+
+        addAlert("unknown", "a", 1000L);
+        Assert.assertEquals(1, alerts.size());
+        Assert.assertTrue(engine.getSortingKey("INVALID").isEmpty());
+        Assert.assertTrue(engine.getSortingKey("{\"siembol_alerts_rule_name\":\"alert1\"}").isEmpty());
+    }
+
+    @Test
+    public void replayTest() throws Exception {
+        addAlert("alert1", "a", 1000L);
+        addAlert("alert1", "a", 2000L);
+        addAlert("alert2", "a", 3000L);
+        addAlert("alert1", "b", 1000L);
+        addAlert("alert2", "b", 100000L);
+
+        CorrelationSparkResult result = engine.replay(alerts.iterator(), 100);
+        Assert.assertEquals(5, result.getAlertsTotal());
+        Assert.assertEquals(0, result.getExceptionsTotal());
+        Assert.assertEquals(1, result.getRulesStats().size());
+
+        CorrelationSparkRuleStats ruleStats = result.getRulesStats().get("test_rule_v1");
+        Assert.assertEquals(1, ruleStats.getFiresTotal());
+        Assert.assertEquals(2, ruleStats.getPeakStateSize());
+        Assert.assertEquals(1, ruleStats.getMatches().size());
+        Assert.assertTrue(ruleStats.getMatches().get(0).contains("\"correlation_key\":\"a\""));
+
+        CorrelationSparkResult merged = CorrelationSparkResult.emptyResult(100)
+                .merge(result)
+                .merge(SerializationUtils.clone(result));
+        Assert.assertEquals(10, merged.getAlertsTotal());
+        Assert.assertEquals(2, merged.getRulesStats().get("test_rule_v1").getFiresTotal());
+        Assert.assertEquals(2, merged.getRulesStats().get("test_rule_v1").getPeakStateSize());
+    }
+
+    @Test
+    public void serializableTest() throws Exception {
+        CorrelationSparkEngine clone = SerializationUtils.clone(engine);
+        Assert.assertEquals(engine.getAlertNames(), clone.getAlertNames());
+
+        addAlert("alert1", "a", 1000L);
+        addAlert("alert1", "a", 2000L);
+        addAlert("alert2", "a", 3000L);
+        CorrelationSparkResult result = clone.replay(alerts.iterator(), 100);
+        Assert.assertEquals(1, result.getRulesStats().get("test_rule_v1").getFiresTotal());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidRulesTest() throws Exception {
+        new CorrelationSparkEngine("INVALID");
+    }
+}
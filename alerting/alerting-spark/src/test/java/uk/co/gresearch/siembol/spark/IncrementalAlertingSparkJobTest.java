@@ -0,0 +1,169 @@
+package uk.co.gresearch.siembol.spark;
+
+import org.adrianwalker.multilinestring.Multiline;
+import org.apache.spark.SparkConf;
+import org.apache.spark.api.java.JavaSparkContext;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class IncrementalAlertingSparkJobTest {
+    /**
+     *{
+     *  "rules_version" :1,
+     *  "tags" : [ { "tag_name" : "detection_source", "tag_value" : "siembol_alerts" } ],
+     *  "rules" : [ {
+     *      "rule_name" : "rule1",
+     *      "rule_version" : 1,
+     *      "rule_author" : "dummy",
+     *      "rule_description": "Testing rule",
+     *      "source_type" : "*",
+     *      "matchers" : [ {
+     *          "matcher_type" : "REGEX_MATCH",
+     *          "is_negated" : false,
+     *          "field" : "is_alert",
+     *          "data" : "(?i)true" }
+     *          ]
+     *  },
+     *  {
+     *      "rule_name" : "rule2",
+     *      "rule_version" : 3,
+     *      "rule_author" : "dummy",
+     *      "rule_description": "Testing rule",
+     *      "source_type" : "*",
+     *      "matchers" : [ {
+     *          "matcher_type" : "REGEX_MATCH",
+     *          "is_negated" : false,
+     *          "field" : "host",
+     *          "data" : "secret" }
+     *          ]
+     *  }]
+     *}
+     **/
+    @Multiline
+    public static String rules;
+
+    private static final String ALERT = "{\"source_type\":\"secret\",\"is_alert\":\"true\",\"host\":\"public\"}";
+    private static final String SECRET_HOST = "{\"source_type\":\"secret\",\"host\":\"secret\"}";
+    private static final String NO_MATCH = "{\"source_type\":\"secret\",\"host\":\"public\"}";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private JavaSparkContext sc;
+    private String logPath;
+    private String cachePath;
+
+    @Before
+    public void setUp() throws IOException {
+        sc = new JavaSparkContext(new SparkConf().setAppName("test").setMaster("local"));
+        logPath = folder.newFolder("logs").getAbsolutePath() + "/";
+        cachePath = folder.newFolder("cache").toURI().toString();
+        writeEvents("2019-06-20", 3, 2);
+        writeEvents("2019-06-21", 1, 4);
+    }
+
+    @After
+    public void tearDown() {
+        sc.close();
+    }
+
+    private void writeEvents(String date, int alerts, int secretHosts) throws IOException {
+        List<String> events = new ArrayList<>();
+        events.addAll(Collections.nCopies(alerts, ALERT));
+        events.addAll(Collections.nCopies(secretHosts, SECRET_HOST));
+        events.add(NO_MATCH);
+
+        File dir = new File(logPath + "secret/" + date);
+        dir.mkdirs();
+        Files.write(new File(dir, "events.txt").toPath(), events, StandardCharsets.UTF_8);
+    }
+
+    private AlertingSparkResult eval(String currentRules, String fromDate, String toDate) throws Exception {
+        return new IncrementalAlertingSparkJob.Builder()
+                .sparkContext(sc)
+                .cachePath(cachePath)
+                .logPath(logPath)
+                .suffix("txt")
+                .sourceType("secret")
+                .alertingRules(currentRules)
+                .fromDate(fromDate)
+                .toDate(toDate)
+                .build()
+                .eval();
+    }
+
+    private void assertRuleMatches(AlertingSparkResult result, String rule, long matches) {
+        Assert.assertEquals(matches, result.getRulesStats().get(rule).getMatchesTotal());
+    }
+
+    @Test
+    public void coldRunEqualsAlertingJob() throws Exception {
+        AlertingSparkResult result = eval(rules, "2019-06-20", "2019-06-21");
+        AlertingSparkResult expected = new AlertingSparkJob.Builder()
+                .sparkContext(sc)
+                .logPath(logPath)
+                .suffix("txt")
+                .sourceType("secret")
+                .alertingRules(rules)
+                .fromDate("2019-06-20")
+                .toDate("2019-06-21")
+                .build()
+                .eval();
+
+        Assert.assertEquals(10, result.getMatchesTotal());
+        Assert.assertEquals(expected.getMatchesTotal(), result.getMatchesTotal());
+        Assert.assertEquals(expected.getExceptionsTotal(), result.getExceptionsTotal());
+        assertRuleMatches(result, "rule1_v1", 4);
+        assertRuleMatches(result, "rule2_v3", 6);
+    }
+
+    @Test
+    public void cacheHit() throws Exception {
+        eval(rules, "2019-06-20", "2019-06-21");
+        writeEvents("2019-06-20", 0, 0);
+        writeEvents("2019-06-21", 0, 0);
+
+        AlertingSparkResult result = eval(rules, "2019-06-20", "2019-06-21");
+        Assert.assertEquals(10, result.getMatchesTotal());
+        assertRuleMatches(result, "rule1_v1", 4);
+        assertRuleMatches(result, "rule2_v3", 6);
+    }
+
+    @Test
+    public void cacheMissingDate() throws Exception {
+        eval(rules, "2019-06-20", "2019-06-20");
+        writeEvents("2019-06-20", 0, 0);
+
+        AlertingSparkResult result = eval(rules, "2019-06-20", "2019-06-21");
+        Assert.assertEquals(10, result.getMatchesTotal());
+        assertRuleMatches(result, "rule1_v1", 4);
+        assertRuleMatches(result, "rule2_v3", 6);
+    }
+
+    @Test
+    public void cacheMissingRuleAndDate() throws Exception {
+        eval(rules, "2019-06-20", "2019-06-20");
+        writeEvents("2019-06-20", 0, 1);
+
+        String changedRules = rules
+                .replace("\"rule_version\" : 3", "\"rule_version\" : 4")
+                .replace("\"data\" : \"secret\"", "\"data\" : \"(?i)SECRET\"");
+        AlertingSparkResult result = eval(changedRules, "2019-06-20", "2019-06-21");
+        Assert.assertEquals(9, result.getMatchesTotal());
+        assertRuleMatches(result, "rule1_v1", 4);
+        assertRuleMatches(result, "rule2_v4", 5);
+        Assert.assertNull(result.getRulesStats().get("rule2_v3"));
+    }
+}
@@ -11,6 +11,8 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Set;
 
 public class SparkResultTest {
     private AlertingAttributes attributes;
@@ -153,4 +155,107 @@ public class SparkResultTest {
         Assert.assertEquals(1, clone.getMatches().size());
         Assert.assertEquals("{\"test\":\"true\"}", clone.getMatches().get(0));
     }
+
+    @Test
+    public void perRuleSamplesAndStatsTest() throws Exception {
+        ArrayList<Map<String, Object>> events = new ArrayList<>();
+        for (int i = 0; i <= maxResult; i++) {
+            Map<String, Object> current = new HashMap<>();
+            current.put("siembol_alerts_full_rule_name", "rule1_v1");
+            current.put("timestamp", 1561000000000L);
+            current.put("host", i % 2 == 0 ? "a" : "b");
+            events.add(current);
+        }
+        Map<String, Object> other = new HashMap<>();
+        other.put("siembol_alerts_full_rule_name", "rule2_v1");
+        events.add(other);
+
+        attributes.setOutputEvents(events);
+        Map<String, Set<String>> rulesFields = new HashMap<>();
+        rulesFields.put("rule1_v1", new HashSet<>(Arrays.asList("host")));
+        alertingSparkResult = AlertingSparkResult.emptyResult(maxResult).add(alertingResult, rulesFields);
+
+        Assert.assertEquals(maxResult + 2, alertingSparkResult.getMatchesTotal());
+        Assert.assertEquals(maxResult + 1, alertingSparkResult.getMatches().size());
+        Assert.assertEquals(2, alertingSparkResult.getRulesStats().size());
+
+        AlertingSparkRuleStats rule1Stats = alertingSparkResult.getRulesStats().get("rule1_v1");
+        Assert.assertEquals(maxResult + 1, rule1Stats.getMatchesTotal());
+        Assert.assertEquals(maxResult, rule1Stats.getMatches().size());
+        Assert.assertEquals(Long.valueOf(maxResult + 1), rule1Stats.getMatchesPerDay().get("2019-06-20"));
+        Assert.assertEquals(Long.valueOf(51), rule1Stats.getFieldsHistograms().get("host").get("a"));
+        Assert.assertEquals(Long.valueOf(50), rule1Stats.getFieldsHistograms().get("host").get("b"));
+
+        AlertingSparkRuleStats rule2Stats = alertingSparkResult.getRulesStats().get("rule2_v1");
+        Assert.assertEquals(1, rule2Stats.getMatchesTotal());
+        Assert.assertEquals(Long.valueOf(1), rule2Stats.getMatchesPerDay().get("unknown"));
+        Assert.assertTrue(rule2Stats.getFieldsHistograms().isEmpty());
+
+        AlertingSparkResult merged = AlertingSparkResult.emptyResult(maxResult)
+                .merge(SerializationUtils.clone(alertingSparkResult))
+                .merge(SerializationUtils.clone(alertingSparkResult));
+        Assert.assertEquals(2 * (maxResult + 2), merged.getMatchesTotal());
+        Assert.assertEquals(maxResult, merged.getRulesStats().get("rule1_v1").getMatches().size());
+        Assert.assertEquals(2, merged.getRulesStats().get("rule2_v1").getMatches().size());
+        Assert.assertEquals(Long.valueOf(102),
+                merged.getRulesStats().get("rule1_v1").getFieldsHistograms().get("host").get("a"));
+    }
+
+    @Test
+    public void boundedHistogramTest() throws Exception {
+        ArrayList<Map<String, Object>> events = new ArrayList<>();
+        for (int i = 0; i < 2 * maxResult; i++) {
+            Map<String, Object> current = new HashMap<>();
+            current.put("siembol_alerts_full_rule_name", "rule1_v1");
+            current.put("host", "host" + i);
+            events.add(current);
+        }
+
+        attributes.setOutputEvents(events);
+        Map<String, Set<String>> rulesFields = new HashMap<>();
+        rulesFields.put("rule1_v1", new HashSet<>(Arrays.asList("host")));
+        alertingSparkResult = AlertingSparkResult.emptyResult(maxResult).add(alertingResult, rulesFields);
+        Map<String, Long> histogram = alertingSparkResult.getRulesStats().get("rule1_v1")
+                .getFieldsHistograms().get("host");
+        Assert.assertEquals(maxResult + 1, histogram.size());
+        Assert.assertEquals(Long.valueOf(maxResult), histogram.get("_other_values"));
+    }
+
+    @Test
+    public void splitByRulesTest() throws Exception {
+        Map<String, Object> match = new HashMap<>();
+        match.put("siembol_alerts_full_rule_name", "rule1_v1");
+        Map<String, Object> ruleException = new HashMap<>();
+        ruleException.put("siembol_alerts_full_rule_name", "rule2_v1");
+        event.put("test", "true");
+
+        attributes.setOutputEvents(Arrays.asList(match, match));
+        attributes.setExceptionEvents(Arrays.asList(ruleException, event));
+        alertingSparkResult = new AlertingSparkResult(alertingResult, maxResult);
+        Assert.assertEquals(2, alertingSparkResult.getMatchesTotal());
+        Assert.assertEquals(2, alertingSparkResult.getExceptionsTotal());
+        Assert.assertEquals(2, alertingSparkResult.getExceptions().size());
+
+        AlertingSparkResult rule1 = alertingSparkResult.getRuleResult("rule1_v1");
+        Assert.assertEquals(2, rule1.getMatchesTotal());
+        Assert.assertEquals(0, rule1.getExceptionsTotal());
+
+        AlertingSparkResult rule2 = alertingSparkResult.getRuleResult("rule2_v1");
+        Assert.assertEquals(0, rule2.getMatchesTotal());
+        Assert.assertEquals(1, rule2.getExceptionsTotal());
+
+        AlertingSparkResult withoutRules = alertingSparkResult.getResultWithoutRules();
+        Assert.assertEquals(0, withoutRules.getMatchesTotal());
+        Assert.assertEquals(1, withoutRules.getExceptionsTotal());
+        Assert.assertEquals("{\"test\":\"true\"}", withoutRules.getExceptions().get(0));
+
+        AlertingSparkResult merged = AlertingSparkResult.emptyResult(maxResult)
+                .merge(withoutRules)
+                .merge(rule1)
+                .merge(rule2);
+        Assert.assertEquals(2, merged.getMatchesTotal());
+        Assert.assertEquals(2, merged.getExceptionsTotal());
+        Assert.assertEquals(2, merged.getRulesStats().size());
+        Assert.assertTrue(alertingSparkResult.getRuleResult("unknown_v1").isEmpty());
+    }
 }
@@ -21,10 +21,13 @@ import uk.co.gresearch.siembol.alerts.common.EvaluationResult;
 import uk.co.gresearch.siembol.alerts.common.AlertingEngine;
 import uk.co.gresearch.siembol.alerts.common.AlertingResult;
 import uk.co.gresearch.siembol.alerts.compiler.AlertingRulesCompiler;
+import uk.co.gresearch.siembol.alerts.protection.RuleProtectionSystem;
+import uk.co.gresearch.siembol.alerts.protection.RuleProtectionSystemImpl;
 import uk.co.gresearch.siembol.alerts.storm.model.AlertMessage;
 import uk.co.gresearch.siembol.alerts.storm.model.AlertMessages;
 import uk.co.gresearch.siembol.alerts.storm.model.ExceptionMessages;
 import uk.co.gresearch.siembol.common.model.AlertingStormAttributesDto;
+import uk.co.gresearch.siembol.common.utils.EventFormat;
 import uk.co.gresearch.siembol.common.zookeper.ZookeeperConnectorFactoryImpl;
 
 import java.lang.invoke.MethodHandles;
@@ -49,6 +52,7 @@ public class AlertingEngineBolt extends BaseRichBolt {
 
     protected static final String COMPILER_EXCEPTION_MSG_FORMAT = "Exception during alerting rules compilation: %s";
     protected final AtomicReference<AlertingEngine> AlertingEngine = new AtomicReference<>();
+    protected transient RuleProtectionSystem ruleProtection;
 
     private OutputCollector collector;
     private ZookeeperConnector zookeeperConnector;
@@ -60,6 +64,13 @@ public class AlertingEngineBolt extends BaseRichBolt {
         this.zookeeperConnectorFactory = zookeeperConnectorFactory;
     }
 
+    AlertingEngineBolt(AlertingStormAttributesDto attributes,
+                       ZookeeperConnectorFactory zookeeperConnectorFactory,
+                       RuleProtectionSystem ruleProtection) {
+        this(attributes, zookeeperConnectorFactory);
+        this.ruleProtection = ruleProtection;
+    }
+
     AlertingEngineBolt(AlertingStormAttributesDto attributes) {
         this(attributes, new ZookeeperConnectorFactoryImpl());
     }
@@ -68,6 +79,10 @@ public class AlertingEngineBolt extends BaseRichBolt {
     @Override
     public void prepare(Map map, TopologyContext topologyContext, OutputCollector outputCollector) {
         this.collector = outputCollector;
+        if (ruleProtection == null) {
+            ruleProtection = RuleProtectionSystemImpl.getSharedInstance();
+        }
+
         try {
             LOG.info(ENGINE_INIT_START);
             zookeeperConnector = zookeeperConnectorFactory.createZookeeperConnector(zookeperAttributes);
@@ -105,7 +120,8 @@ public class AlertingEngineBolt extends BaseRichBolt {
 
     protected AlertingEngine getAlertingEngine(String rules) {
         try {
-            AlertingResult engineResult =  AlertingRulesCompiler.createAlertingRulesCompiler().compile(rules);
+            AlertingResult engineResult =  AlertingRulesCompiler.createAlertingRulesCompiler(ruleProtection)
+                    .compile(rules);
             if (engineResult.getStatusCode() != AlertingResult.StatusCode.OK) {
                 String errorMsg = String.format(COMPILER_EXCEPTION_MSG_FORMAT,
                         engineResult.getAttributes().getException());
@@ -124,13 +140,17 @@ public class AlertingEngineBolt extends BaseRichBolt {
     @Override
     public void execute(Tuple tuple) {
         AlertingEngine currentEngine = AlertingEngine.get();
-        String event = tuple.getStringByField(TupleFieldNames.EVENT.toString());
-        AlertingResult ret = currentEngine.evaluate(event);
+        Object event = tuple.getValueByField(TupleFieldNames.EVENT.toString());
+        AlertingResult ret = event instanceof byte[]
+                ? currentEngine.evaluate((byte[])event)
+                : currentEngine.evaluate((String)event);
 
         if (ret.getStatusCode() == AlertingResult.StatusCode.OK
                 && ret.getAttributes().getEvaluationResult() == EvaluationResult.NO_MATCH
                 && ret.getAttributes().getExceptionEvents() == null) {
-            LOG.debug(ACK_NO_MATCH_LOG, event);
+            if (LOG.isDebugEnabled()) {
+                LOG.debug(ACK_NO_MATCH_LOG, getEventString(event));
+            }
             collector.ack(tuple);
             return;
         }
@@ -141,7 +161,7 @@ public class AlertingEngineBolt extends BaseRichBolt {
         if (ret.getStatusCode() != AlertingResult.StatusCode.OK) {
             exceptions.add(String.format(EXCEPTION_MSG_FORMAT,
                     ret.getAttributes().getException(),
-                    event));
+                    getEventString(event)));
         }
 
         if (ret.getAttributes().getExceptionEvents() != null) {
@@ -172,6 +192,10 @@ public class AlertingEngineBolt extends BaseRichBolt {
         collector.ack(tuple);
     }
 
+    private static String getEventString(Object event) {
+        return event instanceof byte[] ? EventFormat.toJsonString((byte[])event) : (String)event;
+    }
+
     @Override
     public void declareOutputFields(OutputFieldsDeclarer declarer) {
         declarer.declare(new Fields(TupleFieldNames.ALERTING_MATCHES.toString(),
@@ -1,5 +1,6 @@
 package uk.co.gresearch.siembol.alerts.storm;
 
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.storm.Config;
 import org.apache.storm.StormSubmitter;
@@ -33,13 +34,15 @@ public class AlertingStorm {
     private static final int ATTRIBUTES_ARG_INDEX = 0;
     private static final String WRONG_ARGUMENT_MSG = "Wrong arguments. The application expects Base64 encoded attributes";
 
-    private static KafkaSpoutConfig<String, String> createKafkaSpoutConfig(AlertingStormAttributesDto attributes) {
+    private static KafkaSpoutConfig<String, Object> createKafkaSpoutConfig(AlertingStormAttributesDto attributes) {
         StormAttributesDto stormAttributes = attributes.getStormAttributes();
         stormAttributes.setKafkaTopics(attributes.getInputTopics());
         stormAttributes.getKafkaSpoutProperties().getRawMap()
                 .put(KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
         stormAttributes.getKafkaSpoutProperties().getRawMap()
-                .put(VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+                .put(VALUE_DESERIALIZER_CLASS_CONFIG, Boolean.TRUE.equals(stormAttributes.getByteArrayEvents())
+                        ? ByteArrayDeserializer.class
+                        : StringDeserializer.class);
 
         if (AlertingEngineType.valueOfName(attributes.getAlertingEngine()) == AlertingEngineType.SIEMBOL_ALERTS) {
             return StormHelper.createKafkaSpoutConfig(stormAttributes,
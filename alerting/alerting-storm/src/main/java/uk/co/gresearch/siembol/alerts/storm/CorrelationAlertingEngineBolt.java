@@ -8,6 +8,7 @@ import uk.co.gresearch.siembol.common.zookeper.ZookeeperConnectorFactory;
 import uk.co.gresearch.siembol.alerts.common.AlertingEngine;
 import uk.co.gresearch.siembol.alerts.common.AlertingResult;
 import uk.co.gresearch.siembol.alerts.compiler.AlertingCorrelationRulesCompiler;
+import uk.co.gresearch.siembol.alerts.protection.RuleProtectionSystem;
 import uk.co.gresearch.siembol.common.model.AlertingStormAttributesDto;
 
 import java.lang.invoke.MethodHandles;
@@ -26,10 +27,17 @@ public class CorrelationAlertingEngineBolt extends AlertingEngineBolt {
         cleanIntervalSec = attributes.getAlertingEngineCleanIntervalSec();
     }
 
+    CorrelationAlertingEngineBolt(AlertingStormAttributesDto attributes,
+                                  ZookeeperConnectorFactory zookeeperConnectorFactory,
+                                  RuleProtectionSystem ruleProtection) {
+        this(attributes, zookeeperConnectorFactory);
+        this.ruleProtection = ruleProtection;
+    }
+
     protected AlertingEngine getAlertingEngine(String rules) {
         try {
             AlertingResult engineResult =  AlertingCorrelationRulesCompiler
-                    .createAlertingCorrelationRulesCompiler()
+                    .createAlertingCorrelationRulesCompiler(ruleProtection)
                     .compile(rules);
             if (engineResult.getStatusCode() != AlertingResult.StatusCode.OK) {
                 String errorMsg = String.format(COMPILER_EXCEPTION_MSG_FORMAT,
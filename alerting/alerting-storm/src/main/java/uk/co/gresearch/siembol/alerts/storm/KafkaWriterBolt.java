@@ -19,9 +19,6 @@ import org.slf4j.LoggerFactory;
 import uk.co.gresearch.siembol.alerts.common.AlertingEngineType;
 import uk.co.gresearch.siembol.common.error.ErrorMessage;
 import uk.co.gresearch.siembol.common.error.ErrorType;
-import uk.co.gresearch.siembol.alerts.common.AlertingResult;
-import uk.co.gresearch.siembol.alerts.protection.RuleProtectionSystem;
-import uk.co.gresearch.siembol.alerts.protection.RuleProtectionSystemImpl;
 import uk.co.gresearch.siembol.alerts.storm.model.*;
 import uk.co.gresearch.siembol.common.model.AlertingStormAttributesDto;
 
@@ -38,7 +35,6 @@ public class KafkaWriterBolt extends BaseRichBolt {
     private final String correlationTopic;
     private OutputCollector collector;
     private Producer<String, String> producer;
-    private RuleProtectionSystem ruleProtection;
 
     public KafkaWriterBolt(AlertingStormAttributesDto attributes) {
         this.props = new Properties();
@@ -68,20 +64,6 @@ public class KafkaWriterBolt extends BaseRichBolt {
 
         try {
             for (AlertMessage match : matches) {
-                AlertingResult matchesInfo = ruleProtection.incrementRuleMatches(match.getFullRuleName());
-                int hourlyMatches = matchesInfo.getAttributes().getHourlyMatches();
-                int dailyMatches = matchesInfo.getAttributes().getDailyMatches();
-
-                if (match.getMaxHourMatches().intValue() < hourlyMatches
-                        || match.getMaxDayMatches().intValue() < dailyMatches) {
-                    String msg = String.format(
-                            "The rule: %s reaches the limit\n hourly matches: %d, daily matches: %d, alert: %s",
-                            match.getFullRuleName(), hourlyMatches, dailyMatches, match.getAlertJson());
-                    LOG.debug(msg);
-                    exceptions.add(msg);
-                    continue;
-                }
-
                 if (match.isVisibleAlert()) {
                     LOG.debug("Sending message {}\n to output topic", match.getAlertJson());
                     producer.send(new ProducerRecord<>(outputTopic,
@@ -126,7 +108,6 @@ public class KafkaWriterBolt extends BaseRichBolt {
     @Override
     public void prepare(Map map, TopologyContext topologyContext, OutputCollector outputCollector) {
         this.collector = outputCollector;
-        ruleProtection = new RuleProtectionSystemImpl();
         producer = new KafkaProducer<>(props, new StringSerializer(), new StringSerializer());
     }
 
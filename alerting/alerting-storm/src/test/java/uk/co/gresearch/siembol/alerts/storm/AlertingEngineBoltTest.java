@@ -15,14 +15,17 @@ import org.mockito.ArgumentMatchers;
 import org.mockito.Mockito;
 import uk.co.gresearch.siembol.common.constants.SiembolMessageFields;
 import uk.co.gresearch.siembol.common.model.ZookeeperAttributesDto;
+import uk.co.gresearch.siembol.common.utils.EventFormat;
 import uk.co.gresearch.siembol.common.zookeper.ZookeeperConnector;
 import uk.co.gresearch.siembol.common.zookeper.ZookeeperConnectorFactory;
 import uk.co.gresearch.siembol.alerts.common.AlertingFields;
+import uk.co.gresearch.siembol.alerts.protection.RuleProtectionSystemImpl;
 import uk.co.gresearch.siembol.alerts.storm.model.AlertMessages;
 import uk.co.gresearch.siembol.alerts.storm.model.ExceptionMessages;
 import uk.co.gresearch.siembol.common.model.AlertingStormAttributesDto;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -121,6 +124,32 @@ public class AlertingEngineBoltTest {
     @Multiline
     public static String rulesForCorrelation;
 
+    /**
+     *{
+     *  "rules_version" :1,
+     *  "tags" : [ { "tag_name" : "detection_source", "tag_value" : "siembol_alerts" } ],
+     *  "rules" : [ {
+     *      "rule_name" : "siembol_alert_generic",
+     *      "rule_version" : 1,
+     *      "rule_author" : "dummy",
+     *      "rule_description": "Test rule - is_alert is equal to true",
+     *      "rule_protection" : {
+     *          "max_per_hour" : 1,
+     *          "max_per_day" : 10
+     *      },
+     *      "source_type" : "*",
+     *      "matchers" : [ {
+     *          "matcher_type" : "REGEX_MATCH",
+     *          "is_negated" : false,
+     *          "field" : "is_alert",
+     *          "data" : "(?i)true" }
+     *          ]
+     *  }]
+     *}
+     **/
+    @Multiline
+    public static String protectedTestRules;
+
     private Tuple tuple;
     private OutputCollector collector;
     AlertingEngineBolt AlertingEngineBolt;
@@ -146,10 +175,11 @@ public class AlertingEngineBoltTest {
         when(zookeeperConnectorFactory.createZookeeperConnector(zookeperAttributes)).thenReturn(zookeeperConnector);
         when(zookeeperConnector.getData()).thenReturn(simpleTestRules);
 
-        when(tuple.getStringByField(eq(TupleFieldNames.EVENT.toString()))).thenReturn(event.trim());
+        when(tuple.getValueByField(eq(TupleFieldNames.EVENT.toString()))).thenReturn(event.trim());
         when(collector.emit(eq(tuple), argumentEmitCaptor.capture())).thenReturn(new ArrayList<>());
 
-        AlertingEngineBolt = new AlertingEngineBolt(stormAttributes, zookeeperConnectorFactory);
+        AlertingEngineBolt = new AlertingEngineBolt(stormAttributes, zookeeperConnectorFactory,
+                new RuleProtectionSystemImpl());
         AlertingEngineBolt.prepare(null, null, collector);
     }
 
@@ -182,9 +212,43 @@ public class AlertingEngineBoltTest {
         verify(collector, times(1)).ack(eq(tuple));
     }
 
+    @Test
+    public void testMatchRuleByteArrayEvent() throws IOException {
+        when(tuple.getValueByField(eq(TupleFieldNames.EVENT.toString())))
+                .thenReturn(event.trim().getBytes(StandardCharsets.UTF_8));
+        AlertingEngineBolt.execute(tuple);
+        Values values = argumentEmitCaptor.getValue();
+        Assert.assertNotNull(values);
+        AlertMessages alerts = (AlertMessages)values.get(0);
+        Assert.assertEquals(1, alerts.size());
+        Assert.assertEquals("siembol_alert_generic_v1", alerts.get(0).getFullRuleName());
+        Assert.assertTrue(((ExceptionMessages)values.get(1)).isEmpty());
+
+        Map<String, Object> parsed = JSON_READER.readValue(alerts.get(0).getAlertJson());
+        Assert.assertEquals("secret", parsed.get(SiembolMessageFields.SENSOR_TYPE.toString()));
+        verify(collector, times(1)).ack(eq(tuple));
+    }
+
+    @Test
+    public void testMatchRuleSmileEvent() throws IOException {
+        Map<String, Object> eventMap = JSON_READER.readValue(event);
+        when(tuple.getValueByField(eq(TupleFieldNames.EVENT.toString())))
+                .thenReturn(EventFormat.SMILE.writeEvent(eventMap));
+        AlertingEngineBolt.execute(tuple);
+        Values values = argumentEmitCaptor.getValue();
+        Assert.assertNotNull(values);
+        AlertMessages alerts = (AlertMessages)values.get(0);
+        Assert.assertEquals(1, alerts.size());
+        Assert.assertEquals("siembol_alert_generic_v1", alerts.get(0).getFullRuleName());
+        Assert.assertTrue(((ExceptionMessages)values.get(1)).isEmpty());
+
+        Map<String, Object> parsed = JSON_READER.readValue(alerts.get(0).getAlertJson());
+        Assert.assertEquals("secret", parsed.get(SiembolMessageFields.SENSOR_TYPE.toString()));
+    }
+
     @Test
     public void testNoMatchRule() {
-        when(tuple.getStringByField(eq(TupleFieldNames.EVENT.toString())))
+        when(tuple.getValueByField(eq(TupleFieldNames.EVENT.toString())))
                 .thenReturn(event.replaceAll("is_alert", "unknown"));
 
         AlertingEngineBolt.execute(tuple);
@@ -228,7 +292,7 @@ public class AlertingEngineBoltTest {
 
     @Test
     public void testException(){
-        when(tuple.getStringByField(eq(TupleFieldNames.EVENT.toString())))
+        when(tuple.getValueByField(eq(TupleFieldNames.EVENT.toString())))
                 .thenReturn("INVALID");
 
         AlertingEngineBolt.execute(tuple);
@@ -241,4 +305,23 @@ public class AlertingEngineBoltTest {
         Assert.assertEquals(1, ((ExceptionMessages)values.get(1)).size());
         Assert.assertTrue(((ExceptionMessages)values.get(1)).get(0).contains("JsonParseException"));
     }
+
+    @Test
+    public void testMatchRuleReachProtectionThreshold() {
+        when(zookeeperConnector.getData()).thenReturn(protectedTestRules);
+        AlertingEngineBolt.prepare(null, null, collector);
+
+        AlertingEngineBolt.execute(tuple);
+        Values values = argumentEmitCaptor.getValue();
+        Assert.assertEquals(1, ((AlertMessages)values.get(0)).size());
+        Assert.assertTrue(((ExceptionMessages)values.get(1)).isEmpty());
+
+        AlertingEngineBolt.execute(tuple);
+        values = argumentEmitCaptor.getValue();
+        Assert.assertTrue(((AlertMessages)values.get(0)).isEmpty());
+        Assert.assertEquals(1, ((ExceptionMessages)values.get(1)).size());
+        Assert.assertTrue(((ExceptionMessages)values.get(1)).get(0)
+                .contains("The rule: siembol_alert_generic_v1 reaches the limit"));
+        verify(collector, times(2)).ack(eq(tuple));
+    }
 }
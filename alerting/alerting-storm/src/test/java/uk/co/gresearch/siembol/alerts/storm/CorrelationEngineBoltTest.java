@@ -19,6 +19,7 @@ import uk.co.gresearch.siembol.common.zookeper.ZookeeperConnector;
 import uk.co.gresearch.siembol.common.zookeper.ZookeeperConnectorFactory;
 import uk.co.gresearch.siembol.alerts.common.AlertingFields;
 import uk.co.gresearch.siembol.alerts.common.AlertingTags;
+import uk.co.gresearch.siembol.alerts.protection.RuleProtectionSystemImpl;
 import uk.co.gresearch.siembol.alerts.storm.model.AlertMessages;
 import uk.co.gresearch.siembol.alerts.storm.model.ExceptionMessages;
 import uk.co.gresearch.siembol.common.model.AlertingStormAttributesDto;
@@ -143,10 +144,11 @@ public class CorrelationEngineBoltTest {
         when(zookeeperConnectorFactory.createZookeeperConnector(zookeperAttributes)).thenReturn(zookeeperConnector);
         when(zookeeperConnector.getData()).thenReturn(simpleCorrelationRules);
 
-        when(tuple.getStringByField(eq(TupleFieldNames.EVENT.toString()))).thenReturn(alert1, alert2, alert1);
+        when(tuple.getValueByField(eq(TupleFieldNames.EVENT.toString()))).thenReturn(alert1, alert2, alert1);
         when(collector.emit(eq(tuple), argumentEmitCaptor.capture())).thenReturn(new ArrayList<>());
 
-        correlationAlertingEngineBolt = new CorrelationAlertingEngineBolt(stormAttributes, zookeeperConnectorFactory);
+        correlationAlertingEngineBolt = new CorrelationAlertingEngineBolt(stormAttributes, zookeeperConnectorFactory,
+                new RuleProtectionSystemImpl());
         correlationAlertingEngineBolt.prepare(null, null, collector);
     }
 
@@ -184,7 +186,7 @@ public class CorrelationEngineBoltTest {
 
     @Test
     public void testException(){
-        when(tuple.getStringByField(eq(TupleFieldNames.EVENT.toString())))
+        when(tuple.getValueByField(eq(TupleFieldNames.EVENT.toString())))
                 .thenReturn("INVALID");
 
         correlationAlertingEngineBolt.execute(tuple);
@@ -200,7 +202,7 @@ public class CorrelationEngineBoltTest {
 
     @Test
     public void testNoMatchRule() {
-        when(tuple.getStringByField(eq(TupleFieldNames.EVENT.toString()))).thenReturn(
+        when(tuple.getValueByField(eq(TupleFieldNames.EVENT.toString()))).thenReturn(
                 alert1, alert1, alert1, alert1, alert1,
                 alert1, alert1, alert1, alert1, alert1 );
 
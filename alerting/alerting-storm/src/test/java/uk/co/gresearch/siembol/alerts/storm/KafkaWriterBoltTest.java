@@ -139,29 +139,6 @@ public class KafkaWriterBoltTest {
         Assert.assertEquals(AlertMessageStr.trim(), outputAlert.get(0).trim());
     }
 
-    @Test
-    public void testAlertMessageReachProtectionThreshold() throws Exception {
-        AlertMessage alert = new AlertMessage(AlertingEngineType.SIEMBOL_ALERTS, alertMap, AlertMessageStr);
-        AlertMessages.add(alert);
-        AlertMessages.add(alert);
-        writerBolt.execute(tuple);
-        List<String> outputAlert = kafkaRule.helper().consumeStrings("alerts", 1)
-                .get(10, TimeUnit.SECONDS);
-        Assert.assertNotNull(outputAlert);
-        Assert.assertEquals(1, outputAlert.size());
-        Assert.assertEquals(AlertMessageStr.trim(), outputAlert.get(0).trim());
-
-        List<String> outputExceptions = kafkaRule.helper().consumeStrings("errors", 1)
-                .get(10, TimeUnit.SECONDS);
-        Assert.assertNotNull(outputExceptions);
-        Assert.assertEquals(1, outputExceptions.size());
-        Map<String, Object> parsedException = JSON_MAP_READER.readValue(outputExceptions.get(0));
-        Assert.assertEquals("siembol_alerts", parsedException.get("failed_sensor_type"));
-        Assert.assertEquals("alerting_error", parsedException.get("error_type"));
-        Assert.assertEquals("error", parsedException.get(SiembolMessageFields.SENSOR_TYPE.toString()));
-        Assert.assertTrue(parsedException.get("message").toString().contains("The rule: alert1_v1 reaches the limit"));
-    }
-
     @Test
     public void testAlertingExceptionsOK() throws Exception {
         exceptionMessages.add("dummy");
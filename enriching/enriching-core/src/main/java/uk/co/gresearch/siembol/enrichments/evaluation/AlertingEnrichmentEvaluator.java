@@ -6,6 +6,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import uk.co.gresearch.siembol.alerts.common.AlertingEngine;
 import uk.co.gresearch.siembol.alerts.engine.AlertingEngineImpl;
+import uk.co.gresearch.siembol.common.utils.EventFormat;
 import uk.co.gresearch.siembol.enrichments.common.EnrichmentAttributes;
 import uk.co.gresearch.siembol.enrichments.common.EnrichmentCommand;
 import uk.co.gresearch.siembol.enrichments.common.EnrichmentResult;
@@ -17,6 +18,7 @@ import java.lang.invoke.MethodHandles;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 public class AlertingEnrichmentEvaluator implements EnrichmentEvaluator {
@@ -42,11 +44,18 @@ public class AlertingEnrichmentEvaluator implements EnrichmentEvaluator {
 
     @Override
     public EnrichmentResult evaluate(String event) {
-        EnrichmentAttributes attr = new EnrichmentAttributes();
+        return evaluate(alertingEngine.evaluate(event), () -> event);
+    }
+
+    @Override
+    public EnrichmentResult evaluate(byte[] event) {
+        return evaluate(alertingEngine.evaluate(event), () -> EventFormat.toJsonString(event));
+    }
 
-        AlertingResult result = alertingEngine.evaluate(event);
+    private EnrichmentResult evaluate(AlertingResult result, Supplier<String> event) {
+        EnrichmentAttributes attr = new EnrichmentAttributes();
         if (result.getStatusCode() == AlertingResult.StatusCode.ERROR) {
-            LOG.error(RULES_EXCEPTION_LOG, result.getAttributes().getException(), event);
+            LOG.error(RULES_EXCEPTION_LOG, result.getAttributes().getException(), event.get());
             attr.setMessage(result.getAttributes().getException());
             return new EnrichmentResult(EnrichmentResult.StatusCode.ERROR, attr);
         }
@@ -64,7 +73,7 @@ public class AlertingEnrichmentEvaluator implements EnrichmentEvaluator {
             attr.setEnrichmentCommands(ret);
             return new EnrichmentResult(EnrichmentResult.StatusCode.OK, attr);
         } catch (Exception e) {
-            LOG.error(RULES_EXCEPTION_LOG, ExceptionUtils.getStackTrace(e), event);
+            LOG.error(RULES_EXCEPTION_LOG, ExceptionUtils.getStackTrace(e), event.get());
             attr.setMessage(ExceptionUtils.getMessage(e));
             return new EnrichmentResult(EnrichmentResult.StatusCode.ERROR, attr);
         }
@@ -4,4 +4,6 @@ import uk.co.gresearch.siembol.enrichments.common.EnrichmentResult;
 
 public interface EnrichmentEvaluator {
     EnrichmentResult evaluate(String event);
+
+    EnrichmentResult evaluate(byte[] event);
 }
@@ -3,6 +3,7 @@ package uk.co.gresearch.siembol.enrichments.evaluation;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.apache.commons.lang3.tuple.Pair;
+import uk.co.gresearch.siembol.common.utils.EventFormat;
 import uk.co.gresearch.siembol.enrichments.common.EnrichmentCommand;
 import uk.co.gresearch.siembol.enrichments.table.EnrichmentTable;
 
@@ -42,4 +43,16 @@ public class EnrichmentEvaluatorLibrary {
         }
         return node.toString();
     }
+
+    public static byte[] mergeEnrichments(byte[] event,
+                                          List<Pair<String, String>> enrichments,
+                                          Optional<String> timestampField,
+                                          EventFormat outputFormat) throws IOException {
+        ObjectNode node = (ObjectNode)EventFormat.readTree(event);
+        enrichments.forEach(x -> node.put(x.getKey(), x.getValue()));
+        if (timestampField.isPresent()) {
+            node.put(timestampField.get(), System.currentTimeMillis());
+        }
+        return outputFormat.writeTree(node);
+    }
 }
@@ -121,12 +121,14 @@ public class EnrichmentEvaluatorBolt extends BaseRichBolt {
     @Override
     public void execute(Tuple tuple) {
         EnrichmentEvaluator currentEvaluator = enrichmentEvaluator.get();
-        String event = tuple.getStringByField(EnrichmentTuples.EVENT.toString());
+        Object event = tuple.getValueByField(EnrichmentTuples.EVENT.toString());
         EnrichmentCommands commands = new EnrichmentCommands();
         EnrichmentExceptions exceptions = new EnrichmentExceptions();
 
         try {
-            EnrichmentResult ret = currentEvaluator.evaluate(event);
+            EnrichmentResult ret = event instanceof byte[]
+                    ? currentEvaluator.evaluate((byte[])event)
+                    : currentEvaluator.evaluate((String)event);
             if (ret.getStatusCode() == OK) {
                 if (ret.getAttributes().getEnrichmentCommands() != null) {
                     commands.addAll(ret.getAttributes().getEnrichmentCommands());
@@ -14,6 +14,7 @@ import uk.co.gresearch.siembol.common.error.ErrorType;
 import uk.co.gresearch.siembol.common.constants.SiembolMessageFields;
 import uk.co.gresearch.siembol.common.storm.KafkaBatchWriterMessage;
 import uk.co.gresearch.siembol.common.storm.KafkaBatchWriterMessages;
+import uk.co.gresearch.siembol.common.utils.EventFormat;
 import uk.co.gresearch.siembol.enrichments.evaluation.EnrichmentEvaluatorLibrary;
 import uk.co.gresearch.siembol.enrichments.storm.common.EnrichmentTuples;
 import uk.co.gresearch.siembol.enrichments.storm.common.EnrichmentPairs;
@@ -21,6 +22,7 @@ import uk.co.gresearch.siembol.enrichments.storm.common.EnrichmentExceptions;
 import uk.co.gresearch.siembol.common.model.StormEnrichmentAttributesDto;
 
 import java.lang.invoke.MethodHandles;
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
 import java.util.Optional;
 
@@ -34,10 +36,15 @@ public class EnrichmentMergerBolt extends BaseRichBolt {
     private OutputCollector collector;
     private final String outputTopic;
     private final String errorTopic;
+    private final EventFormat eventsFormat;
 
     public EnrichmentMergerBolt(StormEnrichmentAttributesDto attributes) {
         this.outputTopic = attributes.getEnrichingOutputTopic();
         this.errorTopic = attributes.getEnrichingErrorTopic();
+        this.eventsFormat = attributes.getKafkaBatchWriterAttributes() != null
+                && attributes.getKafkaBatchWriterAttributes().getEventsFormat() != null
+                ? attributes.getKafkaBatchWriterAttributes().getEventsFormat()
+                : EventFormat.JSON;
     }
 
     @SuppressWarnings("rawtypes")
@@ -55,7 +62,7 @@ public class EnrichmentMergerBolt extends BaseRichBolt {
         }
         EnrichmentPairs enrichments = (EnrichmentPairs)enrichmentsObj;
 
-        String event = tuple.getStringByField(EnrichmentTuples.EVENT.toString());
+        Object event = tuple.getValueByField(EnrichmentTuples.EVENT.toString());
 
         Object exceptionsObj = tuple.getValueByField(EnrichmentTuples.EXCEPTIONS.toString());
         if (!(exceptionsObj instanceof EnrichmentExceptions)) {
@@ -64,6 +71,22 @@ public class EnrichmentMergerBolt extends BaseRichBolt {
         }
         EnrichmentExceptions exceptions = (EnrichmentExceptions)exceptionsObj;
 
+        if (event instanceof String && eventsFormat != EventFormat.JSON) {
+            event = ((String)event).getBytes(StandardCharsets.UTF_8);
+        }
+
+        KafkaBatchWriterMessages messages = new KafkaBatchWriterMessages();
+        if (event instanceof byte[]) {
+            messages.add(new KafkaBatchWriterMessage(outputTopic, mergeEnrichments((byte[])event, enrichments, exceptions)));
+        } else {
+            messages.add(new KafkaBatchWriterMessage(outputTopic, mergeEnrichments((String)event, enrichments, exceptions)));
+        }
+        exceptions.forEach(x -> messages.add(new KafkaBatchWriterMessage(errorTopic, x)));
+        collector.emit(tuple, new Values(messages));
+        collector.ack(tuple);
+    }
+
+    private String mergeEnrichments(String event, EnrichmentPairs enrichments, EnrichmentExceptions exceptions) {
         try {
             event = EnrichmentEvaluatorLibrary.mergeEnrichments(event,
                     enrichments,
@@ -74,11 +97,20 @@ public class EnrichmentMergerBolt extends BaseRichBolt {
         }
 
         LOG.debug(EVENT_INFO_LOG, event);
-        KafkaBatchWriterMessages messages = new KafkaBatchWriterMessages();
-        messages.add(new KafkaBatchWriterMessage(outputTopic, event));
-        exceptions.forEach(x -> messages.add(new KafkaBatchWriterMessage(errorTopic, x)));
-        collector.emit(tuple, new Values(messages));
-        collector.ack(tuple);
+        return event;
+    }
+
+    private byte[] mergeEnrichments(byte[] event, EnrichmentPairs enrichments, EnrichmentExceptions exceptions) {
+        try {
+            return EnrichmentEvaluatorLibrary.mergeEnrichments(event,
+                    enrichments,
+                    Optional.of(SiembolMessageFields.ENRICHING_TIME.toString()),
+                    eventsFormat);
+        } catch (Exception e) {
+            LOG.error(MERGING_ERROR, EventFormat.toJsonString(event), enrichments.toString());
+            exceptions.add(ErrorMessage.createErrorMessage(e, ErrorType.ENRICHMENT_ERROR).toString());
+            return event;
+        }
     }
 
     @Override
@@ -128,7 +128,7 @@ public class MemoryTableEnrichmentBolt extends BaseRichBolt {
 
     @Override
     public void execute(Tuple tuple) {
-        String event = tuple.getStringByField(EnrichmentTuples.EVENT.toString());
+        Object event = tuple.getValueByField(EnrichmentTuples.EVENT.toString());
 
         Object commandsObj = tuple.getValueByField(EnrichmentTuples.COMMANDS.toString());
         if (!(commandsObj instanceof EnrichmentCommands)) {
@@ -1,6 +1,7 @@
 package uk.co.gresearch.siembol.enrichments.storm;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.storm.Config;
 import org.apache.storm.StormSubmitter;
@@ -42,12 +43,14 @@ public class StormEnrichingApplication {
     private static final String SUBMIT_INFO_MSG = "Submitted enriching storm topology: {} " +
             "with enriching storm attributes: {}";
 
-    private static KafkaSpoutConfig<String, String> createKafkaSpoutConfig(StormEnrichmentAttributesDto attributes) {
+    private static KafkaSpoutConfig<String, Object> createKafkaSpoutConfig(StormEnrichmentAttributesDto attributes) {
         StormAttributesDto stormAttributes = attributes.getStormAttributes();
         stormAttributes.getKafkaSpoutProperties().getRawMap()
                 .put(KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
         stormAttributes.getKafkaSpoutProperties().getRawMap()
-                .put(VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+                .put(VALUE_DESERIALIZER_CLASS_CONFIG, Boolean.TRUE.equals(stormAttributes.getByteArrayEvents())
+                        ? ByteArrayDeserializer.class
+                        : StringDeserializer.class);
         stormAttributes.setKafkaTopics(attributes.getEnrichingInputTopics());
 
         return StormHelper.createKafkaSpoutConfig(stormAttributes,
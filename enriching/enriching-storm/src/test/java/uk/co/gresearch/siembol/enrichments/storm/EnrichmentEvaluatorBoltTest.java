@@ -14,6 +14,7 @@ import uk.co.gresearch.siembol.common.model.ZookeeperAttributesDto;
 import uk.co.gresearch.siembol.common.zookeper.ZookeeperConnectorFactory;
 import uk.co.gresearch.siembol.common.zookeper.ZookeeperConnector;
 import uk.co.gresearch.siembol.enrichments.storm.common.*;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 
 import static org.mockito.ArgumentMatchers.eq;
@@ -92,7 +93,7 @@ public class EnrichmentEvaluatorBoltTest {
         when(zookeeperConnectorFactory.createZookeeperConnector(zookeperAttributes)).thenReturn(zookeeperConnector);
         when(zookeeperConnector.getData()).thenReturn(testRules);
 
-        when(tuple.getStringByField(eq(EnrichmentTuples.EVENT.toString()))).thenReturn(event);
+        when(tuple.getValueByField(eq(EnrichmentTuples.EVENT.toString()))).thenReturn(event);
         when(collector.emit(eq(tuple), argumentEmitCaptor.capture())).thenReturn(new ArrayList<>());
 
         enrichmentEvaluatorBolt = new EnrichmentEvaluatorBolt(attributes, zookeeperConnectorFactory);
@@ -118,9 +119,24 @@ public class EnrichmentEvaluatorBoltTest {
         Assert.assertTrue(((EnrichmentExceptions)values.get(2)).isEmpty());
     }
 
+    @Test
+    public void testMatchRuleByteArrayEvent() {
+        byte[] eventBytes = event.getBytes(StandardCharsets.UTF_8);
+        when(tuple.getValueByField(eq(EnrichmentTuples.EVENT.toString()))).thenReturn(eventBytes);
+        enrichmentEvaluatorBolt.execute(tuple);
+        Values values = argumentEmitCaptor.getValue();
+        Assert.assertNotNull(values);
+        Assert.assertEquals(3, values.size());
+        Assert.assertSame(eventBytes, values.get(0));
+        EnrichmentCommands commands = (EnrichmentCommands)values.get(1);
+        Assert.assertEquals(1, commands.size());
+        Assert.assertEquals("tmp_string", commands.get(0).getKey());
+        Assert.assertTrue(((EnrichmentExceptions)values.get(2)).isEmpty());
+    }
+
     @Test
     public void testNoMatchRule() {
-        when(tuple.getStringByField(eq(EnrichmentTuples.EVENT.toString()))).thenReturn("{}");
+        when(tuple.getValueByField(eq(EnrichmentTuples.EVENT.toString()))).thenReturn("{}");
         enrichmentEvaluatorBolt.execute(tuple);
         Values values = argumentEmitCaptor.getValue();
         Assert.assertNotNull(values);
@@ -134,7 +150,7 @@ public class EnrichmentEvaluatorBoltTest {
 
     @Test
     public void testExceptionRule() {
-        when(tuple.getStringByField(eq(EnrichmentTuples.EVENT.toString()))).thenReturn("INVALID");
+        when(tuple.getValueByField(eq(EnrichmentTuples.EVENT.toString()))).thenReturn("INVALID");
         enrichmentEvaluatorBolt.execute(tuple);
         Values values = argumentEmitCaptor.getValue();
         Assert.assertNotNull(values);
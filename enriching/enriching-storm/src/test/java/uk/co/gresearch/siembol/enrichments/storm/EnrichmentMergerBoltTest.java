@@ -11,12 +11,15 @@ import org.junit.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 
+import uk.co.gresearch.siembol.common.model.KafkaBatchWriterAttributesDto;
 import uk.co.gresearch.siembol.common.storm.KafkaBatchWriterMessages;
+import uk.co.gresearch.siembol.common.utils.EventFormat;
 import uk.co.gresearch.siembol.enrichments.storm.common.EnrichmentTuples;
 import uk.co.gresearch.siembol.enrichments.storm.common.EnrichmentPairs;
 import uk.co.gresearch.siembol.enrichments.storm.common.EnrichmentExceptions;
 import uk.co.gresearch.siembol.common.model.StormEnrichmentAttributesDto;
 
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 import static org.mockito.ArgumentMatchers.eq;
@@ -54,7 +57,7 @@ public class EnrichmentMergerBoltTest {
         collector = Mockito.mock(OutputCollector.class);
         argumentEmitCaptor = ArgumentCaptor.forClass(Values.class);
 
-        when(tuple.getStringByField(eq(EnrichmentTuples.EVENT.toString()))).thenReturn(event);
+        when(tuple.getValueByField(eq(EnrichmentTuples.EVENT.toString()))).thenReturn(event);
         when(tuple.getValueByField(eq(EnrichmentTuples.ENRICHMENTS.toString()))).thenReturn(enrichments);
         when(tuple.getValueByField(eq(EnrichmentTuples.EXCEPTIONS.toString()))).thenReturn(exceptions);
         when(collector.emit(eq(tuple), argumentEmitCaptor.capture())).thenReturn(new ArrayList<>());
@@ -137,9 +140,72 @@ public class EnrichmentMergerBoltTest {
         Assert.assertTrue(messages.get(0).getMessage().contains("\"test\":\"enrichment\""));
     }
 
+    @Test
+    public void testByteArrayEventNonEmptyEnrichments() {
+        when(tuple.getValueByField(eq(EnrichmentTuples.EVENT.toString())))
+                .thenReturn(event.getBytes(StandardCharsets.UTF_8));
+        enrichments.add(Pair.of("test", "enrichment"));
+        mergerBolt.execute(tuple);
+
+        Values values = argumentEmitCaptor.getValue();
+        Assert.assertNotNull(values);
+        KafkaBatchWriterMessages messages = (KafkaBatchWriterMessages)values.get(0);
+        Assert.assertEquals(1, messages.size());
+        Assert.assertEquals(outputTopic, messages.get(0).getTopic());
+        String enriched = new String(messages.get(0).getMessageBytes(), StandardCharsets.UTF_8);
+        Assert.assertTrue(enriched.startsWith("{\"a\":\"string\",\"b\":1,\"c\":true"));
+        Assert.assertTrue(enriched.contains("siembol_enriching_ts"));
+        Assert.assertTrue(enriched.contains("\"test\":\"enrichment\""));
+    }
+
+    @Test
+    public void testSmileEventsFormat() throws Exception {
+        KafkaBatchWriterAttributesDto writerAttributes = new KafkaBatchWriterAttributesDto();
+        writerAttributes.setEventsFormat(EventFormat.SMILE);
+        StormEnrichmentAttributesDto attributes = new StormEnrichmentAttributesDto();
+        attributes.setEnrichingErrorTopic(errorTopic);
+        attributes.setEnrichingOutputTopic(outputTopic);
+        attributes.setKafkaBatchWriterAttributes(writerAttributes);
+        mergerBolt = new EnrichmentMergerBolt(attributes);
+        mergerBolt.prepare(null, null, collector);
+
+        enrichments.add(Pair.of("test", "enrichment"));
+        mergerBolt.execute(tuple);
+
+        KafkaBatchWriterMessages messages = (KafkaBatchWriterMessages)argumentEmitCaptor.getValue().get(0);
+        Assert.assertEquals(1, messages.size());
+        byte[] enriched = messages.get(0).getMessageBytes();
+        Assert.assertEquals(EventFormat.SMILE, EventFormat.detect(enriched));
+        Map<String, Object> enrichedMap = EventFormat.readEvent(enriched);
+        Assert.assertEquals("string", enrichedMap.get("a"));
+        Assert.assertEquals("enrichment", enrichedMap.get("test"));
+        Assert.assertTrue(enrichedMap.containsKey("siembol_enriching_ts"));
+
+        when(tuple.getValueByField(eq(EnrichmentTuples.EVENT.toString()))).thenReturn(enriched);
+        mergerBolt.execute(tuple);
+        messages = (KafkaBatchWriterMessages)argumentEmitCaptor.getValue().get(0);
+        Assert.assertEquals(1, messages.size());
+        Assert.assertEquals("enrichment", EventFormat.readEvent(messages.get(0).getMessageBytes()).get("test"));
+    }
+
+    @Test
+    public void testInvalidByteArrayEvent() {
+        when(tuple.getValueByField(eq(EnrichmentTuples.EVENT.toString())))
+                .thenReturn("INVALID".getBytes(StandardCharsets.UTF_8));
+        mergerBolt.execute(tuple);
+
+        Values values = argumentEmitCaptor.getValue();
+        Assert.assertNotNull(values);
+        KafkaBatchWriterMessages messages = (KafkaBatchWriterMessages)values.get(0);
+        Assert.assertEquals(outputTopic, messages.get(0).getTopic());
+        Assert.assertEquals("INVALID", messages.get(0).getMessage());
+        Assert.assertEquals(errorTopic, messages.get(1).getTopic());
+        Assert.assertTrue(messages.get(1).getMessage().contains("\"error_type\":\"enrichment_error\""));
+    }
+
     @Test
     public void testInvalidEvent() {
-        when(tuple.getStringByField(eq(EnrichmentTuples.EVENT.toString()))).thenReturn("INVALID");
+        when(tuple.getValueByField(eq(EnrichmentTuples.EVENT.toString()))).thenReturn("INVALID");
         mergerBolt.execute(tuple);
 
         Values values = argumentEmitCaptor.getValue();
@@ -12,6 +12,7 @@ public class ParsingApplicationFactoryAttributes {
     private Integer outputParallelism;
     private Integer parsingParallelism;
     private List<String> inputTopics;
+    private boolean groupByMetadata;
     private ParsingApplicationParser applicationParser;
     private String message;
 
@@ -63,6 +64,14 @@ public class ParsingApplicationFactoryAttributes {
         this.inputTopics = inputTopics;
     }
 
+    public boolean isGroupByMetadata() {
+        return groupByMetadata;
+    }
+
+    public void setGroupByMetadata(boolean groupByMetadata) {
+        this.groupByMetadata = groupByMetadata;
+    }
+
     public ParsingApplicationParser getApplicationParser() {
         return applicationParser;
     }
@@ -17,12 +17,19 @@ import uk.co.gresearch.siembol.parsers.common.SerializableSiembolParser;
 import uk.co.gresearch.siembol.parsers.factory.ParserFactory;
 import uk.co.gresearch.siembol.parsers.factory.ParserFactoryImpl;
 import uk.co.gresearch.siembol.parsers.factory.ParserFactoryResult;
+import uk.co.gresearch.siembol.parsers.model.MessagePrefilterDto;
 import uk.co.gresearch.siembol.parsers.model.ParserConfigDto;
 import uk.co.gresearch.siembol.parsers.model.ParsersConfigDto;
+import uk.co.gresearch.siembol.parsers.transformations.MessagePrefilter;
+import uk.co.gresearch.siembol.parsers.transformations.TransformationFactory;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import static uk.co.gresearch.siembol.parsers.application.factory.ParsingApplicationFactoryResult.StatusCode.ERROR;
@@ -33,6 +40,9 @@ public class ParsingApplicationFactoryImpl implements ParsingApplicationFactory
     private static final String MISSING_PARSER_MSG = "Missing parser: %s in parser configurations";
     private static final String MISSING_SINGLE_PARSER = "Missing single_parser properties";
     private static final String MISSING_ROUTING_PARSER = "Missing routing_parser properties";
+    private static final String DUPLICATE_PREFILTER_MSG = "Duplicate prefilter name: %s";
+    private static final String UNSUPPORTED_AFTER_EXTRACTOR_MSG =
+            "Prefilter %s of parsing application can not be evaluated after an extractor";
 
     private static final ObjectReader JSON_PARSERS_CONFIG_READER = new ObjectMapper()
             .readerFor(ParsersConfigDto.class);
@@ -124,6 +134,29 @@ public class ParsingApplicationFactoryImpl implements ParsingApplicationFactory
         }
     }
 
+    private List<MessagePrefilter> createPrefilters(List<MessagePrefilterDto> prefilterDtos) {
+        List<MessagePrefilter> ret = new ArrayList<>();
+        if (prefilterDtos == null) {
+            return ret;
+        }
+
+        TransformationFactory transformationFactory = new TransformationFactory();
+        Set<String> names = new HashSet<>();
+        for (MessagePrefilterDto prefilterDto : prefilterDtos) {
+            if (prefilterDto.getAfterExtractor() != null) {
+                throw new IllegalArgumentException(
+                        String.format(UNSUPPORTED_AFTER_EXTRACTOR_MSG, prefilterDto.getPrefilterName()));
+            }
+
+            MessagePrefilter prefilter = transformationFactory.createMessagePrefilter(prefilterDto);
+            if (!names.add(prefilter.getName())) {
+                throw new IllegalArgumentException(String.format(DUPLICATE_PREFILTER_MSG, prefilter.getName()));
+            }
+            ret.add(prefilter);
+        }
+        return ret;
+    }
+
     private ParsingApplicationParser createParser(ParsingApplicationDto application,
                                                   String parserConfigs) throws Exception {
         ParsersConfigDto parsers = JSON_PARSERS_CONFIG_READER.readValue(parserConfigs);
@@ -138,6 +171,7 @@ public class ParsingApplicationFactoryImpl implements ParsingApplicationFactory
 
         ParsingApplicationSettingsDto appSettings = application.getParsingApplicationSettingsDto();
         ParsingSettingsDto parsingSettingsDto = application.getParsingSettingsDto();
+        List<MessagePrefilter> prefilters = createPrefilters(appSettings.getPrefilters());
 
         if (appSettings.getApplicationType() == SINGLE_PARSER) {
             if (parsingSettingsDto.getSingleParser() == null) {
@@ -158,6 +192,8 @@ public class ParsingApplicationFactoryImpl implements ParsingApplicationFactory
                     .addGuidToMessages(true)
                     .errorTopic(appSettings.getErrorTopic())
                     .metadataPrefix(appSettings.getMetadataPrefix())
+                    .metadataCacheSize(appSettings.getMetadataCacheSize())
+                    .prefilters(prefilters)
                     .name(application.getParsingApplicationName())
                     .build();
         }
@@ -200,6 +236,8 @@ public class ParsingApplicationFactoryImpl implements ParsingApplicationFactory
                 .parseMetadata(appSettings.getParseMetadata())
                 .addGuidToMessages(true)
                 .metadataPrefix(appSettings.getMetadataPrefix())
+                .metadataCacheSize(appSettings.getMetadataCacheSize())
+                .prefilters(prefilters)
                 .name(application.getParsingApplicationName());
 
         return builder.build();
@@ -221,5 +259,7 @@ public class ParsingApplicationFactoryImpl implements ParsingApplicationFactory
         attributes.setOutputParallelism(application.getParsingApplicationSettingsDto().getOutputParallelism());
         attributes.setParsingParallelism(application.getParsingApplicationSettingsDto().getParsingParallelism());
         attributes.setInputTopics(application.getParsingApplicationSettingsDto().getInputTopics());
+        attributes.setGroupByMetadata(
+                Boolean.TRUE.equals(application.getParsingApplicationSettingsDto().getGroupByMetadata()));
     }
 }
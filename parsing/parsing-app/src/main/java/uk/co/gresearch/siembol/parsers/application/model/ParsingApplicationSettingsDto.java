@@ -2,6 +2,7 @@ package uk.co.gresearch.siembol.parsers.application.model;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.github.reinert.jjschema.Attributes;
+import uk.co.gresearch.siembol.parsers.model.MessagePrefilterDto;
 
 import java.util.List;
 
@@ -42,6 +43,21 @@ public class ParsingApplicationSettingsDto {
     @Attributes(description = "Prefix used in metadata fields when parsing metadata is enabled")
     private String metadataPrefix = "metadata_";
 
+    @JsonProperty("metadata_cache_size")
+    @Attributes(description = "The maximum number of distinct parsed metadata cached when parsing metadata is enabled",
+            minimum = 0)
+    private Integer metadataCacheSize = 1000;
+
+    @JsonProperty("group_by_metadata")
+    @Attributes(description = "Messages with the same metadata are parsed by the same executor, " +
+            "e.g. netflow messages from the same exporter")
+    private Boolean groupByMetadata = false;
+
+    @JsonProperty("prefilters")
+    @Attributes(description = "Message filters evaluated on the original message and metadata before parsing, " +
+            "metadata fields are available when parsing metadata is enabled", minItems = 1)
+    private List<MessagePrefilterDto> prefilters;
+
     public ParsingApplicationTypeDto getApplicationType() {
         return applicationType;
     }
@@ -98,6 +114,30 @@ public class ParsingApplicationSettingsDto {
         this.metadataPrefix = metadataPrefix;
     }
 
+    public Integer getMetadataCacheSize() {
+        return metadataCacheSize;
+    }
+
+    public void setMetadataCacheSize(Integer metadataCacheSize) {
+        this.metadataCacheSize = metadataCacheSize;
+    }
+
+    public Boolean getGroupByMetadata() {
+        return groupByMetadata;
+    }
+
+    public void setGroupByMetadata(Boolean groupByMetadata) {
+        this.groupByMetadata = groupByMetadata;
+    }
+
+    public List<MessagePrefilterDto> getPrefilters() {
+        return prefilters;
+    }
+
+    public void setPrefilters(List<MessagePrefilterDto> prefilters) {
+        this.prefilters = prefilters;
+    }
+
     public Boolean getParseMetadata() {
         return parseMetadata;
     }
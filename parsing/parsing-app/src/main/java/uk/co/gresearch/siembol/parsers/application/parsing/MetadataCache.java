@@ -0,0 +1,72 @@
+package uk.co.gresearch.siembol.parsers.application.parsing;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded least recently used cache of parsed metadata keyed by the raw metadata string.
+ * Cached values are immutable and they are shared by all messages with the same metadata.
+ */
+public class MetadataCache implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private final int maxSize;
+    private final LinkedHashMap<String, Map<String, Object>> cache;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public MetadataCache(int maxSize) {
+        this.maxSize = maxSize;
+        this.cache = new LinkedHashMap<String, Map<String, Object>>(16, LOAD_FACTOR, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Map<String, Object>> eldest) {
+                return size() > MetadataCache.this.maxSize;
+            }
+        };
+    }
+
+    public synchronized Map<String, Object> get(String metadata) {
+        Map<String, Object> ret = cache.get(metadata);
+        if (ret != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+        }
+        return ret;
+    }
+
+    public synchronized Map<String, Object> put(String metadata, Map<String, Object> parsedMetadata) {
+        Map<String, Object> ret = Collections.unmodifiableMap(parsedMetadata);
+        if (maxSize > 0) {
+            cache.put(metadata, ret);
+        }
+        return ret;
+    }
+
+    public synchronized int size() {
+        return cache.size();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public double getHitRatio() {
+        return getHitRatio(hits.get(), misses.get());
+    }
+
+    public static double getHitRatio(long hits, long misses) {
+        long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+}
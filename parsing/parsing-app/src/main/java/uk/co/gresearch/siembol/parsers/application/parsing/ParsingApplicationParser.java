@@ -10,15 +10,22 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import uk.co.gresearch.siembol.common.error.ErrorMessage;
 import uk.co.gresearch.siembol.common.error.ErrorType;
+import uk.co.gresearch.siembol.common.utils.EventFormat;
 import uk.co.gresearch.siembol.common.utils.TimeProvider;
 import uk.co.gresearch.siembol.common.constants.SiembolMessageFields;
 import uk.co.gresearch.siembol.parsers.common.ParserResult;
+import uk.co.gresearch.siembol.parsers.common.SiembolParser;
+import uk.co.gresearch.siembol.parsers.transformations.MessagePrefilter;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.lang.invoke.MethodHandles;
 import java.util.*;
+import java.util.function.LongSupplier;
 import java.util.stream.Collectors;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+
 public abstract class ParsingApplicationParser implements Serializable {
     public enum Flags implements Serializable {
         PARSE_METADATA,
@@ -36,6 +43,7 @@ public abstract class ParsingApplicationParser implements Serializable {
     private static final String ERROR_MESSAGE = "Exception during parsing, parsing_app: {} message: {}, " +
             "metadata: {}, exception: {}";
     private static final String MISSING_ARGUMENTS = "Missing arguments required for Parsing application parser";
+    private static final String PARSER_COUNTER_FORMAT = "%s_%s";
 
     private final EnumSet<Flags> flags;
     private final String name;
@@ -44,6 +52,9 @@ public abstract class ParsingApplicationParser implements Serializable {
     private final String sourceType;
     private final String processingTimeField;
     private final TimeProvider timeProvider;
+    private final MetadataCache metadataCache;
+    private final ArrayList<MessagePrefilter> prefilters;
+    private final boolean prefiltersUseOriginal;
 
     protected ParsingApplicationParser(Builder<?> builder) {
         this.name = builder.name;
@@ -53,10 +64,15 @@ public abstract class ParsingApplicationParser implements Serializable {
         this.processingTimeField = builder.processingTimeField;
         this.flags = builder.flags;
         this.timeProvider = builder.timeProvider;
+        this.metadataCache = new MetadataCache(builder.metadataCacheSize);
+        this.prefilters = builder.prefilters;
+        this.prefiltersUseOriginal = prefilters.stream()
+                .anyMatch(x -> x.usesField(SiembolMessageFields.ORIGINAL.toString()));
         if (name == null
                 || errorTopic == null
                 || processingTimeField == null
-                || timeProvider == null) {
+                || timeProvider == null
+                || builder.metadataCacheSize < 0) {
             throw new IllegalArgumentException(MISSING_ARGUMENTS);
         }
     }
@@ -73,20 +89,65 @@ public abstract class ParsingApplicationParser implements Serializable {
 
     protected abstract List<ParserResult> parseInternally(String metadata, byte[] message);
 
+    protected abstract List<SiembolParserWrapper> getParsers();
+
+    private boolean isFiltered(Map<String, Object> metadataObject, byte[] message) {
+        if (!prefiltersUseOriginal) {
+            return MessagePrefilter.filter(prefilters,
+                    metadataObject != null ? metadataObject : Collections.emptyMap());
+        }
+
+        //NOTE: cached metadata object is shared so it is not modified
+        Map<String, Object> prefilterObject = metadataObject != null
+                ? new HashMap<>(metadataObject)
+                : new HashMap<>();
+        prefilterObject.put(SiembolMessageFields.ORIGINAL.toString(), new String(message, UTF_8));
+        return MessagePrefilter.filter(prefilters, prefilterObject);
+    }
+
+    private Map<String, Object> getMetadataObject(String metadata) throws IOException {
+        Map<String, Object> ret = metadataCache.get(metadata);
+        if (ret != null) {
+            return ret;
+        }
+
+        //NOTE: metadata fields are cached already with the metadata prefix
+        Map<String, Object> parsedMetadata = JSON_READER.readValue(metadata.trim());
+        Map<String, Object> prefixedMetadata = new LinkedHashMap<>();
+        parsedMetadata.forEach((k, v) -> prefixedMetadata.put(String.format(metadataFormatMsg, k), v));
+        return metadataCache.put(metadata, prefixedMetadata);
+    }
+
     public ArrayList<ParsingApplicationResult> parse(String metadata, byte[] message) {
+        return parse(metadata, message, null);
+    }
+
+    public ArrayList<ParsingApplicationResult> parseToBytes(String metadata, byte[] message) {
+        return parse(metadata, message, EventFormat.JSON);
+    }
+
+    public ArrayList<ParsingApplicationResult> parseToBytes(String metadata, byte[] message, EventFormat format) {
+        return parse(metadata, message, format);
+    }
+
+    private ArrayList<ParsingApplicationResult> parse(String metadata, byte[] message, EventFormat bytesFormat) {
         ArrayList<ParsingApplicationResult> ret = new ArrayList<>();
         try {
             Map<String, Object> metadataObject = flags.contains(Flags.PARSE_METADATA)
-                    ? JSON_READER.readValue(metadata.trim())
+                    ? getMetadataObject(metadata)
                     : null;
 
+            if (!prefilters.isEmpty() && isFiltered(metadataObject, message)) {
+                return ret;
+            }
 
             long timestamp = timeProvider.getCurrentTimeInMs();
             for (ParserResult parserResult : parseInternally(metadata, message)) {
                 if (parserResult.getException() != null) {
                     ret.add(new ParsingApplicationResult(
                             errorTopic,
-                            getErrorMessage(parserResult.getException(), parserResult.getSourceType(), message)));
+                            getErrorMessage(parserResult.getException(), parserResult.getSourceType(), message))
+                            .sourceType(parserResult.getSourceType()));
                     continue;
                 }
 
@@ -105,8 +166,22 @@ public abstract class ParsingApplicationParser implements Serializable {
                 });
 
                 if (metadataObject != null) {
-                    parsed.forEach(x -> metadataObject.keySet().forEach(y -> x.put(
-                            String.format(metadataFormatMsg, y), metadataObject.get(y))));
+                    parsed.forEach(x -> x.putAll(metadataObject));
+                }
+
+                if (bytesFormat != null) {
+                    ArrayList<byte[]> serialised = parsed.stream()
+                            .map(x -> {
+                                try {
+                                    return bytesFormat.writeEvent(x);
+                                } catch (JsonProcessingException e) {
+                                    throw new RuntimeException(e);
+                                }
+                            })
+                            .collect(Collectors.toCollection(ArrayList::new));
+                    ret.add(ParsingApplicationResult.fromBytes(parserResult.getTopic(), serialised)
+                            .sourceType(parserResult.getSourceType()));
+                    continue;
                 }
 
                 ArrayList<String> serialised = parsed.stream()
@@ -118,12 +193,14 @@ public abstract class ParsingApplicationParser implements Serializable {
                             }
                         })
                         .collect(Collectors.toCollection(ArrayList::new));
-                ret.add(new ParsingApplicationResult(parserResult.getTopic(), serialised));
+                ret.add(new ParsingApplicationResult(parserResult.getTopic(), serialised)
+                        .sourceType(parserResult.getSourceType()));
             }
             return ret;
         } catch (Exception e) {
             LOG.error(ERROR_MESSAGE, name, new String(message), metadata, ExceptionUtils.getMessage(e));
-            ret.add(new ParsingApplicationResult(errorTopic, getErrorMessage(e, sourceType, message)));
+            ret.add(new ParsingApplicationResult(errorTopic, getErrorMessage(e, sourceType, message))
+                    .sourceType(sourceType));
             return ret;
         }
     }
@@ -132,15 +209,95 @@ public abstract class ParsingApplicationParser implements Serializable {
         return name;
     }
 
+    public String getErrorTopic() {
+        return errorTopic;
+    }
+
+    public MetadataCache getMetadataCache() {
+        return metadataCache;
+    }
+
+    /**
+     * Returns the counters of messages dropped by the prefilters of the application and its parsers
+     * @return the map of the prefilter name to the counter of dropped messages,
+     * the names of the parser prefilters are prefixed by the parser source type
+     */
+    public Map<String, LongSupplier> getDroppedMessagesCounters() {
+        Map<String, LongSupplier> ret = new LinkedHashMap<>();
+        prefilters.forEach(x -> ret.put(x.getName(), x::getDroppedMessages));
+        for (SiembolParserWrapper parser : getParsers()) {
+            parser.getDroppedMessagesCounters().forEach((k, v) -> mergeCounter(ret,
+                    String.format(PARSER_COUNTER_FORMAT, parser.getSourceType(), k), v));
+        }
+        return ret;
+    }
+
+    /**
+     * Returns the number of messages dropped by the prefilters of the application and its parsers
+     * @return the map of the prefilter name to the number of dropped messages,
+     * the names of the parser prefilters are prefixed by the parser source type
+     */
+    public Map<String, Long> getDroppedMessages() {
+        return SiembolParser.getCounts(getDroppedMessagesCounters());
+    }
+
+    /**
+     * Returns the counters of messages matched by the patterns of the parser extractors
+     * @return the map of the parser source type with the extractor name and the pattern index
+     * to the counter of matched messages
+     */
+    public Map<String, LongSupplier> getPatternsHitsCounters() {
+        Map<String, LongSupplier> ret = new LinkedHashMap<>();
+        for (SiembolParserWrapper parser : getParsers()) {
+            parser.getPatternsHitsCounters().forEach((k, v) -> mergeCounter(ret,
+                    String.format(PARSER_COUNTER_FORMAT, parser.getSourceType(), k), v));
+        }
+        return ret;
+    }
+
+    /**
+     * Returns the number of messages matched by the patterns of the parser extractors
+     * @return the map of the parser source type with the extractor name and the pattern index
+     * to the number of matched messages
+     */
+    public Map<String, Long> getPatternsHits() {
+        return SiembolParser.getCounts(getPatternsHitsCounters());
+    }
+
+    /**
+     * Returns the counters of messages routed to the parsers of the application
+     * @return the map of the parser source type to the counter of routed messages,
+     * empty if the application does not route messages
+     */
+    public Map<String, LongSupplier> getRoutesHitsCounters() {
+        return new LinkedHashMap<>();
+    }
+
+    /**
+     * Returns the number of messages routed to the parsers of the application
+     * @return the map of the parser source type to the number of routed messages,
+     * empty if the application does not route messages
+     */
+    public Map<String, Long> getRoutesHits() {
+        return SiembolParser.getCounts(getRoutesHitsCounters());
+    }
+
+    protected static void mergeCounter(Map<String, LongSupplier> counters, String name, LongSupplier counter) {
+        counters.merge(name, counter, (x, y) -> () -> x.getAsLong() + y.getAsLong());
+    }
+
     public static abstract class Builder<T extends ParsingApplicationParser> implements Serializable {
         private static final long serialVersionUID = 1L;
         private static final String METADATA_FORMAT_MSG = "%s";
+        private static final int DEFAULT_METADATA_CACHE_SIZE = 1000;
         protected EnumSet<Flags> flags = EnumSet.noneOf(Flags.class);
         protected String name;
         protected String metadataFormatMsg = METADATA_FORMAT_MSG;
         protected String errorTopic;
         protected String processingTimeField = SiembolMessageFields.PARSING_TIME.toString();
         protected TimeProvider timeProvider = new TimeProvider();
+        protected int metadataCacheSize = DEFAULT_METADATA_CACHE_SIZE;
+        protected ArrayList<MessagePrefilter> prefilters = new ArrayList<>();
 
         public Builder<T> name(String name) {
             this.name = name;
@@ -168,6 +325,20 @@ public abstract class ParsingApplicationParser implements Serializable {
             return this;
         }
 
+        public Builder<T> metadataCacheSize(Integer metadataCacheSize) {
+            if (metadataCacheSize != null) {
+                this.metadataCacheSize = metadataCacheSize;
+            }
+            return this;
+        }
+
+        public Builder<T> prefilters(List<MessagePrefilter> prefilters) {
+            if (prefilters != null) {
+                this.prefilters = new ArrayList<>(prefilters);
+            }
+            return this;
+        }
+
         public Builder<T> errorTopic(String errorTopic) {
             this.errorTopic = errorTopic;
             return this;
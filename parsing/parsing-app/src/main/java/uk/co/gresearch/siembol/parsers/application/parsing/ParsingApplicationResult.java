@@ -1,29 +1,62 @@
 package uk.co.gresearch.siembol.parsers.application.parsing;
 
 import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.stream.Collectors;
 
 public class ParsingApplicationResult implements Serializable {
     private static final long serialVersionUID = 1L;
     private final String topic;
     private final ArrayList<String> messages;
+    private final ArrayList<byte[]> messagesBytes;
+    private String sourceType;
 
-    public ParsingApplicationResult(String topic, ArrayList<String> messages) {
+    private ParsingApplicationResult(String topic, ArrayList<String> messages, ArrayList<byte[]> messagesBytes) {
         this.topic = topic;
         this.messages = messages;
+        this.messagesBytes = messagesBytes;
+    }
+
+    public ParsingApplicationResult(String topic, ArrayList<String> messages) {
+        this(topic, messages, null);
     }
+
     public ParsingApplicationResult(String topic, String message) {
-        this.topic = topic;
-        messages = new ArrayList<>();
+        this(topic, new ArrayList<>(), null);
         messages.add(message);
     }
 
+    public static ParsingApplicationResult fromBytes(String topic, ArrayList<byte[]> messagesBytes) {
+        return new ParsingApplicationResult(topic, null, messagesBytes);
+    }
+
     public String getTopic() {
         return topic;
     }
 
+    public String getSourceType() {
+        return sourceType;
+    }
+
+    ParsingApplicationResult sourceType(String sourceType) {
+        this.sourceType = sourceType;
+        return this;
+    }
+
     public ArrayList<String> getMessages() {
-        return messages;
+        return messages != null
+                ? messages
+                : messagesBytes.stream()
+                .map(x -> new String(x, StandardCharsets.UTF_8))
+                .collect(Collectors.toCollection(ArrayList::new));
     }
 
+    public ArrayList<byte[]> getMessagesBytes() {
+        return messagesBytes != null
+                ? messagesBytes
+                : messages.stream()
+                .map(x -> x.getBytes(StandardCharsets.UTF_8))
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
 }
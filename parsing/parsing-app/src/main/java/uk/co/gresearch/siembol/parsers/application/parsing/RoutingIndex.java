@@ -0,0 +1,140 @@
+package uk.co.gresearch.siembol.parsers.application.parsing;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Index of routing conditions that returns the first route with a matching condition.
+ * Conditions that match only an exact value are dispatched by a hash map while the remaining
+ * regular expressions are combined into a single pattern evaluated in one pass.
+ * A null condition matches any message.
+ */
+class RoutingIndex implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private static final String REGEX_META_CHARACTERS = "\\[](){}.*+?^$|";
+    private static final String QUOTATION_START = "\\Q";
+    private static final String QUOTATION_END = "\\E";
+    private static final String ROUTE_GROUP_NAME_FORMAT = "siembolroute%d";
+    private static final String ROUTE_GROUP_FORMAT = "(?<%s>%s)";
+    private static final String ALTERNATION = "|";
+    private static final Pattern UNSUPPORTED_COMBINED_REGEX = Pattern.compile(
+            "\\\\[1-9]|\\\\k<|\\(\\?<[a-zA-Z]|\\(\\?[idmsuxU-]*x");
+    private static final int NO_ROUTE = Integer.MAX_VALUE;
+
+    private final HashMap<String, Integer> exactRoutes = new HashMap<>();
+    private final Pattern combinedPattern;
+    private final String[] combinedGroups;
+    private final int[] combinedRoutes;
+    private final ArrayList<Pattern> separatePatterns = new ArrayList<>();
+    private final ArrayList<Integer> separateRoutes = new ArrayList<>();
+    private final int defaultRoute;
+
+    RoutingIndex(List<String> conditions, int flags) {
+        List<String> combined = new ArrayList<>();
+        List<Integer> combinedRoutesList = new ArrayList<>();
+        int firstAlwaysMatch = NO_ROUTE;
+        boolean commentsMode = (flags & Pattern.COMMENTS) != 0;
+        for (int i = 0; i < conditions.size(); i++) {
+            String condition = conditions.get(i);
+            if (condition == null) {
+                firstAlwaysMatch = Math.min(firstAlwaysMatch, i);
+                continue;
+            }
+
+            //NOTE: validation of the condition
+            Pattern pattern = Pattern.compile(condition, flags);
+            String literal = commentsMode ? null : getLiteral(condition);
+            if (literal != null) {
+                exactRoutes.putIfAbsent(literal, i);
+            } else if (commentsMode || UNSUPPORTED_COMBINED_REGEX.matcher(condition).find()) {
+                //NOTE: back references and named groups are renumbered in a combined pattern
+                //and a comment in the comments mode would hide the end of its group
+                separatePatterns.add(pattern);
+                separateRoutes.add(i);
+            } else {
+                combined.add(condition);
+                combinedRoutesList.add(i);
+            }
+        }
+
+        defaultRoute = firstAlwaysMatch == NO_ROUTE ? -1 : firstAlwaysMatch;
+        combinedGroups = new String[combined.size()];
+        combinedRoutes = new int[combined.size()];
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < combined.size(); i++) {
+            combinedGroups[i] = String.format(ROUTE_GROUP_NAME_FORMAT, i);
+            combinedRoutes[i] = combinedRoutesList.get(i);
+            if (i > 0) {
+                sb.append(ALTERNATION);
+            }
+            sb.append(String.format(ROUTE_GROUP_FORMAT, combinedGroups[i], combined.get(i)));
+        }
+        combinedPattern = combined.isEmpty() ? null : Pattern.compile(sb.toString(), flags);
+    }
+
+    /**
+     * Returns the index of the first route with a matching condition
+     * @return the index of the route or -1 if no condition matches
+     */
+    int getRoute(String message) {
+        int ret = defaultRoute == -1 ? NO_ROUTE : defaultRoute;
+        Integer exactRoute = exactRoutes.get(message);
+        if (exactRoute != null) {
+            ret = Math.min(ret, exactRoute);
+        }
+
+        if (combinedPattern != null && combinedRoutes[0] < ret) {
+            //NOTE: alternatives are tried in order so the first route with a full match is returned
+            Matcher matcher = combinedPattern.matcher(message);
+            if (matcher.matches()) {
+                for (int i = 0; i < combinedGroups.length && combinedRoutes[i] < ret; i++) {
+                    if (matcher.start(combinedGroups[i]) >= 0) {
+                        ret = combinedRoutes[i];
+                        break;
+                    }
+                }
+            }
+        }
+
+        for (int i = 0; i < separatePatterns.size() && separateRoutes.get(i) < ret; i++) {
+            if (separatePatterns.get(i).matcher(message).matches()) {
+                ret = separateRoutes.get(i);
+                break;
+            }
+        }
+
+        return ret == NO_ROUTE ? -1 : ret;
+    }
+
+    int getNumberOfExactRoutes() {
+        return exactRoutes.size();
+    }
+
+    static String getLiteral(String regex) {
+        if (regex.startsWith(QUOTATION_START) && regex.endsWith(QUOTATION_END)
+                && regex.length() >= QUOTATION_START.length() + QUOTATION_END.length()) {
+            String quoted = regex.substring(QUOTATION_START.length(), regex.length() - QUOTATION_END.length());
+            return quoted.contains(QUOTATION_END) ? null : quoted;
+        }
+
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < regex.length(); i++) {
+            char current = regex.charAt(i);
+            if (current == '\\') {
+                if (i + 1 >= regex.length() || Character.isLetterOrDigit(regex.charAt(i + 1))) {
+                    return null;
+                }
+                sb.append(regex.charAt(++i));
+            } else if (REGEX_META_CHARACTERS.indexOf(current) >= 0) {
+                return null;
+            } else {
+                sb.append(current);
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -5,9 +5,13 @@ import org.slf4j.LoggerFactory;
 import uk.co.gresearch.siembol.parsers.common.ParserResult;
 import uk.co.gresearch.siembol.parsers.common.SerializableSiembolParser;
 import java.lang.invoke.MethodHandles;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
 import java.util.regex.Pattern;
 
 public class RoutingParsingApplicationParser extends ParsingApplicationParser {
@@ -22,6 +26,8 @@ public class RoutingParsingApplicationParser extends ParsingApplicationParser {
     private final SiembolParserWrapper routerParser;
     private final ArrayList<String> mergedFields;
     private final ArrayList<SiembolParserWrapper> parsers;
+    private final RoutingIndex routingIndex;
+    private final AtomicLongArray routesHits;
 
     protected RoutingParsingApplicationParser(Builder<?> builder) {
         super(builder);
@@ -30,6 +36,8 @@ public class RoutingParsingApplicationParser extends ParsingApplicationParser {
         this.mergedFields = builder.mergedFields;
         this.parsers = builder.parsers;
         this.routerParser = builder.routerParser;
+        this.routingIndex = new RoutingIndex(builder.routingConditions, Pattern.DOTALL);
+        this.routesHits = new AtomicLongArray(parsers.size());
     }
 
     @Override
@@ -55,27 +63,49 @@ public class RoutingParsingApplicationParser extends ParsingApplicationParser {
 
             String messageToParse = parsedMsg.get(routingMessageField).toString();
             String messageToCondition = parsedMsg.get(routingConditionField).toString();
-            for (SiembolParserWrapper parser : parsers) {
-                if (!parser.checkCondition(messageToCondition)) {
-                    continue;
-                }
+            int route = routingIndex.getRoute(messageToCondition);
+            if (route < 0) {
+                continue;
+            }
 
-                ParserResult result = parser.parseToResult(metadata, messageToParse.getBytes());
-                if (result.getParsedMessages() != null && !result.getParsedMessages().isEmpty()) {
-                    for (String field : mergedFields) {
-                        if (parsedMsg.containsKey(field)) {
-                            result.getParsedMessages().forEach(x -> x.put(field, parsedMsg.get(field)));
-                        }
+            routesHits.incrementAndGet(route);
+            ParserResult result = parsers.get(route)
+                    .parseToResult(metadata, messageToParse.getBytes(StandardCharsets.UTF_8));
+            if (result.getParsedMessages() != null && !result.getParsedMessages().isEmpty()) {
+                for (String field : mergedFields) {
+                    if (parsedMsg.containsKey(field)) {
+                        result.getParsedMessages().forEach(x -> x.put(field, parsedMsg.get(field)));
                     }
                 }
-                ret.add(result);
-                break;
             }
+            ret.add(result);
         }
 
         return ret;
     }
 
+    @Override
+    protected List<SiembolParserWrapper> getParsers() {
+        List<SiembolParserWrapper> ret = new ArrayList<>();
+        ret.add(routerParser);
+        ret.addAll(parsers);
+        return ret;
+    }
+
+    /**
+     * Returns the counters of messages routed to the parsers, the default parser is the last one
+     * @return the map of the parser source type to the counter of routed messages
+     */
+    @Override
+    public Map<String, LongSupplier> getRoutesHitsCounters() {
+        Map<String, LongSupplier> ret = new LinkedHashMap<>();
+        for (int i = 0; i < parsers.size(); i++) {
+            final int route = i;
+            mergeCounter(ret, parsers.get(i).getSourceType(), () -> routesHits.get(route));
+        }
+        return ret;
+    }
+
     public static Builder<RoutingParsingApplicationParser> builder() {
         return new Builder<RoutingParsingApplicationParser>() {
             private static final long serialVersionUID = 1L;
@@ -90,6 +120,7 @@ public class RoutingParsingApplicationParser extends ParsingApplicationParser {
                 }
 
                 parsers.add(defaultParser);
+                routingConditions.add(null);
                 return new RoutingParsingApplicationParser(this);
             }
         };
@@ -105,6 +136,7 @@ public class RoutingParsingApplicationParser extends ParsingApplicationParser {
         protected SiembolParserWrapper routerParser;
         protected SiembolParserWrapper defaultParser;
         protected ArrayList<SiembolParserWrapper> parsers =  new ArrayList<>();
+        protected ArrayList<String> routingConditions = new ArrayList<>();
 
         public Builder<T> routingConditionField(String routingConditionField) {
             this.routingConditionField = routingConditionField;
@@ -139,6 +171,7 @@ public class RoutingParsingApplicationParser extends ParsingApplicationParser {
             final Pattern conditionPattern = Pattern.compile(pattern, Pattern.DOTALL);
             final RouterCondition condition = x -> conditionPattern.matcher(x).matches();
             parsers.add(new SiembolParserWrapper(condition, siembolParser, topic));
+            routingConditions.add(pattern);
             return this;
         }
 
@@ -7,6 +7,7 @@ import uk.co.gresearch.siembol.parsers.common.SerializableSiembolParser;
 import java.io.Serializable;
 import java.util.List;
 import java.util.Map;
+import java.util.function.LongSupplier;
 
 public class SiembolParserWrapper implements SiembolParser, Serializable {
     private static final long serialVersionUID = 1L;
@@ -37,6 +38,16 @@ public class SiembolParserWrapper implements SiembolParser, Serializable {
         return result;
     }
 
+    @Override
+    public Map<String, LongSupplier> getDroppedMessagesCounters() {
+        return parser.getDroppedMessagesCounters();
+    }
+
+    @Override
+    public Map<String, LongSupplier> getPatternsHitsCounters() {
+        return parser.getPatternsHitsCounters();
+    }
+
     @Override
     public String getSourceType() {
         return parser.getSourceType();
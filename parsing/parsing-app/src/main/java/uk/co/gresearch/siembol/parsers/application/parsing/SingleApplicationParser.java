@@ -6,6 +6,7 @@ import uk.co.gresearch.siembol.parsers.common.ParserResult;
 import uk.co.gresearch.siembol.parsers.common.SerializableSiembolParser;
 import java.lang.invoke.MethodHandles;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public class SingleApplicationParser extends ParsingApplicationParser {
@@ -28,6 +29,11 @@ public class SingleApplicationParser extends ParsingApplicationParser {
         return ret;
     }
 
+    @Override
+    protected List<SiembolParserWrapper> getParsers() {
+        return Collections.singletonList(parser);
+    }
+
     public static Builder<SingleApplicationParser> builder() {
         return new Builder<SingleApplicationParser>() {
             private static final long serialVersionUID = 1L;
@@ -0,0 +1,94 @@
+package uk.co.gresearch.siembol.parsers.application.parsing;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+public class RoutingIndexTest {
+    private final List<String> conditions = Arrays.asList(
+            "cisco_asa",
+            "cisco.*",
+            "\\Qa.b\\E",
+            "(x)\\1",
+            "palo\\-alto",
+            "(?<host>web)-\\d+",
+            "dns|dhcp",
+            "cisco_ios",
+            null,
+            "never");
+
+    private final List<String> messages = Arrays.asList(
+            "cisco_asa",
+            "cisco_ios",
+            "a.b",
+            "aXb",
+            "xx",
+            "palo-alto",
+            "web-12",
+            "dns",
+            "dhcp",
+            "never",
+            "",
+            "unknown\nline");
+
+    private int getRouteByPatterns(String message) {
+        for (int i = 0; i < conditions.size(); i++) {
+            if (conditions.get(i) == null
+                    || Pattern.compile(conditions.get(i), Pattern.DOTALL).matcher(message).matches()) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Test
+    public void sameRoutesAsPatternsInOrder() {
+        RoutingIndex routingIndex = new RoutingIndex(conditions, Pattern.DOTALL);
+        Assert.assertEquals(5, routingIndex.getNumberOfExactRoutes());
+        for (String message : messages) {
+            Assert.assertEquals(message, getRouteByPatterns(message), routingIndex.getRoute(message));
+        }
+    }
+
+    @Test
+    public void noDefaultRoute() {
+        RoutingIndex routingIndex = new RoutingIndex(Arrays.asList("a", "b+"), Pattern.DOTALL);
+        Assert.assertEquals(0, routingIndex.getRoute("a"));
+        Assert.assertEquals(1, routingIndex.getRoute("bbb"));
+        Assert.assertEquals(-1, routingIndex.getRoute("c"));
+    }
+
+    @Test
+    public void commentsModeConditions() {
+        RoutingIndex routingIndex = new RoutingIndex(
+                Arrays.asList("(?x) cisco \\d+ # cisco devices", "palo", "(?ix) dns # any case"), Pattern.DOTALL);
+        Assert.assertEquals(0, routingIndex.getRoute("cisco1"));
+        Assert.assertEquals(1, routingIndex.getRoute("palo"));
+        Assert.assertEquals(2, routingIndex.getRoute("DNS"));
+        Assert.assertEquals(-1, routingIndex.getRoute("cisco devices"));
+    }
+
+    @Test
+    public void commentsFlag() {
+        RoutingIndex routingIndex = new RoutingIndex(Arrays.asList("cisco \\d+ # cisco devices", "palo alto", "dns"),
+                Pattern.DOTALL | Pattern.COMMENTS);
+        Assert.assertEquals(0, routingIndex.getNumberOfExactRoutes());
+        Assert.assertEquals(0, routingIndex.getRoute("cisco1"));
+        Assert.assertEquals(1, routingIndex.getRoute("paloalto"));
+        Assert.assertEquals(-1, routingIndex.getRoute("palo alto"));
+        Assert.assertEquals(2, routingIndex.getRoute("dns"));
+    }
+
+    @Test
+    public void literals() {
+        Assert.assertEquals("cisco_asa", RoutingIndex.getLiteral("cisco_asa"));
+        Assert.assertEquals("palo-alto.", RoutingIndex.getLiteral("palo\\-alto\\."));
+        Assert.assertEquals("a.b", RoutingIndex.getLiteral("\\Qa.b\\E"));
+        Assert.assertNull(RoutingIndex.getLiteral("a.b"));
+        Assert.assertNull(RoutingIndex.getLiteral("a\\d"));
+        Assert.assertNull(RoutingIndex.getLiteral("a|b"));
+    }
+}
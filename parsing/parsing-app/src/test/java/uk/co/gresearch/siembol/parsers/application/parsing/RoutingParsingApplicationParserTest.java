@@ -326,6 +326,41 @@ public class RoutingParsingApplicationParserTest {
                 SiembolMessageFields.SENSOR_TYPE.toString() + "\":\"routed-parser2\""));
     }
 
+    @Test
+    public void testParseMessagesRoutesHits() throws Exception {
+        appParser = RoutingParsingApplicationParser.builder()
+                .routerParser(routerParser)
+                .defaultParser(outputTopic, defaultParser)
+                .routingConditionField(routingConditionField)
+                .routingMessageField(routingMessageField)
+                .addParser("dummy1", routedParser1, "[ac]")
+                .addParser("dummy2", routedParser2, "a")
+                .name("test")
+                .errorTopic(errorTopic)
+                .timeProvider(timeProvider)
+                .build();
+
+        when(routerParser.parseToResult(metadata, input)).thenReturn(routerParserResult);
+        when(routedParser1.parseToResult(metadata, "dummy".getBytes())).thenReturn(routedParserResult1);
+        when(defaultParser.parseToResult(metadata, "dummy".getBytes())).thenReturn(routedParserResult2);
+
+        List<ParsingApplicationResult> result = appParser.parse(metadata, input);
+        verify(routedParser1, times(1)).parseToResult(metadata, "dummy".getBytes());
+        verify(routedParser2, times(0)).parseToResult(metadata, "dummy".getBytes());
+        verify(defaultParser, times(1)).parseToResult(metadata, "dummy".getBytes());
+
+        Assert.assertEquals(2, result.size());
+        Assert.assertEquals("dummy1", result.get(0).getTopic());
+        Assert.assertEquals(outputTopic, result.get(1).getTopic());
+
+        Map<String, Long> routesHits = appParser.getRoutesHits();
+        Assert.assertEquals(Arrays.asList("routed-parser1", "routed-parser2", "default-parser"),
+                new ArrayList<>(routesHits.keySet()));
+        Assert.assertEquals(Long.valueOf(1), routesHits.get("routed-parser1"));
+        Assert.assertEquals(Long.valueOf(0), routesHits.get("routed-parser2"));
+        Assert.assertEquals(Long.valueOf(1), routesHits.get("default-parser"));
+    }
+
     @Test
     public void testParseMessagesWithRoutedParsersMergedFields() throws Exception {
         appParser = RoutingParsingApplicationParser.builder()
@@ -9,9 +9,15 @@ import uk.co.gresearch.siembol.common.utils.TimeProvider;
 import uk.co.gresearch.siembol.common.constants.SiembolMessageFields;
 import uk.co.gresearch.siembol.parsers.common.ParserResult;
 import uk.co.gresearch.siembol.parsers.common.SerializableSiembolParser;
+import uk.co.gresearch.siembol.parsers.transformations.MessageFilterMatcher;
+import uk.co.gresearch.siembol.parsers.transformations.MessagePrefilter;
 
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.regex.Pattern;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -109,6 +115,26 @@ public class SingleApplicationParserTest {
                 SiembolMessageFields.SENSOR_TYPE.toString() + "\":\"test_type\""));
     }
 
+    @Test
+    public void testParseTwoMessagesToBytes() throws Exception {
+        appParser = SingleApplicationParser.builder()
+                .parser(outputTopic, siembolParser)
+                .name("test")
+                .errorTopic(errorTopic)
+                .timeProvider(timeProvider)
+                .build();
+
+        when(siembolParser.parseToResult(metadata, input)).thenReturn(parserResult);
+        List<ParsingApplicationResult> result = appParser.parseToBytes(metadata, input);
+        Assert.assertEquals(1, result.size());
+        Assert.assertEquals(outputTopic, result.get(0).getTopic());
+        Assert.assertEquals(2, result.get(0).getMessagesBytes().size());
+        String first = new String(result.get(0).getMessagesBytes().get(0), StandardCharsets.UTF_8);
+        Assert.assertTrue(first.contains("test_field" + "\":\"a"));
+        Assert.assertTrue(first.contains(SiembolMessageFields.SENSOR_TYPE.toString() + "\":\"test_type\""));
+        Assert.assertEquals(first, result.get(0).getMessages().get(0));
+    }
+
     @Test
     public void testParseOneMessages() throws Exception {
         appParser = SingleApplicationParser.builder()
@@ -274,6 +300,44 @@ public class SingleApplicationParserTest {
                 SiembolMessageFields.SENSOR_TYPE.toString() + "\":\"test_type\""));
     }
 
+    @Test
+    public void testParseMetadataCache() throws Exception {
+        appParser = SingleApplicationParser.builder()
+                .parser(outputTopic, siembolParser)
+                .name("test")
+                .errorTopic(errorTopic)
+                .timeProvider(timeProvider)
+                .parseMetadata(true)
+                .metadataPrefix("test_metadata:")
+                .metadataCacheSize(1)
+                .build();
+
+        when(siembolParser.parseToResult(any(), eq(input))).thenAnswer(x -> {
+            ParserResult ret = new ParserResult();
+            ret.setParsedMessages(new ArrayList<>(Arrays.asList(new HashMap<>(message1))));
+            return ret;
+        });
+
+        appParser.parse(metadata, input);
+        List<ParsingApplicationResult> result = appParser.parse(metadata, input);
+        Assert.assertEquals(1, result.size());
+        Assert.assertTrue(result.get(0).getMessages().get(0).contains("test_metadata:a" + "\":\"string\""));
+        Assert.assertTrue(result.get(0).getMessages().get(0).contains("test_metadata:b" + "\":1"));
+
+        MetadataCache cache = appParser.getMetadataCache();
+        Assert.assertEquals(1, cache.getHits());
+        Assert.assertEquals(1, cache.getMisses());
+        Assert.assertEquals(0.5, cache.getHitRatio(), 0.0001);
+
+        appParser.parse("{\"d\":\"other\"}", input);
+        result = appParser.parse(metadata, input);
+        Assert.assertTrue(result.get(0).getMessages().get(0).contains("test_metadata:c" + "\":true"));
+        Assert.assertFalse(result.get(0).getMessages().get(0).contains("test_metadata:d"));
+        Assert.assertEquals(1, cache.getHits());
+        Assert.assertEquals(3, cache.getMisses());
+        Assert.assertEquals(1, cache.size());
+    }
+
     @Test
     public void testParseTwoMessagesGuidMetadata() throws Exception {
         appParser = SingleApplicationParser.builder()
@@ -347,4 +411,50 @@ public class SingleApplicationParserTest {
         Assert.assertTrue(result.get(0).getMessages().get(1).contains(
                 SiembolMessageFields.SENSOR_TYPE.toString() + "\":\"test_type\""));
     }
+
+    @Test
+    public void testPrefilters() throws Exception {
+        MessagePrefilter metadataPrefilter = new MessagePrefilter("metadata_prefilter",
+                Arrays.asList(new MessageFilterMatcher("a", Pattern.compile("string"),
+                        EnumSet.noneOf(MessageFilterMatcher.Flags.class))));
+        MessagePrefilter originalPrefilter = new MessagePrefilter("original_prefilter",
+                Arrays.asList(new MessageFilterMatcher(SiembolMessageFields.ORIGINAL.toString(),
+                        Pattern.compile("health.*"), EnumSet.noneOf(MessageFilterMatcher.Flags.class))));
+        appParser = SingleApplicationParser.builder()
+                .parser(outputTopic, siembolParser)
+                .parseMetadata(true)
+                .prefilters(Arrays.asList(metadataPrefilter, originalPrefilter))
+                .name("test")
+                .errorTopic(errorTopic)
+                .timeProvider(timeProvider)
+                .build();
+
+        when(siembolParser.parseToResult(any(), eq(input))).thenReturn(parserResult);
+        when(siembolParser.getDroppedMessagesCounters())
+                .thenReturn(Collections.singletonMap("parser_prefilter", () -> 3L));
+        Assert.assertTrue(appParser.parse(metadata, input).isEmpty());
+        Assert.assertTrue(appParser.parse("{}", "health check".getBytes()).isEmpty());
+        Assert.assertEquals(1, appParser.parse("{}", input).size());
+        verify(siembolParser, times(1)).parseToResult(any(), any());
+
+        Map<String, Long> dropped = appParser.getDroppedMessages();
+        Assert.assertEquals(3, dropped.size());
+        Assert.assertEquals(Long.valueOf(1), dropped.get("metadata_prefilter"));
+        Assert.assertEquals(Long.valueOf(1), dropped.get("original_prefilter"));
+        Assert.assertEquals(Long.valueOf(3), dropped.get("test_type_parser_prefilter"));
+    }
+
+    @Test
+    public void testPatternsHits() throws Exception {
+        appParser = SingleApplicationParser.builder()
+                .parser(outputTopic, siembolParser)
+                .name("test")
+                .errorTopic(errorTopic)
+                .timeProvider(timeProvider)
+                .build();
+        when(siembolParser.getPatternsHitsCounters()).thenReturn(Collections.singletonMap("extractor_0", () -> 5L));
+        Map<String, Long> hits = appParser.getPatternsHits();
+        Assert.assertEquals(1, hits.size());
+        Assert.assertEquals(Long.valueOf(5), hits.get("test_type_extractor_0"));
+    }
 }
@@ -9,6 +9,7 @@ import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.List;
 import java.util.Map;
+import java.util.function.LongSupplier;
 
 import static uk.co.gresearch.siembol.parsers.factory.ParserFactoryResult.StatusCode.OK;
 
@@ -44,6 +45,15 @@ public class SerializableSiembolParser implements SiembolParser, Serializable {
         return parser.parse(metadata, message);
     }
 
+    @Override
+    public Map<String, LongSupplier> getDroppedMessagesCounters() {
+        return parser.getDroppedMessagesCounters();
+    }
+
+    @Override
+    public Map<String, LongSupplier> getPatternsHitsCounters() {
+        return parser.getPatternsHitsCounters();
+    }
 
     @Override
     public String getSourceType() {
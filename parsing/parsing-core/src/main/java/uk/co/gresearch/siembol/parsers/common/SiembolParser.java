@@ -2,8 +2,11 @@ package uk.co.gresearch.siembol.parsers.common;
 
 import uk.co.gresearch.siembol.common.constants.SiembolMessageFields;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.LongSupplier;
 
 public interface SiembolParser {
 
@@ -26,7 +29,50 @@ public interface SiembolParser {
         return result;
     }
 
+    /**
+     * Returns the counters of messages dropped by the prefilters of the parser
+     * @return the map of the prefilter name to the counter of dropped messages
+     */
+    default Map<String, LongSupplier> getDroppedMessagesCounters() {
+        return Collections.emptyMap();
+    }
+
+    /**
+     * Returns the number of messages dropped by the prefilters of the parser
+     * @return the map of the prefilter name to the number of dropped messages
+     */
+    default Map<String, Long> getDroppedMessages() {
+        return getCounts(getDroppedMessagesCounters());
+    }
+
+    /**
+     * Returns the counters of messages matched by the patterns of the parser extractors
+     * @return the map of the extractor name with the pattern index to the counter of matched messages
+     */
+    default Map<String, LongSupplier> getPatternsHitsCounters() {
+        return Collections.emptyMap();
+    }
+
+    /**
+     * Returns the number of messages matched by the patterns of the parser extractors
+     * @return the map of the extractor name with the pattern index to the number of matched messages
+     */
+    default Map<String, Long> getPatternsHits() {
+        return getCounts(getPatternsHitsCounters());
+    }
+
     default String getSourceType() {
         return "unknown";
     }
+
+    /**
+     * Reads the current values of named counters
+     * @param counters the map of the counter name to the counter
+     * @return the map of the counter name to its current value
+     */
+    static Map<String, Long> getCounts(Map<String, LongSupplier> counters) {
+        Map<String, Long> ret = new LinkedHashMap<>();
+        counters.forEach((k, v) -> ret.put(k, v.getAsLong()));
+        return ret;
+    }
 }
@@ -12,12 +12,45 @@ public class CSVExtractor extends ParserExtractor {
     private final String wordDelimiter;
     private final ArrayList<ColumnNames> columnNamesList;
     private final String skippingColumnName;
+    private final List<ColumnsLayout> layouts;
+    private final int maxNumberOfColumns;
+
+    /**
+     * Column names compiled into indices of columns that are not skipped
+     */
+    private static class ColumnsLayout {
+        private final int numberOfColumns;
+        private final int filterIndex;
+        private final String filterValue;
+        private final int[] indices;
+        private final String[] names;
+
+        ColumnsLayout(ColumnNames columnNames, String skippingColumnName) {
+            List<String> allNames = columnNames.getColumnNames();
+            numberOfColumns = allNames.size();
+            filterIndex = columnNames.getFilter() != null ? columnNames.getFilter().getKey() : -1;
+            filterValue = columnNames.getFilter() != null ? columnNames.getFilter().getValue() : null;
+
+            List<Integer> projectedIndices = new ArrayList<>();
+            for (int i = 0; i < allNames.size(); i++) {
+                if (!skippingColumnName.equals(allNames.get(i))) {
+                    projectedIndices.add(i);
+                }
+            }
+            indices = projectedIndices.stream().mapToInt(x -> x).toArray();
+            names = projectedIndices.stream().map(allNames::get).toArray(String[]::new);
+        }
+    }
 
     private CSVExtractor(Builder<?> builder) {
         super(builder);
         this.wordDelimiter = builder.wordDelimiter;
         this.columnNamesList = new ArrayList<>(builder.columnNamesList);
         this.skippingColumnName = builder.skippingColumnName;
+        this.layouts = columnNamesList.stream()
+                .map(x -> new ColumnsLayout(x, skippingColumnName))
+                .collect(Collectors.toList());
+        this.maxNumberOfColumns = layouts.stream().mapToInt(x -> x.numberOfColumns).max().orElse(0);
     }
 
     protected ArrayList<Object> getValues(String message, char delimiter) {
@@ -57,14 +90,111 @@ public class CSVExtractor extends ParserExtractor {
         return values;
     }
 
+    /**
+     * Finds offsets of columns without creating their values
+     * @return the array with the number of columns followed by the start and end offsets of the columns
+     */
+    private int[] getColumns(String message) {
+        int[] columns = new int[2 * maxNumberOfColumns + 1];
+        int offset = 0;
+        if (wordDelimiter.length() == 1) {
+            while (offset < message.length()) {
+                int end = indexOfQuoted(message, wordDelimiter.charAt(0), offset);
+                if (end == -1) {
+                    end = message.length();
+                }
+                columns = addColumn(message, columns, offset, end);
+                offset = end + 1;
+            }
+            return columns;
+        }
+
+        while (true) {
+            //NOTE: the same columns as splitting by the splitter including a trailing empty column
+            int end = message.indexOf(wordDelimiter, offset);
+            if (end == -1) {
+                return addColumn(message, columns, offset, message.length());
+            }
+            columns = addColumn(message, columns, offset, end);
+            offset = end + wordDelimiter.length();
+        }
+    }
+
+    private int[] addColumn(String message, int[] columns, int start, int end) {
+        if (shouldSkipEmptyValues() && isEmptyValue(message, start, end)) {
+            return columns;
+        }
+
+        int index = 2 * columns[0] + 1;
+        int[] ret = index + 1 < columns.length ? columns : Arrays.copyOf(columns, 2 * columns.length + 2);
+        ret[index] = start;
+        ret[index + 1] = end;
+        ret[0]++;
+        return ret;
+    }
+
+    private static int indexOfQuoted(String message, char delimiter, int from) {
+        boolean quoted = false;
+        for (int i = from; i < message.length(); i++) {
+            char current = message.charAt(i);
+            if (current == QUOTA) {
+                quoted = !quoted;
+            } else if (current == delimiter && !quoted) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private boolean isEmptyValue(String message, int start, int end) {
+        return start == end || (end - start == 2 && isQuotedValue(message, start, end));
+    }
+
+    private boolean valueEquals(String message, int[] columns, int column, String value) {
+        int start = columns[2 * column + 1];
+        int end = columns[2 * column + 2];
+        if (isQuotedValue(message, start, end)) {
+            start++;
+            end--;
+        }
+        return end - start == value.length() && message.regionMatches(start, value, 0, value.length());
+    }
+
+    private ColumnsLayout getLayout(String message, int[] columns) {
+        for (ColumnsLayout layout : layouts) {
+            if (layout.numberOfColumns == columns[0]
+                    && (layout.filterIndex < 0 || valueEquals(message, columns, layout.filterIndex, layout.filterValue))) {
+                return layout;
+            }
+        }
+        return null;
+    }
+
     @Override
-    protected Map<String, Object> extractInternally(String message) {
-        Map<String, Object> ret = new HashMap<>();
+    protected Map<String, Object> extractInternally(String message, Map<String, Object> ret) {
+        if (wordDelimiter.isEmpty()) {
+            return extractValues(getValues(message, wordDelimiter), ret);
+        }
+
+        //NOTE: only values of columns that are not skipped in the matched layout are created
+        int[] columns = getColumns(message);
+        ColumnsLayout layout = getLayout(message, columns);
+        if (layout == null) {
+            ArrayList<Object> values = new ArrayList<>(columns[0]);
+            for (int i = 0; i < columns[0]; i++) {
+                values.add(getValue(message, columns[2 * i + 1], columns[2 * i + 2]));
+            }
+            return extractValues(values, ret);
+        }
 
-        ArrayList<Object> values = wordDelimiter.length() == 1
-                ? getValues(message, wordDelimiter.charAt(0))
-                : getValues(message, wordDelimiter);
+        for (int i = 0; i < layout.indices.length; i++) {
+            int column = layout.indices[i];
+            ret.put(layout.names[i], getValue(message, columns[2 * column + 1], columns[2 * column + 2]));
+        }
+        return ret;
+    }
 
+    private Map<String, Object> extractValues(ArrayList<Object> values, Map<String, Object> ret) {
         ArrayList<String> currentNames = ColumnNames.getNames(columnNamesList, values);
         if (currentNames.size() < values.size()) {
             if (shouldThrowExceptionOnError()) {
@@ -30,6 +30,10 @@ public class ColumnNames {
                                 && filter.getValue().equals(values.get(filter.getKey()))));
     }
 
+    public AbstractMap.SimpleEntry<Integer, String> getFilter() {
+        return filter;
+    }
+
     public ArrayList<String> getColumnNames() {
         return columnNames;
     }
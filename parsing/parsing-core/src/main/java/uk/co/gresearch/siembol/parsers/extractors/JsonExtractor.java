@@ -1,79 +1,110 @@
 package uk.co.gresearch.siembol.parsers.extractors;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import uk.co.gresearch.siembol.common.utils.PatternFilter;
 
+import java.io.IOException;
 import java.lang.invoke.MethodHandles;
-import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 public class JsonExtractor extends ParserExtractor {
     private static final Logger LOG = LoggerFactory
             .getLogger(MethodHandles.lookup().lookupClass());
 
-    private static final ObjectReader JSON_READER = new ObjectMapper()
-                    .readerFor(new TypeReference<Map<String, Object>>() { });
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final String MISSING_JSON_OBJECT_MSG = "Json object expected";
 
     private final String nestedSeparator;
     private final String pathPrefix;
+    private final PatternFilter fieldsFilter;
 
     private JsonExtractor(Builder<?> builder) {
         super(builder);
         nestedSeparator = builder.nestedSeparator;
         pathPrefix = builder.pathPrefix;
+        fieldsFilter = builder.fieldsFilter;
     }
 
-    @SuppressWarnings("unchecked")
-    private void traverseObject(Object current, StringBuilder path, Map<String, Object> result) {
-        if (current instanceof Map) {
-            Map<String, Object> map = (Map<String, Object>)current;
+    private void traverseObject(JsonParser parser, StringBuilder path, Map<String, Object> result)
+            throws IOException {
+        final int pathLength = path.length();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            if (pathLength != 0) {
+                path.append(nestedSeparator);
+            }
+            path.append(parser.getCurrentName());
 
-            final int pathLength = path.length();
-            for (String key : map.keySet()) {
-                if(pathLength != 0) {
-                    path.append(nestedSeparator);
-                }
-                path.append(key);
+            parser.nextToken();
+            traverseValue(parser, path, result);
+            path.setLength(pathLength);
+        }
+    }
 
-                traverseObject(map.get(key), path, result);
-                path.setLength(pathLength);
+    private void traverseArray(JsonParser parser, StringBuilder path, Map<String, Object> result)
+            throws IOException {
+        int index = 0;
+        final int pathLength = path.length();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            if (pathLength != 0) {
+                path.append(nestedSeparator);
             }
-        } else if (current instanceof List) {
-            List<Object> list = (List<Object>)current;
-
-            int index = 0;
-            final int pathLength = path.length();
-            for (Object item : list) {
-                if(pathLength != 0) {
-                    path.append(nestedSeparator);
-                }
-                path.append(index++);
+            path.append(index++);
 
-                traverseObject(item, path, result);
-                path.setLength(pathLength);
-            }
-        } else if (current instanceof Number
-                    || current instanceof Boolean
-                    || current instanceof String) {
-            result.put(path.toString(), current);
+            traverseValue(parser, path, result);
+            path.setLength(pathLength);
+        }
+    }
+
+    private void traverseValue(JsonParser parser, StringBuilder path, Map<String, Object> result)
+            throws IOException {
+        switch (parser.currentToken()) {
+            case START_OBJECT:
+            case START_ARRAY:
+                if (fieldsFilter != null && !fieldsFilter.matchPrefix(path.toString())) {
+                    parser.skipChildren();
+                } else if (parser.currentToken() == JsonToken.START_OBJECT) {
+                    traverseObject(parser, path, result);
+                } else {
+                    traverseArray(parser, path, result);
+                }
+                break;
+            case VALUE_STRING:
+                putValue(path, parser.getText(), result);
+                break;
+            case VALUE_NUMBER_INT:
+            case VALUE_NUMBER_FLOAT:
+                putValue(path, parser.getNumberValue(), result);
+                break;
+            case VALUE_TRUE:
+            case VALUE_FALSE:
+                putValue(path, parser.getBooleanValue(), result);
+                break;
+            default:
+                break;
         }
     }
 
+    private void putValue(StringBuilder path, Object value, Map<String, Object> result) {
+        String field = path.toString();
+        if (fieldsFilter == null || fieldsFilter.match(field)) {
+            result.put(field, value);
+        }
+    }
 
     @Override
-    protected Map<String, Object> extractInternally(String message) {
-        try {
-            Map<String, Object> originalMap = JSON_READER.readValue(message);
-            Map<String, Object> result = new HashMap<>();
-            StringBuilder path = new StringBuilder(pathPrefix);
-
-            traverseObject(originalMap, path, result);
+    protected Map<String, Object> extractInternally(String message, Map<String, Object> result) {
+        //NOTE: the json is flattened directly from the tokens without building the nested maps
+        try (JsonParser parser = JSON_FACTORY.createParser(message)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalStateException(MISSING_JSON_OBJECT_MSG);
+            }
 
+            traverseObject(parser, new StringBuilder(pathPrefix), result);
             return result;
         } catch (Exception e) {
             String errorMessage = String.format("Error during extracting json:%s\n Exception: %s",
@@ -82,7 +113,8 @@ public class JsonExtractor extends ParserExtractor {
             if (shouldThrowExceptionOnError()) {
                 throw new IllegalStateException(errorMessage);
             }
-            return new HashMap<>();
+            result.clear();
+            return result;
         }
     }
 
@@ -100,6 +132,7 @@ public class JsonExtractor extends ParserExtractor {
             extends ParserExtractor.Builder<T> {
         private String nestedSeparator = "_";
         private String pathPrefix = "";
+        private PatternFilter fieldsFilter;
 
         public Builder<T> nestedSeparator(String separator) {
             this.nestedSeparator = separator;
@@ -111,5 +144,10 @@ public class JsonExtractor extends ParserExtractor {
             return this;
         }
 
+        public Builder<T> fieldsFilter(PatternFilter fieldsFilter) {
+            this.fieldsFilter = fieldsFilter;
+            return this;
+        }
+
     }
 }
@@ -1,11 +1,7 @@
 package uk.co.gresearch.siembol.parsers.extractors;
 
 import java.util.EnumSet;
-import java.util.HashMap;
 import java.util.Map;
-import java.util.Optional;
-
-import static uk.co.gresearch.siembol.parsers.extractors.KeyValueExtractor.KeyValueExtractorFlags.NEXT_KEY_STRATEGY;
 
 public class KeyValueExtractor extends ParserExtractor {
 
@@ -20,39 +16,70 @@ public class KeyValueExtractor extends ParserExtractor {
     }
 
     private final KeyValueIndices.IndexOf indexOf;
-    private final EnumSet<KeyValueExtractorFlags> flags;
+    private final KeyValueScanner scanner;
+    private final boolean renameDuplicateKeys;
     private final String errorKeyName;
 
     private KeyValueExtractor(Builder<?> builder) {
         super(builder);
+        EnumSet<KeyValueExtractorFlags> flags = builder.keyValueFlags;
         this.indexOf = builder.indexOfEnd;
-        this.flags = builder.keyValueFlags;
+        //NOTE: the scanner is compiled from the configuration if a custom index of function is not provided
+        this.scanner = indexOf != null
+                ? null
+                : new KeyValueScanner(builder.keyValueDelimiter,
+                builder.wordDelimiter,
+                flags.contains(KeyValueExtractorFlags.ESCAPING_HANDLING) ? builder.escapedChar : null,
+                flags.contains(KeyValueExtractorFlags.QUOTA_VALUE_HANDLING),
+                flags.contains(KeyValueExtractorFlags.NEXT_KEY_STRATEGY));
+        this.renameDuplicateKeys = flags.contains(KeyValueExtractorFlags.RENAME_DUPLICATE_KEYS);
         this.errorKeyName = String.format("%s_%s", EXTRACTOR_ERROR_PREFIX, getName());
     }
 
     @Override
-    protected Map<String, Object> extractInternally(String message){
-        Map<String, Object> extracted = new HashMap<>();
+    protected Map<String, Object> extractInternally(String message, Map<String, Object> extracted) {
+        if (scanner == null) {
+            return extractByIndexOf(message, extracted);
+        }
+
         int offset = 0;
-        DuplicatesFieldMap duplicatesMap = flags.contains(KeyValueExtractorFlags.RENAME_DUPLICATE_KEYS)
-                ? new DuplicatesFieldMap() : null;
+        DuplicatesFieldMap duplicatesMap = null;
+        while (offset < message.length()) {
+            int keyIndex = scanner.indexOfKeyEnd(message, offset);
+            if (keyIndex == -1) {
+                return onError(message, offset, extracted);
+            }
+
+            int valueIndex = scanner.indexOfValueEnd(message, keyIndex);
+            String key = scanner.getKey(message, offset, keyIndex);
+            if (renameDuplicateKeys && extracted.containsKey(key)) {
+                if (duplicatesMap == null) {
+                    duplicatesMap = new DuplicatesFieldMap();
+                }
+                key = String.format(DUPLICATE_FORMAT_MSG, key, duplicatesMap.getIndex(key));
+            }
+
+            extracted.put(key, getValue(message, keyIndex + 1, valueIndex));
+            offset = valueIndex + 1;
+        }
+
+        return extracted;
+    }
+
+    private Map<String, Object> extractByIndexOf(String message, Map<String, Object> extracted) {
+        int offset = 0;
+        DuplicatesFieldMap duplicatesMap = renameDuplicateKeys ? new DuplicatesFieldMap() : null;
 
         while (offset < message.length()) {
             KeyValueIndices indices = indexOf.apply(message, offset);
             if (!indices.isValid()) {
-                if (shouldThrowExceptionOnError()) {
-                    throw new IllegalStateException("Empty or missing key");
-                }
-
-                extracted.put(errorKeyName, message.substring(offset));
-                return extracted;
+                return onError(message, offset, extracted);
             }
 
             String key = message.substring(offset, indices.getKeyIndex());
             String value = message.substring(indices.getKeyIndex() + 1, indices.getValueIndex());
 
-            if (extracted.containsKey(key)
-                    && flags.contains(KeyValueExtractorFlags.RENAME_DUPLICATE_KEYS))
+            if (extracted.containsKey(key) && renameDuplicateKeys)
             {
                 int index = duplicatesMap.getIndex(key);
                 key = String.format(DUPLICATE_FORMAT_MSG, key, index);
@@ -65,50 +92,20 @@ public class KeyValueExtractor extends ParserExtractor {
         return extracted;
     }
 
+    private Map<String, Object> onError(String message, int offset, Map<String, Object> extracted) {
+        if (shouldThrowExceptionOnError()) {
+            throw new IllegalStateException("Empty or missing key");
+        }
+
+        extracted.put(errorKeyName, message.substring(offset));
+        return extracted;
+    }
+
     public static Builder<KeyValueExtractor> builder() {
         return new Builder<KeyValueExtractor>() {
-            private KeyValueIndices.IndexOf getDefaultIndexOfEnd() {
-                return new KeyValueIndices.IndexOf() {
-                    @Override
-                    public KeyValueIndices apply(String str, int from) {
-                        boolean quoteHandling = keyValueFlags.contains(
-                                KeyValueExtractorFlags.QUOTA_VALUE_HANDLING);
-
-                        Optional<Character> escaped = keyValueFlags.contains(
-                                KeyValueExtractorFlags.ESCAPING_HANDLING)
-                                ? Optional.of(escapedChar)
-                                : Optional.empty();
-
-                        int keyIndex = ParserExtractorLibrary.indexOfQuotedEscaped(str,
-                                keyValueDelimiter, from, escaped, quoteHandling);
-                        if (keyIndex == -1 || keyIndex == from) {
-                            return KeyValueIndices.invalid();
-                        }
-
-                        int valueIndex = -1;
-                        if (keyValueFlags.contains(NEXT_KEY_STRATEGY)) {
-                            int nextKeyIndex = ParserExtractorLibrary.indexOfQuotedEscaped(str,
-                                    keyValueDelimiter, keyIndex + 1, escaped, quoteHandling);
-
-                            if (nextKeyIndex == -1) {
-                                return new KeyValueIndices(keyIndex, -1, str.length());
-                            }
-                            valueIndex = str.lastIndexOf(wordDelimiter, nextKeyIndex);
-                        } else {
-                            valueIndex = ParserExtractorLibrary.indexOfQuotedEscaped(str,
-                                    wordDelimiter, keyIndex + 1, escaped, quoteHandling);
-                        }
-                        return new KeyValueIndices(keyIndex, valueIndex, str.length());
-                    }
-                };
-            }
-
             @Override
             public KeyValueExtractor build()
             {
-                if (indexOfEnd == null) {
-                    indexOfEnd = getDefaultIndexOfEnd();
-                }
                 return new KeyValueExtractor(this);
             }
         };
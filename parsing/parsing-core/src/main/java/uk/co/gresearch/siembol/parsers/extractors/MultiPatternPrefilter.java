@@ -0,0 +1,55 @@
+package uk.co.gresearch.siembol.parsers.extractors;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Combined prefilter over a list of regular expressions.
+ * Candidate patterns are selected by the first character of the message using anchored prefixes of the patterns
+ * and they are further checked by their own prefilters. The order of the patterns is preserved.
+ */
+public class MultiPatternPrefilter {
+    private final List<RegexPrefilter> prefilters;
+    private final Map<Character, int[]> candidatesByFirstCharacter;
+    private final int[] unanchoredCandidates;
+
+    public MultiPatternPrefilter(List<Pattern> patterns, RegexPrefilter.MatchType matchType) {
+        prefilters = new ArrayList<>(patterns.size());
+        patterns.forEach(x -> prefilters.add(RegexPrefilter.create(x, matchType)));
+
+        List<Integer> unanchored = new ArrayList<>();
+        Map<Character, List<Integer>> byFirstCharacter = new HashMap<>();
+        for (int i = 0; i < prefilters.size(); i++) {
+            final int index = i;
+            String prefix = prefilters.get(index).getPrefix();
+            if (prefix.isEmpty()) {
+                unanchored.add(index);
+                byFirstCharacter.values().forEach(x -> x.add(index));
+            } else {
+                byFirstCharacter.computeIfAbsent(prefix.charAt(0), x -> new ArrayList<>(unanchored)).add(index);
+            }
+        }
+
+        unanchoredCandidates = toArray(unanchored);
+        candidatesByFirstCharacter = new HashMap<>();
+        byFirstCharacter.forEach((k, v) -> candidatesByFirstCharacter.put(k, toArray(v)));
+    }
+
+    public int[] getCandidates(String message) {
+        if (message.isEmpty()) {
+            return unanchoredCandidates;
+        }
+        return candidatesByFirstCharacter.getOrDefault(message.charAt(0), unanchoredCandidates);
+    }
+
+    public boolean mayMatch(int index, String message) {
+        return prefilters.get(index).mayMatch(message);
+    }
+
+    private static int[] toArray(List<Integer> list) {
+        return list.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
@@ -12,21 +12,40 @@ import java.util.regex.Pattern;
 
 public class ParserDateFormat {
     private static final String DEFAULT_TIMEZONE = "UTC";
+    public static final String EPOCH_SECONDS_FORMAT = "epoch_seconds";
+    public static final String EPOCH_MILLISECONDS_FORMAT = "epoch_milliseconds";
+    private static final int MAX_EPOCH_DIGITS = 18;
+
+    private enum EpochFormat {
+        NONE,
+        SECONDS,
+        MILLISECONDS
+    }
+
     private final Pattern dateTimePattern;
     private final DateTimeFormatter dateFormatter;
-    private final ZoneOffset zoneOffSet;
+    private final ZoneId zone;
+    private final EpochFormat epochFormat;
+    private final TimestampLayout layout;
 
     public ParserDateFormat(String dateFormat) {
         this(dateFormat, Optional.empty(), Optional.empty());
     }
 
     public ParserDateFormat(String dateFormat, Optional<String> timeZone, Optional<String> regexPattern) {
-        ZoneId zone = ZoneId.of(timeZone.orElse(DEFAULT_TIMEZONE));
+        zone = ZoneId.of(timeZone.orElse(DEFAULT_TIMEZONE));
+        epochFormat = EPOCH_SECONDS_FORMAT.equals(dateFormat)
+                ? EpochFormat.SECONDS
+                : EPOCH_MILLISECONDS_FORMAT.equals(dateFormat) ? EpochFormat.MILLISECONDS : EpochFormat.NONE;
 
-        LocalDateTime now = LocalDateTime.now();
-        zoneOffSet = zone.getRules().getOffset(now);
+        if (epochFormat == EpochFormat.NONE) {
+            dateFormatter = DateTimeFormatter.ofPattern(dateFormat).withZone(zone);
+            layout = TimestampLayout.create(dateFormat, zone).orElse(null);
+        } else {
+            dateFormatter = null;
+            layout = null;
+        }
 
-        dateFormatter = DateTimeFormatter.ofPattern(dateFormat).withZone(zone);
         dateTimePattern = regexPattern.isPresent()
                 ? Pattern.compile(regexPattern.get())
                 : null;
@@ -38,16 +57,74 @@ public class ParserDateFormat {
             return Optional.empty();
         }
 
+        if (epochFormat != EpochFormat.NONE) {
+            return parseEpoch(message);
+        }
+
+        if (layout != null) {
+            Long ret = layout.parse(message);
+            if (ret != null) {
+                return Optional.of(ret);
+            }
+            //NOTE: texts not supported by the layout are parsed by the formatter
+        }
+
         try {
             TemporalAccessor temporalAccessor = dateFormatter.parse(message);
             LocalDateTime dateTime = LocalDateTime.from(temporalAccessor);
             ZoneOffset currentOffset = temporalAccessor.query(TemporalQueries.offset());
-            if (currentOffset == null) {
-                currentOffset = zoneOffSet;
+            return currentOffset != null
+                    ? Optional.of(dateTime.toInstant(currentOffset).toEpochMilli())
+                    : Optional.of(dateTime.atZone(zone).toInstant().toEpochMilli());
+        } catch (Exception e) {
+            return Optional.empty();
+        }
+    }
+
+    private Optional<Long> parseEpoch(String message) {
+        int end = message.indexOf('.');
+        if (end < 0) {
+            end = message.length();
+        } else if (epochFormat == EpochFormat.MILLISECONDS) {
+            return Optional.empty();
+        }
+
+        if (end == 0 || end > MAX_EPOCH_DIGITS) {
+            return Optional.empty();
+        }
+
+        long value = 0;
+        for (int i = 0; i < end; i++) {
+            char current = message.charAt(i);
+            if (current < '0' || current > '9') {
+                return Optional.empty();
             }
+            value = value * 10 + (current - '0');
+        }
 
-            return Optional.of(dateTime.toInstant(currentOffset).toEpochMilli());
-        } catch (Exception e) {
+        if (epochFormat == EpochFormat.MILLISECONDS) {
+            return Optional.of(value);
+        }
+
+        long millis = 0;
+        int digits = 0;
+        for (int i = end + 1; i < message.length(); i++) {
+            char current = message.charAt(i);
+            if (current < '0' || current > '9') {
+                return Optional.empty();
+            }
+            if (digits < 3) {
+                millis = millis * 10 + (current - '0');
+                digits++;
+            }
+        }
+
+        for (; digits < 3; digits++) {
+            millis *= 10;
+        }
+        try {
+            return Optional.of(Math.addExact(Math.multiplyExact(value, 1000), millis));
+        } catch (ArithmeticException e) {
             return Optional.empty();
         }
     }
@@ -1,13 +1,19 @@
 package uk.co.gresearch.siembol.parsers.extractors;
 
+import uk.co.gresearch.siembol.parsers.transformations.MessagePrefilters;
+
 import java.util.*;
 import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
 
 import static uk.co.gresearch.siembol.parsers.extractors.ParserExtractor.ParserExtractorFlags.*;
 
 public abstract class ParserExtractor  {
     private static final String EMPTY_MSG_FOR_EXTRACTION_MSG = "Empty message for extraction";
-    private static final String DUPLICATE_FORMAT_MSG = "duplicate_%s_%d";
+    private static final String DUPLICATE_PREFIX = "duplicate_";
+    private static final String DUPLICATE_SEPARATOR = "_";
+    private static final String PATTERN_HITS_FORMAT = "%s_%d";
 
     public enum ParserExtractorFlags {
         SHOULD_REMOVE_FIELD,
@@ -31,7 +37,7 @@ public abstract class ParserExtractor  {
     private final Function<String, String> preProcessing;
     private final List<Function<Map<String, Object>, Map<String, Object>>> postProcessing;
 
-    protected abstract Map<String, Object> extractInternally(String message);
+    protected abstract Map<String, Object> extractInternally(String message, Map<String, Object> extracted);
 
     public String getName() {
         return name;
@@ -41,6 +47,24 @@ public abstract class ParserExtractor  {
         return field;
     }
 
+    /**
+     * Returns the counters of messages matched by each pattern of the extractor
+     * @return the list of the counters in the order of the patterns, empty list for extractors without patterns
+     */
+    public List<LongSupplier> getPatternsHitsCounters() {
+        return Collections.emptyList();
+    }
+
+    /**
+     * Returns the number of messages matched by each pattern of the extractor
+     * @return the list of the numbers in the order of the patterns, empty list for extractors without patterns
+     */
+    public List<Long> getPatternsHits() {
+        return getPatternsHitsCounters().stream()
+                .map(LongSupplier::getAsLong)
+                .collect(Collectors.toList());
+    }
+
     public boolean shouldRemoveField() {
         return parserExtractorFlags
                 .contains(SHOULD_REMOVE_FIELD);
@@ -62,6 +86,14 @@ public abstract class ParserExtractor  {
     }
 
     public Map<String, Object> extract(String str) {
+        return extract(str, new HashMap<>());
+    }
+
+    /**
+     * Extracts fields from the message into the provided empty map that can be reused between extractions.
+     * Post-processing functions can return a different map so the returned map should be used.
+     */
+    public Map<String, Object> extract(String str, Map<String, Object> extracted) {
         String message = preProcessing != null
                 ? preProcessing.apply(str)
                 : str;
@@ -70,10 +102,10 @@ public abstract class ParserExtractor  {
             if (shouldThrowExceptionOnError()) {
                 new IllegalStateException(EMPTY_MSG_FOR_EXTRACTION_MSG);
             }
-            return new HashMap<>();
+            return extracted;
         }
 
-        Map<String, Object> extracted = extractInternally(message);
+        extracted = extractInternally(message, extracted);
 
         for (Function<Map<String, Object>, Map<String, Object>> fun : postProcessing) {
             extracted = fun.apply(extracted);
@@ -92,6 +124,29 @@ public abstract class ParserExtractor  {
         return value;
     }
 
+    /**
+     * Returns the value of a substring without creating intermediate substrings
+     * @param str the message
+     * @param start the start index of the value, inclusive
+     * @param end the end index of the value, exclusive
+     * @return the value
+     */
+    protected Object getValue(String str, int start, int end) {
+        return isQuotedValue(str, start, end)
+                ? str.substring(start + 1, end - 1)
+                : str.substring(start, end);
+    }
+
+    /**
+     * Returns true if quotes of the value of a substring should be removed
+     */
+    protected boolean isQuotedValue(String str, int start, int end) {
+        return parserExtractorFlags.contains(ParserExtractorFlags.REMOVE_QUOTES)
+                && end - start >= 2
+                && (str.charAt(start) == '\'' || str.charAt(start) == '"')
+                && str.charAt(start) == str.charAt(end - 1);
+    }
+
     public static abstract class Builder<T extends ParserExtractor> {
         private String name;
         private String field;
@@ -139,36 +194,86 @@ public abstract class ParserExtractor  {
     public static Map<String, Object> extract(
             List<ParserExtractor> extractors,
             Map<String, Object> messageObject) {
+        return extract(extractors, messageObject, null);
+    }
+
+    /**
+     * Extracts fields by the extractors and evaluates prefilters after their extractors
+     * @return the message object, an empty map if the message is dropped by a prefilter
+     */
+    public static Map<String, Object> extract(
+            List<ParserExtractor> extractors,
+            Map<String, Object> messageObject,
+            MessagePrefilters prefilters) {
+        //NOTE: the message object is updated in place and extractors share one map for their extracted fields
         Map<String, Object> current = messageObject;
-        DuplicatesFieldMap duplicatesMap = new DuplicatesFieldMap();
+        Map<String, Object> extracted = new HashMap<>();
+        DuplicatesFieldMap duplicatesMap = null;
 
         for (ParserExtractor extractor : extractors) {
             String field = extractor.getField();
-            if (!(current.get(field) instanceof String)) {
+            Object message = current.get(field);
+            if (!(message instanceof String)) {
+                if (isFiltered(extractor, current, prefilters)) {
+                    current.clear();
+                    return current;
+                }
                 continue;
             }
 
-            if (!extractor.shouldOverwiteFields()) {
+            boolean shouldOverwriteFields = extractor.shouldOverwiteFields();
+            if (!shouldOverwriteFields && duplicatesMap != null) {
                 duplicatesMap.clear();
             }
 
-            String message = (String)current.get(field);
-            Map<String, Object> parsed = extractor.extract(message);
-            for (String key : parsed.keySet()) {
-                if (current.putIfAbsent(key, parsed.get(key)) != null) {
+            extracted.clear();
+            Map<String, Object> parsed = extractor.extract((String) message, extracted);
+            for (Map.Entry<String, Object> entry : parsed.entrySet()) {
+                String key = entry.getKey();
+                Object value = entry.getValue();
+                if (current.putIfAbsent(key, value) != null) {
                     String currentName = key;
-                    if(!extractor.shouldOverwiteFields()) {
+                    if (!shouldOverwriteFields) {
+                        if (duplicatesMap == null) {
+                            duplicatesMap = new DuplicatesFieldMap();
+                        }
                         int duplicateIndex = duplicatesMap.getIndex(key);
-                        currentName = String.format(DUPLICATE_FORMAT_MSG, key, duplicateIndex);
+                        currentName = DUPLICATE_PREFIX + key + DUPLICATE_SEPARATOR + duplicateIndex;
                     }
-                    current.put(currentName, parsed.get(key));
+                    current.put(currentName, value);
                 }
             }
 
             if (extractor.shouldRemoveField()) {
                 current.remove(field);
             }
+
+            if (isFiltered(extractor, current, prefilters)) {
+                current.clear();
+                return current;
+            }
         }
         return current;
     }
+
+    /**
+     * Returns the counters of messages matched by the patterns of the extractors
+     * @return the map of the extractor name with the pattern index to the counter of matched messages
+     */
+    public static Map<String, LongSupplier> getPatternsHitsCounters(List<ParserExtractor> extractors) {
+        Map<String, LongSupplier> ret = new LinkedHashMap<>();
+        for (ParserExtractor extractor : extractors) {
+            List<LongSupplier> counters = extractor.getPatternsHitsCounters();
+            for (int i = 0; i < counters.size(); i++) {
+                ret.put(String.format(PATTERN_HITS_FORMAT, extractor.getName(), i), counters.get(i));
+            }
+        }
+        return ret;
+    }
+
+    private static boolean isFiltered(ParserExtractor extractor,
+                                      Map<String, Object> current,
+                                      MessagePrefilters prefilters) {
+        return prefilters != null && prefilters.filterExtracted(extractor.getName(), current);
+    }
 }
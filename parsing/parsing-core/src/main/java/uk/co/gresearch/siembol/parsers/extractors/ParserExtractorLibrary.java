@@ -94,13 +94,13 @@ public class ParserExtractorLibrary {
     }
 
     public static Map<String, Object> convertToString(Map<String, Object> map, Set<String> exclusions) {
-        for (String key : map.keySet()) {
-            if (exclusions.contains(key)
-                    || map.get(key) instanceof String) {
+        for (Map.Entry<String, Object> entry : map.entrySet()) {
+            if (exclusions.contains(entry.getKey())
+                    || entry.getValue() instanceof String) {
                 continue;
             }
 
-            map.put(key, map.getOrDefault(key, "").toString());
+            entry.setValue(entry.getValue().toString());
         }
         return map;
     }
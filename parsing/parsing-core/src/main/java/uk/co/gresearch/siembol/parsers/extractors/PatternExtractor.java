@@ -2,6 +2,7 @@ package uk.co.gresearch.siembol.parsers.extractors;
 
 import java.util.AbstractMap.SimpleEntry;
 import java.util.*;
+import java.util.function.LongSupplier;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -19,24 +20,34 @@ public class PatternExtractor extends ParserExtractor {
 
     private final List<SimpleEntry<Pattern, List<String>>> patterns;
     private final EnumSet<PatternExtractorFlags> patternExtractorFlags;
+    private final MultiPatternPrefilter prefilter;
+    private final PatternsHits patternsHits;
 
     private PatternExtractor(Builder<?> builder) {
         super(builder);
         this.patterns = builder.compiledPatterns;
         this.patternExtractorFlags = builder.patternExtractorFlags;
+        this.prefilter = new MultiPatternPrefilter(patterns.stream()
+                .map(SimpleEntry::getKey)
+                .collect(Collectors.toList()), RegexPrefilter.MatchType.MATCHES);
+        this.patternsHits = new PatternsHits(patterns.size());
     }
 
     @Override
-    public Map<String, Object> extractInternally(String str) {
-
-        HashMap<String, Object> ret = new HashMap<>();
+    public Map<String, Object> extractInternally(String str, Map<String, Object> ret) {
+        //NOTE: only patterns that can match the message according to the prefilter are evaluated
+        for (int patternIndex : prefilter.getCandidates(str)) {
+            if (!prefilter.mayMatch(patternIndex, str)) {
+                continue;
+            }
 
-        for (SimpleEntry<Pattern, List<String>> pattern :  patterns) {
+            SimpleEntry<Pattern, List<String>> pattern = patterns.get(patternIndex);
             Matcher matcher = pattern.getKey().matcher(str);
             if (!matcher.matches()) {
                 continue;
             }
 
+            patternsHits.hit(patternIndex);
             int index = 1;
             for (String groupName : pattern.getValue()) {
                 ret.put(groupName, matcher.group(index++));
@@ -51,6 +62,11 @@ public class PatternExtractor extends ParserExtractor {
         return ret;
     }
 
+    @Override
+    public List<LongSupplier> getPatternsHitsCounters() {
+        return patternsHits.getCounters();
+    }
+
     private static SimpleEntry<Pattern, List<String>> transformPattern(String strPattern, int flags) {
         //NOTE: java regex does not support : _ in variable names but we want it
         List<String> names = new ArrayList<>();
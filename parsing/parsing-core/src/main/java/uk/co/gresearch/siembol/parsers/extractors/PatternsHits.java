@@ -0,0 +1,31 @@
+package uk.co.gresearch.siembol.parsers.extractors;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Counters of messages matched by each pattern of an extractor.
+ * The counters show which patterns match most often so they can be ordered accordingly.
+ */
+public class PatternsHits {
+    private final AtomicLongArray hits;
+
+    public PatternsHits(int numberOfPatterns) {
+        this.hits = new AtomicLongArray(numberOfPatterns);
+    }
+
+    public void hit(int patternIndex) {
+        hits.incrementAndGet(patternIndex);
+    }
+
+    public List<LongSupplier> getCounters() {
+        List<LongSupplier> ret = new ArrayList<>(hits.length());
+        for (int i = 0; i < hits.length(); i++) {
+            final int patternIndex = i;
+            ret.add(() -> hits.get(patternIndex));
+        }
+        return ret;
+    }
+}
@@ -0,0 +1,272 @@
+package uk.co.gresearch.siembol.parsers.extractors;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Conservative prefilter of a regular expression computed from its anchored literal prefix
+ * and literals that are required in every match.
+ * The prefilter never rejects a string that can be matched by the regular expression.
+ */
+public class RegexPrefilter {
+    public enum MatchType {
+        MATCHES,
+        FIND
+    }
+
+    private static final int MIN_LITERAL_LENGTH = 2;
+    private static final int UNSUPPORTED_FLAGS = Pattern.CASE_INSENSITIVE | Pattern.COMMENTS | Pattern.LITERAL
+            | Pattern.UNICODE_CASE | Pattern.CANON_EQ | Pattern.MULTILINE;
+    private static final String ESCAPED_SINGLE_ARGUMENT = "c";
+    private static final String QUOTATION_START = "\\Q";
+    private static final RegexPrefilter EMPTY_PREFILTER = new RegexPrefilter("", Collections.emptyList());
+
+    private final String prefix;
+    private final List<String> literals;
+
+    private RegexPrefilter(String prefix, List<String> literals) {
+        this.prefix = prefix;
+        this.literals = literals;
+    }
+
+    public String getPrefix() {
+        return prefix;
+    }
+
+    public List<String> getLiterals() {
+        return literals;
+    }
+
+    public boolean mayMatch(String str) {
+        if (!str.startsWith(prefix)) {
+            return false;
+        }
+
+        for (String literal : literals) {
+            if (!str.contains(literal)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static RegexPrefilter create(Pattern pattern, MatchType matchType) {
+        if ((pattern.flags() & UNSUPPORTED_FLAGS) != 0) {
+            return EMPTY_PREFILTER;
+        }
+
+        String regex = pattern.pattern();
+        if (regex.contains(QUOTATION_START)) {
+            return EMPTY_PREFILTER;
+        }
+
+        int i = 0;
+        boolean anchored = matchType == MatchType.MATCHES;
+        if (regex.startsWith("^")) {
+            anchored = true;
+            i++;
+        }
+
+        String prefix = null;
+        List<String> literals = new ArrayList<>();
+        StringBuilder run = new StringBuilder();
+        boolean lastAtomLiteral = false;
+
+        while (i < regex.length()) {
+            char current = regex.charAt(i);
+            boolean isLiteral = false;
+            switch (current) {
+                case '|':
+                    //NOTE: top level alternation, no literal is required
+                    return EMPTY_PREFILTER;
+                case '(':
+                    if (i + 2 < regex.length()
+                            && regex.charAt(i + 1) == '?'
+                            && (Character.isLetter(regex.charAt(i + 2)) || regex.charAt(i + 2) == '-')) {
+                        //NOTE: inline flags can change the meaning of literals
+                        return EMPTY_PREFILTER;
+                    }
+                    i = skipGroup(regex, i);
+                    if (i < 0) {
+                        return EMPTY_PREFILTER;
+                    }
+                    break;
+                case '[':
+                    i = skipCharacterClass(regex, i);
+                    if (i < 0) {
+                        return EMPTY_PREFILTER;
+                    }
+                    break;
+                case '\\':
+                    if (i + 1 >= regex.length()) {
+                        return EMPTY_PREFILTER;
+                    }
+                    char escaped = regex.charAt(i + 1);
+                    if (Character.isLetterOrDigit(escaped)) {
+                        i = skipEscapedClass(regex, i);
+                        if (i < 0) {
+                            return EMPTY_PREFILTER;
+                        }
+                    } else {
+                        run.append(escaped);
+                        i += 2;
+                        isLiteral = true;
+                    }
+                    break;
+                case '?':
+                case '*':
+                case '{':
+                case '+':
+                    if (lastAtomLiteral && current != '+') {
+                        removeLastCharacter(run);
+                    }
+                    i = skipQuantifier(regex, i);
+                    if (i < 0) {
+                        return EMPTY_PREFILTER;
+                    }
+                    break;
+                case '.':
+                case '^':
+                case '$':
+                    i++;
+                    break;
+                default:
+                    run.append(current);
+                    i++;
+                    isLiteral = true;
+            }
+
+            if (!isLiteral) {
+                if (prefix == null) {
+                    prefix = anchored ? run.toString() : "";
+                }
+                addLiteral(literals, run);
+            }
+            lastAtomLiteral = isLiteral;
+        }
+
+        if (prefix == null) {
+            prefix = anchored ? run.toString() : "";
+        }
+        addLiteral(literals, run);
+        if (!prefix.isEmpty()) {
+            literals.removeIf(prefix::contains);
+        }
+        return new RegexPrefilter(prefix, literals);
+    }
+
+    private static void removeLastCharacter(StringBuilder run) {
+        int length = run.length() - 1;
+        if (length > 0 && Character.isSurrogatePair(run.charAt(length - 1), run.charAt(length))) {
+            length--;
+        }
+        run.setLength(length);
+    }
+
+    private static void addLiteral(List<String> literals, StringBuilder run) {
+        if (run.length() >= MIN_LITERAL_LENGTH) {
+            literals.add(run.toString());
+        }
+        run.setLength(0);
+    }
+
+    private static int skipGroup(String regex, int start) {
+        int depth = 0;
+        int i = start;
+        while (i < regex.length()) {
+            char current = regex.charAt(i);
+            if (current == '\\') {
+                i += 2;
+                continue;
+            }
+            if (current == '[') {
+                i = skipCharacterClass(regex, i);
+                if (i < 0) {
+                    return -1;
+                }
+                continue;
+            }
+            if (current == '(') {
+                depth++;
+            } else if (current == ')' && --depth == 0) {
+                return i + 1;
+            }
+            i++;
+        }
+        return -1;
+    }
+
+    private static int skipCharacterClass(String regex, int start) {
+        int depth = 0;
+        int i = start;
+        while (i < regex.length()) {
+            char current = regex.charAt(i);
+            if (current == '\\') {
+                i += 2;
+                continue;
+            }
+            if (current == '[') {
+                depth++;
+                //NOTE: ']' or '^]' at the beginning of a class is a literal
+                if (i + 1 < regex.length() && regex.charAt(i + 1) == '^') {
+                    i++;
+                }
+                if (i + 1 < regex.length() && regex.charAt(i + 1) == ']') {
+                    i++;
+                }
+            } else if (current == ']' && --depth == 0) {
+                return i + 1;
+            }
+            i++;
+        }
+        return -1;
+    }
+
+    private static int skipEscapedClass(String regex, int start) {
+        char escaped = regex.charAt(start + 1);
+        int i = start + 2;
+        if (Character.isDigit(escaped)) {
+            while (i < regex.length() && Character.isDigit(regex.charAt(i))) {
+                i++;
+            }
+            return i;
+        }
+
+        switch (escaped) {
+            case 'x':
+            case 'p':
+            case 'P':
+            case 'N':
+                if (i < regex.length() && regex.charAt(i) == '{') {
+                    int end = regex.indexOf('}', i);
+                    return end < 0 ? -1 : end + 1;
+                }
+                return escaped == 'x' ? i + 2 : i + 1;
+            case 'u':
+                return i + 4;
+            case 'k':
+                int end = regex.indexOf('>', i);
+                return end < 0 ? -1 : end + 1;
+            default:
+                return ESCAPED_SINGLE_ARGUMENT.indexOf(escaped) >= 0 ? i + 1 : i;
+        }
+    }
+
+    private static int skipQuantifier(String regex, int start) {
+        int i = start;
+        if (regex.charAt(i) == '{') {
+            int end = regex.indexOf('}', i);
+            if (end < 0) {
+                return -1;
+            }
+            i = end;
+        }
+        i++;
+        if (i < regex.length() && (regex.charAt(i) == '?' || regex.charAt(i) == '+')) {
+            i++;
+        }
+        return i;
+    }
+}
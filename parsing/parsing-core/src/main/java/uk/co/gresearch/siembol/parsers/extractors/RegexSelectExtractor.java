@@ -1,9 +1,9 @@
 package uk.co.gresearch.siembol.parsers.extractors;
 
 import org.apache.commons.lang3.tuple.Pair;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.LongSupplier;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -14,21 +14,31 @@ public class RegexSelectExtractor extends ParserExtractor {
     private final List<Pair<String, Pattern>> patterns;
     private final String outputField;
     private final String defaultValue;
+    private final MultiPatternPrefilter prefilter;
+    private final PatternsHits patternsHits;
 
     private RegexSelectExtractor(Builder<?> builder) {
         super(builder);
         this.patterns = builder.patterns;
         this.outputField = builder.outputField;
         this.defaultValue = builder.defaultValue;
+        this.prefilter = new MultiPatternPrefilter(patterns.stream()
+                .map(Pair::getRight)
+                .collect(Collectors.toList()), RegexPrefilter.MatchType.FIND);
+        this.patternsHits = new PatternsHits(patterns.size());
     }
 
     @Override
-    protected Map<String, Object> extractInternally(String message) {
-        Map<String, Object> map = new HashMap<>();
+    protected Map<String, Object> extractInternally(String message, Map<String, Object> map) {
+        for (int index : prefilter.getCandidates(message)) {
+            if (!prefilter.mayMatch(index, message)) {
+                continue;
+            }
 
-        for (Pair<String, Pattern> pattern : patterns) {
+            Pair<String, Pattern> pattern = patterns.get(index);
             Matcher m = pattern.getRight().matcher(message);
             if (m.find()) {
+                patternsHits.hit(index);
                 map.put(outputField, pattern.getLeft());
                 return map;
             }
@@ -41,6 +51,11 @@ public class RegexSelectExtractor extends ParserExtractor {
         return map;
     }
 
+    @Override
+    public List<LongSupplier> getPatternsHitsCounters() {
+        return patternsHits.getCounters();
+    }
+
     public static Builder<RegexSelectExtractor> builder() {
         return new Builder<RegexSelectExtractor>() {
             @Override
@@ -0,0 +1,470 @@
+package uk.co.gresearch.siembol.parsers.extractors;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.LongSupplier;
+
+/**
+ * Hand written parser of timestamps with fixed width numeric fields such as ISO-8601 or RFC 3164 timestamps.
+ * It is compiled from a DateTimeFormatter pattern and it supports only a subset of the pattern letters.
+ * Parsing fails on any text that the layout is not sure about so the caller can fall back to the formatter.
+ */
+final class TimestampLayout {
+    private static final long WEEK_SECONDS = 7 * 24 * 3600L;
+    private static final long WEEK_MILLISECONDS = WEEK_SECONDS * 1000;
+    private static final long SECONDS_PER_DAY = 24 * 3600L;
+    private static final int NANOS_PER_MILLI = 1_000_000;
+    private static final int MAX_OFFSET_HOURS = 18;
+    private static final int OFFSET_LENGTH = 6;
+    private static final int INVALID_OFFSET = Integer.MIN_VALUE;
+
+    private enum TokenType {
+        LITERAL,
+        YEAR,
+        MONTH,
+        MONTH_NAME,
+        DAY,
+        HOUR,
+        MINUTE,
+        SECOND,
+        FRACTION,
+        OFFSET,
+        OFFSET_OR_Z
+    }
+
+    private static class Token {
+        private final TokenType type;
+        private final int width;
+        private final String literal;
+
+        Token(TokenType type, int width, String literal) {
+            this.type = type;
+            this.width = width;
+            this.literal = literal;
+        }
+    }
+
+    private static class CachedSecond {
+        private final String prefix;
+        private final long seconds;
+        private final long validUntilMillis;
+
+        CachedSecond(String prefix, long seconds, long validUntilMillis) {
+            this.prefix = prefix;
+            this.seconds = seconds;
+            this.validUntilMillis = validUntilMillis;
+        }
+    }
+
+    private static class CurrentYear {
+        private final int year;
+        private final long startMillis;
+        private final long endMillis;
+
+        CurrentYear(int year, long startMillis, long endMillis) {
+            this.year = year;
+            this.startMillis = startMillis;
+            this.endMillis = endMillis;
+        }
+    }
+
+    private final Token[] tokens;
+    private final ZoneId zone;
+    private final boolean hasYear;
+    private final boolean hasOffset;
+    private final int secondsTokenIndex;
+    private final String[] monthNames;
+    private final LongSupplier currentTimeMillis;
+    private volatile CachedSecond cachedSecond;
+    private volatile CurrentYear currentYear;
+
+    private TimestampLayout(List<Token> tokens, ZoneId zone, String[] monthNames, LongSupplier currentTimeMillis) {
+        this.tokens = tokens.toArray(new Token[tokens.size()]);
+        this.zone = zone;
+        this.monthNames = monthNames;
+        this.currentTimeMillis = currentTimeMillis;
+        this.hasYear = tokens.stream().anyMatch(x -> x.type == TokenType.YEAR);
+        this.hasOffset = tokens.stream().anyMatch(x -> x.type == TokenType.OFFSET || x.type == TokenType.OFFSET_OR_Z);
+        this.secondsTokenIndex = getSecondsTokenIndex(tokens, hasYear);
+    }
+
+    /**
+     * Parses the text into milliseconds since epoch
+     * @return the parsed timestamp or null if the text is not supported by the layout
+     */
+    Long parse(String text) {
+        int pos = 0;
+        int tokenIndex = 0;
+        int year = 0;
+        int month = 0;
+        int day = 0;
+        int hour = 0;
+        int minute = 0;
+        int second = 0;
+        int nanos = 0;
+        int offsetSeconds = 0;
+        long seconds = 0;
+        boolean secondsKnown = false;
+
+        CachedSecond cached = cachedSecond;
+        if (cached != null && text.startsWith(cached.prefix)
+                && (hasYear || currentTimeMillis.getAsLong() < cached.validUntilMillis)) {
+            //NOTE: timestamps sharing the same second reuse the parsed prefix
+            pos = cached.prefix.length();
+            tokenIndex = secondsTokenIndex + 1;
+            seconds = cached.seconds;
+            secondsKnown = true;
+        }
+
+        for (; tokenIndex < tokens.length; tokenIndex++) {
+            Token token = tokens[tokenIndex];
+            switch (token.type) {
+                case LITERAL:
+                    if (!text.startsWith(token.literal, pos)) {
+                        return null;
+                    }
+                    pos += token.literal.length();
+                    break;
+                case MONTH_NAME:
+                    month = 0;
+                    for (int i = 0; i < monthNames.length; i++) {
+                        if (text.startsWith(monthNames[i], pos)) {
+                            month = i + 1;
+                            pos += monthNames[i].length();
+                            break;
+                        }
+                    }
+                    if (month == 0) {
+                        return null;
+                    }
+                    break;
+                case OFFSET_OR_Z:
+                    if (pos < text.length() && text.charAt(pos) == 'Z') {
+                        pos++;
+                        offsetSeconds = 0;
+                    } else {
+                        offsetSeconds = readOffset(text, pos);
+                        if (offsetSeconds == INVALID_OFFSET) {
+                            return null;
+                        }
+                        pos += OFFSET_LENGTH;
+                    }
+                    break;
+                case OFFSET:
+                    offsetSeconds = readOffset(text, pos);
+                    if (offsetSeconds == INVALID_OFFSET) {
+                        return null;
+                    }
+                    pos += OFFSET_LENGTH;
+                    break;
+                default:
+                    int value = parseNumber(text, pos, token.width);
+                    if (value < 0) {
+                        return null;
+                    }
+                    pos += token.width;
+                    switch (token.type) {
+                        case YEAR:
+                            year = value;
+                            break;
+                        case MONTH:
+                            month = value;
+                            break;
+                        case DAY:
+                            day = value;
+                            break;
+                        case HOUR:
+                            hour = value;
+                            break;
+                        case MINUTE:
+                            minute = value;
+                            break;
+                        case SECOND:
+                            second = value;
+                            break;
+                        case FRACTION:
+                            nanos = value;
+                            for (int i = token.width; i < 9; i++) {
+                                nanos *= 10;
+                            }
+                            break;
+                    }
+            }
+
+            if (tokenIndex == secondsTokenIndex && !secondsKnown) {
+                CachedSecond current = hasYear
+                        ? getSecondsWithYear(text.substring(0, pos), year, month, day, hour, minute, second)
+                        : getSecondsWithoutYear(text.substring(0, pos), month, day, hour, minute, second);
+                if (current == null) {
+                    return null;
+                }
+                seconds = current.seconds;
+                secondsKnown = true;
+                cachedSecond = current;
+            }
+        }
+
+        if (pos != text.length()) {
+            return null;
+        }
+
+        if (!secondsKnown) {
+            CachedSecond current = hasYear
+                    ? getSecondsWithYear(null, year, month, day, hour, minute, second)
+                    : getSecondsWithoutYear(null, month, day, hour, minute, second);
+            if (current == null) {
+                return null;
+            }
+            seconds = current.seconds;
+        }
+
+        if (hasOffset) {
+            seconds -= offsetSeconds;
+        }
+        return seconds * 1000 + nanos / NANOS_PER_MILLI;
+    }
+
+    private Long getSeconds(int year, int month, int day, int hour, int minute, int second) {
+        if (!isValid(year, month, day, hour, minute, second)) {
+            return null;
+        }
+
+        long localSeconds = daysFromCivil(year, month, day) * SECONDS_PER_DAY + hour * 3600L + minute * 60L + second;
+        if (hasOffset) {
+            return localSeconds;
+        }
+
+        //NOTE: the offset is resolved for the instant from the zone rules so it is correct across DST changes
+        return zone.getRules().isFixedOffset()
+                ? localSeconds - zone.getRules().getOffset(Instant.EPOCH).getTotalSeconds()
+                : LocalDateTime.of(year, month, day, hour, minute, second).atZone(zone).toEpochSecond();
+    }
+
+    private CachedSecond getSecondsWithYear(String prefix,
+                                            int year, int month, int day, int hour, int minute, int second) {
+        Long seconds = getSeconds(year, month, day, hour, minute, second);
+        return seconds == null ? null : new CachedSecond(prefix, seconds, Long.MAX_VALUE);
+    }
+
+    private CachedSecond getSecondsWithoutYear(String prefix, int month, int day, int hour, int minute, int second) {
+        long nowMillis = currentTimeMillis.getAsLong();
+        CurrentYear current = getCurrentYear(nowMillis);
+        Long seconds = getSeconds(current.year, month, day, hour, minute, second);
+        if (seconds == null) {
+            return null;
+        }
+
+        //NOTE: detection of using the previous year assuming that we do not have a week old logs
+        long previousYearUntilMillis = seconds * 1000 - WEEK_MILLISECONDS;
+        if (nowMillis < previousYearUntilMillis) {
+            seconds = getSeconds(current.year - 1, month, day, hour, minute, second);
+            return seconds == null
+                    ? null
+                    : new CachedSecond(prefix, seconds, Math.min(current.endMillis, previousYearUntilMillis));
+        }
+        return new CachedSecond(prefix, seconds, current.endMillis);
+    }
+
+    private CurrentYear getCurrentYear(long nowMillis) {
+        CurrentYear current = currentYear;
+        if (current == null || nowMillis < current.startMillis || nowMillis >= current.endMillis) {
+            //NOTE: the year is resolved from the zone rules only once per year
+            int year = Instant.ofEpochMilli(nowMillis).atZone(zone).getYear();
+            current = new CurrentYear(year,
+                    LocalDate.of(year, 1, 1).atStartOfDay(zone).toInstant().toEpochMilli(),
+                    LocalDate.of(year + 1, 1, 1).atStartOfDay(zone).toInstant().toEpochMilli());
+            currentYear = current;
+        }
+        return current;
+    }
+
+    private static boolean isValid(int year, int month, int day, int hour, int minute, int second) {
+        return month >= 1 && month <= 12
+                && day >= 1 && day <= Month.of(month).length(isLeapYear(year))
+                && hour <= 23 && minute <= 59 && second <= 59;
+    }
+
+    private static boolean isLeapYear(int year) {
+        return (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+    }
+
+    private static long daysFromCivil(int year, int month, int day) {
+        long y = month <= 2 ? year - 1 : year;
+        long era = Math.floorDiv(y, 400);
+        long yearOfEra = y - era * 400;
+        long dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    private static int parseNumber(String text, int pos, int width) {
+        if (pos + width > text.length()) {
+            return -1;
+        }
+
+        int ret = 0;
+        for (int i = pos; i < pos + width; i++) {
+            char current = text.charAt(i);
+            if (current < '0' || current > '9') {
+                return -1;
+            }
+            ret = ret * 10 + (current - '0');
+        }
+        return ret;
+    }
+
+    private static int readOffset(String text, int pos) {
+        if (pos + OFFSET_LENGTH > text.length() || text.charAt(pos + 3) != ':') {
+            return INVALID_OFFSET;
+        }
+
+        char sign = text.charAt(pos);
+        int offsetHours = parseNumber(text, pos + 1, 2);
+        int offsetMinutes = parseNumber(text, pos + 4, 2);
+        if ((sign != '+' && sign != '-')
+                || offsetHours < 0 || offsetHours > MAX_OFFSET_HOURS
+                || offsetMinutes < 0 || offsetMinutes > 59) {
+            return INVALID_OFFSET;
+        }
+        return (offsetHours * 3600 + offsetMinutes * 60) * (sign == '-' ? -1 : 1);
+    }
+
+    private static int getSecondsTokenIndex(List<Token> tokens, boolean hasYear) {
+        boolean month = false;
+        boolean day = false;
+        boolean hour = false;
+        boolean minute = false;
+        for (int i = 0; i < tokens.size(); i++) {
+            switch (tokens.get(i).type) {
+                case MONTH:
+                case MONTH_NAME:
+                    month = true;
+                    break;
+                case DAY:
+                    day = true;
+                    break;
+                case HOUR:
+                    hour = true;
+                    break;
+                case MINUTE:
+                    minute = true;
+                    break;
+                case SECOND:
+                    //NOTE: the prefix can be cached only if it contains all fields of the second
+                    return month && day && hour && minute && (!hasYear || tokens.subList(0, i).stream()
+                            .anyMatch(x -> x.type == TokenType.YEAR)) ? i : -1;
+                case FRACTION:
+                case OFFSET:
+                case OFFSET_OR_Z:
+                    return -1;
+            }
+        }
+        return -1;
+    }
+
+    static Optional<TimestampLayout> create(String pattern, ZoneId zone) {
+        return create(pattern, zone, System::currentTimeMillis);
+    }
+
+    static Optional<TimestampLayout> create(String pattern, ZoneId zone, LongSupplier currentTimeMillis) {
+        List<Token> tokens = new ArrayList<>();
+        boolean hasMonth = false;
+        boolean hasDay = false;
+        boolean hasHour = false;
+        int i = 0;
+        while (i < pattern.length()) {
+            char current = pattern.charAt(i);
+            if (current == '\'') {
+                int end = pattern.indexOf('\'', i + 1);
+                if (end < 0) {
+                    return Optional.empty();
+                }
+                String literal = end == i + 1 ? "'" : pattern.substring(i + 1, end);
+                if (literal.indexOf('\'') >= 0 || (end + 1 < pattern.length() && pattern.charAt(end + 1) == '\'')) {
+                    return Optional.empty();
+                }
+                tokens.add(new Token(TokenType.LITERAL, literal.length(), literal));
+                i = end + 1;
+                continue;
+            }
+
+            if (!Character.isLetter(current)) {
+                if ("[]{}#".indexOf(current) >= 0) {
+                    return Optional.empty();
+                }
+                tokens.add(new Token(TokenType.LITERAL, 1, String.valueOf(current)));
+                i++;
+                continue;
+            }
+
+            int end = i;
+            while (end < pattern.length() && pattern.charAt(end) == current) {
+                end++;
+            }
+            int count = end - i;
+            i = end;
+
+            TokenType type;
+            switch (current) {
+                case 'y':
+                case 'u':
+                    type = count == 4 ? TokenType.YEAR : null;
+                    break;
+                case 'M':
+                    type = count == 2 ? TokenType.MONTH : count == 3 ? TokenType.MONTH_NAME : null;
+                    hasMonth = true;
+                    break;
+                case 'd':
+                    type = count == 2 ? TokenType.DAY : null;
+                    hasDay = true;
+                    break;
+                case 'H':
+                    type = count == 2 ? TokenType.HOUR : null;
+                    hasHour = true;
+                    break;
+                case 'm':
+                    type = count == 2 ? TokenType.MINUTE : null;
+                    break;
+                case 's':
+                    type = count == 2 ? TokenType.SECOND : null;
+                    break;
+                case 'S':
+                    type = count <= 9 ? TokenType.FRACTION : null;
+                    break;
+                case 'X':
+                    type = count == 3 ? TokenType.OFFSET_OR_Z : null;
+                    break;
+                case 'x':
+                    type = count == 3 ? TokenType.OFFSET : null;
+                    break;
+                default:
+                    type = null;
+            }
+
+            if (type == null) {
+                return Optional.empty();
+            }
+            tokens.add(new Token(type, count, null));
+        }
+
+        if (!hasMonth || !hasDay || !hasHour) {
+            return Optional.empty();
+        }
+
+        //NOTE: month names are taken from the formatter in order to parse the same texts
+        DateTimeFormatter monthFormatter = DateTimeFormatter.ofPattern("MMM");
+        String[] monthNames = new String[12];
+        for (Month month : Month.values()) {
+            monthNames[month.getValue() - 1] = monthFormatter.format(month);
+        }
+
+        return Optional.of(new TimestampLayout(tokens, zone, monthNames, currentTimeMillis));
+    }
+}
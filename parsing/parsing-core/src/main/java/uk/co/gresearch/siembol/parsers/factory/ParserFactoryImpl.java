@@ -10,15 +10,23 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import uk.co.gresearch.siembol.common.jsonschema.JsonSchemaValidator;
 import uk.co.gresearch.siembol.common.jsonschema.SiembolJsonSchemaValidator;
+import uk.co.gresearch.siembol.common.utils.PatternFilter;
 import uk.co.gresearch.siembol.parsers.common.SiembolParser;
 import uk.co.gresearch.siembol.parsers.common.ParserResult;
 import uk.co.gresearch.siembol.parsers.common.SerializableSiembolParser;
 import uk.co.gresearch.siembol.parsers.generic.SiembolGenericParser;
+import uk.co.gresearch.siembol.parsers.netflow.NetflowTemplateStore;
+import uk.co.gresearch.siembol.parsers.netflow.NetflowTransportProvider;
+import uk.co.gresearch.siembol.parsers.netflow.SharedTransportProvider;
 import uk.co.gresearch.siembol.parsers.netflow.SiembolNetflowParser;
+import uk.co.gresearch.siembol.parsers.netflow.SimpleTransportProvider;
 import uk.co.gresearch.siembol.parsers.syslog.SiembolSyslogParser;
 import uk.co.gresearch.siembol.parsers.extractors.*;
 import uk.co.gresearch.siembol.parsers.model.*;
+import uk.co.gresearch.siembol.parsers.transformations.MessagePrefilter;
+import uk.co.gresearch.siembol.parsers.transformations.MessagePrefilters;
 import uk.co.gresearch.siembol.parsers.transformations.Transformation;
+import uk.co.gresearch.siembol.parsers.transformations.TransformationsLibrary;
 import uk.co.gresearch.siembol.parsers.transformations.TransformationFactory;
 import uk.co.gresearch.siembol.common.result.SiembolResult;
 
@@ -45,6 +53,9 @@ public class ParserFactoryImpl implements ParserFactory {
             new ObjectMapper()
                     .setSerializationInclusion(JsonInclude.Include.NON_NULL)
                     .writerFor(ParserConfigDto.class);
+    private static final String DUPLICATE_PREFILTER_MSG = "Duplicate prefilter name: %s";
+    private static final String UNKNOWN_PREFILTER_EXTRACTOR_MSG = "Prefilter %s uses unknown extractor: %s";
+    private static final String UNSUPPORTED_NETFLOW_PREFILTERS_MSG = "Prefilters are not supported by netflow parser";
 
     private final JsonSchemaValidator jsonSchemaValidator;
     private final TransformationFactory transformationFactory = new TransformationFactory();
@@ -68,17 +79,22 @@ public class ParserFactoryImpl implements ParserFactory {
                     .orElse(null);
             List<Transformation> transformations = createTransformations(parserConfig)
                     .orElse(null);
+            MessagePrefilters prefilters = createPrefilters(parserConfig, extractors);
 
             SiembolParser parser;
             switch (parserConfig.getParserAttributes().getParserType()) {
                 case NETFLOW:
-                    parser = new SiembolNetflowParser();
+                    if (prefilters != null) {
+                        throw new IllegalArgumentException(UNSUPPORTED_NETFLOW_PREFILTERS_MSG);
+                    }
+                    parser = createNetflowParser(parserConfig.getParserAttributes().getNetflowConfig());
                     break;
                 case SYSLOG:
-                    parser = createSyslogParser(parserConfig.getParserAttributes().getSyslogConfig(), extractors, transformations);
+                    parser = createSyslogParser(parserConfig.getParserAttributes().getSyslogConfig(),
+                            extractors, transformations, prefilters);
                     break;
                 case GENERIC:
-                    parser = new SiembolGenericParser(extractors, transformations);
+                    parser = new SiembolGenericParser(extractors, transformations, prefilters);
                     break;
                 default:
                     throw new IllegalArgumentException("Unsupported parser type");
@@ -353,6 +369,10 @@ public class ParserFactoryImpl implements ParserFactory {
                 .builder()
                 .pathPrefix(extractor.getAttributes().getPathPrefix())
                 .nestedSeparator(extractor.getAttributes().getNestedSeparator())
+                .fieldsFilter(extractor.getAttributes().getJsonFieldsFilter() == null
+                        ? null
+                        : PatternFilter.create(extractor.getAttributes().getJsonFieldsFilter().getIncludingFields(),
+                        extractor.getAttributes().getJsonFieldsFilter().getExcludingFields()))
                 .name(extractor.getName())
                 .field(extractor.getField())
                 .extractorFlags(getExtractorFlags(extractor.getAttributes()))
@@ -436,7 +456,7 @@ public class ParserFactoryImpl implements ParserFactory {
                 ret.add(transformationFactory.create(transformation));
             }
 
-            return ret.isEmpty() ? Optional.empty() : Optional.of(ret);
+            return ret.isEmpty() ? Optional.empty() : Optional.of(TransformationsLibrary.fuse(ret));
         } catch (Exception e) {
             LOG.error(String.format("Exception %s during initialisation of parser transformation",
                     ExceptionUtils.getStackTrace(e)));
@@ -444,14 +464,61 @@ public class ParserFactoryImpl implements ParserFactory {
         }
     }
 
+    private MessagePrefilters createPrefilters(ParserConfigDto parserConfig, List<ParserExtractor> extractors) {
+        if (parserConfig.getParserPrefilters() == null || parserConfig.getParserPrefilters().isEmpty()) {
+            return null;
+        }
+
+        Set<String> extractorNames = extractors == null
+                ? Collections.emptySet()
+                : extractors.stream().map(ParserExtractor::getName).collect(Collectors.toSet());
+        Set<String> prefilterNames = new HashSet<>();
+        List<MessagePrefilter> messagePrefilters = new ArrayList<>();
+        Map<String, List<MessagePrefilter>> extractorsPrefilters = new HashMap<>();
+        for (MessagePrefilterDto prefilterDto : parserConfig.getParserPrefilters()) {
+            MessagePrefilter prefilter = transformationFactory.createMessagePrefilter(prefilterDto);
+            if (!prefilterNames.add(prefilter.getName())) {
+                throw new IllegalArgumentException(
+                        String.format(DUPLICATE_PREFILTER_MSG, prefilter.getName()));
+            }
+
+            String afterExtractor = prefilterDto.getAfterExtractor();
+            if (afterExtractor == null) {
+                messagePrefilters.add(prefilter);
+            } else if (extractorNames.contains(afterExtractor)) {
+                extractorsPrefilters.computeIfAbsent(afterExtractor, x -> new ArrayList<>()).add(prefilter);
+            } else {
+                throw new IllegalArgumentException(
+                        String.format(UNKNOWN_PREFILTER_EXTRACTOR_MSG, prefilter.getName(), afterExtractor));
+            }
+        }
+
+        return new MessagePrefilters(messagePrefilters, extractorsPrefilters);
+    }
+
+    private SiembolParser createNetflowParser(NetflowParserConfigDto netflowConfig) {
+        if (netflowConfig == null) {
+            return new SiembolNetflowParser();
+        }
+
+        NetflowTransportProvider<String> provider = Boolean.TRUE.equals(netflowConfig.getSharedTemplates())
+                || netflowConfig.getTemplatesPath() != null
+                ? new SharedTransportProvider(NetflowTemplateStore.getSharedStore(
+                        Optional.ofNullable(netflowConfig.getTemplatesPath())))
+                : new SimpleTransportProvider();
+        return new SiembolNetflowParser(provider, Boolean.TRUE.equals(netflowConfig.getIncludeOriginalPacket()));
+    }
+
     private SiembolParser createSyslogParser(SyslogParserConfigDto syslogConfig,
                                              List<ParserExtractor> extractors,
-                                             List<Transformation> transformations) {
+                                             List<Transformation> transformations,
+                                             MessagePrefilters prefilters) {
         SiembolSyslogParser.Builder builder = new SiembolSyslogParser.Builder()
                 .flags(getSyslogFlags(syslogConfig))
                 .timezone(syslogConfig.getTimezone())
                 .extractors(extractors)
-                .transformations(transformations);
+                .transformations(transformations)
+                .prefilters(prefilters);
 
         if (syslogConfig.getTimeFormats() != null) {
             builder.dateFormats(
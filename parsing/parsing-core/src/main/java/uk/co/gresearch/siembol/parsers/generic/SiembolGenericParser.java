@@ -6,11 +6,13 @@ import org.slf4j.LoggerFactory;
 import uk.co.gresearch.siembol.parsers.common.SiembolParser;
 import uk.co.gresearch.siembol.common.constants.SiembolMessageFields;
 import uk.co.gresearch.siembol.parsers.extractors.ParserExtractor;
+import uk.co.gresearch.siembol.parsers.transformations.MessagePrefilters;
 import uk.co.gresearch.siembol.parsers.transformations.Transformation;
 import uk.co.gresearch.siembol.parsers.transformations.TransformationsLibrary;
 
 import java.lang.invoke.MethodHandles;
 import java.util.*;
+import java.util.function.LongSupplier;
 import static java.nio.charset.StandardCharsets.UTF_8;
 
 public class SiembolGenericParser implements SiembolParser {
@@ -19,10 +21,18 @@ public class SiembolGenericParser implements SiembolParser {
 
     private final List<ParserExtractor> extractors;
     private final List<Transformation> transformations;
+    private final MessagePrefilters prefilters;
 
     public SiembolGenericParser(List<ParserExtractor> extractors, List<Transformation> transformations) {
+        this(extractors, transformations, null);
+    }
+
+    public SiembolGenericParser(List<ParserExtractor> extractors,
+                                List<Transformation> transformations,
+                                MessagePrefilters prefilters) {
         this.extractors = extractors;
         this.transformations = transformations;
+        this.prefilters = prefilters;
     }
 
     @Override
@@ -35,8 +45,15 @@ public class SiembolGenericParser implements SiembolParser {
             parsed.put(SiembolMessageFields.ORIGINAL.toString(), originalMessage);
             parsed.put(SiembolMessageFields.TIMESTAMP.toString(), System.currentTimeMillis());
 
+            if (prefilters != null && prefilters.filterMessage(parsed)) {
+                return new ArrayList<>();
+            }
+
             if (extractors != null) {
-                parsed = ParserExtractor.extract(extractors, parsed);
+                parsed = ParserExtractor.extract(extractors, parsed, prefilters);
+                if (parsed.isEmpty()) {
+                    return new ArrayList<>();
+                }
             }
 
             if (transformations != null) {
@@ -50,4 +67,14 @@ public class SiembolGenericParser implements SiembolParser {
             throw new IllegalStateException(errorMessage, e);
         }
     }
+
+    @Override
+    public Map<String, LongSupplier> getDroppedMessagesCounters() {
+        return prefilters != null ? prefilters.getDroppedMessagesCounters() : Collections.emptyMap();
+    }
+
+    @Override
+    public Map<String, LongSupplier> getPatternsHitsCounters() {
+        return extractors != null ? ParserExtractor.getPatternsHitsCounters(extractors) : Collections.emptyMap();
+    }
 }
@@ -78,6 +78,10 @@ public class ExtractorAttributesDto {
     @Attributes(description = "The separator added during unfolding nested json objects")
     private String nestedSeparator = ":";
 
+    @JsonProperty("json_fields_filter")
+    @Attributes(description = "The filter of unfolded json field names, excluded nested objects are skipped")
+    private FieldsFilterDto jsonFieldsFilter;
+
     @JsonProperty("regex_select_config")
     @Attributes(description = "The specification of regex_select extractor")
     private RegexSelectDto regexSelectConfig;
@@ -262,6 +266,14 @@ public class ExtractorAttributesDto {
         this.nestedSeparator = nestedSeparator;
     }
 
+    public FieldsFilterDto getJsonFieldsFilter() {
+        return jsonFieldsFilter;
+    }
+
+    public void setJsonFieldsFilter(FieldsFilterDto jsonFieldsFilter) {
+        this.jsonFieldsFilter = jsonFieldsFilter;
+    }
+
     public String getStringReplaceTarget() {
         return stringReplaceTarget;
     }
@@ -0,0 +1,46 @@
+package uk.co.gresearch.siembol.parsers.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.github.reinert.jjschema.Attributes;
+
+import java.util.List;
+
+@Attributes(title = "message prefilter", description = "Specification for message filter evaluated before extraction")
+public class MessagePrefilterDto {
+    @JsonProperty("prefilter_name")
+    @Attributes(required = true, description = "The name of the prefilter used in the counter of dropped messages")
+    private String prefilterName;
+
+    @Attributes(required = true, description = "Matchers for the prefilter, the message is dropped if all match",
+            minItems = 1)
+    private List<MessageFilterMatcherDto> matchers;
+
+    @JsonProperty("after_extractor")
+    @Attributes(description = "The name of the extractor after which the prefilter is evaluated, " +
+            "the prefilter is evaluated before all extractors if not provided")
+    private String afterExtractor;
+
+    public String getPrefilterName() {
+        return prefilterName;
+    }
+
+    public void setPrefilterName(String prefilterName) {
+        this.prefilterName = prefilterName;
+    }
+
+    public List<MessageFilterMatcherDto> getMatchers() {
+        return matchers;
+    }
+
+    public void setMatchers(List<MessageFilterMatcherDto> matchers) {
+        this.matchers = matchers;
+    }
+
+    public String getAfterExtractor() {
+        return afterExtractor;
+    }
+
+    public void setAfterExtractor(String afterExtractor) {
+        this.afterExtractor = afterExtractor;
+    }
+}
@@ -0,0 +1,43 @@
+package uk.co.gresearch.siembol.parsers.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.github.reinert.jjschema.Attributes;
+
+@Attributes(title = "netflow config", description = "The specification of netflow parser")
+public class NetflowParserConfigDto {
+    @JsonProperty("shared_templates")
+    @Attributes(description = "Netflow templates are shared by all netflow parsers in the process")
+    private Boolean sharedTemplates = false;
+
+    @JsonProperty("templates_path")
+    @Attributes(description = "The path to a local file for persisting shared netflow templates")
+    private String templatesPath;
+
+    @JsonProperty("include_original_packet")
+    @Attributes(description = "The base64 encoded netflow packet is used as the original string of parsed records")
+    private Boolean includeOriginalPacket = false;
+
+    public Boolean getSharedTemplates() {
+        return sharedTemplates;
+    }
+
+    public void setSharedTemplates(Boolean sharedTemplates) {
+        this.sharedTemplates = sharedTemplates;
+    }
+
+    public Boolean getIncludeOriginalPacket() {
+        return includeOriginalPacket;
+    }
+
+    public void setIncludeOriginalPacket(Boolean includeOriginalPacket) {
+        this.includeOriginalPacket = includeOriginalPacket;
+    }
+
+    public String getTemplatesPath() {
+        return templatesPath;
+    }
+
+    public void setTemplatesPath(String templatesPath) {
+        this.templatesPath = templatesPath;
+    }
+}
@@ -13,6 +13,10 @@ public class ParserAttributesDto {
     @Attributes(description = "The configuration for Syslog parser")
     private SyslogParserConfigDto syslogConfig;
 
+    @JsonProperty("netflow_config")
+    @Attributes(description = "The configuration for Netflow parser")
+    private NetflowParserConfigDto netflowConfig;
+
     public SyslogParserConfigDto getSyslogConfig() {
         return syslogConfig;
     }
@@ -21,6 +25,14 @@ public class ParserAttributesDto {
         this.syslogConfig = syslogConfig;
     }
 
+    public NetflowParserConfigDto getNetflowConfig() {
+        return netflowConfig;
+    }
+
+    public void setNetflowConfig(NetflowParserConfigDto netflowConfig) {
+        this.netflowConfig = netflowConfig;
+    }
+
     public ParserTypeDto getParserType() {
         return parserType;
     }
@@ -29,6 +29,10 @@ public class ParserConfigDto {
     @Attributes(description = "Specification of parser extractors", minItems = 1)
     private List<ParserExtractorDto> parserExtractors;
 
+    @JsonProperty("parser_prefilters")
+    @Attributes(description = "Specification of message filters evaluated before or during extraction", minItems = 1)
+    private List<MessagePrefilterDto> parserPrefilters;
+
     @JsonProperty("transformations")
     @Attributes(description = "Specification of parser transformations applied after parsing", minItems = 1)
     private List<TransformationDto> parserTransformations;
@@ -57,6 +61,14 @@ public class ParserConfigDto {
         this.parserExtractors = parserExtractors;
     }
 
+    public List<MessagePrefilterDto> getParserPrefilters() {
+        return parserPrefilters;
+    }
+
+    public void setParserPrefilters(List<MessagePrefilterDto> parserPrefilters) {
+        this.parserPrefilters = parserPrefilters;
+    }
+
     public List<TransformationDto> getParserTransformations() {
         return parserTransformations;
     }
@@ -1,24 +1,20 @@
 package uk.co.gresearch.siembol.parsers.netflow;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import java.lang.invoke.MethodHandles;
-import java.net.Inet4Address;
-import java.net.Inet6Address;
-import java.util.Arrays;
-import java.util.List;
+import java.net.InetAddress;
+import java.nio.ByteBuffer;
+import java.util.function.IntFunction;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 
-public enum NetflowDataType implements ReadNetflowBuffer {
-    INTEGER(NetflowDataType::readInteger),
-    FLOAT(NetflowDataType::readFloat),
-    IPV4_ADDRESS(NetflowDataType::readIpv4Address),
-    IPV6_ADDRESS(NetflowDataType::readIpv6Address),
-    MAC_ADDRESS(NetflowDataType::readMACAddress),
-    BOOLEAN(NetflowDataType::readBoolean),
-    STRING(NetflowDataType::readString),
-    OCTET_ARRAY(NetflowDataType::readString);
+public enum NetflowDataType {
+    INTEGER(NetflowDataType::getIntegerReader),
+    FLOAT(NetflowDataType::getFloatReader),
+    IPV4_ADDRESS(x -> x == NetflowDataType.SIZE_OF_IPV4 ? NetflowDataType::readIpv4Address : null),
+    IPV6_ADDRESS(x -> x == NetflowDataType.SIZE_OF_IPV6 ? NetflowDataType::readIpv6Address : null),
+    MAC_ADDRESS(x -> x == NetflowDataType.SIZE_OF_MAC_ADDRESS ? NetflowDataType::readMacAddress : null),
+    BOOLEAN(x -> x == NetflowDataType.SIZE_OF_BOOLEAN ? NetflowDataType::readBoolean : null),
+    STRING(NetflowDataType::getStringReader),
+    OCTET_ARRAY(NetflowDataType::getStringReader);
 
     public static final int SIZE_OF_MAC_ADDRESS = 6;
     public static final int SIZE_OF_BOOLEAN = 1;
@@ -26,105 +22,93 @@ public enum NetflowDataType implements ReadNetflowBuffer {
     public static final int SIZE_OF_IPV6 = 16;
     public static final int SIZE_OF_LONG = 8;
     public static final int SIZE_OF_DOUBLE = 8;
-    public static final List<Integer> INTEGER_SIZE_LIST
-            = Arrays.asList(1, 2, 4, 8);
-    public static final List<Integer> FLOAT_SIZE_LIST
-            = Arrays.asList(4, 8);
-    public static final String UNKNOWN_IPV4 = "Unknown IPv4";
     public static final String UNKNOWN_IPV6 = "Unknown IPv6";
-    private static final Logger LOG = LoggerFactory
-            .getLogger(MethodHandles.lookup().lookupClass());
-
-    private static Object readInteger(BinaryBuffer buffer, int fieldLength) {
-        if (!INTEGER_SIZE_LIST.contains(fieldLength)) {
-            throw new IllegalStateException(String.format(
-                    "Wrong integer size: %d", fieldLength));
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private static ReadNetflowBuffer getIntegerReader(int fieldLength) {
+        switch (fieldLength) {
+            case 1:
+                return (buffer, offset) -> (long) Byte.toUnsignedInt(buffer.get(offset));
+            case 2:
+                return (buffer, offset) -> (long) Short.toUnsignedInt(buffer.getShort(offset));
+            case 4:
+                return (buffer, offset) -> Integer.toUnsignedLong(buffer.getInt(offset));
+            case SIZE_OF_LONG:
+                return ByteBuffer::getLong;
+            default:
+                return null;
         }
-
-        return fieldLength == SIZE_OF_LONG
-                ? buffer.getBuffer().getLong()
-                : buffer.readUnsigned(fieldLength);
     }
 
-    private static Object readFloat(BinaryBuffer buffer, int fieldLength) {
-        if (!(FLOAT_SIZE_LIST.contains(fieldLength))) {
-            throw new IllegalStateException(String.format(
-                    "Wrong float size: %d", fieldLength));
+    private static ReadNetflowBuffer getFloatReader(int fieldLength) {
+        switch (fieldLength) {
+            case 4:
+                //NOTE: floats are widened to doubles as values of all float lengths have the same type
+                return (buffer, offset) -> (double) buffer.getFloat(offset);
+            case SIZE_OF_DOUBLE:
+                return ByteBuffer::getDouble;
+            default:
+                return null;
         }
-        return fieldLength == SIZE_OF_DOUBLE
-                ? buffer.getBuffer().getDouble()
-                : buffer.getBuffer().getFloat();
     }
 
-    private static Object readMACAddress(BinaryBuffer buffer, int fieldLength) {
-        if (fieldLength != SIZE_OF_MAC_ADDRESS) {
-            throw new IllegalStateException(String.format(
-                    "Wrong MAC address size: %d", fieldLength));
-        }
-
-        StringBuilder sb = new StringBuilder(SIZE_OF_MAC_ADDRESS * 3 - 1);
-        for (int i = 0; i < fieldLength; i++) {
-            if (i > 0) {
-                sb.append(':');
-            }
-            sb.append(String.format("%02x", buffer.getBuffer().get()));
-        }
-        return sb.toString();
+    private static ReadNetflowBuffer getStringReader(int fieldLength) {
+        return (buffer, offset) -> new String(buffer.array(), buffer.arrayOffset() + offset, fieldLength, UTF_8);
     }
 
-    private static Object readBoolean(BinaryBuffer buffer, int fieldLength) {
-        if (fieldLength != SIZE_OF_BOOLEAN) {
-            throw new IllegalStateException(String.format(
-                    "Wrong boolean size: %d", fieldLength));
-        }
-        return buffer.readUByte() != 0;
+    private static Object readBoolean(ByteBuffer buffer, int offset) {
+        return buffer.get(offset) != 0;
     }
 
-    private static Object readIpv4Address(BinaryBuffer buffer, int fieldLength) {
-        if (fieldLength != SIZE_OF_IPV4) {
-            throw new IllegalStateException(String.format(
-                    "Wrong IPv4 address size: %d", fieldLength));
-        }
-
-        byte[] dst = buffer.readByteArray(fieldLength);
-        try {
-            return Inet4Address.getByAddress(dst).getHostAddress();
-        } catch (Exception e) {
-            LOG.error(String.format("Invalid Ipv4 address: %s"),
-                    new String(dst, UTF_8));
-            return UNKNOWN_IPV4;
+    private static Object readIpv4Address(ByteBuffer buffer, int offset) {
+        StringBuilder sb = new StringBuilder(15);
+        for (int i = 0; i < SIZE_OF_IPV4; i++) {
+            if (i > 0) {
+                sb.append('.');
+            }
+            sb.append(Byte.toUnsignedInt(buffer.get(offset + i)));
         }
+        return sb.toString();
     }
 
-    private static Object readIpv6Address(BinaryBuffer buffer, int fieldLength) {
-        if (fieldLength != SIZE_OF_IPV6) {
-            throw new IllegalStateException(String.format(
-                    "Wrong IPv6 address size: %d", fieldLength));
+    private static Object readIpv6Address(ByteBuffer buffer, int offset) {
+        byte[] address = new byte[SIZE_OF_IPV6];
+        for (int i = 0; i < SIZE_OF_IPV6; i++) {
+            address[i] = buffer.get(offset + i);
         }
-
-        byte[] dst = buffer.readByteArray(fieldLength);
         try {
-            return Inet6Address.getByAddress(dst).getHostAddress();
+            //NOTE: IPv4 mapped addresses are returned in the IPv4 format
+            return InetAddress.getByAddress(address).getHostAddress();
         } catch (Exception e) {
-            LOG.error(String.format("Invalid Ipv6 address: %s"),
-                    new String(dst, UTF_8));
             return UNKNOWN_IPV6;
         }
     }
 
-    private static Object readString(BinaryBuffer buffer, int fieldLength) {
-        byte[] dst = buffer.readByteArray(fieldLength);
-        return new String(dst, UTF_8);
+    private static Object readMacAddress(ByteBuffer buffer, int offset) {
+        char[] ret = new char[SIZE_OF_MAC_ADDRESS * 3 - 1];
+        for (int i = 0; i < SIZE_OF_MAC_ADDRESS; i++) {
+            int current = Byte.toUnsignedInt(buffer.get(offset + i));
+            if (i > 0) {
+                ret[i * 3 - 1] = ':';
+            }
+            ret[i * 3] = HEX_DIGITS[current >> 4];
+            ret[i * 3 + 1] = HEX_DIGITS[current & 0xf];
+        }
+        return new String(ret);
     }
 
-    private final ReadNetflowBuffer readBuffer;
+    private final IntFunction<ReadNetflowBuffer> readerFactory;
 
-    NetflowDataType(ReadNetflowBuffer readBuffer) {
-        this.readBuffer = readBuffer;
+    NetflowDataType(IntFunction<ReadNetflowBuffer> readerFactory) {
+        this.readerFactory = readerFactory;
     }
 
-    @Override
-    public Object apply(BinaryBuffer buffer, int fieldLength) {
-        return readBuffer.apply(buffer, fieldLength);
+    /**
+     * Returns the reader of a field of the data type
+     * @param fieldLength the length of the field in bytes
+     * @return the reader or null if the length is not supported by the data type
+     */
+    public ReadNetflowBuffer getReader(int fieldLength) {
+        return readerFactory.apply(fieldLength);
     }
 }
@@ -1,16 +1,8 @@
 package uk.co.gresearch.siembol.parsers.netflow;
 
-import org.apache.commons.lang3.exception.ExceptionUtils;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import java.lang.invoke.MethodHandles;
 import java.util.Objects;
 
 public class NetflowField {
-    private static final String UNKNOWN_VALUE = "unknown";
-    private static final Logger LOG = LoggerFactory
-            .getLogger(MethodHandles.lookup().lookupClass());
-
     private final int type;
     private final int length;
 
@@ -23,22 +15,8 @@ public class NetflowField {
         return NetflowFieldType.of(type).getFieldName();
     }
 
-    public Object getValue(BinaryBuffer buffer) {
-        NetflowDataType dataType = NetflowFieldType.of(type).getDataType();
-        try {
-            return dataType.apply(buffer, length);
-        } catch (Exception e) {
-            LOG.error(String.format("Exception during parsing field %s type: %d, len: %d, exception: %s, buffer: %s",
-                    ExceptionUtils.getStackTrace(e),
-                    getName(),
-                    type,
-                    length,
-                    buffer.getBase64String()));
-
-            //NOTE: we skip the field length in buffer
-            buffer.skip(length);
-            return UNKNOWN_VALUE;
-        }
+    public int getType() {
+        return type;
     }
 
     public int getLength(){
@@ -1,5 +1,4 @@
 package uk.co.gresearch.siembol.parsers.netflow;
-import org.apache.commons.lang3.tuple.Pair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import java.lang.invoke.MethodHandles;
@@ -20,6 +19,7 @@ public class NetflowParser<T> {
             .getLogger(MethodHandles.lookup().lookupClass());
 
     private final NetflowTransportProvider<T> transportProvider;
+    private final Map<T, NetflowTemplateDecoder> decoders = new HashMap<>();
 
     public NetflowParser(NetflowTransportProvider<T> transportProvider) {
         this.transportProvider = transportProvider;
@@ -96,35 +96,19 @@ public class NetflowParser<T> {
         return processed > 0;
     }
 
-    private List<List<Pair<String, Object>>> getDataFields(int templateId,
-                                                           BinaryBuffer buffer,
-                                                           int length,
-                                                           List<NetflowField> template) {
-
-        List<List<Pair<String, Object>>> ret = new ArrayList<>();
-        int processed = 0;
-
-        while (processed < length) {
-            List<Pair<String, Object>> record = new ArrayList<>();
-            record.add(Pair.of(TEMPLATE_ID, String.valueOf(templateId)));
-            for (NetflowField field : template) {
-                processed += field.getLength();
-                if (processed > length) {
-                    return null;
-                }
-
-                String fieldName = field.getName();
-                Object fieldValue = field.getValue(buffer);
-
-                record.add(Pair.of(fieldName, fieldValue));
-            }
-            ret.add(record);
-            if (length - processed <= RECORD_MAX_PADDING_SIZE) {
-                //NOTE: padding
-                break;
-            }
+    private NetflowTemplateDecoder getDecoder(NetflowTransportMessage<T> transportMessage,
+                                              NetflowHeader header,
+                                              int templateId,
+                                              List<NetflowField> template) {
+        T globalTemplateId = transportMessage.getGlobalTemplateId(header, templateId);
+        NetflowTemplateDecoder decoder = decoders.get(globalTemplateId);
+        //NOTE: the template is compiled again only if it has been changed by the exporter
+        if (decoder == null
+                || (decoder.getTemplate() != template && !decoder.getTemplate().equals(template))) {
+            decoder = new NetflowTemplateDecoder(templateId, template);
+            decoders.put(globalTemplateId, decoder);
         }
-        return ret;
+        return decoder;
     }
 
     private NetflowParsingResult parse(NetflowTransportMessage<T> transportMessage) {
@@ -136,7 +120,7 @@ public class NetflowParser<T> {
                     transportMessage);
         }
 
-        List<List<Pair<String, Object>>> dataFlowSet = new ArrayList<>();
+        List<Map<String, Object>> dataFlowSet = new ArrayList<>();
         int processedRecords = 0;
         while (processedRecords < header.getCount() && buffer.hasRemaining())
         {
@@ -190,10 +174,13 @@ public class NetflowParser<T> {
                                 header);
                     }
 
-                    List<List<Pair<String, Object>>> currentData = getDataFields(flowSetId,
-                            buffer,
-                            length - RECORD_FLOWSET_AND_LEN_SIZE,
+                    NetflowTemplateDecoder decoder = getDecoder(transportMessage,
+                            header,
+                            flowSetId,
                             template.get());
+                    List<Map<String, Object>> currentData = decoder.decode(buffer.getBuffer(),
+                            offset + RECORD_FLOWSET_AND_LEN_SIZE,
+                            length - RECORD_FLOWSET_AND_LEN_SIZE);
 
                     if (currentData == null) {
                         return new NetflowParsingResult(NetflowParsingResult.StatusCode.PARSING_ERROR,
@@ -203,6 +190,7 @@ public class NetflowParser<T> {
 
                     processedRecords += currentData.size();
                     dataFlowSet.addAll(currentData);
+                    buffer.setPosition(offset + length);
             }
 
             if (buffer.hasRemaining()) {
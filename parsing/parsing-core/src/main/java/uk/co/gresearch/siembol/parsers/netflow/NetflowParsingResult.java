@@ -1,8 +1,7 @@
 package uk.co.gresearch.siembol.parsers.netflow;
 
-import org.apache.commons.lang3.tuple.Pair;
-
 import java.util.List;
+import java.util.Map;
 
 public class NetflowParsingResult {
     enum StatusCode {
@@ -16,7 +15,7 @@ public class NetflowParsingResult {
     private final StatusCode code;
     private final NetflowHeader header;
     private final NetflowTransportMessage<?> transportMessage;
-    private final List<List<Pair<String, Object>>> dataFlowSet;
+    private final List<Map<String, Object>> dataFlowSet;
 
     NetflowParsingResult(StatusCode code,
                          NetflowTransportMessage<?> transportMessage) {
@@ -32,7 +31,7 @@ public class NetflowParsingResult {
     NetflowParsingResult(StatusCode code,
                          NetflowTransportMessage<?> transportMessage,
                          NetflowHeader header,
-                         List<List<Pair<String, Object>>> dataFlowSet){
+                         List<Map<String, Object>> dataFlowSet){
         this.code = code;
         this.transportMessage = transportMessage;
         this.header = header;
@@ -43,7 +42,7 @@ public class NetflowParsingResult {
         return code;
     }
 
-    public List<List<Pair<String, Object>>> getDataFlowSet(){
+    public List<Map<String, Object>> getDataFlowSet(){
         return dataFlowSet;
     }
 
@@ -0,0 +1,107 @@
+package uk.co.gresearch.siembol.parsers.netflow;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandles;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Netflow template compiled into a decoder of data records.
+ * Offsets of fields in a record and their readers are computed once per template and
+ * the fields are read from the buffer without changing its position.
+ */
+public class NetflowTemplateDecoder {
+    private static final Logger LOG = LoggerFactory
+            .getLogger(MethodHandles.lookup().lookupClass());
+    private static final String UNKNOWN_VALUE = "unknown";
+    private static final String UNSUPPORTED_FIELD_LOG = "Unsupported length %d of netflow field %s, type: %d";
+    //NOTE: space for fields added by the siembol netflow parser to avoid resizing the record
+    private static final int ADDITIONAL_FIELDS = 4;
+
+    private final List<NetflowField> template;
+    private final String templateId;
+    private final String[] names;
+    private final int[] offsets;
+    private final ReadNetflowBuffer[] readers;
+    private final int recordLength;
+    private final int recordCapacity;
+
+    public NetflowTemplateDecoder(int templateId, List<NetflowField> template) {
+        this.template = template;
+        this.templateId = String.valueOf(templateId);
+        names = new String[template.size()];
+        offsets = new int[template.size()];
+        readers = new ReadNetflowBuffer[template.size()];
+
+        int offset = 0;
+        for (int i = 0; i < template.size(); i++) {
+            NetflowField field = template.get(i);
+            names[i] = field.getName();
+            offsets[i] = offset;
+            readers[i] = createReader(field);
+            offset += field.getLength();
+        }
+        recordLength = offset;
+        recordCapacity = (int) ((template.size() + 1 + ADDITIONAL_FIELDS) / 0.75f) + 1;
+    }
+
+    public List<NetflowField> getTemplate() {
+        return template;
+    }
+
+    public int getRecordLength() {
+        return recordLength;
+    }
+
+    /**
+     * Decodes data records of a data flow set
+     * @param buffer buffer with the netflow packet
+     * @param start absolute position of the first record
+     * @param length length of the records including padding
+     * @return the list of decoded records or null if records do not fit into the length
+     */
+    public List<Map<String, Object>> decode(ByteBuffer buffer, int start, int length) {
+        if (recordLength == 0) {
+            return null;
+        }
+
+        List<Map<String, Object>> ret = new ArrayList<>(length / recordLength);
+        int processed = 0;
+        while (processed < length) {
+            if (processed + recordLength > length) {
+                return null;
+            }
+
+            ret.add(decodeRecord(buffer, start + processed));
+            processed += recordLength;
+            if (length - processed <= NetflowParser.RECORD_MAX_PADDING_SIZE) {
+                //NOTE: padding
+                break;
+            }
+        }
+        return ret;
+    }
+
+    private Map<String, Object> decodeRecord(ByteBuffer buffer, int position) {
+        Map<String, Object> record = new HashMap<>(recordCapacity);
+        record.put(NetflowParser.TEMPLATE_ID, templateId);
+        for (int i = 0; i < readers.length; i++) {
+            record.put(names[i], readers[i].apply(buffer, position + offsets[i]));
+        }
+        return record;
+    }
+
+    private static ReadNetflowBuffer createReader(NetflowField field) {
+        ReadNetflowBuffer ret = NetflowFieldType.of(field.getType()).getDataType().getReader(field.getLength());
+        if (ret == null) {
+            LOG.error(String.format(UNSUPPORTED_FIELD_LOG, field.getLength(), field.getName(), field.getType()));
+            return (buffer, offset) -> UNKNOWN_VALUE;
+        }
+        return ret;
+    }
+}
@@ -0,0 +1,140 @@
+package uk.co.gresearch.siembol.parsers.netflow;
+
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Thread safe store of netflow templates that can be shared by netflow parsers in a process.
+ * If a path is provided, templates are persisted in a local file after each change and
+ * loaded when the store is created, so they are available immediately after a restart.
+ */
+public class NetflowTemplateStore {
+    private static final Logger LOG = LoggerFactory
+            .getLogger(MethodHandles.lookup().lookupClass());
+    private static final String IN_MEMORY_STORE = "";
+    private static final String KEY_SEPARATOR = "\t";
+    private static final String FIELDS_SEPARATOR = ",";
+    private static final String FIELD_SEPARATOR = ":";
+    private static final String TMP_FILE_SUFFIX = ".tmp";
+    private static final String LOAD_LOG = "Loaded {} netflow templates from {}";
+    private static final String LOAD_ERROR_LOG = "Unable to load netflow templates from {}, exception: {}";
+    private static final String PERSIST_ERROR_LOG = "Unable to persist netflow templates to {}, exception: {}";
+    private static final String INVALID_LINE_LOG = "Skipping invalid netflow template line: {}";
+    private static final Map<String, NetflowTemplateStore> SHARED_STORES = new ConcurrentHashMap<>();
+
+    private final Map<String, List<NetflowField>> templates = new ConcurrentHashMap<>();
+    private final Path path;
+
+    public NetflowTemplateStore(Optional<String> path) {
+        this.path = path.map(Paths::get).orElse(null);
+        if (this.path != null && Files.exists(this.path)) {
+            load();
+        }
+    }
+
+    /**
+     * Returns the store shared by all parsers in the process using the same path
+     * @param path optional path to a local file for persisting templates
+     * @return the shared template store
+     */
+    public static NetflowTemplateStore getSharedStore(Optional<String> path) {
+        return SHARED_STORES.computeIfAbsent(path.orElse(IN_MEMORY_STORE),
+                x -> new NetflowTemplateStore(path));
+    }
+
+    public Optional<List<NetflowField>> get(String key) {
+        return Optional.ofNullable(templates.get(key));
+    }
+
+    /**
+     * Puts the template into the store
+     * @return true if the template was new or it has been changed
+     */
+    public boolean put(String key, List<NetflowField> template) {
+        List<NetflowField> current = Collections.unmodifiableList(new ArrayList<>(template));
+        List<NetflowField> previous = templates.put(key, current);
+        if (current.equals(previous)) {
+            return false;
+        }
+
+        if (path != null) {
+            persist();
+        }
+        return true;
+    }
+
+    public int size() {
+        return templates.size();
+    }
+
+    private void load() {
+        try {
+            for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+                int separatorIndex = line.lastIndexOf(KEY_SEPARATOR);
+                if (separatorIndex <= 0) {
+                    LOG.warn(INVALID_LINE_LOG, line);
+                    continue;
+                }
+
+                try {
+                    List<NetflowField> template = new ArrayList<>();
+                    for (String field : line.substring(separatorIndex + 1).split(FIELDS_SEPARATOR)) {
+                        String[] typeAndLength = field.split(FIELD_SEPARATOR);
+                        template.add(new NetflowField(Integer.parseInt(typeAndLength[0]),
+                                Integer.parseInt(typeAndLength[1])));
+                    }
+                    templates.put(line.substring(0, separatorIndex), Collections.unmodifiableList(template));
+                } catch (RuntimeException e) {
+                    LOG.warn(INVALID_LINE_LOG, line);
+                }
+            }
+            LOG.info(LOAD_LOG, templates.size(), path);
+        } catch (IOException e) {
+            LOG.error(LOAD_ERROR_LOG, path, ExceptionUtils.getStackTrace(e));
+        }
+    }
+
+    private synchronized void persist() {
+        //NOTE: templates are changed rarely so the whole store is written into a temporary file and renamed
+        Path tmpPath = Paths.get(path.toString() + TMP_FILE_SUFFIX);
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+
+            try (BufferedWriter writer = Files.newBufferedWriter(tmpPath, StandardCharsets.UTF_8)) {
+                for (Map.Entry<String, List<NetflowField>> entry : templates.entrySet()) {
+                    writer.write(entry.getKey());
+                    writer.write(KEY_SEPARATOR);
+                    for (int i = 0; i < entry.getValue().size(); i++) {
+                        if (i > 0) {
+                            writer.write(FIELDS_SEPARATOR);
+                        }
+                        NetflowField field = entry.getValue().get(i);
+                        writer.write(field.getType() + FIELD_SEPARATOR + field.getLength());
+                    }
+                    writer.newLine();
+                }
+            }
+            Files.move(tmpPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOG.error(PERSIST_ERROR_LOG, path, ExceptionUtils.getStackTrace(e));
+        }
+    }
+}
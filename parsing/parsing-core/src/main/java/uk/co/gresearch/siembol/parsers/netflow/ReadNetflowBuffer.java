@@ -1,6 +1,11 @@
 package uk.co.gresearch.siembol.parsers.netflow;
 
+import java.nio.ByteBuffer;
+
+/**
+ * Reader of a netflow field at an absolute position of the buffer without changing its position
+ */
 @FunctionalInterface
 public interface ReadNetflowBuffer {
-    Object apply(BinaryBuffer buffer, int fieldLength);
-};
+    Object apply(ByteBuffer buffer, int offset);
+}
@@ -0,0 +1,47 @@
+package uk.co.gresearch.siembol.parsers.netflow;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandles;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Transport provider using a template store shared by netflow parsers in the process
+ */
+public class SharedTransportProvider implements NetflowTransportProvider<String> {
+    private static final Logger LOG = LoggerFactory
+            .getLogger(MethodHandles.lookup().lookupClass());
+    private final NetflowTemplateStore store;
+
+    public SharedTransportProvider(NetflowTemplateStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public NetflowTransportMessage<String> message(String metadata, byte[] data) {
+        return new NetflowMessageWithSource(metadata, data);
+    }
+
+    @Override
+    public Optional<List<NetflowField>> getTemplate(NetflowTransportMessage<String> transportMessage,
+                                                    NetflowHeader header,
+                                                    int templateId) {
+        return store.get(transportMessage.getGlobalTemplateId(header, templateId));
+    }
+
+    @Override
+    public void updateTemplate(NetflowTransportMessage<String> transportMessage,
+                               NetflowHeader header,
+                               int templateId,
+                               List<NetflowField> template) {
+        String key = transportMessage.getGlobalTemplateId(header, templateId);
+        if (store.put(key, template)) {
+            LOG.debug(String.format("Template updated, source identifier: %s, source_id: %d, template_id: %d",
+                    transportMessage.getGlobalSource(),
+                    header.getSourceId(),
+                    templateId));
+        }
+    }
+}
@@ -1,5 +1,4 @@
 package uk.co.gresearch.siembol.parsers.netflow;
-import org.apache.commons.lang3.tuple.Pair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import uk.co.gresearch.siembol.parsers.common.SiembolParser;
@@ -20,6 +19,7 @@ public class SiembolNetflowParser implements SiembolParser {
     public static final String UNSUPPORTED_MSG = "The method is unsupported because netflow parsing requires metadata";
 
     private final NetflowParser<?> netflowParser;
+    private final boolean includeOriginalPacket;
 
     private Map<String, Object> getUnknownTemplateObject(NetflowParsingResult parsingResult, byte[] bytes) {
         Map<String, Object> ret = new HashMap<>();
@@ -34,8 +34,21 @@ public class SiembolNetflowParser implements SiembolParser {
     }
 
     public SiembolNetflowParser() {
-        final NetflowTransportProvider<String> provider = new SimpleTransportProvider();
+        this(new SimpleTransportProvider());
+    }
+
+    public SiembolNetflowParser(NetflowTransportProvider<String> provider) {
+        this(provider, false);
+    }
+
+    /**
+     * Creates the netflow parser
+     * @param provider the transport provider for storing templates
+     * @param includeOriginalPacket the base64 encoded packet is used as the original string of parsed records
+     */
+    public SiembolNetflowParser(NetflowTransportProvider<String> provider, boolean includeOriginalPacket) {
         netflowParser = new NetflowParser<>(provider);
+        this.includeOriginalPacket = includeOriginalPacket;
     }
 
     @Override
@@ -52,17 +65,22 @@ public class SiembolNetflowParser implements SiembolParser {
                 throw new IllegalStateException(result.getStatusCode().toString());
             }
 
-            if (result.getDataFlowSet() != null) {
-                ret.ensureCapacity(result.getDataFlowSet().size());
-                for (List<Pair<String, Object>> dataFlowset : result.getDataFlowSet()) {
-                    Map<String, Object> current = new HashMap<>();
-
-                    current.put(ORIGINAL.toString(), result.getOriginalString());
-                    current.put(TIMESTAMP.toString(), result.getTimestamp());
-                    current.put(NETFLOW_SOURCE_ID, result.getSourceId());
-                    current.put(NETFLOW_GLOBAL_SOURCE, result.getGlobalSource());
+            if (result.getDataFlowSet() != null && !result.getDataFlowSet().isEmpty()) {
+                //NOTE: values shared by all records are computed once per packet
+                String original = includeOriginalPacket
+                        ? Base64.getEncoder().encodeToString(bytes)
+                        : result.getOriginalString();
+                Long timestamp = result.getTimestamp();
+                String sourceId = result.getSourceId();
+                String globalSource = result.getGlobalSource();
 
-                    dataFlowset.forEach(item -> current.put(item.getKey(), item.getValue()));
+                ret.ensureCapacity(result.getDataFlowSet().size());
+                for (Map<String, Object> current : result.getDataFlowSet()) {
+                    //NOTE: fields of the record are not overwritten
+                    current.putIfAbsent(ORIGINAL.toString(), original);
+                    current.putIfAbsent(TIMESTAMP.toString(), timestamp);
+                    current.putIfAbsent(NETFLOW_SOURCE_ID, sourceId);
+                    current.putIfAbsent(NETFLOW_GLOBAL_SOURCE, globalSource);
                     ret.add(current);
                 }
             }
@@ -7,9 +7,11 @@ import uk.co.gresearch.siembol.parsers.common.SiembolParser;
 import uk.co.gresearch.siembol.common.constants.SiembolMessageFields;
 import uk.co.gresearch.siembol.parsers.extractors.ParserDateFormat;
 import uk.co.gresearch.siembol.parsers.extractors.ParserExtractor;
+import uk.co.gresearch.siembol.parsers.transformations.MessagePrefilters;
 import uk.co.gresearch.siembol.parsers.transformations.Transformation;
 import uk.co.gresearch.siembol.parsers.transformations.TransformationsLibrary;
 import java.util.*;
+import java.util.function.LongSupplier;
 import java.util.stream.Collectors;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
@@ -37,12 +39,14 @@ public class SiembolSyslogParser implements SiembolParser {
 
     private final List<ParserExtractor> extractors;
     private final List<Transformation> transformations;
+    private final MessagePrefilters prefilters;
     private final SyslogParser parser;
     private final EnumSet<Flags> flags;
 
     private SiembolSyslogParser(Builder builder) {
         extractors = builder.extractors;
         transformations = builder.transformations;
+        prefilters = builder.prefilters;
         parser = builder.parser;
         flags = builder.flags;
     }
@@ -55,7 +59,7 @@ public class SiembolSyslogParser implements SiembolParser {
             List<Map<String, Object>> ret = new ArrayList<>();
             Map<String, Object> syslogObject = new HashMap<>();
 
-            SyslogMessage syslogMessage = parser.parse(originalMessage);
+            SyslogMessage syslogMessage = parser.parse(bytes, originalMessage);
             if (!((flags.contains(Flags.EXPECT_RFC_3164_VERSION)
                     && syslogMessage.getHeaderVersion() == SyslogParser.RFC_3164_VERSION)
                     || (flags.contains(Flags.EXPECT_RFC_RFC5424_VERSION)
@@ -97,16 +101,20 @@ public class SiembolSyslogParser implements SiembolParser {
                 }
             }
 
+            if (prefilters != null && prefilters.filterMessage(syslogObject)) {
+                //NOTE: the message is filtered once before it is split into sd elements
+                return ret;
+            }
+
             int i = 0;
             for (Pair<String, List<Pair<String, String>>> sdElement : syslogMessage.getSdElements()) {
-                Map<String, Object> currentElements = new HashMap<>();
-                sdElement.getValue().forEach(item -> currentElements.put(item.getKey(), item.getValue()));
                 if (flags.contains(Flags.MERGE_SD_ELEMENTS)) {
                     //we merge sd elements into syslogObject that will be returned
-                    currentElements.put(String.format("%s_%d", SYSLOG_SD_ID, i++),
-                            sdElement.getKey());
-                    syslogObject.putAll(currentElements);
+                    sdElement.getValue().forEach(item -> syslogObject.put(item.getKey(), item.getValue()));
+                    syslogObject.put(SYSLOG_SD_ID + "_" + i++, sdElement.getKey());
                 } else {
+                    Map<String, Object> currentElements = new HashMap<>();
+                    sdElement.getValue().forEach(item -> currentElements.put(item.getKey(), item.getValue()));
                     //we add syslogObject that contains header and msg into sdElemnts
                     currentElements.put(SYSLOG_SD_ID, sdElement.getKey());
                     currentElements.putAll(syslogObject);
@@ -132,7 +140,7 @@ public class SiembolSyslogParser implements SiembolParser {
     private Map<String, Object> extractAndTransfrom(Map<String, Object> message) {
         Map<String, Object> ret = message;
         if (extractors != null) {
-            ret = ParserExtractor.extract(extractors, ret);
+            ret = ParserExtractor.extract(extractors, ret, prefilters);
         }
 
         if (transformations != null) {
@@ -141,9 +149,20 @@ public class SiembolSyslogParser implements SiembolParser {
         return ret;
     }
 
+    @Override
+    public Map<String, LongSupplier> getDroppedMessagesCounters() {
+        return prefilters != null ? prefilters.getDroppedMessagesCounters() : Collections.emptyMap();
+    }
+
+    @Override
+    public Map<String, LongSupplier> getPatternsHitsCounters() {
+        return extractors != null ? ParserExtractor.getPatternsHitsCounters(extractors) : Collections.emptyMap();
+    }
+
     public static class Builder {
         private List<ParserExtractor> extractors;
         private List<Transformation> transformations;
+        private MessagePrefilters prefilters;
         private SyslogParser parser;
         private EnumSet<Flags> flags;
         private List<ParserDateFormat> dateFormats;
@@ -159,6 +178,11 @@ public class SiembolSyslogParser implements SiembolParser {
             return this;
         }
 
+        public Builder prefilters(MessagePrefilters prefilters) {
+            this.prefilters = prefilters;
+            return this;
+        }
+
         public Builder dateFormats(List<ParserDateFormat> dateFormats) {
             this.dateFormats = dateFormats;
             return this;
@@ -7,6 +7,8 @@ import org.joda.time.format.DateTimeFormatter;
 import org.joda.time.format.DateTimeFormatterBuilder;
 import org.joda.time.format.DateTimeParser;
 
+import java.time.DateTimeException;
+import java.time.LocalDate;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeParseException;
 import java.util.Locale;
@@ -45,6 +47,17 @@ public class SyslogDefaultTimeFormat {
                     DateTimeFormat.forPattern(BSD_TIMESTAMP_FORMAT_2).getParser()})
             .toFormatter();
 
+    private static final String[] BSD_MONTHS = {
+            "Jan", "Feb", "Mar", "Apr", "May", "Jun", "Jul", "Aug", "Sep", "Oct", "Nov", "Dec"};
+    private static final int ISO_DATE_SIZE = ISO_DATE_FORMAT.length() - 2;
+    private static final int FRACTION_SIZE = 7;
+    private static final int ZONE_OFFSET_SIZE = 6;
+    private static final int MILLIS_DIGITS = 3;
+    private static final long SECOND_MILLISECONDS = 1000L;
+    private static final long MINUTE_MILLISECONDS = 60 * SECOND_MILLISECONDS;
+    private static final long HOUR_MILLISECONDS = 60 * MINUTE_MILLISECONDS;
+    private static final long DAY_MILLISECONDS = 24 * HOUR_MILLISECONDS;
+
     public static int getBsdTimestampSize() {
         return BSD_TIMESTAMP_FORMAT_1.length();
     }
@@ -77,6 +90,163 @@ public class SyslogDefaultTimeFormat {
         }
     }
 
+    /**
+     * Parses the default RFC 3164 timestamp from bytes without the formatter
+     * @param bytes the message
+     * @param from the offset of the timestamp
+     * @param dateTimeZone the time zone of the timestamp
+     * @return the timestamp in milliseconds or null if it should be parsed by the formatter
+     */
+    static Long parseBsdTimestamp(byte[] bytes, int from, DateTimeZone dateTimeZone) {
+        if (bytes.length - from < getBsdTimestampSize()
+                || bytes[from + 3] != ' '
+                || bytes[from + 6] != ' '
+                || bytes[from + 9] != ':'
+                || bytes[from + 12] != ':') {
+            return null;
+        }
+
+        int month = 0;
+        for (int i = 0; i < BSD_MONTHS.length; i++) {
+            String current = BSD_MONTHS[i];
+            if (bytes[from] == current.charAt(0)
+                    && bytes[from + 1] == current.charAt(1)
+                    && bytes[from + 2] == current.charAt(2)) {
+                month = i + 1;
+                break;
+            }
+        }
+
+        int day = bytes[from + 4] == ' '
+                ? readDigits(bytes, from + 5, 1)
+                : readDigits(bytes, from + 4, 2);
+        int hour = readDigits(bytes, from + 7, 2);
+        int minute = readDigits(bytes, from + 10, 2);
+        int second = readDigits(bytes, from + 13, 2);
+        if (month == 0 || day < 0 || hour < 0 || minute < 0 || second < 0) {
+            return null;
+        }
+
+        long millisOfDay = getMillisOfDay(hour, minute, second, 0);
+        int currentYear = ZonedDateTime.now().getYear();
+        Long timestamp = getUtcMillis(currentYear, month, day, millisOfDay, dateTimeZone);
+        //NOTE: detection of using the next year assuming that we do not have a week old logs
+        if (timestamp != null && System.currentTimeMillis() + WEEK_MILLISECONDS < timestamp) {
+            timestamp = getUtcMillis(currentYear - 1, month, day, millisOfDay, dateTimeZone);
+        }
+        return timestamp;
+    }
+
+    /**
+     * Parses the default RFC 5424 timestamp from bytes without the formatter
+     * @param bytes the message
+     * @param from the offset of the timestamp
+     * @param to the end offset of the timestamp
+     * @param dateTimeZone the time zone used if the timestamp is without an offset
+     * @return the timestamp in milliseconds or null if it should be parsed by the formatter
+     */
+    static Long parseTimestamp(byte[] bytes, int from, int to, DateTimeZone dateTimeZone) {
+        int size = to - from;
+        boolean fraction = size == ISO_DATE_SIZE + FRACTION_SIZE
+                || size == ISO_DATE_SIZE + FRACTION_SIZE + ZONE_OFFSET_SIZE;
+        boolean zoneOffset = size == ISO_DATE_SIZE + ZONE_OFFSET_SIZE
+                || size == ISO_DATE_SIZE + FRACTION_SIZE + ZONE_OFFSET_SIZE;
+        if (!(size == ISO_DATE_SIZE || fraction || zoneOffset)
+                || bytes[from + 4] != '-'
+                || bytes[from + 7] != '-'
+                || bytes[from + 10] != 'T'
+                || bytes[from + 13] != ':'
+                || bytes[from + 16] != ':') {
+            return null;
+        }
+
+        int year = readDigits(bytes, from, 4);
+        int month = readDigits(bytes, from + 5, 2);
+        int day = readDigits(bytes, from + 8, 2);
+        int hour = readDigits(bytes, from + 11, 2);
+        int minute = readDigits(bytes, from + 14, 2);
+        int second = readDigits(bytes, from + 17, 2);
+        int millis = 0;
+        int offset = from + ISO_DATE_SIZE;
+        if (fraction) {
+            if (bytes[offset] != '.' || readDigits(bytes, offset + 1, FRACTION_SIZE - 1) < 0) {
+                return null;
+            }
+            //NOTE: the fraction is truncated to milliseconds
+            millis = readDigits(bytes, offset + 1, MILLIS_DIGITS);
+            offset += FRACTION_SIZE;
+        }
+
+        if (year < 0 || month < 0 || day < 0 || hour < 0 || minute < 0 || second < 0) {
+            return null;
+        }
+
+        long millisOfDay = getMillisOfDay(hour, minute, second, millis);
+        if (!zoneOffset) {
+            return getUtcMillis(year, month, day, millisOfDay, dateTimeZone);
+        }
+
+        int offsetHours = readDigits(bytes, offset + 1, 2);
+        int offsetMinutes = readDigits(bytes, offset + 4, 2);
+        if ((bytes[offset] != '+' && bytes[offset] != '-')
+                || bytes[offset + 3] != ':'
+                || offsetHours < 0 || offsetHours > 23
+                || offsetMinutes < 0 || offsetMinutes > 59) {
+            return null;
+        }
+
+        Long localMillis = getLocalMillis(year, month, day, millisOfDay);
+        if (localMillis == null) {
+            return null;
+        }
+
+        long offsetMillis = offsetHours * HOUR_MILLISECONDS + offsetMinutes * MINUTE_MILLISECONDS;
+        return bytes[offset] == '+' ? localMillis - offsetMillis : localMillis + offsetMillis;
+    }
+
+    private static int readDigits(byte[] bytes, int from, int size) {
+        int ret = 0;
+        for (int i = from; i < from + size; i++) {
+            int digit = bytes[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            ret = ret * 10 + digit;
+        }
+        return ret;
+    }
+
+    private static long getMillisOfDay(int hour, int minute, int second, int millis) {
+        if (hour > 23 || minute > 59 || second > 59) {
+            return -1;
+        }
+        return hour * HOUR_MILLISECONDS + minute * MINUTE_MILLISECONDS + second * SECOND_MILLISECONDS + millis;
+    }
+
+    private static Long getLocalMillis(int year, int month, int day, long millisOfDay) {
+        if (millisOfDay < 0 || month < 1 || month > 12 || day < 1 || day > 31) {
+            return null;
+        }
+
+        try {
+            return LocalDate.of(year, month, day).toEpochDay() * DAY_MILLISECONDS + millisOfDay;
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+
+    private static Long getUtcMillis(int year, int month, int day, long millisOfDay, DateTimeZone dateTimeZone) {
+        Long localMillis = getLocalMillis(year, month, day, millisOfDay);
+        if (localMillis == null) {
+            return null;
+        }
+
+        int offset = dateTimeZone.getOffsetFromLocal(localMillis);
+        long ret = localMillis - offset;
+        //NOTE: local time in a gap of a time zone transition is resolved by the formatter
+        return offset == dateTimeZone.getOffset(ret) ? ret : null;
+    }
+
     public static long parseTimestamp(String message, DateTimeZone dateTimeZone) {
         DateTime dateTime;
         try {
@@ -34,15 +34,18 @@ public class SyslogParser {
 
     private final DateTimeZone dateTimeZone;
     private final List<ParserDateFormat> dateFormats;
+    private final SyslogScanner scanner;
 
     public SyslogParser(String timeZone) {
         dateTimeZone = DateTimeZone.forID(timeZone);
         dateFormats = null;
+        scanner = new SyslogScanner(dateTimeZone, null);
     }
 
     public SyslogParser(List<ParserDateFormat> dateFormats) {
         this.dateFormats = dateFormats;
         this.dateTimeZone = null;
+        scanner = new SyslogScanner(null, dateFormats);
     }
 
     private SyslogMessage parsePri(String str, SyslogMessage message) {
@@ -151,6 +154,18 @@ public class SyslogParser {
         return message;
     }
 
+    /**
+     * Parses the syslog message by scanning its bytes.
+     * Messages unsupported by the scanner are parsed from the string.
+     * @param bytes raw bytes of the message
+     * @param str the message decoded as an UTF-8 string
+     * @return the syslog message
+     */
+    public SyslogMessage parse(byte[] bytes, String str) {
+        SyslogMessage message = scanner.scan(bytes);
+        return message != null ? message : parse(str);
+    }
+
     public SyslogMessage parse(String str) {
         Matcher priMatcher = PRI_PATTERN.matcher(str);
         if (!priMatcher.find()) {
@@ -0,0 +1,299 @@
+package uk.co.gresearch.siembol.parsers.syslog;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.joda.time.DateTimeZone;
+import uk.co.gresearch.siembol.parsers.extractors.ParserDateFormat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Scanner of syslog messages that walks the raw bytes of a message once and materialises
+ * only the strings of the fields that are used in parsed messages.
+ * It supports well formed RFC 3164 and RFC 5424 messages and returns null otherwise,
+ * so the message can be parsed by the string based parser with the same result.
+ */
+class SyslogScanner {
+    private static final int MAX_PRIORITY = 255;
+    private static final int MAX_PRIORITY_DIGITS = 3;
+    private static final int RFC_5424_HEADER_SPACES = 6;
+    private static final int ASCII_LIMIT = 0x80;
+    private static final byte SP_VALUE = ' ';
+    private static final byte NIL_VALUE = '-';
+    private static final byte LEFT_BRACKET_SD_ELEMENT = '[';
+    private static final byte RIGHT_BRACKET_SD_ELEMENT = ']';
+    private static final byte QUOTE = '"';
+    private static final byte ESCAPE = '\\';
+    private static final byte EQUALS = '=';
+    private static final byte[] BOM_SIGNATURE = "BOM".getBytes(US_ASCII);
+
+    private final DateTimeZone dateTimeZone;
+    private final List<ParserDateFormat> dateFormats;
+
+    SyslogScanner(DateTimeZone dateTimeZone, List<ParserDateFormat> dateFormats) {
+        this.dateTimeZone = dateTimeZone;
+        this.dateFormats = dateFormats;
+    }
+
+    /**
+     * Scans the syslog message
+     * @param bytes raw bytes of the message
+     * @return the syslog message or null if the message is not supported by the scanner
+     */
+    SyslogMessage scan(byte[] bytes) {
+        int priEnd = scanPri(bytes);
+        if (priEnd < 0 || priEnd == bytes.length || bytes[priEnd] < 0) {
+            //NOTE: non ascii characters can be unicode digits
+            return null;
+        }
+
+        int priority = 0;
+        for (int i = 1; i < priEnd - 1; i++) {
+            priority = priority * 10 + bytes[i] - '0';
+        }
+        if (priority > MAX_PRIORITY) {
+            return null;
+        }
+
+        SyslogMessage message = new SyslogMessage();
+        message.setPriority(priority);
+        return isDigit(bytes[priEnd])
+                ? scanRfc5424Message(bytes, priEnd, message)
+                : scanBsdMessage(bytes, priEnd, message);
+    }
+
+    private SyslogMessage scanBsdMessage(byte[] bytes, int priEnd, SyslogMessage message) {
+        message.setHeaderVersion(SyslogParser.RFC_3164_VERSION);
+        int timestampSize = SyslogDefaultTimeFormat.getBsdTimestampSize();
+        int hostStart = priEnd + timestampSize + 1;
+        if (hostStart >= bytes.length || !isAscii(bytes, priEnd, hostStart) || bytes[hostStart - 1] != SP_VALUE) {
+            return null;
+        }
+
+        DateTimeZone zone = dateTimeZone != null ? dateTimeZone : DateTimeZone.getDefault();
+        Long timestamp = SyslogDefaultTimeFormat.parseBsdTimestamp(bytes, priEnd, zone);
+        message.setTimestamp(timestamp != null
+                ? timestamp
+                : SyslogDefaultTimeFormat.parseBsdTimestamp(
+                new String(bytes, priEnd, timestampSize, US_ASCII), dateTimeZone));
+
+        int hostEnd = indexOf(bytes, SP_VALUE, hostStart, bytes.length);
+        if (hostEnd < 0) {
+            return null;
+        }
+
+        message.setHostname(getField(bytes, hostStart, hostEnd));
+        message.setMsg(getMsg(bytes, hostEnd + 1));
+        return message;
+    }
+
+    private SyslogMessage scanRfc5424Message(byte[] bytes, int priEnd, SyslogMessage message) {
+        int[] spaces = new int[RFC_5424_HEADER_SPACES];
+        int offset = priEnd;
+        for (int i = 0; i < RFC_5424_HEADER_SPACES; i++) {
+            offset = indexOf(bytes, SP_VALUE, offset, bytes.length);
+            if (offset < 0) {
+                return null;
+            }
+            spaces[i] = offset++;
+        }
+
+        int headerVersion = bytes[spaces[0] - 1] - '0';
+        if (headerVersion < SyslogParser.RFC_3164_VERSION || headerVersion > SyslogParser.RFC_5424_VERSION) {
+            return null;
+        }
+        message.setHeaderVersion(headerVersion);
+
+        scanTimestamp(bytes, spaces[0] + 1, spaces[1], message);
+        message.setHostname(getField(bytes, spaces[1] + 1, spaces[2]));
+        if (headerVersion == SyslogParser.RFC_5424_VERSION) {
+            //NOTE: these fields are not used in messages with the RFC 3164 version
+            message.setAppName(getField(bytes, spaces[2] + 1, spaces[3]));
+            message.setProcId(getField(bytes, spaces[3] + 1, spaces[4]));
+            message.setMsgId(getField(bytes, spaces[4] + 1, spaces[5]));
+        }
+
+        int dataOffset = spaces[5] + 1;
+        if (dataOffset == bytes.length) {
+            return null;
+        }
+
+        if (bytes[dataOffset] == NIL_VALUE) {
+            dataOffset++;
+        } else {
+            boolean validSdElements = false;
+            while (dataOffset < bytes.length) {
+                if (bytes[dataOffset] != LEFT_BRACKET_SD_ELEMENT) {
+                    return null;
+                }
+
+                int nextOffset = indexOfEscaped(bytes, RIGHT_BRACKET_SD_ELEMENT, dataOffset, bytes.length);
+                if (nextOffset < 0 || !scanSdElement(bytes, dataOffset + 1, nextOffset, message)) {
+                    return null;
+                }
+
+                dataOffset = nextOffset + 1;
+                if (dataOffset == bytes.length || bytes[dataOffset] == SP_VALUE) {
+                    validSdElements = true;
+                    break;
+                }
+            }
+            if (!validSdElements) {
+                return null;
+            }
+        }
+
+        if (dataOffset == bytes.length) {
+            //NOTE: MSG is optional
+            return message;
+        }
+
+        if (bytes[dataOffset] != SP_VALUE) {
+            return null;
+        }
+
+        message.setMsg(getMsg(bytes, dataOffset + 1));
+        return message;
+    }
+
+    private void scanTimestamp(byte[] bytes, int from, int to, SyslogMessage message) {
+        if (dateFormats != null) {
+            String timestampStr = new String(bytes, from, to - from, UTF_8);
+            Optional<Long> timestamp = ParserDateFormat.parse(dateFormats, timestampStr);
+            if (timestamp.isPresent()) {
+                message.setTimestamp(timestamp.get());
+            } else {
+                message.setTimestampStr(timestampStr);
+            }
+            return;
+        }
+
+        Long timestamp = SyslogDefaultTimeFormat.parseTimestamp(bytes, from, to, dateTimeZone);
+        if (timestamp != null) {
+            message.setTimestamp(timestamp);
+            return;
+        }
+
+        String timestampStr = new String(bytes, from, to - from, UTF_8);
+        try {
+            message.setTimestamp(SyslogDefaultTimeFormat.parseTimestamp(timestampStr, dateTimeZone));
+        } catch (Exception e) {
+            message.setTimestampStr(timestampStr);
+        }
+    }
+
+    private boolean scanSdElement(byte[] bytes, int from, int to, SyslogMessage message) {
+        int offset = indexOf(bytes, SP_VALUE, from, to);
+        if (offset < 0) {
+            //NOTE: SD-PARAM are optional
+            message.adSdElement(new String(bytes, from, to - from, UTF_8), Collections.emptyList());
+            return true;
+        }
+
+        String sdElement = new String(bytes, from, offset - from, UTF_8);
+        List<Pair<String, String>> sdParameters = new ArrayList<>();
+        while (offset < to) {
+            int delimiter = indexOf(bytes, EQUALS, offset + 1, to);
+            if (bytes[offset] != SP_VALUE || delimiter < 0) {
+                return false;
+            }
+
+            int endParam = indexOfEscaped(bytes, QUOTE, delimiter + 2, to);
+            if (endParam < 0 || bytes[delimiter + 1] != QUOTE) {
+                return false;
+            }
+
+            sdParameters.add(Pair.of(new String(bytes, offset + 1, delimiter - offset - 1, UTF_8),
+                    new String(bytes, delimiter + 2, endParam - delimiter - 2, UTF_8)));
+            offset = endParam + 1;
+        }
+
+        message.adSdElement(sdElement, sdParameters);
+        return true;
+    }
+
+    private static int scanPri(byte[] bytes) {
+        if (bytes.length == 0 || bytes[0] != '<') {
+            return -1;
+        }
+
+        int i = 1;
+        while (i < bytes.length && i <= MAX_PRIORITY_DIGITS && isDigit(bytes[i])) {
+            i++;
+        }
+        return i > 1 && i < bytes.length && bytes[i] == '>' ? i + 1 : -1;
+    }
+
+    private static String getField(byte[] bytes, int from, int to) {
+        return to - from == 1 && bytes[from] == NIL_VALUE
+                ? null
+                : new String(bytes, from, to - from, UTF_8);
+    }
+
+    private static String getMsg(byte[] bytes, int from) {
+        if (startsWith(bytes, from, BOM_SIGNATURE)) {
+            from += BOM_SIGNATURE.length;
+        }
+        return getField(bytes, from, bytes.length);
+    }
+
+    private static boolean startsWith(byte[] bytes, int from, byte[] prefix) {
+        if (bytes.length - from < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (bytes[from + i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    private static boolean isAscii(byte[] bytes, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if ((bytes[i] & 0xff) >= ASCII_LIMIT) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int indexOf(byte[] bytes, byte b, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (bytes[i] == b) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int indexOfEscaped(byte[] bytes, byte b, int from, int to) {
+        //NOTE: multi-byte utf-8 characters do not contain ascii bytes so they can be scanned byte by byte
+        int numQuotes = 0;
+        int i = from;
+        while (i < to) {
+            byte current = bytes[i];
+            if (current == ESCAPE) {
+                i++;
+            } else {
+                if (current == QUOTE) {
+                    numQuotes++;
+                }
+                if (current == b && (numQuotes % 2 == 0 || b == QUOTE)) {
+                    return i;
+                }
+            }
+            i++;
+        }
+        return -1;
+    }
+}
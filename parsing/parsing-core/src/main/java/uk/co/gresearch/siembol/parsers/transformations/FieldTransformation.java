@@ -0,0 +1,75 @@
+package uk.co.gresearch.siembol.parsers.transformations;
+
+import uk.co.gresearch.siembol.common.utils.FieldFilter;
+
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Transformation evaluated independently for each field of a message.
+ * Consecutive field transformations can be fused by {@link FusedTransformation} into a single pass over the fields.
+ */
+public class FieldTransformation implements Transformation {
+    private enum Type {
+        FIELD_NAME,
+        DELETE_FIELDS,
+        VALUE
+    }
+
+    private final Type type;
+    private final Function<String, String> nameFunction;
+    private final Function<Object, Object> valueFunction;
+    private final FieldFilter filter;
+
+    private FieldTransformation(Type type,
+                                Function<String, String> nameFunction,
+                                Function<Object, Object> valueFunction,
+                                FieldFilter filter) {
+        this.type = type;
+        this.nameFunction = nameFunction;
+        this.valueFunction = valueFunction;
+        this.filter = filter;
+    }
+
+    /**
+     * Returns the field name after the transformation or null if the field is deleted
+     */
+    public String getFieldName(String fieldName) {
+        switch (type) {
+            case FIELD_NAME:
+                return nameFunction.apply(fieldName);
+            case DELETE_FIELDS:
+                return filter.match(fieldName) ? null : fieldName;
+            default:
+                return fieldName;
+        }
+    }
+
+    public Object getValue(String fieldName, Object value) {
+        return type == Type.VALUE && filter.match(fieldName) ? valueFunction.apply(value) : value;
+    }
+
+    @Override
+    public Map<String, Object> apply(Map<String, Object> log) {
+        switch (type) {
+            case FIELD_NAME:
+                return TransformationsLibrary.fieldTransformation(log, nameFunction);
+            case DELETE_FIELDS:
+                return TransformationsLibrary.removeFields(log, filter);
+            default:
+                return TransformationsLibrary.valueTransformation(log, valueFunction, filter);
+        }
+    }
+
+    public static FieldTransformation fieldName(Function<String, String> fun) {
+        return new FieldTransformation(Type.FIELD_NAME, fun, null, null);
+    }
+
+    public static FieldTransformation deleteFields(FieldFilter filter) {
+        return new FieldTransformation(Type.DELETE_FIELDS, null, null, filter);
+    }
+
+    public static FieldTransformation value(Function<Object, Object> fun, FieldFilter filter) {
+        return new FieldTransformation(Type.VALUE, null, fun, filter);
+    }
+}
@@ -0,0 +1,108 @@
+package uk.co.gresearch.siembol.parsers.transformations;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Field transformations fused into a single pass over the fields of a message.
+ * Each field is visited once and all its renames, deletes and value functions are applied in order.
+ * The message is transformed sequentially if a field is renamed to a name of another field,
+ * since the result of sequential execution depends on the order of the fields in this case.
+ */
+public class FusedTransformation implements Transformation {
+    private static class FieldChange {
+        private final Map.Entry<String, Object> entry;
+        private final String fieldName;
+        private final Object value;
+
+        FieldChange(Map.Entry<String, Object> entry, String fieldName, Object value) {
+            this.entry = entry;
+            this.fieldName = fieldName;
+            this.value = value;
+        }
+
+        boolean isValueChange() {
+            return entry.getKey().equals(fieldName);
+        }
+    }
+
+    private final List<FieldTransformation> transformations;
+
+    public FusedTransformation(List<FieldTransformation> transformations) {
+        this.transformations = transformations;
+    }
+
+    @Override
+    public Map<String, Object> apply(Map<String, Object> log) {
+        List<FieldChange> changes = null;
+        Map<String, String> renamedFields = null;
+        for (Map.Entry<String, Object> entry : log.entrySet()) {
+            String fieldName = entry.getKey();
+            Object value = entry.getValue();
+            for (FieldTransformation transformation : transformations) {
+                String current = transformation.getFieldName(fieldName);
+                if (current == null) {
+                    fieldName = null;
+                    break;
+                }
+
+                if (!current.equals(fieldName)) {
+                    if (!current.equals(entry.getKey()) && log.containsKey(current)) {
+                        return transformSequentially(log);
+                    }
+
+                    if (renamedFields == null) {
+                        renamedFields = new HashMap<>();
+                    }
+                    String previous = renamedFields.putIfAbsent(current, entry.getKey());
+                    if (previous != null && !previous.equals(entry.getKey())) {
+                        return transformSequentially(log);
+                    }
+                    fieldName = current;
+                }
+                value = transformation.getValue(fieldName, value);
+            }
+
+            if (fieldName == null || !fieldName.equals(entry.getKey()) || value != entry.getValue()) {
+                if (changes == null) {
+                    changes = new ArrayList<>();
+                }
+                changes.add(new FieldChange(entry, fieldName, value));
+            }
+        }
+
+        if (changes == null) {
+            return log;
+        }
+
+        //NOTE: values are updated before removing fields in order to keep the entries valid
+        for (FieldChange change : changes) {
+            if (change.isValueChange()) {
+                change.entry.setValue(change.value);
+            }
+        }
+
+        for (FieldChange change : changes) {
+            if (change.isValueChange()) {
+                continue;
+            }
+
+            log.remove(change.entry.getKey());
+            if (change.fieldName != null) {
+                log.put(change.fieldName, change.value);
+            }
+        }
+
+        return log;
+    }
+
+    private Map<String, Object> transformSequentially(Map<String, Object> log) {
+        Map<String, Object> current = log;
+        for (FieldTransformation transformation : transformations) {
+            current = transformation.apply(current);
+        }
+        return current;
+    }
+}
@@ -1,10 +1,12 @@
 package uk.co.gresearch.siembol.parsers.transformations;
 
+import java.io.Serializable;
 import java.util.EnumSet;
 import java.util.Map;
 import java.util.regex.Pattern;
 
-public class MessageFilterMatcher {
+public class MessageFilterMatcher implements Serializable {
+    private static final long serialVersionUID = 1L;
     private static final String MISSING_ARGUMENT = "FiledName and pattern should not be null";
     public enum Flags {
         NEGATED
@@ -25,6 +27,10 @@ public class MessageFilterMatcher {
         this.flags = flags;
     }
 
+    public String getFieldName() {
+        return fieldName;
+    }
+
     public boolean match(Map<String, Object> map) {
         Object value = map.get(fieldName);
         boolean matched = (value != null) ? pattern.matcher(value.toString()).matches() : false;
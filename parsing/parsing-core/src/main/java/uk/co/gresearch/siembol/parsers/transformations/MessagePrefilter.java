@@ -0,0 +1,60 @@
+package uk.co.gresearch.siembol.parsers.transformations;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Named message filter evaluated before the message is fully parsed.
+ * The message is dropped if all matchers match and dropped messages are counted.
+ */
+public class MessagePrefilter implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private static final String MISSING_ARGUMENTS = "Missing name or matchers of the message prefilter";
+
+    private final String name;
+    private final List<MessageFilterMatcher> matchers;
+    private final LongAdder droppedMessages = new LongAdder();
+
+    public MessagePrefilter(String name, List<MessageFilterMatcher> matchers) {
+        if (name == null || matchers == null || matchers.isEmpty()) {
+            throw new IllegalArgumentException(MISSING_ARGUMENTS);
+        }
+
+        this.name = name;
+        this.matchers = matchers;
+    }
+
+    public boolean filter(Map<String, Object> message) {
+        for (MessageFilterMatcher matcher : matchers) {
+            if (!matcher.match(message)) {
+                return false;
+            }
+        }
+
+        droppedMessages.increment();
+        return true;
+    }
+
+    public boolean usesField(String fieldName) {
+        return matchers.stream().anyMatch(x -> x.getFieldName().equals(fieldName));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getDroppedMessages() {
+        return droppedMessages.sum();
+    }
+
+    public static boolean filter(List<MessagePrefilter> prefilters, Map<String, Object> message) {
+        for (MessagePrefilter prefilter : prefilters) {
+            if (prefilter.filter(message)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,40 @@
+package uk.co.gresearch.siembol.parsers.transformations;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Prefilters of a parser evaluated before extraction or after an early extractor
+ */
+public class MessagePrefilters {
+    private final List<MessagePrefilter> messagePrefilters;
+    private final Map<String, List<MessagePrefilter>> extractorsPrefilters;
+
+    public MessagePrefilters(List<MessagePrefilter> messagePrefilters,
+                             Map<String, List<MessagePrefilter>> extractorsPrefilters) {
+        this.messagePrefilters = messagePrefilters;
+        this.extractorsPrefilters = extractorsPrefilters;
+    }
+
+    public boolean filterMessage(Map<String, Object> message) {
+        return MessagePrefilter.filter(messagePrefilters, message);
+    }
+
+    public boolean filterExtracted(String extractorName, Map<String, Object> message) {
+        List<MessagePrefilter> prefilters = extractorsPrefilters.get(extractorName);
+        return prefilters != null && MessagePrefilter.filter(prefilters, message);
+    }
+
+    /**
+     * Returns the counters of dropped messages
+     * @return the map of the prefilter name to the counter of dropped messages
+     */
+    public Map<String, LongSupplier> getDroppedMessagesCounters() {
+        Map<String, LongSupplier> ret = new LinkedHashMap<>();
+        messagePrefilters.forEach(x -> ret.put(x.getName(), x::getDroppedMessages));
+        extractorsPrefilters.values().forEach(x -> x.forEach(y -> ret.put(y.getName(), y::getDroppedMessages)));
+        return ret;
+    }
+}
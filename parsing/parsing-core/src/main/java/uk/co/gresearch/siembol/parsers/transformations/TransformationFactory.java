@@ -1,6 +1,8 @@
 package uk.co.gresearch.siembol.parsers.transformations;
 
 import uk.co.gresearch.siembol.common.utils.PatternFilter;
+import uk.co.gresearch.siembol.parsers.model.MessageFilterMatcherDto;
+import uk.co.gresearch.siembol.parsers.model.MessagePrefilterDto;
 import uk.co.gresearch.siembol.parsers.model.TransformationAttributesDto;
 import uk.co.gresearch.siembol.parsers.model.TransformationDto;
 import uk.co.gresearch.siembol.parsers.model.TransformationTypeDto;
@@ -20,6 +22,7 @@ public class TransformationFactory {
     private static final String MISSING_TRANSFORMATION_TYPE = "Missing transformation type";
     private static final String UNKNOWN_TRANSFORMATION_TYPE = "Unknown transformation type";
     private static final String MISSING_TRANSFORMATION_ATTRIBUTES = "Missing transformation attributes";
+    private static final String MISSING_PREFILTER_MATCHERS = "Missing message prefilter matchers";
 
     public Transformation create(TransformationDto specification) {
         if(specification.getType() == null) {
@@ -64,12 +67,12 @@ public class TransformationFactory {
         final String target = attributes.getStringReplaceTarget();
         final String replacement = attributes.getStringReplaceReplacement();
 
+        final Pattern pattern = Pattern.compile(target);
+
         if (type == TransformationTypeDto.FIELD_NAME_STRING_REPLACE) {
-            return x -> TransformationsLibrary.fieldTransformation(x,
-                    y -> y.replaceFirst(target, replacement));
+            return FieldTransformation.fieldName(y -> pattern.matcher(y).replaceFirst(replacement));
         } else {
-            return x -> TransformationsLibrary.fieldTransformation(x,
-                    y -> y.replaceAll(target, replacement));
+            return FieldTransformation.fieldName(y -> pattern.matcher(y).replaceAll(replacement));
         }
     }
 
@@ -81,7 +84,7 @@ public class TransformationFactory {
         final Map<String, String> renameMap = attributes.getFieldRenameMap().stream()
                 .collect(Collectors.toMap(x -> x.getFieldToRename(), x -> x.getNewName()));
 
-        return x -> TransformationsLibrary.fieldTransformation(x, y -> renameMap.getOrDefault(y, y));
+        return FieldTransformation.fieldName(y -> renameMap.getOrDefault(y, y));
     }
 
     private Transformation createCaseFieldTransformation(TransformationAttributesDto attributes) {
@@ -93,7 +96,7 @@ public class TransformationFactory {
                 ? x -> x.toLowerCase()
                 : x -> x.toUpperCase();
 
-        return x -> TransformationsLibrary.fieldTransformation(x, fun);
+        return FieldTransformation.fieldName(fun);
     }
 
     private Transformation createDeleteFieldsTransformation(TransformationAttributesDto attributes) {
@@ -103,7 +106,7 @@ public class TransformationFactory {
         final PatternFilter patternFilter = PatternFilter.create(
                 attributes.getFieldsFilter().getIncludingFields(),
                 attributes.getFieldsFilter().getExcludingFields());
-        return x -> TransformationsLibrary.removeFields(x, patternFilter);
+        return FieldTransformation.deleteFields(patternFilter);
     }
 
     private Transformation createValueTransformation(TransformationAttributesDto attributes,
@@ -114,7 +117,7 @@ public class TransformationFactory {
         final PatternFilter fieldFilter = PatternFilter.create(
                 attributes.getFieldsFilter().getIncludingFields(),
                 attributes.getFieldsFilter().getExcludingFields());
-        return x -> TransformationsLibrary.valueTransformation(x, fun, fieldFilter);
+        return FieldTransformation.value(fun, fieldFilter);
     }
 
     private Transformation createFilterMessageTransformation(TransformationAttributesDto attributes) {
@@ -125,15 +128,27 @@ public class TransformationFactory {
             throw new IllegalArgumentException(MISSING_TRANSFORMATION_ATTRIBUTES);
         }
 
-        final List<MessageFilterMatcher> matchers = attributes.getMessageFilter().getMatchers()
-                .stream()
+        final List<MessageFilterMatcher> matchers = createMessageFilterMatchers(
+                attributes.getMessageFilter().getMatchers());
+        return x -> TransformationsLibrary.filterMassage(x, matchers);
+    }
+
+    public MessagePrefilter createMessagePrefilter(MessagePrefilterDto specification) {
+        if (specification.getMatchers() == null || specification.getMatchers().isEmpty()) {
+            throw new IllegalArgumentException(MISSING_PREFILTER_MATCHERS);
+        }
+
+        return new MessagePrefilter(specification.getPrefilterName(),
+                createMessageFilterMatchers(specification.getMatchers()));
+    }
+
+    private ArrayList<MessageFilterMatcher> createMessageFilterMatchers(List<MessageFilterMatcherDto> matchers) {
+        return matchers.stream()
                 .map(x -> new MessageFilterMatcher(x.getFieldName(),
                         Pattern.compile(x.getPattern()),
                         x.getNegated()
                                 ? EnumSet.of(MessageFilterMatcher.Flags.NEGATED)
                                 : EnumSet.noneOf(MessageFilterMatcher.Flags.class)))
                 .collect(Collectors.toCollection(ArrayList::new));
-
-        return x -> TransformationsLibrary.filterMassage(x, matchers);
     }
 }
@@ -3,25 +3,30 @@ package uk.co.gresearch.siembol.parsers.transformations;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Pair;
 import uk.co.gresearch.siembol.common.utils.FieldFilter;
-import uk.co.gresearch.siembol.common.utils.PatternFilter;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.HashMap;
 import java.util.function.Function;
 
 public class TransformationsLibrary {
     public static Map<String, Object> fieldTransformation(Map<String, Object> log,
                                                           Function<String, String> fun) {
-        List<Pair<String, String>> changed = new ArrayList<>();
+        List<Pair<String, String>> changed = null;
         for (String field : log.keySet()) {
             String changedField = fun.apply(field);
             if (!field.equals(changedField)) {
+                if (changed == null) {
+                    changed = new ArrayList<>();
+                }
                 changed.add(Pair.of(field, changedField));
             }
         }
 
+        if (changed == null) {
+            return log;
+        }
+
         for (Pair<String, String> replace : changed) {
             Object value = log.get(replace.getLeft());
             log.remove(replace.getLeft());
@@ -34,12 +39,12 @@ public class TransformationsLibrary {
     public static Map<String, Object> valueTransformation(Map<String, Object> log,
                                                           Function<Object, Object> fun,
                                                           FieldFilter filter) {
-        for (String field : log.keySet()) {
-            if (!filter.match(field)) {
+        for (Map.Entry<String, Object> entry : log.entrySet()) {
+            if (!filter.match(entry.getKey())) {
                 continue;
             }
 
-            log.put(field, fun.apply(log.get(field)));
+            entry.setValue(fun.apply(entry.getValue()));
         }
 
         return log;
@@ -77,7 +82,7 @@ public class TransformationsLibrary {
         return ((String) obj).toUpperCase();
     }
 
-    public static Map<String, Object> removeFields(Map<String, Object> log, PatternFilter filter) {
+    public static Map<String, Object> removeFields(Map<String, Object> log, FieldFilter filter) {
         log.keySet().removeIf(x -> filter.match(x));
         return log;
     }
@@ -89,7 +94,8 @@ public class TransformationsLibrary {
             }
         }
 
-        return new HashMap<>();
+        log.clear();
+        return log;
     }
 
     public static Map<String, Object> transform(List<Transformation> transformations, Map<String, Object> map) {
@@ -99,4 +105,31 @@ public class TransformationsLibrary {
         }
         return current;
     }
+
+    public static ArrayList<Transformation> fuse(List<Transformation> transformations) {
+        ArrayList<Transformation> ret = new ArrayList<>();
+        List<FieldTransformation> fieldTransformations = new ArrayList<>();
+        for (Transformation transformation : transformations) {
+            if (transformation instanceof FieldTransformation) {
+                fieldTransformations.add((FieldTransformation) transformation);
+                continue;
+            }
+
+            addFieldTransformations(ret, fieldTransformations);
+            ret.add(transformation);
+        }
+
+        addFieldTransformations(ret, fieldTransformations);
+        return ret;
+    }
+
+    private static void addFieldTransformations(List<Transformation> transformations,
+                                                List<FieldTransformation> fieldTransformations) {
+        if (fieldTransformations.size() == 1) {
+            transformations.add(fieldTransformations.get(0));
+        } else if (fieldTransformations.size() > 1) {
+            transformations.add(new FusedTransformation(new ArrayList<>(fieldTransformations)));
+        }
+        fieldTransformations.clear();
+    }
 }
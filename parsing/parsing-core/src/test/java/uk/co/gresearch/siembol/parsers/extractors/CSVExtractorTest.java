@@ -308,4 +308,65 @@ public class CSVExtractorTest {
                 Arrays.asList("c1", "c1"),
                 new  AbstractMap.SimpleEntry<> (1, null)));
     }
+
+    private static Map<String, Object> extractByValues(CSVExtractor extractor,
+                                                       List<ColumnNames> columnNames,
+                                                       String delimiter,
+                                                       String message) {
+        ArrayList<Object> values = delimiter.length() == 1
+                ? extractor.getValues(message, delimiter.charAt(0))
+                : extractor.getValues(message, delimiter);
+        ArrayList<String> names = ColumnNames.getNames(columnNames, values);
+        Map<String, Object> ret = new HashMap<>();
+        for (int i = 0; i < values.size(); i++) {
+            String currentName = i < names.size()
+                    ? names.get(i)
+                    : String.format("unknown_%s_%d", extractor.getName(), i + 1);
+            if (!"_".equals(currentName)) {
+                ret.put(currentName, values.get(i));
+            }
+        }
+        return ret;
+    }
+
+    @Test
+    public void testProjectedColumnsSameAsValues() {
+        Random random = new Random(42);
+        String alphabet = "ab,|\"'";
+        columnNamesList.add(new ColumnNames(Arrays.asList("_", "c2", "_", "c4"),
+                new AbstractMap.SimpleEntry<>(0, "a")));
+        columnNamesList.add(new ColumnNames(Arrays.asList("c1", "_", "_", "c4")));
+        columnNamesList.add(new ColumnNames(Arrays.asList("_", "c2", "c3")));
+        columnNamesList.add(new ColumnNames(Arrays.asList("c1", "_"),
+                new AbstractMap.SimpleEntry<>(1, "b")));
+
+        for (String delimiter : Arrays.asList(",", "||")) {
+            for (EnumSet<ParserExtractor.ParserExtractorFlags> flags : Arrays.asList(
+                    EnumSet.noneOf(ParserExtractor.ParserExtractorFlags.class),
+                    EnumSet.of(ParserExtractor.ParserExtractorFlags.REMOVE_QUOTES),
+                    EnumSet.of(ParserExtractor.ParserExtractorFlags.SKIP_EMPTY_VALUES),
+                    EnumSet.of(ParserExtractor.ParserExtractorFlags.REMOVE_QUOTES,
+                            ParserExtractor.ParserExtractorFlags.SKIP_EMPTY_VALUES))) {
+                CSVExtractor extractor = CSVExtractor.builder()
+                        .columnNames(columnNamesList)
+                        .wordDelimiter(delimiter)
+                        .extractorFlags(flags)
+                        .name(name)
+                        .field(field)
+                        .build();
+
+                for (int i = 0; i < 3000; i++) {
+                    StringBuilder sb = new StringBuilder();
+                    int length = 1 + random.nextInt(15);
+                    for (int j = 0; j < length; j++) {
+                        sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+                    }
+                    String message = sb.toString();
+                    Assert.assertEquals(message,
+                            extractByValues(extractor, columnNamesList, delimiter, message),
+                            extractor.extract(message));
+                }
+            }
+        }
+    }
 }
@@ -3,6 +3,9 @@ package uk.co.gresearch.siembol.parsers.extractors;
 import org.adrianwalker.multilinestring.Multiline;
 import org.junit.Assert;
 import org.junit.Test;
+import uk.co.gresearch.siembol.common.utils.PatternFilter;
+
+import java.util.Arrays;
 import java.util.EnumSet;
 import java.util.Map;
 
@@ -90,4 +93,85 @@ public class JsonExtractorTest {
         Assert.assertEquals(1, out.get("key2:nested1:0:order"));
         Assert.assertEquals(2, out.get("key2:nested1:1:order"));
     }
+
+    @Test
+    public void testFieldsFilter() {
+        JsonExtractor extractor = JsonExtractor.builder()
+                .nestedSeparator(":")
+                .fieldsFilter(PatternFilter.create(Arrays.asList("key1", "key2:.*", "key4:.*"),
+                        Arrays.asList("key4:nested1.*")))
+                .extractorFlags(extractorFlags)
+                .name(name)
+                .field(field)
+                .build();
+
+        Map<String, Object> out = extractor.extract(simpleJson.trim());
+        Assert.assertEquals(1, out.size());
+        Assert.assertEquals("bbb", out.get("key1"));
+
+        out = extractor.extract(simpleArrayJson.trim());
+        Assert.assertEquals(3, out.size());
+        Assert.assertEquals("bbb", out.get("key1"));
+        Assert.assertEquals(1, out.get("key2:nested1:0:order"));
+        Assert.assertEquals(2, out.get("key2:nested1:1:order"));
+    }
+
+    @Test
+    public void testFieldsFilterNestedAndFlat() {
+        JsonExtractor extractor = JsonExtractor.builder()
+                .fieldsFilter(PatternFilter.create(Arrays.asList(".*"), Arrays.asList("a", "c_.*")))
+                .extractorFlags(extractorFlags)
+                .name(name)
+                .field(field)
+                .build();
+
+        Map<String, Object> nested = extractor.extract("{\"a\": {\"b\": 1}, \"c\": {\"d\": 2}, \"e\": 3}");
+        Map<String, Object> flat = extractor.extract("{\"a_b\": 1, \"c_d\": 2, \"e\": 3}");
+        Assert.assertEquals(2, nested.size());
+        Assert.assertEquals(1, nested.get("a_b"));
+        Assert.assertEquals(3, nested.get("e"));
+        Assert.assertEquals(flat, nested);
+
+        Assert.assertEquals(1, extractor.extract("{\"a\": 1, \"c\": 2}").size());
+    }
+
+    @Test
+    public void testNumbersAndNulls() {
+        JsonExtractor extractor = JsonExtractor.builder()
+                .extractorFlags(extractorFlags)
+                .name(name)
+                .field(field)
+                .build();
+
+        Map<String, Object> out = extractor.extract(
+                "{\"a\": 1.5, \"b\": 12345678901, \"c\": null, \"d\": \"'quoted'\", \"e\": false}");
+        Assert.assertEquals(4, out.size());
+        Assert.assertEquals(1.5, out.get("a"));
+        Assert.assertEquals(12345678901L, out.get("b"));
+        Assert.assertEquals("'quoted'", out.get("d"));
+        Assert.assertEquals(false, out.get("e"));
+    }
+
+    @Test
+    public void testInvalidJson() {
+        JsonExtractor extractor = JsonExtractor.builder()
+                .extractorFlags(extractorFlags)
+                .name(name)
+                .field(field)
+                .build();
+
+        Assert.assertTrue(extractor.extract("[1, 2]").isEmpty());
+        Assert.assertTrue(extractor.extract("{\"a\": 1, \"b\": ").isEmpty());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testInvalidJsonException() {
+        JsonExtractor extractor = JsonExtractor.builder()
+                .extractorFlags(EnumSet.of(ParserExtractor.ParserExtractorFlags.THROWN_EXCEPTION_ON_ERROR))
+                .name(name)
+                .field(field)
+                .build();
+
+        extractor.extract("INVALID");
+    }
 }
@@ -5,8 +5,12 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.EnumSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
 
 
 public class KeyValueExtractorTest {
@@ -345,4 +349,70 @@ public class KeyValueExtractorTest {
         Map<String, Object> out = extractor.extract("a=\"dhdhd0ehe");
         Assert.assertEquals("\"dhdhd0ehe", out.get("a"));
     }
+
+    private static KeyValueIndices.IndexOf getIndexOf(EnumSet<KeyValueExtractor.KeyValueExtractorFlags> flags) {
+        Optional<Character> escaped = flags.contains(KeyValueExtractor.KeyValueExtractorFlags.ESCAPING_HANDLING)
+                ? Optional.of('\\')
+                : Optional.empty();
+        boolean quotes = flags.contains(KeyValueExtractor.KeyValueExtractorFlags.QUOTA_VALUE_HANDLING);
+        return (str, from) -> {
+            int keyIndex = ParserExtractorLibrary.indexOfQuotedEscaped(str, '=', from, escaped, quotes);
+            if (keyIndex == -1 || keyIndex == from) {
+                return KeyValueIndices.invalid();
+            }
+
+            if (flags.contains(KeyValueExtractor.KeyValueExtractorFlags.NEXT_KEY_STRATEGY)) {
+                int nextKeyIndex = ParserExtractorLibrary.indexOfQuotedEscaped(str, '=', keyIndex + 1, escaped, quotes);
+                return new KeyValueIndices(keyIndex,
+                        nextKeyIndex == -1 ? -1 : str.lastIndexOf(' ', nextKeyIndex),
+                        str.length());
+            }
+            return new KeyValueIndices(keyIndex,
+                    ParserExtractorLibrary.indexOfQuotedEscaped(str, ' ', keyIndex + 1, escaped, quotes),
+                    str.length());
+        };
+    }
+
+    @Test
+    public void testScannerSameAsIndexOf() {
+        Random random = new Random(42);
+        String alphabet = "ab =\\\"'";
+        List<String> messages = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            StringBuilder sb = new StringBuilder();
+            int length = random.nextInt(30);
+            for (int j = 0; j < length; j++) {
+                sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            messages.add(sb.toString());
+        }
+        extractorFlags.add(ParserExtractor.ParserExtractorFlags.REMOVE_QUOTES);
+
+        for (int i = 0; i < 1 << KeyValueExtractor.KeyValueExtractorFlags.values().length; i++) {
+            EnumSet<KeyValueExtractor.KeyValueExtractorFlags> flags =
+                    EnumSet.noneOf(KeyValueExtractor.KeyValueExtractorFlags.class);
+            for (KeyValueExtractor.KeyValueExtractorFlags flag : KeyValueExtractor.KeyValueExtractorFlags.values()) {
+                if ((i & (1 << flag.ordinal())) != 0) {
+                    flags.add(flag);
+                }
+            }
+
+            KeyValueExtractor scanner = KeyValueExtractor.builder()
+                    .keyValueExtractorFlags(flags)
+                    .extractorFlags(extractorFlags)
+                    .name(name)
+                    .field(field)
+                    .build();
+            KeyValueExtractor indexOf = KeyValueExtractor.builder()
+                    .indexOfEnd(getIndexOf(flags))
+                    .keyValueExtractorFlags(flags)
+                    .extractorFlags(extractorFlags)
+                    .name(name)
+                    .field(field)
+                    .build();
+            for (String message : messages) {
+                Assert.assertEquals(message, indexOf.extract(message), scanner.extract(message));
+            }
+        }
+    }
 }
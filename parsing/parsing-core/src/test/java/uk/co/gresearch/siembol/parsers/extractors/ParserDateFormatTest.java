@@ -0,0 +1,179 @@
+package uk.co.gresearch.siembol.parsers.extractors;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAccessor;
+import java.time.temporal.TemporalQueries;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ParserDateFormatTest {
+    private final List<String> timeZones = Arrays.asList("UTC", "Europe/London", "America/New_York", "+02:00");
+
+    private Optional<Long> parseByFormatter(String format, String timeZone, String message) {
+        try {
+            ZoneId zone = ZoneId.of(timeZone);
+            TemporalAccessor accessor = DateTimeFormatter.ofPattern(format).withZone(zone).parse(message);
+            LocalDateTime dateTime = LocalDateTime.from(accessor);
+            ZoneOffset offset = accessor.query(TemporalQueries.offset());
+            return Optional.of(offset != null
+                    ? dateTime.toInstant(offset).toEpochMilli()
+                    : dateTime.atZone(zone).toInstant().toEpochMilli());
+        } catch (Exception e) {
+            return Optional.empty();
+        }
+    }
+
+    private void assertSameAsFormatter(String format, List<String> messages) {
+        for (String timeZone : timeZones) {
+            ParserDateFormat dateFormat = new ParserDateFormat(format, Optional.of(timeZone), Optional.empty());
+            for (String message : messages) {
+                Assert.assertEquals(format + " " + timeZone + " " + message,
+                        parseByFormatter(format, timeZone, message), dateFormat.parse(message));
+            }
+        }
+    }
+
+    @Test
+    public void isoFormatSameAsFormatter() {
+        assertSameAsFormatter("yyyy-MM-dd'T'HH:mm:ss.SSSXXX", Arrays.asList(
+                "2021-03-28T00:59:59.999Z",
+                "2021-03-28T01:00:00.000Z",
+                "2021-03-28T01:00:00.000+01:00",
+                "2021-03-28T01:00:00.123-05:30",
+                "2021-03-28T01:00:00.123+00:00",
+                "2020-02-29T23:59:59.001Z",
+                "2021-02-29T23:59:59.001Z",
+                "2021-04-31T10:00:00.000Z",
+                "2021-13-01T10:00:00.000Z",
+                "2021-12-01T24:00:00.000Z",
+                "2021-12-01T10:00:00.000",
+                "2021-12-01T10:00:00.000Zx",
+                "2021-12-01T10:0a:00.000Z",
+                "1969-12-31T23:59:59.999Z"));
+    }
+
+    @Test
+    public void localFormatSameAsFormatter() {
+        assertSameAsFormatter("yyyy-MM-dd HH:mm:ss", Arrays.asList(
+                "2021-01-15 12:00:00",
+                "2021-07-15 12:00:00",
+                "2021-03-28 01:30:00",
+                "2021-10-31 01:30:00",
+                "2021-03-14 02:30:00",
+                "2021-11-07 01:30:00",
+                "2021-07-15 12:00:00 ",
+                "2021-07-15T12:00:00"));
+
+        assertSameAsFormatter("dd/MMM/yyyy:HH:mm:ss.SSSSSS", Arrays.asList(
+                "15/Jan/2021:12:00:00.123456",
+                "15/Jul/2021:12:00:00.000001",
+                "15/Foo/2021:12:00:00.000001",
+                "31/Jun/2021:12:00:00.000001"));
+    }
+
+    @Test
+    public void daylightSavingTimeOffset() {
+        ParserDateFormat dateFormat = new ParserDateFormat("yyyy-MM-dd HH:mm:ss",
+                Optional.of("Europe/London"), Optional.empty());
+        Assert.assertEquals(Optional.of(1610712000000L), dateFormat.parse("2021-01-15 12:00:00"));
+        Assert.assertEquals(Optional.of(1626346800000L), dateFormat.parse("2021-07-15 12:00:00"));
+
+        ParserDateFormat unsupportedLayout = new ParserDateFormat("d/M/yyyy HH:mm:ss",
+                Optional.of("Europe/London"), Optional.empty());
+        Assert.assertEquals(Optional.of(1610712000000L), unsupportedLayout.parse("15/1/2021 12:00:00"));
+        Assert.assertEquals(Optional.of(1626346800000L), unsupportedLayout.parse("15/7/2021 12:00:00"));
+    }
+
+    @Test
+    public void cachedSecondPrefix() {
+        ParserDateFormat dateFormat = new ParserDateFormat("yyyy-MM-dd HH:mm:ss.SSS",
+                Optional.of("Europe/London"), Optional.empty());
+        Assert.assertEquals(Optional.of(1626346800001L), dateFormat.parse("2021-07-15 12:00:00.001"));
+        Assert.assertEquals(Optional.of(1626346800999L), dateFormat.parse("2021-07-15 12:00:00.999"));
+        Assert.assertEquals(Optional.empty(), dateFormat.parse("2021-07-15 12:00:00.99x"));
+        Assert.assertEquals(Optional.of(1626346801000L), dateFormat.parse("2021-07-15 12:00:01.000"));
+        Assert.assertEquals(Optional.of(1626346800002L), dateFormat.parse("2021-07-15 12:00:00.002"));
+    }
+
+    @Test
+    public void epochFormats() {
+        ParserDateFormat seconds = new ParserDateFormat(ParserDateFormat.EPOCH_SECONDS_FORMAT);
+        Assert.assertEquals(Optional.of(1626346800000L), seconds.parse("1626346800"));
+        Assert.assertEquals(Optional.of(1626346800123L), seconds.parse("1626346800.123456"));
+        Assert.assertEquals(Optional.of(1626346800500L), seconds.parse("1626346800.5"));
+        Assert.assertEquals(Optional.empty(), seconds.parse("1626346800.5a"));
+        Assert.assertEquals(Optional.empty(), seconds.parse(""));
+
+        ParserDateFormat milliseconds = new ParserDateFormat(ParserDateFormat.EPOCH_MILLISECONDS_FORMAT);
+        Assert.assertEquals(Optional.of(1626346800123L), milliseconds.parse("1626346800123"));
+        Assert.assertEquals(Optional.empty(), milliseconds.parse("1626346800.123"));
+        Assert.assertEquals(Optional.empty(), milliseconds.parse("-1"));
+    }
+
+    @Test
+    public void epochSecondsOverflow() {
+        ParserDateFormat seconds = new ParserDateFormat(ParserDateFormat.EPOCH_SECONDS_FORMAT);
+        Assert.assertEquals(Optional.of(Long.MAX_VALUE), seconds.parse("9223372036854775.807"));
+        Assert.assertEquals(Optional.empty(), seconds.parse("9223372036854775.808"));
+        Assert.assertEquals(Optional.empty(), seconds.parse("12345678901234567"));
+        Assert.assertEquals(Optional.empty(), seconds.parse("123456789012345678.5"));
+    }
+
+    @Test
+    public void formatWithoutYear() {
+        ZonedDateTime now = ZonedDateTime.now(ZoneOffset.UTC).withNano(0);
+        String message = now.format(DateTimeFormatter.ofPattern("MMM dd HH:mm:ss"));
+        ParserDateFormat dateFormat = new ParserDateFormat("MMM dd HH:mm:ss");
+        Assert.assertEquals(Optional.of(now.toInstant().toEpochMilli()), dateFormat.parse(message));
+
+        ZonedDateTime future = now.plusDays(30);
+        String futureMessage = future.format(DateTimeFormatter.ofPattern("MMM dd HH:mm:ss"));
+        Assert.assertEquals(Optional.of(future.minusYears(1).toInstant().toEpochMilli()),
+                dateFormat.parse(futureMessage));
+
+        //NOTE: the formatter alone does not parse timestamps without the year
+        Assert.assertEquals(Optional.empty(), parseByFormatter("MMM dd HH:mm:ss", "UTC", message));
+    }
+
+    private static long toMillis(String instant) {
+        return Instant.parse(instant).toEpochMilli();
+    }
+
+    @Test
+    public void layoutWithoutYearCachedSecond() {
+        AtomicLong now = new AtomicLong(toMillis("2021-12-20T00:00:00Z"));
+        TimestampLayout layout = TimestampLayout.create("MM-dd HH:mm:ss.SSS", ZoneOffset.UTC, now::get).get();
+
+        Assert.assertEquals(Long.valueOf(toMillis("2021-12-20T00:00:00.001Z")), layout.parse("12-20 00:00:00.001"));
+        Assert.assertEquals(Long.valueOf(toMillis("2021-12-20T00:00:00.002Z")), layout.parse("12-20 00:00:00.002"));
+        Assert.assertEquals(Long.valueOf(toMillis("2021-01-02T10:00:00Z")), layout.parse("01-02 10:00:00.000"));
+        Assert.assertNull(layout.parse("02-29 10:00:00.000"));
+
+        Assert.assertEquals(Long.valueOf(toMillis("2020-12-30T00:00:00.001Z")), layout.parse("12-30 00:00:00.001"));
+        now.set(toMillis("2021-12-23T00:00:00Z"));
+        Assert.assertEquals(Long.valueOf(toMillis("2021-12-30T00:00:00.002Z")), layout.parse("12-30 00:00:00.002"));
+    }
+
+    @Test
+    public void layoutWithoutYearNewYear() {
+        AtomicLong now = new AtomicLong(toMillis("2021-12-31T23:59:59Z"));
+        TimestampLayout layout = TimestampLayout.create("MM-dd HH:mm:ss", ZoneId.of("Europe/London"), now::get)
+                .get();
+
+        Assert.assertEquals(Long.valueOf(toMillis("2021-01-01T00:00:00Z")), layout.parse("01-01 00:00:00"));
+        now.set(toMillis("2022-01-01T00:00:00Z"));
+        Assert.assertEquals(Long.valueOf(toMillis("2022-01-01T00:00:00Z")), layout.parse("01-01 00:00:00"));
+        Assert.assertEquals(Long.valueOf(toMillis("2021-07-01T11:00:00Z")), layout.parse("07-01 12:00:00"));
+        Assert.assertEquals(Long.valueOf(toMillis("2021-12-31T23:59:59Z")), layout.parse("12-31 23:59:59"));
+    }
+}
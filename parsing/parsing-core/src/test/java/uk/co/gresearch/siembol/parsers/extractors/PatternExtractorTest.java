@@ -6,6 +6,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
@@ -207,4 +208,30 @@ public class PatternExtractorTest {
                 .build();
         Assert.assertNull(extractor);
     }
+
+    @Test
+    public void testPatternsHits() {
+        stringPatterns.add("^Info: MID (?<mid>\\d+)$");
+        stringPatterns.add("^Info: ICID (?<icid>\\d+)$");
+        stringPatterns.add(".*MID (?<any_mid>\\d+)$");
+        PatternExtractor extractor = PatternExtractor.builder()
+                .patterns(stringPatterns)
+                .name(name)
+                .field(field)
+                .build();
+
+        Map<String, Object> ret = extractor.extract("Info: MID 12345");
+        Assert.assertEquals(2, ret.size());
+        Assert.assertEquals("12345", ret.get("mid"));
+        Assert.assertEquals("12345", ret.get("any_mid"));
+
+        ret = extractor.extract("Warning: MID 1");
+        Assert.assertEquals(1, ret.size());
+        Assert.assertEquals("1", ret.get("any_mid"));
+
+        ret = extractor.extract("Info: ICID 2");
+        Assert.assertEquals(1, ret.size());
+        Assert.assertEquals("2", ret.get("icid"));
+        Assert.assertEquals(Arrays.asList(1L, 1L, 2L), extractor.getPatternsHits());
+    }
 }
@@ -0,0 +1,106 @@
+package uk.co.gresearch.siembol.parsers.extractors;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+public class RegexPrefilterTest {
+    private final List<String> messages = Arrays.asList(
+            "",
+            "abc",
+            "abbc",
+            "ac",
+            "node=abc type=EOE",
+            "node=",
+            "<13>Jan 14 13:26:58 prod-1.k8s.abc fluentd",
+            "Info: MID 12345",
+            "Info: ICID 12345",
+            "x.y(z)",
+            "😀 smile",
+            " smile",
+            "a|b");
+
+    private final List<String> patterns = Arrays.asList(
+            "abc",
+            "ab+c",
+            "ab?c",
+            "ab*c",
+            "a(b)?c",
+            "ab{0,2}c",
+            "^node=",
+            "node=.*type=(?<type>\\w+)",
+            "^<\\d+>\\w+\\s+\\d{2}\\s+\\d{2}:\\d{2}:\\d{2}\\s+[\\w-\\.]+\\.k8s.*",
+            "Info: (MID|ICID) \\d+",
+            "Info: MID \\d+|Info: ICID \\d+",
+            "(?i)INFO: mid \\d+",
+            "x\\.y\\(z\\)",
+            "\\x41bc",
+            "\\Qa|b\\E",
+            "a\\|b",
+            "[|]?a.*",
+            "😀? smile",
+            ".*smile");
+
+    @Test
+    public void testPrefixAndLiterals() {
+        RegexPrefilter prefilter = RegexPrefilter.create(Pattern.compile("^node=.*type=(?<type>\\w+) msg"),
+                RegexPrefilter.MatchType.FIND);
+        Assert.assertEquals("node=", prefilter.getPrefix());
+        Assert.assertEquals(Arrays.asList("type=", " msg"), prefilter.getLiterals());
+
+        prefilter = RegexPrefilter.create(Pattern.compile("node=.*type="), RegexPrefilter.MatchType.FIND);
+        Assert.assertEquals("", prefilter.getPrefix());
+        Assert.assertEquals(Arrays.asList("node=", "type="), prefilter.getLiterals());
+
+        prefilter = RegexPrefilter.create(Pattern.compile("abc?d+e"), RegexPrefilter.MatchType.MATCHES);
+        Assert.assertEquals("ab", prefilter.getPrefix());
+        Assert.assertEquals(Collections.emptyList(), prefilter.getLiterals());
+
+        prefilter = RegexPrefilter.create(Pattern.compile("a|b"), RegexPrefilter.MatchType.MATCHES);
+        Assert.assertEquals("", prefilter.getPrefix());
+        Assert.assertTrue(prefilter.getLiterals().isEmpty());
+
+        prefilter = RegexPrefilter.create(Pattern.compile("abc", Pattern.CASE_INSENSITIVE),
+                RegexPrefilter.MatchType.MATCHES);
+        Assert.assertEquals("", prefilter.getPrefix());
+        Assert.assertTrue(prefilter.getLiterals().isEmpty());
+    }
+
+    @Test
+    public void testNoFalseNegatives() {
+        for (String regex : patterns) {
+            Pattern pattern = Pattern.compile(regex);
+            RegexPrefilter matchesPrefilter = RegexPrefilter.create(pattern, RegexPrefilter.MatchType.MATCHES);
+            RegexPrefilter findPrefilter = RegexPrefilter.create(pattern, RegexPrefilter.MatchType.FIND);
+            for (String message : messages) {
+                if (pattern.matcher(message).matches()) {
+                    Assert.assertTrue(regex + " " + message, matchesPrefilter.mayMatch(message));
+                }
+                if (pattern.matcher(message).find()) {
+                    Assert.assertTrue(regex + " " + message, findPrefilter.mayMatch(message));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testMultiPatternCandidates() {
+        MultiPatternPrefilter prefilter = new MultiPatternPrefilter(Arrays.asList(
+                Pattern.compile("^node=.*"),
+                Pattern.compile(".*k8s.*"),
+                Pattern.compile("^<\\d+>.*"),
+                Pattern.compile("^Info: .*")), RegexPrefilter.MatchType.FIND);
+
+        Assert.assertArrayEquals(new int[]{0, 1}, prefilter.getCandidates("node=abc"));
+        Assert.assertArrayEquals(new int[]{1, 2}, prefilter.getCandidates("<13>Jan"));
+        Assert.assertArrayEquals(new int[]{1}, prefilter.getCandidates("dummy"));
+        Assert.assertArrayEquals(new int[]{1}, prefilter.getCandidates(""));
+        Assert.assertTrue(prefilter.mayMatch(1, "prod.k8s.abc"));
+        Assert.assertFalse(prefilter.mayMatch(1, "prod.abc"));
+        Assert.assertFalse(prefilter.mayMatch(3, "Info"));
+    }
+}
@@ -161,4 +161,23 @@ public class RegexSelectExtractorTest {
         Map<String, Object> out = extractor.extract(simpleMessage.trim());
         Assert.assertNull(out);
     }
+
+    @Test
+    public void testPatternsHits() {
+        RegexSelectExtractor extractor = RegexSelectExtractor.builder()
+                .patterns(patterns)
+                .outputField("logical_source_type")
+                .defaultValue(null)
+                .extractorFlags(extractorFlags)
+                .name(name)
+                .field(field)
+                .build();
+
+        extractor.extract(auditdMessage.trim());
+        extractor.extract(auditdMessage.trim());
+        extractor.extract(checkpointMessage.trim());
+        extractor.extract(cyberarkMessage.trim());
+        extractor.extract(simpleMessage.trim());
+        Assert.assertEquals(Arrays.asList(2L, 0L, 1L, 1L, 0L), extractor.getPatternsHits());
+    }
 }
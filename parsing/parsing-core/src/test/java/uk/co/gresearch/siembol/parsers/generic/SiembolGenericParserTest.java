@@ -7,6 +7,7 @@ import uk.co.gresearch.siembol.parsers.common.SiembolParser;
 import uk.co.gresearch.siembol.parsers.common.ParserResult;
 import uk.co.gresearch.siembol.parsers.factory.ParserFactory;
 import uk.co.gresearch.siembol.parsers.factory.ParserFactoryImpl;
+import uk.co.gresearch.siembol.parsers.factory.ParserFactoryResult;
 
 import java.util.Map;
 
@@ -79,6 +80,90 @@ public class SiembolGenericParserTest {
     @Multiline
     public static String simpleGenericParserFiltered;
 
+    /**
+     * {
+     *  "parser_attributes": {
+     *      "parser_type": "generic"
+     *   },
+     *   "parser_extractors" : [
+     *   {
+     *      "extractor_type": "pattern_extractor",
+     *      "name": "header",
+     *      "field": "original_string",
+     *      "attributes": {
+     *         "regular_expressions": [
+     *           "^(?<host>\\S+)\\s(?<msg>.*)$"
+     *         ],
+     *         "should_remove_field" : false
+     *       }
+     *     },
+     *     {
+     *      "extractor_type": "pattern_extractor",
+     *      "name": "body",
+     *      "field": "msg",
+     *      "attributes": {
+     *         "regular_expressions": [
+     *           "^(?<host>\\S+)\\s(?<user>\\S+)$"
+     *         ],
+     *         "should_remove_field" : true
+     *       }
+     *     }]
+     *  }
+     **/
+    @Multiline
+    public static String chainedExtractorsParserConfig;
+
+    /**
+     * {
+     *  "parser_attributes": {
+     *      "parser_type": "generic"
+     *   },
+     *   "parser_prefilters" : [
+     *   {
+     *      "prefilter_name": "health_check",
+     *      "matchers" : [
+     *      {
+     *          "field_name" : "original_string",
+     *          "pattern" : "health.*"
+     *      }]
+     *   },
+     *   {
+     *      "prefilter_name": "debug_host",
+     *      "after_extractor": "header",
+     *      "matchers" : [
+     *      {
+     *          "field_name" : "host",
+     *          "pattern" : "debug.*"
+     *      }]
+     *   }],
+     *   "parser_extractors" : [
+     *   {
+     *      "extractor_type": "pattern_extractor",
+     *      "name": "header",
+     *      "field": "original_string",
+     *      "attributes": {
+     *         "regular_expressions": [
+     *           "^(?<host>\\S+)\\s(?<msg>.*)$"
+     *         ],
+     *         "should_remove_field" : false
+     *       }
+     *     },
+     *     {
+     *      "extractor_type": "pattern_extractor",
+     *      "name": "body",
+     *      "field": "msg",
+     *      "attributes": {
+     *         "regular_expressions": [
+     *           "^(?<user>\\S+)$"
+     *         ],
+     *         "should_remove_field" : true
+     *       }
+     *     }]
+     *  }
+     **/
+    @Multiline
+    public static String prefilteredParserConfig;
+
     /**
      * msg: secret
      **/
@@ -103,6 +188,18 @@ public class SiembolGenericParserTest {
         Assert.assertEquals(simpleMessage.trim(), out.get("original_string"));
     }
 
+    @Test
+    public void patternsHits() {
+        genericParser.parse(simpleMessage.trim().getBytes());
+        genericParser.parse("msg2: abc".getBytes());
+        genericParser.parse("msg2: def".getBytes());
+
+        Map<String, Long> hits = genericParser.getPatternsHits();
+        Assert.assertEquals(2, hits.size());
+        Assert.assertEquals(Long.valueOf(1), hits.get("simple_message_0"));
+        Assert.assertEquals(Long.valueOf(2), hits.get("simple_message_1"));
+    }
+
     @Test
     public void goodSimpleMessageDuplicates() {
         String message = "msg2: abc";
@@ -120,4 +217,46 @@ public class SiembolGenericParserTest {
         ParserResult result = genericParser.parseToResult(null, simpleMessage.trim().getBytes());
         Assert.assertTrue(result.getParsedMessages().isEmpty());
     }
+
+    @Test
+    public void chainedExtractorsDuplicates() {
+        genericParser = factory.create(chainedExtractorsParserConfig).getAttributes().getSiembolParser();
+        Map<String, Object> out = genericParser.parse("a b c".getBytes()).get(0);
+
+        Assert.assertEquals(5, out.size());
+        Assert.assertEquals("a", out.get("host"));
+        Assert.assertEquals("b", out.get("duplicate_host_1"));
+        Assert.assertEquals("c", out.get("user"));
+        Assert.assertFalse(out.containsKey("msg"));
+
+        out = genericParser.parse("d e".getBytes()).get(0);
+        Assert.assertEquals(3, out.size());
+        Assert.assertEquals("d", out.get("host"));
+        Assert.assertFalse(out.containsKey("user"));
+        Assert.assertFalse(out.containsKey("duplicate_host_1"));
+    }
+
+    @Test
+    public void prefilteredMessages() {
+        genericParser = factory.create(prefilteredParserConfig).getAttributes().getSiembolParser();
+        Assert.assertTrue(genericParser.parse("health check".getBytes()).isEmpty());
+        Assert.assertTrue(genericParser.parse("debug01 john".getBytes()).isEmpty());
+        Assert.assertTrue(genericParser.parse("debug02 john".getBytes()).isEmpty());
+
+        Map<String, Object> out = genericParser.parse("server01 john".getBytes()).get(0);
+        Assert.assertEquals("server01", out.get("host"));
+        Assert.assertEquals("john", out.get("user"));
+
+        Map<String, Long> dropped = genericParser.getDroppedMessages();
+        Assert.assertEquals(2, dropped.size());
+        Assert.assertEquals(Long.valueOf(1), dropped.get("health_check"));
+        Assert.assertEquals(Long.valueOf(2), dropped.get("debug_host"));
+    }
+
+    @Test
+    public void prefilterUnknownExtractor() {
+        String config = prefilteredParserConfig.replace("\"after_extractor\": \"header\"",
+                "\"after_extractor\": \"unknown\"");
+        Assert.assertEquals(ParserFactoryResult.StatusCode.ERROR, factory.create(config).getStatusCode());
+    }
 }
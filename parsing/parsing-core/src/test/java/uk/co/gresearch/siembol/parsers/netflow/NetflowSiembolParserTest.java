@@ -51,6 +51,22 @@ public class NetflowSiembolParserTest {
         Assert.assertEquals(ret, retNext);
     }
 
+    @Test
+    public void testOriginalPacket() throws IOException {
+        byte[] data = readFileFromResource("example2.netflow9");
+        List<Map<String, Object>> ret = netflowParser.parse("10.16.22.254", data);
+        Assert.assertEquals("NULL", ret.get(0).get(ORIGINAL.getName()));
+
+        netflowParser = new SiembolNetflowParser(new SimpleTransportProvider(), true);
+        ret = netflowParser.parse("10.16.22.254", data);
+        Assert.assertEquals(30, ret.size());
+        String original = (String)ret.get(0).get(ORIGINAL.getName());
+        Assert.assertEquals(Base64.getEncoder().encodeToString(data), original);
+        for (Map<String, Object> item : ret) {
+            Assert.assertSame(original, item.get(ORIGINAL.getName()));
+        }
+    }
+
     @Test
     public void testUnknownTemplate() throws IOException {
         byte[] data = readFileFromResource("example5.netflow9");
@@ -0,0 +1,162 @@
+package uk.co.gresearch.siembol.parsers.netflow;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.InetAddress;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+public class NetflowTemplateDecoderTest {
+    private static final int MAX_FIELD_LENGTH = 17;
+    private static final int NUMBER_OF_RECORDS = 8;
+    private List<NetflowField> template;
+    private byte[] data;
+
+    @Before
+    public void setUp() {
+        template = Arrays.asList(
+                new NetflowField(NetflowFieldType.PROTOCOL.getTypeCode(), 1),
+                new NetflowField(NetflowFieldType.L4_SRC_PORT.getTypeCode(), 2),
+                new NetflowField(NetflowFieldType.IN_BYTES.getTypeCode(), 4),
+                new NetflowField(NetflowFieldType.OUT_BYTES.getTypeCode(), 8),
+                new NetflowField(NetflowFieldType.IPV4_SRC_ADDR.getTypeCode(), 4),
+                new NetflowField(NetflowFieldType.IPV6_DST_ADDR.getTypeCode(), 16),
+                new NetflowField(NetflowFieldType.CUSTOM.getTypeCode(), 3),
+                new NetflowField(NetflowFieldType.IN_PKTS.getTypeCode(), 3));
+
+        ByteBuffer buffer = ByteBuffer.allocate(2 * 41 + 2);
+        for (int i = 0; i < 2; i++) {
+            buffer.put((byte) 0xfe);
+            buffer.putShort((short) 0xfff0);
+            buffer.putInt(0xfffffff0);
+            buffer.putLong(1234567890123L);
+            buffer.put(new byte[]{(byte) 192, (byte) 168, 1, (byte) (10 + i)});
+            buffer.put(new byte[]{0x20, 0x01, 0x0d, (byte) 0xb8, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 1});
+            buffer.put("abc".getBytes());
+            buffer.put(new byte[]{1, 2, 3});
+        }
+        data = buffer.array();
+    }
+
+    /**
+     * The per field decoding from a sequentially read buffer that was replaced by the template decoder
+     */
+    private static Object decodeField(NetflowDataType dataType, BinaryBuffer buffer, int length) {
+        int position = buffer.getBuffer().position();
+        try {
+            switch (dataType) {
+                case INTEGER:
+                    Assert.assertTrue(Arrays.asList(1, 2, 4, 8).contains(length));
+                    return length == 8 ? buffer.getBuffer().getLong() : buffer.readUnsigned(length);
+                case FLOAT:
+                    Assert.assertTrue(length == 4 || length == 8);
+                    return length == 8 ? buffer.getBuffer().getDouble() : buffer.getBuffer().getFloat();
+                case MAC_ADDRESS:
+                    Assert.assertEquals(6, length);
+                    StringBuilder sb = new StringBuilder();
+                    for (int i = 0; i < length; i++) {
+                        sb.append(i > 0 ? ":" : "").append(String.format("%02x", buffer.getBuffer().get()));
+                    }
+                    return sb.toString();
+                case BOOLEAN:
+                    Assert.assertEquals(1, length);
+                    return buffer.readUByte() != 0;
+                case IPV4_ADDRESS:
+                    Assert.assertEquals(4, length);
+                    return InetAddress.getByAddress(buffer.readByteArray(length)).getHostAddress();
+                case IPV6_ADDRESS:
+                    Assert.assertEquals(16, length);
+                    return InetAddress.getByAddress(buffer.readByteArray(length)).getHostAddress();
+                default:
+                    return new String(buffer.readByteArray(length), UTF_8);
+            }
+        } catch (Throwable e) {
+            buffer.setPosition(position + length);
+            return "unknown";
+        }
+    }
+
+    private static byte[] getRandomBytes(Random random, int length) {
+        byte[] ret = new byte[length];
+        random.nextBytes(ret);
+        return ret;
+    }
+
+    @Test
+    public void testDecode() {
+        NetflowTemplateDecoder decoder = new NetflowTemplateDecoder(256, template);
+        Assert.assertEquals(41, decoder.getRecordLength());
+
+        List<Map<String, Object>> records = decoder.decode(ByteBuffer.wrap(data), 0, data.length);
+        Assert.assertEquals(2, records.size());
+        for (int i = 0; i < records.size(); i++) {
+            Map<String, Object> record = records.get(i);
+            Assert.assertEquals(template.size() + 1, record.size());
+            Assert.assertEquals("256", record.get(NetflowParser.TEMPLATE_ID));
+            Assert.assertEquals(254L, record.get("protocol"));
+            Assert.assertEquals(65520L, record.get("ip_src_port"));
+            Assert.assertEquals(4294967280L, record.get("in_bytes"));
+            Assert.assertEquals(1234567890123L, record.get("out_bytes"));
+            Assert.assertEquals("192.168.1." + (10 + i), record.get("ip_src_addr"));
+            Assert.assertEquals("2001:db8:0:0:0:0:0:1", record.get("ip_dst_addr"));
+            Assert.assertEquals("abc", record.get("custom"));
+            Assert.assertEquals("unknown", record.get("in_pkts"));
+        }
+    }
+
+    @Test
+    public void testDecodeSameAsPerFieldDecoding() {
+        Random random = new Random(42);
+        for (NetflowDataType dataType : NetflowDataType.values()) {
+            Optional<NetflowFieldType> fieldType = Arrays.stream(NetflowFieldType.values())
+                    .filter(x -> x.getDataType() == dataType)
+                    .findFirst();
+            for (int length = 1; length <= MAX_FIELD_LENGTH; length++) {
+                byte[] bytes = getRandomBytes(random, NUMBER_OF_RECORDS * length);
+                BinaryBuffer buffer = new BinaryBuffer(bytes);
+                String message = dataType + " " + length;
+                if (!fieldType.isPresent()) {
+                    //NOTE: data types without a field type are compared by their readers
+                    ReadNetflowBuffer reader = dataType.getReader(length);
+                    for (int i = 0; i < NUMBER_OF_RECORDS; i++) {
+                        Object expected = decodeField(dataType, buffer, length);
+                        Assert.assertEquals(message, expected, reader == null
+                                ? "unknown"
+                                : reader.apply(ByteBuffer.wrap(bytes), i * length));
+                    }
+                    continue;
+                }
+
+                NetflowField field = new NetflowField(fieldType.get().getTypeCode(), length);
+                List<Map<String, Object>> records = new NetflowTemplateDecoder(256,
+                        Collections.singletonList(field)).decode(ByteBuffer.wrap(bytes), 0, bytes.length);
+                //NOTE: short records at the end are skipped as padding
+                Assert.assertFalse(message, records.isEmpty());
+                for (Map<String, Object> record : records) {
+                    Assert.assertEquals(message, decodeField(dataType, buffer, length), record.get(field.getName()));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testDecodeTruncatedRecord() {
+        NetflowTemplateDecoder decoder = new NetflowTemplateDecoder(256, template);
+        Assert.assertNull(decoder.decode(ByteBuffer.wrap(data), 0, 60));
+    }
+
+    @Test
+    public void testDecodeEmptyTemplate() {
+        NetflowTemplateDecoder decoder = new NetflowTemplateDecoder(256, Arrays.asList());
+        Assert.assertNull(decoder.decode(ByteBuffer.wrap(data), 0, data.length));
+    }
+}
@@ -0,0 +1,81 @@
+package uk.co.gresearch.siembol.parsers.netflow;
+
+import com.google.common.io.Files;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public class NetflowTemplateStoreTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    private String templatesPath;
+    private NetflowTemplateStore store;
+
+    private byte[] readFileFromResource(String filename) throws IOException {
+        ClassLoader classLoader = this.getClass().getClassLoader();
+        File file = new File(classLoader.getResource(filename).getFile());
+        return Files.toByteArray(file);
+    }
+
+    @Before
+    public void setUp() throws IOException {
+        templatesPath = new File(folder.getRoot(), "templates/netflow.txt").getPath();
+        store = new NetflowTemplateStore(Optional.of(templatesPath));
+    }
+
+    @Test
+    public void testPutGet() {
+        List<NetflowField> template = Arrays.asList(new NetflowField(8, 4), new NetflowField(12, 4));
+        Assert.assertFalse(store.get("a|0|256").isPresent());
+        Assert.assertTrue(store.put("a|0|256", template));
+        Assert.assertFalse(store.put("a|0|256", template));
+        Assert.assertEquals(template, store.get("a|0|256").get());
+        Assert.assertEquals(1, store.size());
+
+        NetflowTemplateStore loaded = new NetflowTemplateStore(Optional.of(templatesPath));
+        Assert.assertEquals(1, loaded.size());
+        Assert.assertEquals(template, loaded.get("a|0|256").get());
+    }
+
+    @Test
+    public void testSharedStore() {
+        NetflowTemplateStore shared = NetflowTemplateStore.getSharedStore(Optional.of(templatesPath));
+        Assert.assertSame(shared, NetflowTemplateStore.getSharedStore(Optional.of(templatesPath)));
+        Assert.assertSame(NetflowTemplateStore.getSharedStore(Optional.empty()),
+                NetflowTemplateStore.getSharedStore(Optional.empty()));
+        Assert.assertNotSame(shared, NetflowTemplateStore.getSharedStore(Optional.empty()));
+    }
+
+    @Test
+    public void testTemplatesPersistedByParser() throws IOException {
+        byte[] data = readFileFromResource("example2.netflow9");
+        SiembolNetflowParser parser = new SiembolNetflowParser(new SharedTransportProvider(store));
+        List<Map<String, Object>> ret = parser.parse("10.16.22.254", data);
+        Assert.assertEquals(30, ret.size());
+        Assert.assertTrue(store.size() > 0);
+
+        NetflowTemplateStore loaded = new NetflowTemplateStore(Optional.of(templatesPath));
+        Assert.assertEquals(store.size(), loaded.size());
+        SiembolNetflowParser restarted = new SiembolNetflowParser(new SharedTransportProvider(loaded));
+        Assert.assertEquals(ret, restarted.parse("10.16.22.254", data));
+    }
+
+    @Test
+    public void testInvalidLinesSkipped() throws IOException {
+        Assert.assertTrue(new File(templatesPath).getParentFile().mkdirs());
+        java.nio.file.Files.write(new File(templatesPath).toPath(),
+                Arrays.asList("invalid", "a|0|256\t8:x", "b|0|256\t8:4,12:4"));
+        NetflowTemplateStore loaded = new NetflowTemplateStore(Optional.of(templatesPath));
+        Assert.assertEquals(1, loaded.size());
+        Assert.assertEquals(2, loaded.get("b|0|256").get().size());
+    }
+}
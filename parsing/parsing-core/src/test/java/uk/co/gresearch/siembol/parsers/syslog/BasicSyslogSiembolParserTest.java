@@ -55,6 +55,29 @@ public class BasicSyslogSiembolParserTest {
     @Multiline
     public static String syslogConfigRfc_5424MergeSdElements;
 
+    /**
+     * {
+     *   "parser_attributes": {
+     *     "parser_type": "syslog",
+     *     "syslog_config": {
+     *     "syslog_version": "RFC_5424",
+     *     "timezone": "UTC"
+     *     }
+     *   },
+     *   "parser_prefilters" : [
+     *   {
+     *      "prefilter_name": "deny",
+     *      "matchers" : [
+     *      {
+     *          "field_name" : "original_string",
+     *          "pattern" : ".*Action2=\"deny\".*"
+     *      }]
+     *   }]
+     * }
+     **/
+    @Multiline
+    public static String syslogConfigRfc_5424Prefiltered;
+
     /**
      * {
      *   "parser_attributes": {
@@ -419,5 +442,15 @@ public class BasicSyslogSiembolParserTest {
         Assert.assertEquals("Fields@1.3.6.1.4.1.2620", current1.get("dummy_sd_id"));
         Assert.assertEquals("Fields@1.3.6.1.4.1.2620", current2.get("dummy_sd_id"));
     }
-}
 
+    @Test
+    public void noMergeSdparametersPrefilteredOnce() {
+        syslogParser = factory.create(syslogConfigRfc_5424Prefiltered).getAttributes().getSiembolParser();
+        Assert.assertTrue(syslogParser.parse(multipleSdElementsDummyCheckpoint1.trim().getBytes()).isEmpty());
+        Assert.assertEquals(1, syslogParser.parse(goodSyslogCheckpoint1.trim().getBytes()).size());
+
+        Map<String, Long> dropped = syslogParser.getDroppedMessages();
+        Assert.assertEquals(1, dropped.size());
+        Assert.assertEquals(Long.valueOf(1), dropped.get("deny"));
+    }
+}
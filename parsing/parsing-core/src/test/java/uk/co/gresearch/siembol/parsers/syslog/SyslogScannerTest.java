@@ -0,0 +1,196 @@
+package uk.co.gresearch.siembol.parsers.syslog;
+
+import org.joda.time.DateTimeZone;
+import org.junit.Assert;
+import org.junit.Test;
+import uk.co.gresearch.siembol.parsers.extractors.ParserDateFormat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+public class SyslogScannerTest {
+    private static final List<String> MESSAGES = Arrays.asList(
+            "<85>1 2018-05-22T17:07:41+01:00 172.16.18.101 CP-GW - Log [Fields@1.3.6.1.4.1.2620 Action=\"accept\" " +
+                    "UUid=\"{0x5b04404c,0x10004,0x651210ac,0xc0000000}\" rule=\"14\" rule_name=\"DNS\"]",
+            "<81>1 2018-05-22T03:05:37 172.19.34.31 CP-GW - Alert [Fields@1.3.6.1.4.1.2620 Action=\" \" " +
+                    "Protection Name=\"Packet\\\" \\] Sanity\"]",
+            "<81>1 2018-05-22T03:05:37 172.19.34.31 CP-GW - Alert [Fields@1.3.6.1.4.1.2620 Action=\" \" " +
+                    "Protection Name=\"Packet\" \\] Sanity\"][Fields@1.3.6.1.4.1.2620] BOMabcabc",
+            "<81>1 2018-05-22T03:05:37 172.19.34.31 CP-GW - Alert - BOMabcabc",
+            "<34>Oct 11 22:14:15 mymachine su: 'su root' failed for dummy on /dev/pts/8",
+            "<34>Feb  3 02:04:59 mymachine su: message",
+            "<34>Mar 29 01:30:00 - -",
+            "<190>1 2019-01-15T12:36:05Z mime1-eqld.uberit.net sal - - - SALscanner INFO TEST: [688]",
+            "<85>1 2018-05-22T17:07:41.123456+01:00 172.16.18.101 CP-GW - Log [a@1 x=\"1\"][b@1 y=\"2\"]",
+            "<85>1 2018-03-25T01:30:00.123456 host app 1 2 [a@1 x=\"1\" x=\"2\" y=\"\\\"\"] -",
+            "<85>1 2018-03-25T02:30:00 host app 1 2 []",
+            "<85>10 2018-05-22T17:07:41-11:30 host - - - - message ž with unicode ©",
+            "<85>1 - - - - - -",
+            "<85>1 2018-02-30T17:07:41 - - - - - BOM-",
+            "<0>1 2018-12-31T23:59:59.999999-00:00 hé a p m [idé kéy=\"vé\"] é");
+
+    private final Random random = new Random(42);
+
+    private static void assertSameMessage(SyslogMessage expected, SyslogMessage actual) {
+        Assert.assertEquals(expected.getHeaderVersion(), actual.getHeaderVersion());
+        Assert.assertEquals(expected.getPriority(), actual.getPriority());
+        Assert.assertTrue(Math.abs(expected.getTimestamp() - actual.getTimestamp()) < 1000);
+        Assert.assertEquals(expected.getHostname(), actual.getHostname());
+        Assert.assertEquals(expected.getMsg(), actual.getMsg());
+        Assert.assertEquals(expected.getSdElements(), actual.getSdElements());
+        if (expected.getHeaderVersion() == SyslogParser.RFC_5424_VERSION) {
+            Assert.assertEquals(expected.getAppName(), actual.getAppName());
+            Assert.assertEquals(expected.getProcId(), actual.getProcId());
+            Assert.assertEquals(expected.getMsgId(), actual.getMsgId());
+            Assert.assertEquals(expected.getTimestampStr(), actual.getTimestampStr());
+        }
+    }
+
+    private void assertScannerSameAsParser(SyslogParser parser, SyslogScanner scanner, String message) {
+        SyslogMessage expected;
+        try {
+            expected = parser.parse(message);
+        } catch (Exception e) {
+            expected = null;
+        }
+
+        SyslogMessage actual;
+        try {
+            actual = scanner.scan(message.getBytes(UTF_8));
+        } catch (Exception e) {
+            Assert.assertNull(message, expected);
+            return;
+        }
+
+        if (actual != null) {
+            Assert.assertNotNull(message, expected);
+            assertSameMessage(expected, actual);
+        } else if (MESSAGES.contains(message)) {
+            //NOTE: all valid messages are supported by the scanner
+            Assert.assertNull(message, expected);
+        }
+    }
+
+    private List<String> getMutatedMessages() {
+        String alphabet = " -[]\"\\=<>:.TZ+0123456789aéBOM";
+        List<String> ret = new ArrayList<>(MESSAGES);
+        for (String message : MESSAGES) {
+            for (int i = 0; i < 300; i++) {
+                StringBuilder sb = new StringBuilder(message);
+                int mutations = 1 + random.nextInt(3);
+                for (int j = 0; j < mutations && sb.length() > 0; j++) {
+                    int position = random.nextInt(sb.length());
+                    switch (random.nextInt(3)) {
+                        case 0:
+                            sb.setCharAt(position, alphabet.charAt(random.nextInt(alphabet.length())));
+                            break;
+                        case 1:
+                            sb.insert(position, alphabet.charAt(random.nextInt(alphabet.length())));
+                            break;
+                        default:
+                            sb.deleteCharAt(position);
+                    }
+                }
+                ret.add(sb.toString());
+            }
+        }
+        return ret;
+    }
+
+    @Test
+    public void testScanMessages() {
+        for (String zone : Arrays.asList("UTC", "Europe/London", "America/New_York")) {
+            SyslogParser parser = new SyslogParser(zone);
+            SyslogScanner scanner = new SyslogScanner(DateTimeZone.forID(zone), null);
+            getMutatedMessages().forEach(x -> assertScannerSameAsParser(parser, scanner, x));
+        }
+    }
+
+    @Test
+    public void testScanMessagesDateFormats() {
+        List<ParserDateFormat> dateFormats = Arrays.asList(
+                new ParserDateFormat("yyyy-MM-dd'T'HH:mm:ssXXX", Optional.empty(), Optional.empty()),
+                new ParserDateFormat("yyyy-MM-dd'T'HH:mm:ss", Optional.of("Europe/London"), Optional.empty()));
+        SyslogParser parser = new SyslogParser(dateFormats);
+        SyslogScanner scanner = new SyslogScanner(null, dateFormats);
+        getMutatedMessages().forEach(x -> assertScannerSameAsParser(parser, scanner, x));
+    }
+
+    @Test
+    public void testParseTimestamps() {
+        List<String> timestamps = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            timestamps.add(String.format("%04d-%02d-%02dT%02d:%02d:%02d%s%s",
+                    1960 + random.nextInt(100),
+                    random.nextInt(14),
+                    random.nextInt(33),
+                    random.nextInt(26),
+                    random.nextInt(61),
+                    random.nextInt(61),
+                    random.nextBoolean() ? String.format(".%06d", random.nextInt(1000000)) : "",
+                    random.nextBoolean()
+                            ? String.format("%s%02d:%02d", random.nextBoolean() ? "+" : "-",
+                            random.nextInt(26), random.nextInt(61))
+                            : ""));
+        }
+        timestamps.addAll(Arrays.asList("2018-03-25T01:30:00", "2018-10-28T01:30:00",
+                "2018-03-11T02:30:00", "2018-11-04T01:30:00", "2016-02-29T00:00:00", "2017-02-29T00:00:00"));
+
+        int supported = 0;
+        for (String zone : Arrays.asList("UTC", "Europe/London", "America/New_York")) {
+            DateTimeZone dateTimeZone = DateTimeZone.forID(zone);
+            for (String timestamp : timestamps) {
+                byte[] bytes = timestamp.getBytes(UTF_8);
+                Long actual = SyslogDefaultTimeFormat.parseTimestamp(bytes, 0, bytes.length, dateTimeZone);
+                Long expected;
+                try {
+                    expected = SyslogDefaultTimeFormat.parseTimestamp(timestamp, dateTimeZone);
+                } catch (Exception e) {
+                    expected = null;
+                }
+                if (actual != null) {
+                    Assert.assertEquals(timestamp, expected, actual);
+                    supported++;
+                }
+            }
+        }
+        Assert.assertTrue(supported > 1000);
+    }
+
+    @Test
+    public void testParseBsdTimestamps() {
+        String[] months = {"Jan", "Feb", "Mar", "Apr", "May", "Jun", "Jul", "Aug", "Sep", "Oct", "Nov", "Dec", "Foo"};
+        int supported = 0;
+        for (String zone : Arrays.asList("UTC", "Europe/London", "America/New_York")) {
+            DateTimeZone dateTimeZone = DateTimeZone.forID(zone);
+            for (int i = 0; i < 2000; i++) {
+                int day = random.nextInt(33);
+                String timestamp = String.format("%s %s %02d:%02d:%02d",
+                        months[random.nextInt(months.length)],
+                        day < 10 && random.nextBoolean() ? " " + day : String.format("%02d", day),
+                        random.nextInt(26),
+                        random.nextInt(61),
+                        random.nextInt(61));
+                Long actual = SyslogDefaultTimeFormat.parseBsdTimestamp(timestamp.getBytes(UTF_8), 0, dateTimeZone);
+                Long expected;
+                try {
+                    expected = SyslogDefaultTimeFormat.parseBsdTimestamp(timestamp, dateTimeZone);
+                } catch (Exception e) {
+                    expected = null;
+                }
+                if (actual != null) {
+                    Assert.assertEquals(timestamp, expected, actual);
+                    supported++;
+                } else {
+                    Assert.assertTrue(timestamp, expected == null || timestamp.startsWith("Foo"));
+                }
+            }
+        }
+        Assert.assertTrue(supported > 1000);
+    }
+}
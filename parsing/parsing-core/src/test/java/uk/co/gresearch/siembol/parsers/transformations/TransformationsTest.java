@@ -8,11 +8,19 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import uk.co.gresearch.siembol.common.utils.FieldFilter;
 import uk.co.gresearch.siembol.parsers.model.TransformationDto;
 
 import java.io.IOException;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
 
 public class TransformationsTest {
     private static final ObjectReader JSON_TRANSFORMATION_READER =
@@ -415,4 +423,85 @@ public class TransformationsTest {
         Assert.assertEquals(12345, transformed.get("timestamp"));
     }
 
+    @Test
+    public void testFusedTransformations() throws IOException {
+        List<Transformation> transformations = new ArrayList<>();
+        for (String specification : Arrays.asList(transformationReplaceAll, transformationFieldNameUpperCase,
+                transformationRename, transformationFieldLowerCase, transformationTrim, transformationChomp)) {
+            transformations.add(factory.create(JSON_TRANSFORMATION_READER.readValue(specification)));
+        }
+
+        List<Transformation> fused = TransformationsLibrary.fuse(transformations);
+        Assert.assertEquals(1, fused.size());
+        Assert.assertTrue(fused.get(0) instanceof FusedTransformation);
+
+        log.put("trim_field", "  trim me ");
+        Map<String, Object> expected = TransformationsLibrary.transform(transformations, new HashMap<>(log));
+        Map<String, Object> transformed = TransformationsLibrary.transform(fused, log);
+        Assert.assertEquals(expected, transformed);
+        Assert.assertEquals("trim me", transformed.get("trim_field"));
+        Assert.assertEquals("message", transformed.get("chomp_field"));
+    }
+
+    @Test
+    public void testFusedTransformationsBarrier() throws IOException {
+        List<Transformation> transformations = Arrays.asList(
+                factory.create(JSON_TRANSFORMATION_READER.readValue(transformationReplace)),
+                factory.create(JSON_TRANSFORMATION_READER.readValue(transformationTrim)),
+                factory.create(JSON_TRANSFORMATION_READER.readValue(transformationFilter)),
+                factory.create(JSON_TRANSFORMATION_READER.readValue(transformationDelete)));
+
+        List<Transformation> fused = TransformationsLibrary.fuse(transformations);
+        Assert.assertEquals(3, fused.size());
+        Assert.assertTrue(fused.get(0) instanceof FusedTransformation);
+        Assert.assertSame(transformations.get(2), fused.get(1));
+        Assert.assertSame(transformations.get(3), fused.get(2));
+    }
+
+    @Test
+    public void testFusedSameAsSequential() {
+        Random random = new Random(42);
+        String[] names = {"a", "b", "c", "A", "B", "a b", "b c", "x"};
+        for (int i = 0; i < 2000; i++) {
+            List<Transformation> transformations = new ArrayList<>();
+            int numberOfTransformations = 2 + random.nextInt(5);
+            for (int j = 0; j < numberOfTransformations; j++) {
+                transformations.add(getRandomTransformation(random, names));
+            }
+
+            Map<String, Object> current = new LinkedHashMap<>();
+            int numberOfFields = random.nextInt(names.length);
+            for (int j = 0; j < numberOfFields; j++) {
+                current.put(names[random.nextInt(names.length)], random.nextBoolean() ? " Value\n" : j);
+            }
+
+            Map<String, Object> expected = TransformationsLibrary.transform(transformations, new HashMap<>(current));
+            Map<String, Object> actual = new FusedTransformation(transformations.stream()
+                    .map(x -> (FieldTransformation) x)
+                    .collect(Collectors.toList()))
+                    .apply(new HashMap<>(current));
+            Assert.assertEquals(expected, actual);
+        }
+    }
+
+    private static Transformation getRandomTransformation(Random random, String[] names) {
+        String name = names[random.nextInt(names.length)];
+        String other = names[random.nextInt(names.length)];
+        FieldFilter filter = x -> x.equals(name) || x.equals(other);
+        switch (random.nextInt(6)) {
+            case 0:
+                return FieldTransformation.fieldName(x -> x.equals(name) ? other : x);
+            case 1:
+                return FieldTransformation.fieldName(x -> x.replace(" ", "_"));
+            case 2:
+                return FieldTransformation.fieldName(random.nextBoolean() ? String::toUpperCase : String::toLowerCase);
+            case 3:
+                return FieldTransformation.deleteFields(filter);
+            case 4:
+                return FieldTransformation.value(TransformationsLibrary::trim, filter);
+            default:
+                return FieldTransformation.value(TransformationsLibrary::chomp, filter);
+        }
+    }
+
 }
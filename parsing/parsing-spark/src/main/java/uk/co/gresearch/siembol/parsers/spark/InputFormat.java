@@ -0,0 +1,19 @@
+package uk.co.gresearch.siembol.parsers.spark;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public enum InputFormat {
+    @JsonProperty("text") TEXT("text"),
+    @JsonProperty("sequence") SEQUENCE("sequence");
+
+    private final String name;
+
+    InputFormat(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
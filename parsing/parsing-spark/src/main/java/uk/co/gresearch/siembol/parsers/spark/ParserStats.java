@@ -0,0 +1,48 @@
+package uk.co.gresearch.siembol.parsers.spark;
+
+import java.io.Serializable;
+
+public class ParserStats implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private static final double NANOS_IN_SECOND = 1_000_000_000.0;
+    private long inputMessages;
+    private long parsedMessages;
+    private long errorMessages;
+    private long parsingTimeNanos;
+
+    public void add(long inputMessages, long parsedMessages, long errorMessages, long parsingTimeNanos) {
+        this.inputMessages += inputMessages;
+        this.parsedMessages += parsedMessages;
+        this.errorMessages += errorMessages;
+        this.parsingTimeNanos += parsingTimeNanos;
+    }
+
+    public ParserStats merge(ParserStats other) {
+        add(other.inputMessages, other.parsedMessages, other.errorMessages, other.parsingTimeNanos);
+        return this;
+    }
+
+    public long getInputMessages() {
+        return inputMessages;
+    }
+
+    public long getParsedMessages() {
+        return parsedMessages;
+    }
+
+    public long getErrorMessages() {
+        return errorMessages;
+    }
+
+    public long getParsingTimeNanos() {
+        return parsingTimeNanos;
+    }
+
+    public double getThroughputPerSecond() {
+        return parsingTimeNanos == 0 ? 0 : inputMessages * NANOS_IN_SECOND / parsingTimeNanos;
+    }
+
+    public double getErrorRate() {
+        return inputMessages == 0 ? 0 : (double) errorMessages / inputMessages;
+    }
+}
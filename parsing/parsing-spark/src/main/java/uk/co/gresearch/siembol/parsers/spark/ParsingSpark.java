@@ -0,0 +1,45 @@
+package uk.co.gresearch.siembol.parsers.spark;
+import org.apache.spark.SparkConf;
+import org.apache.spark.api.java.JavaSparkContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.Base64;
+
+public class ParsingSpark {
+    private static final String OUT_MSG = "Parsers statistics: %s\n";
+    private static final String APP_NAME = "ParsingSpark";
+    private static final String MISSING_ATTRIBUTES = "Missing parsing attributes";
+    public static void main(String[] args) throws Exception {
+        if (args.length != 1 || args[0] == null) {
+            throw new IllegalArgumentException(MISSING_ATTRIBUTES);
+        }
+
+        String input = new String(Base64.getDecoder().decode(args[0]));
+        ParsingSparkAttributes attributes = new ObjectMapper()
+                .readerFor(ParsingSparkAttributes.class)
+                .readValue(input);
+
+        JavaSparkContext sc = new JavaSparkContext(new SparkConf()
+                .setAppName(APP_NAME));
+
+        ParsingSparkJob job = new ParsingSparkJob.Builder()
+                .sparkContext(sc)
+                .parsingApp(attributes.getParsingApp())
+                .parserConfigs(attributes.getParserConfigs())
+                .inputFormat(attributes.getInputFormat())
+                .suffix(attributes.getSuffix())
+                .metadata(attributes.getMetadata())
+                .logPath(attributes.getLogPath())
+                .outputPath(attributes.getOutputPath())
+                .fromDate(attributes.getFromDate())
+                .toDate(attributes.getToDate())
+                .build();
+
+        ParsingSparkStats ret = job.eval();
+        sc.close();
+
+        System.out.printf(OUT_MSG, new ObjectMapper()
+                .writerWithDefaultPrettyPrinter()
+                .writeValueAsString(ret.getParsersStats()));
+    }
+}
@@ -0,0 +1,106 @@
+package uk.co.gresearch.siembol.parsers.spark;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonSetter;
+import com.fasterxml.jackson.databind.JsonNode;
+
+public class ParsingSparkAttributes {
+    @JsonProperty("parsing_app")
+    private String parsingApp;
+    @JsonProperty("parser_configs")
+    private String parserConfigs;
+    @JsonProperty("from_date")
+    private String fromDate;
+    @JsonProperty("to_date")
+    private String toDate;
+    private String suffix = "snappy";
+    private String metadata = "";
+    @JsonProperty("input_format")
+    private InputFormat inputFormat = InputFormat.TEXT;
+    @JsonProperty("log_path")
+    private String logPath;
+    @JsonProperty("output_path")
+    private String outputPath;
+
+    public String getParsingApp() {
+        return parsingApp;
+    }
+
+    public void setParsingApp(String parsingApp) {
+        this.parsingApp = parsingApp;
+    }
+
+    @JsonSetter("parsing_app")
+    public void setParsingApp(JsonNode parsingApp) {
+        this.parsingApp = parsingApp.toString();
+    }
+
+    public String getParserConfigs() {
+        return parserConfigs;
+    }
+
+    public void setParserConfigs(String parserConfigs) {
+        this.parserConfigs = parserConfigs;
+    }
+
+    @JsonSetter("parser_configs")
+    public void setParserConfigs(JsonNode parserConfigs) {
+        this.parserConfigs = parserConfigs.toString();
+    }
+
+    public String getFromDate() {
+        return fromDate;
+    }
+
+    public void setFromDate(String fromDate) {
+        this.fromDate = fromDate;
+    }
+
+    public String getToDate() {
+        return toDate;
+    }
+
+    public void setToDate(String toDate) {
+        this.toDate = toDate;
+    }
+
+    public String getSuffix() {
+        return suffix;
+    }
+
+    public void setSuffix(String suffix) {
+        this.suffix = suffix;
+    }
+
+    public String getMetadata() {
+        return metadata;
+    }
+
+    public void setMetadata(String metadata) {
+        this.metadata = metadata;
+    }
+
+    public InputFormat getInputFormat() {
+        return inputFormat;
+    }
+
+    public void setInputFormat(InputFormat inputFormat) {
+        this.inputFormat = inputFormat;
+    }
+
+    public String getLogPath() {
+        return logPath;
+    }
+
+    public void setLogPath(String logPath) {
+        this.logPath = logPath;
+    }
+
+    public String getOutputPath() {
+        return outputPath;
+    }
+
+    public void setOutputPath(String outputPath) {
+        this.outputPath = outputPath;
+    }
+}
@@ -0,0 +1,73 @@
+package uk.co.gresearch.siembol.parsers.spark;
+
+import scala.Tuple2;
+import uk.co.gresearch.siembol.parsers.application.factory.ParsingApplicationFactoryImpl;
+import uk.co.gresearch.siembol.parsers.application.factory.ParsingApplicationFactoryResult;
+import uk.co.gresearch.siembol.parsers.application.parsing.ParsingApplicationParser;
+import uk.co.gresearch.siembol.parsers.application.parsing.ParsingApplicationResult;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ParsingSparkEngine implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private transient ParsingApplicationParser parser;
+    private String parsingApp;
+    private String parserConfigs;
+
+    public ParsingSparkEngine(String parsingApp, String parserConfigs) throws Exception {
+        this.parsingApp = parsingApp;
+        this.parserConfigs = parserConfigs;
+        parser = createParser(parsingApp, parserConfigs);
+    }
+
+    public List<Tuple2<String, String>> parse(String metadata, byte[] message, ParsingStatsAccumulator stats) {
+        long start = System.nanoTime();
+        ArrayList<ParsingApplicationResult> results = parser.parse(metadata, message);
+        long parsingTime = System.nanoTime() - start;
+
+        List<Tuple2<String, String>> ret = new ArrayList<>();
+        String inputParser = parser.getName();
+        for (ParsingApplicationResult result : results) {
+            String resultParser = result.getSourceType() == null ? parser.getName() : result.getSourceType();
+            if (ret.isEmpty()) {
+                inputParser = resultParser;
+            }
+
+            boolean isError = parser.getErrorTopic().equals(result.getTopic());
+            long numMessages = result.getMessages().size();
+            stats.add(resultParser, 0, isError ? 0 : numMessages, isError ? numMessages : 0, 0);
+            result.getMessages().forEach(x -> ret.add(new Tuple2<>(result.getTopic(), x)));
+        }
+
+        stats.add(inputParser, 1, 0, 0, parsingTime);
+        return ret;
+    }
+
+    private static ParsingApplicationParser createParser(String parsingApp, String parserConfigs) throws Exception {
+        ParsingApplicationFactoryResult result = new ParsingApplicationFactoryImpl().create(parsingApp, parserConfigs);
+        if (result.getStatusCode() != ParsingApplicationFactoryResult.StatusCode.OK) {
+            throw new IllegalArgumentException(result.getAttributes().getMessage());
+        }
+        return result.getAttributes().getApplicationParser();
+    }
+
+    private void writeObject(ObjectOutputStream os) throws IOException {
+        os.writeObject(parsingApp);
+        os.writeObject(parserConfigs);
+    }
+
+    private void readObject(ObjectInputStream is) throws IOException, ClassNotFoundException {
+        parsingApp = (String) is.readObject();
+        parserConfigs = (String) is.readObject();
+        try {
+            parser = createParser(parsingApp, parserConfigs);
+        } catch (Exception e) {
+            throw new IOException(e);
+        }
+    }
+}
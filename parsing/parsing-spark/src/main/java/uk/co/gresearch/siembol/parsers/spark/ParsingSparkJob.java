@@ -0,0 +1,162 @@
+package uk.co.gresearch.siembol.parsers.spark;
+
+import org.apache.hadoop.io.BytesWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.spark.api.java.JavaPairRDD;
+import org.apache.spark.api.java.JavaSparkContext;
+import scala.Tuple2;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ParsingSparkJob implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private static final String STATS_ACCUMULATOR_NAME = "parsing_stats";
+    private final transient JavaSparkContext sc;
+    private final JavaPairRDD<String, byte[]> rdd;
+    private final ParsingSparkEngine parsingSparkEngine;
+    private final String outputPath;
+
+    public ParsingSparkJob(Builder builder) {
+        this.sc = builder.sc;
+        this.rdd = builder.rdd;
+        this.parsingSparkEngine = builder.parsingSparkEngine;
+        this.outputPath = builder.outputPath;
+    }
+
+    ParsingSparkStats eval() {
+        ParsingStatsAccumulator stats = new ParsingStatsAccumulator();
+        sc.sc().register(stats, STATS_ACCUMULATOR_NAME);
+
+        rdd
+                .flatMapToPair(x -> parsingSparkEngine.parse(x._1(), x._2(), stats).iterator())
+                .mapToPair(x -> new Tuple2<>(new Text(x._1()), new Text(x._2())))
+                .saveAsHadoopFile(outputPath, Text.class, Text.class, TopicTextOutputFormat.class);
+        return stats.value();
+    }
+
+    public static class Builder {
+        private static final String MISSING_ARGUMENTS_MSG = "Missing arguments for parsing spark job";
+        private static final String WRONG_DATE_MSG = "date_from should not be after date_to";
+        private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE;
+        private String parsingApp;
+        private String parserConfigs;
+        private String logPath;
+        private String outputPath;
+        private String suffix = "snappy";
+        private String metadata = "";
+        private InputFormat inputFormat = InputFormat.TEXT;
+        private JavaSparkContext sc;
+        private JavaPairRDD<String, byte[]> rdd;
+        private String fromDate;
+        private String toDate;
+        private ParsingSparkEngine parsingSparkEngine;
+
+        public Builder parsingApp(String parsingApp) {
+            this.parsingApp = parsingApp;
+            return this;
+        }
+
+        public Builder parserConfigs(String parserConfigs) {
+            this.parserConfigs = parserConfigs;
+            return this;
+        }
+
+        public Builder sparkContext(JavaSparkContext sc) {
+            this.sc = sc;
+            return this;
+        }
+
+        public Builder logPath(String logPath) {
+            this.logPath = logPath;
+            return this;
+        }
+
+        public Builder outputPath(String outputPath) {
+            this.outputPath = outputPath;
+            return this;
+        }
+
+        public Builder suffix(String suffix) {
+            this.suffix = suffix;
+            return this;
+        }
+
+        public Builder metadata(String metadata) {
+            this.metadata = metadata;
+            return this;
+        }
+
+        public Builder inputFormat(InputFormat inputFormat) {
+            this.inputFormat = inputFormat;
+            return this;
+        }
+
+        public Builder fromDate(String fromDate) {
+            this.fromDate = fromDate;
+            return this;
+        }
+
+        public Builder toDate(String toDate) {
+            this.toDate = toDate;
+            return this;
+        }
+
+        public Builder rdd(JavaPairRDD<String, byte[]> rdd) {
+            this.rdd = rdd;
+            return this;
+        }
+
+        public ParsingSparkJob build() throws Exception {
+            if (parsingApp == null
+                    || parserConfigs == null
+                    || sc == null
+                    || outputPath == null
+                    || metadata == null
+                    || inputFormat == null
+                    || (rdd == null && (logPath == null || fromDate == null || toDate == null))) {
+                throw new IllegalArgumentException(MISSING_ARGUMENTS_MSG);
+            }
+
+            parsingSparkEngine = new ParsingSparkEngine(parsingApp, parserConfigs);
+            if (rdd == null) {
+                String paths = String.join(",", getPaths(logPath, suffix, fromDate, toDate));
+                rdd = inputFormat == InputFormat.SEQUENCE ? readSequenceFiles(paths) : readTextFiles(paths);
+            }
+            return new ParsingSparkJob(this);
+        }
+
+        private JavaPairRDD<String, byte[]> readTextFiles(String paths) {
+            final String currentMetadata = metadata;
+            return sc.textFile(paths)
+                    .filter(x -> !x.isEmpty())
+                    .mapToPair(x -> new Tuple2<>(currentMetadata, x.getBytes(StandardCharsets.UTF_8)));
+        }
+
+        private JavaPairRDD<String, byte[]> readSequenceFiles(String paths) {
+            final String currentMetadata = metadata;
+            return sc.sequenceFile(paths, Text.class, BytesWritable.class)
+                    .mapToPair(x -> new Tuple2<>(
+                            x._1() == null || x._1().getLength() == 0 ? currentMetadata : x._1().toString(),
+                            x._2().copyBytes()));
+        }
+
+        private List<String> getPaths(String logPrefix, String suffix, String fromDate, String toDate) {
+            List<String> paths = new ArrayList<>();
+            LocalDate start = LocalDate.from(DATE_FORMATTER.parse(fromDate));
+            LocalDate end = LocalDate.from(DATE_FORMATTER.parse(toDate));
+            if (start.isAfter(end)) {
+                throw new IllegalArgumentException(WRONG_DATE_MSG);
+            }
+
+            for (LocalDate date = start; !date.isAfter(end); date = date.plusDays(1)) {
+                paths.add(String.format("%s/%s/*.%s", logPrefix, DATE_FORMATTER.format(date), suffix));
+            }
+            return paths;
+        }
+    }
+}
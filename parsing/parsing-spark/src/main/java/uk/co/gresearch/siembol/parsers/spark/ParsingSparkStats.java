@@ -0,0 +1,28 @@
+package uk.co.gresearch.siembol.parsers.spark;
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class ParsingSparkStats implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private final TreeMap<String, ParserStats> parsersStats = new TreeMap<>();
+
+    public void add(String parser, long inputMessages, long parsedMessages, long errorMessages, long parsingTimeNanos) {
+        parsersStats.computeIfAbsent(parser, x -> new ParserStats())
+                .add(inputMessages, parsedMessages, errorMessages, parsingTimeNanos);
+    }
+
+    public ParsingSparkStats merge(ParsingSparkStats other) {
+        other.parsersStats.forEach((k, v) -> parsersStats.computeIfAbsent(k, x -> new ParserStats()).merge(v));
+        return this;
+    }
+
+    public boolean isEmpty() {
+        return parsersStats.isEmpty();
+    }
+
+    public Map<String, ParserStats> getParsersStats() {
+        return parsersStats;
+    }
+}
@@ -0,0 +1,44 @@
+package uk.co.gresearch.siembol.parsers.spark;
+
+import org.apache.spark.util.AccumulatorV2;
+
+public class ParsingStatsAccumulator extends AccumulatorV2<ParsingSparkStats, ParsingSparkStats> {
+    private static final long serialVersionUID = 1L;
+    private ParsingSparkStats stats = new ParsingSparkStats();
+
+    @Override
+    public boolean isZero() {
+        return stats.isEmpty();
+    }
+
+    @Override
+    public AccumulatorV2<ParsingSparkStats, ParsingSparkStats> copy() {
+        ParsingStatsAccumulator ret = new ParsingStatsAccumulator();
+        ret.stats.merge(stats);
+        return ret;
+    }
+
+    @Override
+    public void reset() {
+        stats = new ParsingSparkStats();
+    }
+
+    @Override
+    public void add(ParsingSparkStats other) {
+        stats.merge(other);
+    }
+
+    public void add(String parser, long inputMessages, long parsedMessages, long errorMessages, long parsingTimeNanos) {
+        stats.add(parser, inputMessages, parsedMessages, errorMessages, parsingTimeNanos);
+    }
+
+    @Override
+    public void merge(AccumulatorV2<ParsingSparkStats, ParsingSparkStats> other) {
+        stats.merge(other.value());
+    }
+
+    @Override
+    public ParsingSparkStats value() {
+        return stats;
+    }
+}
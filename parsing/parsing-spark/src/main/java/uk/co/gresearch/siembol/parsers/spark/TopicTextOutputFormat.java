@@ -0,0 +1,18 @@
+package uk.co.gresearch.siembol.parsers.spark;
+
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapred.lib.MultipleTextOutputFormat;
+
+public class TopicTextOutputFormat extends MultipleTextOutputFormat<Text, Text> {
+    private static final String FILE_NAME_FORMAT = "%s/%s";
+
+    @Override
+    protected String generateFileNameForKeyValue(Text topic, Text message, String name) {
+        return String.format(FILE_NAME_FORMAT, topic.toString(), name);
+    }
+
+    @Override
+    protected Text generateActualKey(Text topic, Text message) {
+        return null;
+    }
+}
@@ -0,0 +1,123 @@
+package uk.co.gresearch.siembol.parsers.spark;
+
+import org.adrianwalker.multilinestring.Multiline;
+import org.apache.commons.lang3.SerializationUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import scala.Tuple2;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+public class ParsingSparkEngineTest {
+    /**
+     *{
+     *   "parsing_app_name": "test",
+     *   "parsing_app_version": 1,
+     *   "parsing_app_author": "dummy",
+     *   "parsing_app_description": "Description of parser application",
+     *   "parsing_app_settings": {
+     *     "input_topics": [
+     *       "secret"
+     *     ],
+     *     "error_topic": "error",
+     *     "input_parallelism": 1,
+     *     "parsing_parallelism": 1,
+     *     "output_parallelism": 1,
+     *     "parse_metadata": true,
+     *     "parsing_app_type": "single_parser"
+     *   },
+     *   "parsing_settings": {
+     *     "single_parser": {
+     *       "parser_name": "single",
+     *       "output_topic": "output"
+     *     }
+     *   }
+     * }
+     **/
+    @Multiline
+    public static String simpleSingleApplicationParser;
+
+    /**
+     * {
+     *   "parsers_version": 1,
+     *   "parsers_configurations": [
+     *     {
+     *       "parser_description": "for testing single app parser",
+     *       "parser_version": 2,
+     *       "parser_name": "single",
+     *       "parser_author": "dummy",
+     *       "parser_attributes": {
+     *         "parser_type": "generic"
+     *       }
+     *     }
+     *   ]
+     * }
+     **/
+    @Multiline
+    public static String testParsersConfigs;
+
+    private ParsingSparkEngine engine;
+    private ParsingStatsAccumulator stats;
+    private final byte[] message = "dummy message".getBytes(StandardCharsets.UTF_8);
+
+    @Before
+    public void setUp() throws Exception {
+        engine = new ParsingSparkEngine(simpleSingleApplicationParser, testParsersConfigs);
+        stats = new ParsingStatsAccumulator();
+    }
+
+    @Test
+    public void parseOK() {
+        List<Tuple2<String, String>> ret = engine.parse("{\"a\":\"b\"}", message, stats);
+        Assert.assertEquals(1, ret.size());
+        Assert.assertEquals("output", ret.get(0)._1());
+        Assert.assertTrue(ret.get(0)._2().contains("\"original_string\":\"dummy message\""));
+
+        ParserStats parserStats = stats.value().getParsersStats().get("single");
+        Assert.assertEquals(1, parserStats.getInputMessages());
+        Assert.assertEquals(1, parserStats.getParsedMessages());
+        Assert.assertEquals(0, parserStats.getErrorMessages());
+        Assert.assertEquals(0, parserStats.getErrorRate(), 0.0001);
+        Assert.assertTrue(parserStats.getParsingTimeNanos() > 0);
+    }
+
+    @Test
+    public void parseError() {
+        List<Tuple2<String, String>> ret = engine.parse("INVALID", message, stats);
+        Assert.assertEquals(1, ret.size());
+        Assert.assertEquals("error", ret.get(0)._1());
+
+        ParserStats parserStats = stats.value().getParsersStats().get("test");
+        Assert.assertEquals(1, parserStats.getInputMessages());
+        Assert.assertEquals(0, parserStats.getParsedMessages());
+        Assert.assertEquals(1, parserStats.getErrorMessages());
+        Assert.assertEquals(1, parserStats.getErrorRate(), 0.0001);
+    }
+
+    @Test
+    public void accumulatorMerge() {
+        engine.parse("{}", message, stats);
+        ParsingStatsAccumulator other = (ParsingStatsAccumulator) stats.copy();
+        engine.parse("{}", message, other);
+        stats.merge(other);
+
+        Assert.assertEquals(3, stats.value().getParsersStats().get("single").getInputMessages());
+        stats.reset();
+        Assert.assertTrue(stats.isZero());
+    }
+
+    @Test
+    public void serializableTest() {
+        ParsingSparkEngine clone = SerializationUtils.clone(engine);
+        List<Tuple2<String, String>> ret = clone.parse("{}", message, stats);
+        Assert.assertEquals(1, ret.size());
+        Assert.assertEquals("output", ret.get(0)._1());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidParsingApp() throws Exception {
+        new ParsingSparkEngine("INVALID", testParsersConfigs);
+    }
+}
@@ -0,0 +1,86 @@
+package uk.co.gresearch.siembol.parsers.storm;
+
+import uk.co.gresearch.siembol.parsers.application.parsing.ParsingApplicationParser;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Named counters of a parsing application that are kept after an update of its parser.
+ * A replaced parser can still process its last message, so its counts are merged
+ * by {@link #mergeReplacedParsers()} called before the next message is processed.
+ * The counters of a parser are looked up once when the parser is set and
+ * the counts are read without locking.
+ */
+class ParserCounters {
+    private static class State {
+        private final Map<String, Long> mergedCounts;
+        private final List<Map<String, LongSupplier>> replacedCounters;
+        private final Map<String, LongSupplier> counters;
+
+        State(Map<String, Long> mergedCounts,
+              List<Map<String, LongSupplier>> replacedCounters,
+              Map<String, LongSupplier> counters) {
+            this.mergedCounts = mergedCounts;
+            this.replacedCounters = replacedCounters;
+            this.counters = counters;
+        }
+    }
+
+    private final String metricFormat;
+    private final Function<ParsingApplicationParser, Map<String, LongSupplier>> countersFunction;
+    private volatile State state = new State(Collections.emptyMap(), Collections.emptyList(), Collections.emptyMap());
+
+    ParserCounters(String metricFormat,
+                   Function<ParsingApplicationParser, Map<String, LongSupplier>> countersFunction) {
+        this.metricFormat = metricFormat;
+        this.countersFunction = countersFunction;
+    }
+
+    String getMetricFormat() {
+        return metricFormat;
+    }
+
+    synchronized Set<String> setParser(ParsingApplicationParser parser) {
+        Map<String, LongSupplier> counters = countersFunction.apply(parser);
+        List<Map<String, LongSupplier>> replacedCounters = new ArrayList<>(state.replacedCounters);
+        if (!state.counters.isEmpty()) {
+            replacedCounters.add(state.counters);
+        }
+
+        state = new State(state.mergedCounts, replacedCounters, counters);
+        return counters.keySet();
+    }
+
+    void mergeReplacedParsers() {
+        if (state.replacedCounters.isEmpty()) {
+            return;
+        }
+
+        synchronized (this) {
+            Map<String, Long> mergedCounts = new HashMap<>(state.mergedCounts);
+            state.replacedCounters.forEach(x -> x.forEach((k, v) -> mergedCounts.merge(k, v.getAsLong(), Long::sum)));
+            state = new State(mergedCounts, Collections.emptyList(), state.counters);
+        }
+    }
+
+    long getCount(String name) {
+        State current = state;
+        long ret = current.mergedCounts.getOrDefault(name, 0L);
+        for (Map<String, LongSupplier> replaced : current.replacedCounters) {
+            LongSupplier counter = replaced.get(name);
+            if (counter != null) {
+                ret += counter.getAsLong();
+            }
+        }
+
+        LongSupplier counter = current.counters.get(name);
+        return counter != null ? ret + counter.getAsLong() : ret;
+    }
+}
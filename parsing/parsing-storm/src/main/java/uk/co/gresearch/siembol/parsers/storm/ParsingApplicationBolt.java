@@ -1,5 +1,7 @@
 package uk.co.gresearch.siembol.parsers.storm;
 
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.apache.storm.task.OutputCollector;
 import org.apache.storm.task.TopologyContext;
@@ -10,10 +12,13 @@ import org.apache.storm.tuple.Tuple;
 import org.apache.storm.tuple.Values;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import uk.co.gresearch.siembol.common.error.ErrorMessage;
+import uk.co.gresearch.siembol.common.error.ErrorType;
 import uk.co.gresearch.siembol.common.model.StormParsingApplicationAttributesDto;
 import uk.co.gresearch.siembol.common.storm.KafkaBatchWriterMessage;
 import uk.co.gresearch.siembol.common.storm.KafkaBatchWriterMessages;
 import uk.co.gresearch.siembol.common.model.ZookeeperAttributesDto;
+import uk.co.gresearch.siembol.common.utils.EventFormat;
 import uk.co.gresearch.siembol.common.zookeper.ZookeeperConnector;
 import uk.co.gresearch.siembol.common.zookeper.ZookeeperConnectorFactory;
 import uk.co.gresearch.siembol.common.zookeper.ZookeeperConnectorFactoryImpl;
@@ -21,12 +26,15 @@ import uk.co.gresearch.siembol.parsers.application.factory.ParsingApplicationFac
 import uk.co.gresearch.siembol.parsers.application.factory.ParsingApplicationFactoryAttributes;
 import uk.co.gresearch.siembol.parsers.application.factory.ParsingApplicationFactoryImpl;
 import uk.co.gresearch.siembol.parsers.application.factory.ParsingApplicationFactoryResult;
+import uk.co.gresearch.siembol.parsers.application.parsing.MetadataCache;
 import uk.co.gresearch.siembol.parsers.application.parsing.ParsingApplicationParser;
 import uk.co.gresearch.siembol.parsers.application.parsing.ParsingApplicationResult;
 
 import java.lang.invoke.MethodHandles;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
 
 public class ParsingApplicationBolt extends BaseRichBolt {
     private static final long serialVersionUID = 1L;
@@ -42,20 +50,66 @@ public class ParsingApplicationBolt extends BaseRichBolt {
     private static final String PARSERS_UPDATE_START = "Parser config update start";
     private static final String PARSERS_UPDATE_COMPLETED = "Parser config update completed";
     private static final String INVALID_TYPE_IN_TUPLE = "Invalid type in tuple";
+    private static final String UNKNOWN_TOPIC_MSG = "No parsing application for the topic: %s";
+    private static final String DUPLICATE_TOPIC_MSG = "Multiple parsing applications for the topic: %s";
+    private static final String MESSAGES_METRIC_FORMAT = "parsing_app_%s_messages";
+    private static final String ERRORS_METRIC_FORMAT = "parsing_app_%s_errors";
+    private static final String DROPPED_METRIC_FORMAT = "parsing_app_%s_prefilter_%s_dropped";
+    private static final String PATTERN_HITS_METRIC_FORMAT = "parsing_app_%s_pattern_%s_hits";
+    private static final String ROUTE_HITS_METRIC_FORMAT = "parsing_app_%s_route_%s_hits";
+    private static final String METADATA_CACHE_METRIC_FORMAT = "parsing_app_%s_metadata_cache_%s";
+    private static final String METADATA_CACHE_HIT_RATIO_METRIC_FORMAT = "parsing_app_%s_metadata_cache_hit_ratio";
+    private static final String METADATA_CACHE_HITS = "hits";
+    private static final String METADATA_CACHE_MISSES = "misses";
 
-    private final AtomicReference<ParsingApplicationParser> parsingApplicationParser = new AtomicReference<>();
     private final ZookeeperAttributesDto zookeperAttributes;
-    private final String parsingAppSpecification;
+    private final ArrayList<String> parsingAppSpecifications = new ArrayList<>();
+    private final ArrayList<String> parsingAppNames = new ArrayList<>();
+    private final HashMap<String, Integer> topicsToApplications = new HashMap<>();
+    private final boolean byteArrayEvents;
+    private final EventFormat eventsFormat;
 
     private OutputCollector collector;
     private ZookeeperConnector zookeeperConnector;
     private final ZookeeperConnectorFactory zookeeperConnectorFactory;
+    private ArrayList<AtomicReference<ParsingApplicationParser>> parsingApplicationParsers;
+    private ArrayList<Counter> messagesCounters;
+    private ArrayList<Counter> errorsCounters;
+    private TopologyContext topologyContext;
+    private ArrayList<List<ParserCounters>> parsersCounters;
+    private Set<String> countersMetrics;
 
     ParsingApplicationBolt(StormParsingApplicationAttributesDto attributes,
                            ParsingApplicationFactoryAttributes parsingAttributes,
                            ZookeeperConnectorFactory zookeeperConnectorFactory) throws Exception {
+        this(attributes, Collections.singletonList(parsingAttributes), zookeeperConnectorFactory);
+        //NOTE: a single parsing application parses messages from all topics
+        topicsToApplications.clear();
+    }
+
+    ParsingApplicationBolt(StormParsingApplicationAttributesDto attributes,
+                           List<ParsingApplicationFactoryAttributes> parsingAttributes,
+                           ZookeeperConnectorFactory zookeeperConnectorFactory) throws Exception {
         this.zookeperAttributes = attributes.getZookeeperAttributes();
-        this.parsingAppSpecification = parsingAttributes.getApplicationParserSpecification();
+        for (int i = 0; i < parsingAttributes.size(); i++) {
+            ParsingApplicationFactoryAttributes current = parsingAttributes.get(i);
+            parsingAppSpecifications.add(current.getApplicationParserSpecification());
+            parsingAppNames.add(current.getName());
+            if (current.getInputTopics() == null) {
+                continue;
+            }
+            for (String topic : current.getInputTopics()) {
+                if (topicsToApplications.put(topic, i) != null) {
+                    throw new IllegalArgumentException(String.format(DUPLICATE_TOPIC_MSG, topic));
+                }
+            }
+        }
+        this.byteArrayEvents = attributes.getStormAttributes() != null
+                && Boolean.TRUE.equals(attributes.getStormAttributes().getByteArrayEvents());
+        this.eventsFormat = attributes.getKafkaBatchWriterAttributes() != null
+                && attributes.getKafkaBatchWriterAttributes().getEventsFormat() != null
+                ? attributes.getKafkaBatchWriterAttributes().getEventsFormat()
+                : EventFormat.JSON;
         this.zookeeperConnectorFactory = zookeeperConnectorFactory;
     }
 
@@ -64,16 +118,50 @@ public class ParsingApplicationBolt extends BaseRichBolt {
         this(attributes, parsingAttributes, new ZookeeperConnectorFactoryImpl());
     }
 
+    public ParsingApplicationBolt(StormParsingApplicationAttributesDto attributes,
+                                  List<ParsingApplicationFactoryAttributes> parsingAttributes) throws Exception {
+        this(attributes, parsingAttributes, new ZookeeperConnectorFactoryImpl());
+    }
+
     @SuppressWarnings("rawtypes")
     @Override
     public void prepare(Map map, TopologyContext topologyContext, OutputCollector outputCollector) {
         this.collector = outputCollector;
+        this.topologyContext = topologyContext;
+        parsingApplicationParsers = new ArrayList<>();
+        messagesCounters = new ArrayList<>();
+        errorsCounters = new ArrayList<>();
+        parsersCounters = new ArrayList<>();
+        countersMetrics = ConcurrentHashMap.newKeySet();
+        for (String name : parsingAppNames) {
+            parsingApplicationParsers.add(new AtomicReference<>());
+            ParserCounters metadataCacheCounters = new ParserCounters(METADATA_CACHE_METRIC_FORMAT,
+                    ParsingApplicationBolt::getMetadataCacheCounters);
+            parsersCounters.add(Arrays.asList(
+                    new ParserCounters(DROPPED_METRIC_FORMAT, ParsingApplicationParser::getDroppedMessagesCounters),
+                    new ParserCounters(PATTERN_HITS_METRIC_FORMAT, ParsingApplicationParser::getPatternsHitsCounters),
+                    new ParserCounters(ROUTE_HITS_METRIC_FORMAT, ParsingApplicationParser::getRoutesHitsCounters),
+                    metadataCacheCounters));
+            if (topologyContext != null) {
+                topologyContext.registerGauge(String.format(METADATA_CACHE_HIT_RATIO_METRIC_FORMAT, name),
+                        (Gauge<Double>) () -> MetadataCache.getHitRatio(
+                                metadataCacheCounters.getCount(METADATA_CACHE_HITS),
+                                metadataCacheCounters.getCount(METADATA_CACHE_MISSES)));
+            }
+            messagesCounters.add(topologyContext != null
+                    ? topologyContext.registerCounter(String.format(MESSAGES_METRIC_FORMAT, name))
+                    : new Counter());
+            errorsCounters.add(topologyContext != null
+                    ? topologyContext.registerCounter(String.format(ERRORS_METRIC_FORMAT, name))
+                    : new Counter());
+        }
+
         try {
             LOG.info(INIT_START);
             zookeeperConnector = zookeeperConnectorFactory.createZookeeperConnector(zookeperAttributes);
 
             updateParsers();
-            if (parsingApplicationParser.get() == null) {
+            if (parsingApplicationParsers.stream().anyMatch(x -> x.get() == null)) {
                 throw new IllegalStateException(ERROR_INIT_MESSAGE);
             }
             zookeeperConnector.addCacheListener(this::updateParsers);
@@ -86,32 +174,105 @@ public class ParsingApplicationBolt extends BaseRichBolt {
     }
 
     private void updateParsers() {
+        ParsingApplicationFactory factory;
+        String parserConfigs;
         try {
-            ParsingApplicationFactory factory =  new ParsingApplicationFactoryImpl();
-
+            factory = new ParsingApplicationFactoryImpl();
             LOG.info(PARSERS_UPDATE_START);
-            String parserConfigs = zookeeperConnector.getData();
-            LOG.info(String.format(PARSERCONFIG_UPDATE_TRY_MSG_FORMAT, parsingAppSpecification, parserConfigs));
-            ParsingApplicationFactoryResult result = factory.create(parsingAppSpecification, parserConfigs);
-            if (result.getStatusCode() != ParsingApplicationFactoryResult.StatusCode.OK) {
-                String errorMsg = String.format(FACTORY_EXCEPTION_MSG_FORMAT,
-                        result.getAttributes().getMessage());
-                LOG.error(errorMsg);
-                throw new IllegalStateException(errorMsg);
-            }
-
-            parsingApplicationParser.set(result.getAttributes().getApplicationParser());
-
-            LOG.info(PARSERS_UPDATE_COMPLETED);
+            parserConfigs = zookeeperConnector.getData();
         } catch (Exception e) {
             LOG.error(UPDATE_EXCEPTION_LOG, ExceptionUtils.getStackTrace(e));
             return;
         }
+
+        //NOTE: an application with an invalid update keeps its previous parser
+        for (int i = 0; i < parsingAppSpecifications.size(); i++) {
+            try {
+                String parsingAppSpecification = parsingAppSpecifications.get(i);
+                LOG.info(String.format(PARSERCONFIG_UPDATE_TRY_MSG_FORMAT, parsingAppSpecification, parserConfigs));
+                ParsingApplicationFactoryResult result = factory.create(parsingAppSpecification, parserConfigs);
+                if (result.getStatusCode() != ParsingApplicationFactoryResult.StatusCode.OK) {
+                    String errorMsg = String.format(FACTORY_EXCEPTION_MSG_FORMAT,
+                            result.getAttributes().getMessage());
+                    LOG.error(errorMsg);
+                    throw new IllegalStateException(errorMsg);
+                }
+
+                setParser(i, result.getAttributes().getApplicationParser());
+                LOG.info(PARSERS_UPDATE_COMPLETED);
+            } catch (Exception e) {
+                LOG.error(UPDATE_EXCEPTION_LOG, ExceptionUtils.getStackTrace(e));
+            }
+        }
+    }
+
+    private void setParser(int index, ParsingApplicationParser parser) {
+        parsingApplicationParsers.get(index).set(parser);
+        //NOTE: counters of the replaced parser are kept in order to not reset the metrics after an update
+        for (ParserCounters counters : parsersCounters.get(index)) {
+            Set<String> names = counters.setParser(parser);
+            if (topologyContext == null) {
+                continue;
+            }
+
+            for (String name : names) {
+                String metric = String.format(counters.getMetricFormat(), parsingAppNames.get(index), name);
+                if (countersMetrics.add(metric)) {
+                    topologyContext.registerGauge(metric, (Gauge<Long>) () -> counters.getCount(name));
+                }
+            }
+        }
+    }
+
+    private static Map<String, LongSupplier> getMetadataCacheCounters(ParsingApplicationParser parser) {
+        MetadataCache metadataCache = parser.getMetadataCache();
+        Map<String, LongSupplier> ret = new LinkedHashMap<>();
+        ret.put(METADATA_CACHE_HITS, metadataCache::getHits);
+        ret.put(METADATA_CACHE_MISSES, metadataCache::getMisses);
+        return ret;
+    }
+
+    private int getApplicationIndex(Tuple tuple) {
+        if (topicsToApplications.isEmpty()) {
+            return 0;
+        }
+
+        String topic = tuple.getStringByField(ParsingApplicationTuples.TOPIC.toString());
+        Integer ret = topicsToApplications.get(topic);
+        return ret != null ? ret : -1;
+    }
+
+    private void emitUnknownTopicError(Tuple tuple, Object logObj) {
+        String errorMsg = String.format(UNKNOWN_TOPIC_MSG,
+                tuple.getStringByField(ParsingApplicationTuples.TOPIC.toString()));
+        LOG.error(errorMsg);
+
+        ErrorMessage msg = new ErrorMessage();
+        msg.setErrorType(ErrorType.PARSER_ERROR);
+        msg.setMessage(errorMsg);
+        if (logObj instanceof byte[]) {
+            msg.setRawMessage((byte[]) logObj);
+        }
+
+        //NOTE: no application claims the topic so the error topic of the first application is used
+        KafkaBatchWriterMessages kafkaBatchWriterMessages = new KafkaBatchWriterMessages();
+        kafkaBatchWriterMessages.add(new KafkaBatchWriterMessage(
+                parsingApplicationParsers.get(0).get().getErrorTopic(), msg.toString()));
+        collector.emit(tuple, new Values(kafkaBatchWriterMessages));
+        collector.ack(tuple);
     }
 
     @Override
     public void execute(Tuple tuple) {
-        ParsingApplicationParser currentParser = parsingApplicationParser.get();
+        int applicationIndex = getApplicationIndex(tuple);
+        if (applicationIndex < 0) {
+            emitUnknownTopicError(tuple, tuple.getValueByField(ParsingApplicationTuples.LOG.toString()));
+            return;
+        }
+
+        //NOTE: the previous message was processed so replaced parsers are not used anymore
+        parsersCounters.get(applicationIndex).forEach(ParserCounters::mergeReplacedParsers);
+        ParsingApplicationParser currentParser = parsingApplicationParsers.get(applicationIndex).get();
 
         String metadata = tuple.getStringByField(ParsingApplicationTuples.METADATA.toString());
         Object logObj = tuple.getValueByField(ParsingApplicationTuples.LOG.toString());
@@ -120,11 +281,24 @@ public class ParsingApplicationBolt extends BaseRichBolt {
         }
 
         byte[] log = (byte[])logObj;
-        ArrayList<ParsingApplicationResult> results = currentParser.parse(metadata, log);
+        boolean serialiseToBytes = byteArrayEvents || eventsFormat != EventFormat.JSON;
+        ArrayList<ParsingApplicationResult> results = serialiseToBytes
+                ? currentParser.parseToBytes(metadata, log, eventsFormat)
+                : currentParser.parse(metadata, log);
+        messagesCounters.get(applicationIndex).inc();
+        if (results.stream().anyMatch(x -> currentParser.getErrorTopic().equals(x.getTopic()))) {
+            errorsCounters.get(applicationIndex).inc();
+        }
+
         if (!results.isEmpty()) {
             KafkaBatchWriterMessages kafkaBatchWriterMessages = new KafkaBatchWriterMessages();
-            results.forEach(x -> x.getMessages().forEach(y ->
-                    kafkaBatchWriterMessages.add(new KafkaBatchWriterMessage(x.getTopic(), y))));
+            if (serialiseToBytes) {
+                results.forEach(x -> x.getMessagesBytes().forEach(y ->
+                        kafkaBatchWriterMessages.add(new KafkaBatchWriterMessage(x.getTopic(), y))));
+            } else {
+                results.forEach(x -> x.getMessages().forEach(y ->
+                        kafkaBatchWriterMessages.add(new KafkaBatchWriterMessage(x.getTopic(), y))));
+            }
             collector.emit(tuple, new Values(kafkaBatchWriterMessages));
         }
 
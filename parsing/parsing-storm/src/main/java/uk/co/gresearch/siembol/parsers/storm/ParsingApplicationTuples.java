@@ -3,6 +3,7 @@ package uk.co.gresearch.siembol.parsers.storm;
 public enum ParsingApplicationTuples {
     METADATA("metadata"),
     LOG("log"),
+    TOPIC("topic"),
     PARSING_MESSAGES("messages");
 
     private final String name;
@@ -8,6 +8,7 @@ import org.apache.storm.StormSubmitter;
 import org.apache.storm.generated.StormTopology;
 import org.apache.storm.kafka.spout.KafkaSpout;
 import org.apache.storm.kafka.spout.KafkaSpoutConfig;
+import org.apache.storm.topology.BoltDeclarer;
 import org.apache.storm.topology.TopologyBuilder;
 import org.apache.storm.tuple.Fields;
 import org.apache.storm.tuple.Values;
@@ -24,7 +25,11 @@ import uk.co.gresearch.siembol.parsers.application.factory.ParsingApplicationFac
 import uk.co.gresearch.siembol.parsers.application.factory.ParsingApplicationFactoryResult;
 
 import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static org.apache.kafka.clients.consumer.ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG;
 import static org.apache.kafka.clients.consumer.ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG;
@@ -40,19 +45,27 @@ public class StormParsingApplication {
     private static final int STORM_ATTR_INDEX = 0;
     private static final int PARSING_ATTR_INDEX = 1;
     private static final String WRONG_ARGUMENT_MSG =  "Wrong arguments. The application expects " +
-            "Base64 encoded storm attributes and parsing app attributes";
+            "Base64 encoded storm attributes and one or more parsing app attributes";
+    private static final String MISSING_PARSING_APPLICATIONS_MSG = "Missing parsing applications";
+    private static final String MULTI_APPLICATION_NAME_DELIMITER = "-";
     private static final String SUBMIT_INFO_LOG = "Submitted parsing application storm topology: {} " +
             "with storm attributes: {}\nparsing application attributes: {}";
 
     private static KafkaSpoutConfig<String, byte[]> createKafkaSpoutConfig(
-            StormParsingApplicationAttributesDto parsingApplicationAttributes) {
+            StormParsingApplicationAttributesDto parsingApplicationAttributes, boolean emitTopic) {
         StormAttributesDto stormAttributes = parsingApplicationAttributes.getStormAttributes();
         stormAttributes.getKafkaSpoutProperties().getRawMap()
                 .put(KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
         stormAttributes.getKafkaSpoutProperties().getRawMap()
                 .put(VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
 
-        return StormHelper.createKafkaSpoutConfig(stormAttributes,
+        return emitTopic
+                ? StormHelper.createKafkaSpoutConfig(stormAttributes,
+                r -> new Values(r.key(), r.value(), r.topic()),
+                new Fields(ParsingApplicationTuples.METADATA.toString(),
+                        ParsingApplicationTuples.LOG.toString(),
+                        ParsingApplicationTuples.TOPIC.toString()))
+                : StormHelper.createKafkaSpoutConfig(stormAttributes,
                 r -> new Values(r.key(), r.value()),
                 new Fields(ParsingApplicationTuples.METADATA.toString(), ParsingApplicationTuples.LOG.toString()));
     }
@@ -68,13 +81,18 @@ public class StormParsingApplication {
 
         TopologyBuilder builder = new TopologyBuilder();
         builder.setSpout(KAFKA_SPOUT,
-                new KafkaSpout<>(createKafkaSpoutConfig(stormAppAttributes)),
+                new KafkaSpout<>(createKafkaSpoutConfig(stormAppAttributes, false)),
                 parsingAttributes.getInputParallelism());
 
-        builder.setBolt(parsingAttributes.getName(),
+        BoltDeclarer parsingBolt = builder.setBolt(parsingAttributes.getName(),
                 new ParsingApplicationBolt(stormAppAttributes, parsingAttributes, zookeeperConnectorFactory),
-                parsingAttributes.getParsingParallelism())
-                .localOrShuffleGrouping(KAFKA_SPOUT);
+                parsingAttributes.getParsingParallelism());
+        if (parsingAttributes.isGroupByMetadata()) {
+            //NOTE: messages with the same metadata, e.g. from the same netflow exporter, use the same executor
+            parsingBolt.fieldsGrouping(KAFKA_SPOUT, new Fields(ParsingApplicationTuples.METADATA.toString()));
+        } else {
+            parsingBolt.localOrShuffleGrouping(KAFKA_SPOUT);
+        }
 
         builder.setBolt(KAFKA_WRITER,
                 new KafkaBatchWriterBolt(stormAppAttributes.getKafkaBatchWriterAttributes(),
@@ -85,30 +103,105 @@ public class StormParsingApplication {
         return builder.createTopology();
     }
 
+    /**
+     * Creates a topology hosting multiple parsing applications that share the spout, parsing and writer executors.
+     * Messages are parsed by the parsing application reading from the topic of the message.
+     */
+    public static StormTopology createMultiApplicationTopology(
+            StormParsingApplicationAttributesDto stormAppAttributes,
+            List<ParsingApplicationFactoryAttributes> parsingAttributes,
+            ZookeeperConnectorFactory zookeeperConnectorFactory) throws Exception {
+        if (parsingAttributes.isEmpty()) {
+            throw new IllegalArgumentException(MISSING_PARSING_APPLICATIONS_MSG);
+        }
+
+        String name = getMultiApplicationName(stormAppAttributes, parsingAttributes);
+        stormAppAttributes.getStormAttributes().getKafkaSpoutProperties().getRawMap()
+                .put(GROUP_ID_CONFIG, stormAppAttributes.getGroupId(name));
+        stormAppAttributes.getKafkaBatchWriterAttributes().getProducerProperties().getRawMap()
+                .put(CLIENT_ID_CONFIG, stormAppAttributes.getClientId(name));
+        stormAppAttributes.getStormAttributes().setKafkaTopics(parsingAttributes.stream()
+                .flatMap(x -> x.getInputTopics().stream())
+                .distinct()
+                .collect(Collectors.toList()));
+
+        //NOTE: applications share the executors so the highest parallelism of the applications is used
+        TopologyBuilder builder = new TopologyBuilder();
+        builder.setSpout(KAFKA_SPOUT,
+                new KafkaSpout<>(createKafkaSpoutConfig(stormAppAttributes, true)),
+                getMaxParallelism(parsingAttributes, ParsingApplicationFactoryAttributes::getInputParallelism));
+
+        BoltDeclarer parsingBolt = builder.setBolt(name,
+                new ParsingApplicationBolt(stormAppAttributes, parsingAttributes, zookeeperConnectorFactory),
+                getMaxParallelism(parsingAttributes, ParsingApplicationFactoryAttributes::getParsingParallelism));
+        if (parsingAttributes.stream().anyMatch(ParsingApplicationFactoryAttributes::isGroupByMetadata)) {
+            parsingBolt.fieldsGrouping(KAFKA_SPOUT, new Fields(ParsingApplicationTuples.METADATA.toString()));
+        } else {
+            parsingBolt.localOrShuffleGrouping(KAFKA_SPOUT);
+        }
+
+        builder.setBolt(KAFKA_WRITER,
+                new KafkaBatchWriterBolt(stormAppAttributes.getKafkaBatchWriterAttributes(),
+                        ParsingApplicationTuples.PARSING_MESSAGES.toString()),
+                getMaxParallelism(parsingAttributes, ParsingApplicationFactoryAttributes::getOutputParallelism))
+                .localOrShuffleGrouping(name);
+
+        return builder.createTopology();
+    }
+
+    /**
+     * Returns the name of a topology hosting multiple parsing applications.
+     * If it is not provided it is derived from the names of the hosted applications.
+     */
+    static String getMultiApplicationName(StormParsingApplicationAttributesDto stormAppAttributes,
+                                          List<ParsingApplicationFactoryAttributes> parsingAttributes) {
+        //NOTE: the name is used in the group id so two topologies should not share it
+        return stormAppAttributes.getMultiApplicationName() != null
+                ? stormAppAttributes.getMultiApplicationName()
+                : parsingAttributes.stream()
+                .map(ParsingApplicationFactoryAttributes::getName)
+                .sorted()
+                .collect(Collectors.joining(MULTI_APPLICATION_NAME_DELIMITER));
+    }
+
+    private static int getMaxParallelism(List<ParsingApplicationFactoryAttributes> parsingAttributes,
+                                         Function<ParsingApplicationFactoryAttributes, Integer> parallelism) {
+        return parsingAttributes.stream().map(parallelism).max(Integer::compare).get();
+    }
+
     public static void main(String[] args) throws Exception {
-        if (args.length != EXPECTED_ARG_SIZE) {
+        if (args.length < EXPECTED_ARG_SIZE) {
             LOG.error(WRONG_ARGUMENT_MSG);
             throw new IllegalArgumentException(WRONG_ARGUMENT_MSG);
         }
 
         String stormAttributesStr = new String(Base64.getDecoder().decode(args[STORM_ATTR_INDEX]));
-        String parsingAttributesStr = new String(Base64.getDecoder().decode(args[PARSING_ATTR_INDEX]));
-
         StormParsingApplicationAttributesDto stormAttributes = new ObjectMapper()
                 .readerFor(StormParsingApplicationAttributesDto.class)
                 .readValue(stormAttributesStr);
 
-        ParsingApplicationFactoryResult result = new ParsingApplicationFactoryImpl().create(parsingAttributesStr);
-        if (result.getStatusCode() != ParsingApplicationFactoryResult.StatusCode.OK) {
-            throw new IllegalArgumentException(result.getAttributes().getMessage());
+        List<String> parsingAttributesStrs = new ArrayList<>();
+        List<ParsingApplicationFactoryAttributes> parsingAttributes = new ArrayList<>();
+        for (int i = PARSING_ATTR_INDEX; i < args.length; i++) {
+            String parsingAttributesStr = new String(Base64.getDecoder().decode(args[i]));
+            ParsingApplicationFactoryResult result = new ParsingApplicationFactoryImpl().create(parsingAttributesStr);
+            if (result.getStatusCode() != ParsingApplicationFactoryResult.StatusCode.OK) {
+                throw new IllegalArgumentException(result.getAttributes().getMessage());
+            }
+            parsingAttributesStrs.add(parsingAttributesStr);
+            parsingAttributes.add(result.getAttributes());
         }
 
-        ParsingApplicationFactoryAttributes parsingAttributes = result.getAttributes();
         Config config = new Config();
         config.putAll(stormAttributes.getStormAttributes().getStormConfig().getRawMap());
-        StormTopology topology = createTopology(stormAttributes, parsingAttributes, new ZookeeperConnectorFactoryImpl());
-        String topologyName = stormAttributes.getTopologyName(parsingAttributes.getName());
-        LOG.info(SUBMIT_INFO_LOG, topologyName, stormAttributesStr, parsingAttributesStr);
+        boolean multiApplication = parsingAttributes.size() > 1;
+        StormTopology topology = multiApplication
+                ? createMultiApplicationTopology(stormAttributes, parsingAttributes, new ZookeeperConnectorFactoryImpl())
+                : createTopology(stormAttributes, parsingAttributes.get(0), new ZookeeperConnectorFactoryImpl());
+        String topologyName = stormAttributes.getTopologyName(multiApplication
+                ? getMultiApplicationName(stormAttributes, parsingAttributes)
+                : parsingAttributes.get(0).getName());
+        LOG.info(SUBMIT_INFO_LOG, topologyName, stormAttributesStr, parsingAttributesStrs);
         StormSubmitter.submitTopology(topologyName, config, topology);
     }
 }
@@ -3,8 +3,12 @@ package uk.co.gresearch.siembol.parsers.storm;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectReader;
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
 import org.adrianwalker.multilinestring.Multiline;
+import org.apache.curator.framework.recipes.cache.NodeCacheListener;
 import org.apache.storm.task.OutputCollector;
+import org.apache.storm.task.TopologyContext;
 import org.apache.storm.tuple.Tuple;
 import org.apache.storm.tuple.Values;
 import org.junit.Assert;
@@ -13,18 +17,27 @@ import org.junit.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import uk.co.gresearch.siembol.common.constants.SiembolMessageFields;
+import uk.co.gresearch.siembol.common.model.KafkaBatchWriterAttributesDto;
+import uk.co.gresearch.siembol.common.model.StormAttributesDto;
 import uk.co.gresearch.siembol.common.model.StormParsingApplicationAttributesDto;
 import uk.co.gresearch.siembol.common.storm.KafkaBatchWriterMessages;
 import uk.co.gresearch.siembol.common.model.ZookeeperAttributesDto;
+import uk.co.gresearch.siembol.common.utils.EventFormat;
 import uk.co.gresearch.siembol.common.zookeper.ZookeeperConnector;
 import uk.co.gresearch.siembol.common.zookeper.ZookeeperConnectorFactory;
 import uk.co.gresearch.siembol.parsers.application.factory.ParsingApplicationFactoryAttributes;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class ParsingApplicationBoltTest {
@@ -89,6 +102,129 @@ public class ParsingApplicationBoltTest {
     @Multiline
     public static String testParsersConfigs;
 
+    /**
+     * {
+     *   "parsers_version": 1,
+     *   "parsers_configurations": [
+     *     {
+     *       "parser_description": "for testing single app parser",
+     *       "parser_version": 2,
+     *       "parser_name": "single",
+     *       "parser_author": "dummy",
+     *       "parser_attributes": {
+     *         "parser_type": "generic"
+     *       },
+     *       "parser_extractors": [
+     *         {
+     *           "extractor_type": "pattern_extractor",
+     *           "name": "raw",
+     *           "field": "original_string",
+     *           "attributes": {
+     *             "regular_expressions": [
+     *               "^RAW_(?<raw_type>.*)$",
+     *               "^(?<other>other)$"
+     *             ]
+     *           }
+     *         }
+     *       ]
+     *     }
+     *   ]
+     * }
+     **/
+    @Multiline
+    public static String testPatternParsersConfigs;
+
+    /**
+     *{
+     *   "parsing_app_name": "test",
+     *   "parsing_app_version": 1,
+     *   "parsing_app_author": "dummy",
+     *   "parsing_app_description": "Description of parser application",
+     *   "parsing_app_settings": {
+     *     "input_topics": [
+     *       "secret"
+     *     ],
+     *     "parse_metadata" : false,
+     *     "error_topic": "error",
+     *     "input_parallelism": 1,
+     *     "parsing_parallelism": 2,
+     *     "output_parallelism": 3,
+     *     "parsing_app_type": "router_parsing"
+     *   },
+     *   "parsing_settings": {
+     *     "routing_parser": {
+     *       "router_parser_name": "router",
+     *       "routing_field": "host",
+     *       "routing_message": "msg",
+     *       "default_parser": {
+     *         "parser_name": "default",
+     *         "output_topic": "output_default"
+     *       },
+     *       "parsers": [
+     *         {
+     *           "routing_field_pattern": "secret",
+     *           "parser_properties": {
+     *             "parser_name": "single",
+     *             "output_topic": "output"
+     *           }
+     *         }
+     *       ]
+     *     }
+     *   }
+     * }
+     **/
+    @Multiline
+    public static String simpleRoutingApplicationParser;
+
+    /**
+     * {
+     *   "parsers_version": 1,
+     *   "parsers_configurations": [
+     *     {
+     *       "parser_description": "for testing routing app parser",
+     *       "parser_version": 2,
+     *       "parser_name": "router",
+     *       "parser_author": "dummy",
+     *       "parser_attributes": {
+     *         "parser_type": "generic"
+     *       },
+     *       "parser_extractors": [
+     *         {
+     *           "extractor_type": "pattern_extractor",
+     *           "name": "routing",
+     *           "field": "original_string",
+     *           "attributes": {
+     *             "regular_expressions": [
+     *               "^(?<host>[a-z]+) (?<msg>.*)$"
+     *             ]
+     *           }
+     *         }
+     *       ]
+     *     },
+     *     {
+     *       "parser_description": "for testing routing app parser",
+     *       "parser_version": 2,
+     *       "parser_name": "single",
+     *       "parser_author": "dummy",
+     *       "parser_attributes": {
+     *         "parser_type": "generic"
+     *       }
+     *     },
+     *     {
+     *       "parser_description": "for testing routing app parser",
+     *       "parser_version": 2,
+     *       "parser_name": "default",
+     *       "parser_author": "dummy",
+     *       "parser_attributes": {
+     *         "parser_type": "generic"
+     *       }
+     *     }
+     *   ]
+     * }
+     **/
+    @Multiline
+    public static String testRoutingParsersConfigs;
+
 
     private Tuple tuple;
     private OutputCollector collector;
@@ -146,6 +282,48 @@ public class ParsingApplicationBoltTest {
         Assert.assertNull(parsed.get("metadata_is_metadata"));
     }
 
+    @Test
+    public void testMatchRuleByteArrayEvents() throws Exception {
+        StormAttributesDto stormAttributes = new StormAttributesDto();
+        stormAttributes.setByteArrayEvents(true);
+        attributes.setStormAttributes(stormAttributes);
+        parsingApplicationBolt = new ParsingApplicationBolt(attributes, parsingAttributes, zookeeperConnectorFactory);
+        parsingApplicationBolt.prepare(null, null, collector);
+
+        parsingApplicationBolt.execute(tuple);
+        Values values = argumentEmitCaptor.getValue();
+        Assert.assertNotNull(values);
+        KafkaBatchWriterMessages messages = (KafkaBatchWriterMessages)values.get(0);
+        Assert.assertEquals(1, messages.size());
+        Assert.assertEquals("output", messages.get(0).getTopic());
+
+        Map<String, Object> parsed = JSON_READER.readValue(messages.get(0).getMessageBytes());
+        Assert.assertEquals("RAW_LOG", parsed.get(SiembolMessageFields.ORIGINAL.toString()));
+        Assert.assertEquals("single", parsed.get(SiembolMessageFields.SENSOR_TYPE.toString()));
+    }
+
+    @Test
+    public void testMatchRuleSmileEvents() throws Exception {
+        KafkaBatchWriterAttributesDto writerAttributes = new KafkaBatchWriterAttributesDto();
+        writerAttributes.setEventsFormat(EventFormat.SMILE);
+        attributes.setKafkaBatchWriterAttributes(writerAttributes);
+        parsingApplicationBolt = new ParsingApplicationBolt(attributes, parsingAttributes, zookeeperConnectorFactory);
+        parsingApplicationBolt.prepare(null, null, collector);
+
+        parsingApplicationBolt.execute(tuple);
+        Values values = argumentEmitCaptor.getValue();
+        Assert.assertNotNull(values);
+        KafkaBatchWriterMessages messages = (KafkaBatchWriterMessages)values.get(0);
+        Assert.assertEquals(1, messages.size());
+        Assert.assertEquals("output", messages.get(0).getTopic());
+        byte[] messageBytes = messages.get(0).getMessageBytes();
+        Assert.assertEquals(EventFormat.SMILE, EventFormat.detect(messageBytes));
+
+        Map<String, Object> parsed = EventFormat.readEvent(messageBytes);
+        Assert.assertEquals("RAW_LOG", parsed.get(SiembolMessageFields.ORIGINAL.toString()));
+        Assert.assertEquals("single", parsed.get(SiembolMessageFields.SENSOR_TYPE.toString()));
+    }
+
     @Test
     public void testExceptionMetadata() throws Exception {
         parsingAttributes.setApplicationParserSpecification(simpleSingleApplicationParser.replace(
@@ -199,10 +377,186 @@ public class ParsingApplicationBoltTest {
         Assert.assertEquals(true, parsed.get("metadata_is_metadata"));
     }
 
+    private List<ParsingApplicationFactoryAttributes> getMultiApplicationAttributes() {
+        ParsingApplicationFactoryAttributes other = new ParsingApplicationFactoryAttributes();
+        other.setName("other");
+        other.setInputTopics(Arrays.asList("other"));
+        other.setApplicationParserSpecification(simpleSingleApplicationParser
+                .replace("\"parse_metadata\" : false", "\"parse_metadata\" : true")
+                .replace("\"output\"", "\"output_other\"")
+                .replace("\"error\"", "\"error_other\""));
+        parsingAttributes.setName("test");
+        parsingAttributes.setInputTopics(Arrays.asList("secret"));
+        return Arrays.asList(parsingAttributes, other);
+    }
+
+    @Test
+    public void testMultiApplicationRouting() throws Exception {
+        parsingApplicationBolt = new ParsingApplicationBolt(attributes, getMultiApplicationAttributes(),
+                zookeeperConnectorFactory);
+        parsingApplicationBolt.prepare(null, null, collector);
+
+        when(tuple.getStringByField(eq(ParsingApplicationTuples.TOPIC.toString()))).thenReturn("secret");
+        parsingApplicationBolt.execute(tuple);
+        KafkaBatchWriterMessages messages = (KafkaBatchWriterMessages)argumentEmitCaptor.getValue().get(0);
+        Assert.assertEquals(1, messages.size());
+        Assert.assertEquals("output", messages.get(0).getTopic());
+        Map<String, Object> parsed = JSON_READER.readValue(messages.get(0).getMessage());
+        Assert.assertNull(parsed.get("metadata_is_metadata"));
+
+        when(tuple.getStringByField(eq(ParsingApplicationTuples.TOPIC.toString()))).thenReturn("other");
+        parsingApplicationBolt.execute(tuple);
+        messages = (KafkaBatchWriterMessages)argumentEmitCaptor.getValue().get(0);
+        Assert.assertEquals(1, messages.size());
+        Assert.assertEquals("output_other", messages.get(0).getTopic());
+        parsed = JSON_READER.readValue(messages.get(0).getMessage());
+        Assert.assertEquals(true, parsed.get("metadata_is_metadata"));
+
+        when(tuple.getStringByField(eq(ParsingApplicationTuples.METADATA.toString()))).thenReturn("INVALID");
+        parsingApplicationBolt.execute(tuple);
+        messages = (KafkaBatchWriterMessages)argumentEmitCaptor.getValue().get(0);
+        Assert.assertEquals("error_other", messages.get(0).getTopic());
+    }
+
+    @Test
+    public void testMultiApplicationUnknownTopic() throws Exception {
+        parsingApplicationBolt = new ParsingApplicationBolt(attributes, getMultiApplicationAttributes(),
+                zookeeperConnectorFactory);
+        parsingApplicationBolt.prepare(null, null, collector);
+
+        when(tuple.getStringByField(eq(ParsingApplicationTuples.TOPIC.toString()))).thenReturn("unknown");
+        parsingApplicationBolt.execute(tuple);
+        KafkaBatchWriterMessages messages = (KafkaBatchWriterMessages)argumentEmitCaptor.getValue().get(0);
+        Assert.assertEquals(1, messages.size());
+        Assert.assertEquals("error", messages.get(0).getTopic());
+        Map<String, Object> parsed = JSON_READER.readValue(messages.get(0).getMessage());
+        Assert.assertEquals("parser_error", parsed.get("error_type"));
+        Assert.assertEquals("RAW_LOG", parsed.get("raw_message"));
+        Assert.assertEquals("No parsing application for the topic: unknown", parsed.get("message"));
+        verify(collector, times(1)).ack(tuple);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMultiApplicationDuplicateTopic() throws Exception {
+        List<ParsingApplicationFactoryAttributes> multiAttributes = getMultiApplicationAttributes();
+        multiAttributes.get(1).setInputTopics(Arrays.asList("secret"));
+        new ParsingApplicationBolt(attributes, multiAttributes, zookeeperConnectorFactory);
+    }
+
+    @Test
+    public void testDroppedMessagesAfterUpdate() throws Exception {
+        parsingAttributes.setName("test");
+        parsingAttributes.setApplicationParserSpecification(simpleSingleApplicationParser.replace(
+                "\"parse_metadata\" : false,",
+                "\"parse_metadata\" : false, \"prefilters\" : [ { \"prefilter_name\" : \"health\", " +
+                        "\"matchers\" : [ { \"field_name\" : \"original_string\", \"pattern\" : \"health.*\" } ] } ],"));
+        TopologyContext topologyContext = Mockito.mock(TopologyContext.class);
+        when(topologyContext.registerCounter(any())).thenAnswer(x -> new Counter());
+        ArgumentCaptor<NodeCacheListener> cacheListener = ArgumentCaptor.forClass(NodeCacheListener.class);
+
+        parsingApplicationBolt = new ParsingApplicationBolt(attributes, parsingAttributes, zookeeperConnectorFactory);
+        parsingApplicationBolt.prepare(null, topologyContext, collector);
+        verify(zookeeperConnector, times(2)).addCacheListener(cacheListener.capture());
+        Gauge<Long> gauge = getRegisteredGauge(topologyContext, "parsing_app_test_prefilter_health_dropped");
+
+        when(tuple.getValueByField(eq(ParsingApplicationTuples.LOG.toString()))).thenReturn("health".getBytes());
+        parsingApplicationBolt.execute(tuple);
+        Assert.assertEquals(Long.valueOf(1), gauge.getValue());
+
+        cacheListener.getValue().nodeChanged();
+        Assert.assertEquals(Long.valueOf(1), gauge.getValue());
+        parsingApplicationBolt.execute(tuple);
+        parsingApplicationBolt.execute(tuple);
+        Assert.assertEquals(Long.valueOf(3), gauge.getValue());
+
+        cacheListener.getValue().nodeChanged();
+        Assert.assertEquals(Long.valueOf(3), gauge.getValue());
+        verify(topologyContext, times(1))
+                .registerGauge(eq("parsing_app_test_prefilter_health_dropped"), any());
+        verify(collector, never()).emit(any(Tuple.class), any());
+    }
+
+    @Test
+    public void testMetadataCacheMetricsAfterUpdate() throws Exception {
+        parsingAttributes.setName("test");
+        parsingAttributes.setApplicationParserSpecification(simpleSingleApplicationParser.replace(
+                "\"parse_metadata\" : false", "\"parse_metadata\" : true"));
+        TopologyContext topologyContext = Mockito.mock(TopologyContext.class);
+        when(topologyContext.registerCounter(any())).thenAnswer(x -> new Counter());
+        ArgumentCaptor<NodeCacheListener> cacheListener = ArgumentCaptor.forClass(NodeCacheListener.class);
+
+        parsingApplicationBolt = new ParsingApplicationBolt(attributes, parsingAttributes, zookeeperConnectorFactory);
+        parsingApplicationBolt.prepare(null, topologyContext, collector);
+        verify(zookeeperConnector, times(2)).addCacheListener(cacheListener.capture());
+        Gauge<Double> hitRatio = getRegisteredGauge(topologyContext, "parsing_app_test_metadata_cache_hit_ratio");
+        Gauge<Long> hits = getRegisteredGauge(topologyContext, "parsing_app_test_metadata_cache_hits");
+        Assert.assertEquals(0.0, hitRatio.getValue(), 1e-9);
+
+        parsingApplicationBolt.execute(tuple);
+        parsingApplicationBolt.execute(tuple);
+        parsingApplicationBolt.execute(tuple);
+        Assert.assertEquals(Long.valueOf(2), hits.getValue());
+        Assert.assertEquals(2.0 / 3, hitRatio.getValue(), 1e-9);
+
+        cacheListener.getValue().nodeChanged();
+        parsingApplicationBolt.execute(tuple);
+        Assert.assertEquals(Long.valueOf(2), hits.getValue());
+        Assert.assertEquals(0.5, hitRatio.getValue(), 1e-9);
+    }
+
+    @Test
+    public void testPatternsHitsMetrics() throws Exception {
+        parsingAttributes.setName("test");
+        when(zookeeperConnector.getData()).thenReturn(testPatternParsersConfigs);
+        TopologyContext topologyContext = Mockito.mock(TopologyContext.class);
+        when(topologyContext.registerCounter(any())).thenAnswer(x -> new Counter());
+
+        parsingApplicationBolt = new ParsingApplicationBolt(attributes, parsingAttributes, zookeeperConnectorFactory);
+        parsingApplicationBolt.prepare(null, topologyContext, collector);
+        Gauge<Long> firstPattern = getRegisteredGauge(topologyContext, "parsing_app_test_pattern_single_raw_0_hits");
+        Gauge<Long> secondPattern = getRegisteredGauge(topologyContext, "parsing_app_test_pattern_single_raw_1_hits");
+
+        parsingApplicationBolt.execute(tuple);
+        parsingApplicationBolt.execute(tuple);
+        when(tuple.getValueByField(eq(ParsingApplicationTuples.LOG.toString()))).thenReturn("other".getBytes());
+        parsingApplicationBolt.execute(tuple);
+        Assert.assertEquals(Long.valueOf(2), firstPattern.getValue());
+        Assert.assertEquals(Long.valueOf(1), secondPattern.getValue());
+    }
+
+    @Test
+    public void testRoutesHitsMetrics() throws Exception {
+        parsingAttributes.setApplicationParserSpecification(simpleRoutingApplicationParser);
+        parsingAttributes.setName("test");
+        when(zookeeperConnector.getData()).thenReturn(testRoutingParsersConfigs);
+        TopologyContext topologyContext = Mockito.mock(TopologyContext.class);
+        when(topologyContext.registerCounter(any())).thenAnswer(x -> new Counter());
+
+        parsingApplicationBolt = new ParsingApplicationBolt(attributes, parsingAttributes, zookeeperConnectorFactory);
+        parsingApplicationBolt.prepare(null, topologyContext, collector);
+        Gauge<Long> singleRoute = getRegisteredGauge(topologyContext, "parsing_app_test_route_single_hits");
+        Gauge<Long> defaultRoute = getRegisteredGauge(topologyContext, "parsing_app_test_route_default_hits");
+
+        when(tuple.getValueByField(eq(ParsingApplicationTuples.LOG.toString()))).thenReturn("secret a".getBytes());
+        parsingApplicationBolt.execute(tuple);
+        when(tuple.getValueByField(eq(ParsingApplicationTuples.LOG.toString()))).thenReturn("public b".getBytes());
+        parsingApplicationBolt.execute(tuple);
+        parsingApplicationBolt.execute(tuple);
+        Assert.assertEquals(Long.valueOf(1), singleRoute.getValue());
+        Assert.assertEquals(Long.valueOf(2), defaultRoute.getValue());
+    }
+
     @Test(expected = IllegalStateException.class)
     public void testExceptionData() throws Exception {
         when(zookeeperConnector.getData()).thenReturn("INVALID");
         parsingApplicationBolt = new ParsingApplicationBolt(attributes, parsingAttributes, zookeeperConnectorFactory);
         parsingApplicationBolt.prepare(null, null, collector);
     }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Gauge<T> getRegisteredGauge(TopologyContext topologyContext, String name) {
+        ArgumentCaptor<Gauge<T>> gauge = ArgumentCaptor.forClass((Class<Gauge<T>>) (Class<?>) Gauge.class);
+        verify(topologyContext, times(1)).registerGauge(eq(name), gauge.capture());
+        return gauge.getValue();
+    }
 }
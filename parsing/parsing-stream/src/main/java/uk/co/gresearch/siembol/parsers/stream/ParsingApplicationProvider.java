@@ -0,0 +1,90 @@
+package uk.co.gresearch.siembol.parsers.stream;
+
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.co.gresearch.siembol.common.zookeper.ZookeeperConnector;
+import uk.co.gresearch.siembol.parsers.application.factory.ParsingApplicationFactory;
+import uk.co.gresearch.siembol.parsers.application.factory.ParsingApplicationFactoryImpl;
+import uk.co.gresearch.siembol.parsers.application.factory.ParsingApplicationFactoryResult;
+import uk.co.gresearch.siembol.parsers.application.parsing.ParsingApplicationParser;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Provides parsing application parsers for parsing workers and updates them after a change of parser configs
+ * in the zookeeper node. Each worker obtains its own instance of the parser since parsers are not thread safe.
+ */
+public class ParsingApplicationProvider implements Closeable {
+    private static final Logger LOG = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+    private static final String PARSERCONFIG_UPDATE_TRY_MSG_FORMAT = "Trying to update parsing app: %s, " +
+            "by parser configs: %s, ";
+    private static final String FACTORY_EXCEPTION_MSG_FORMAT = "Exception during creation of parsing application: %s";
+    private static final String UPDATE_EXCEPTION_LOG = "Exception during parserconfig update: {}";
+    private static final String ERROR_INIT_MESSAGE = "Parsing application exception: Parsing app initialisation error";
+    private static final String PARSERS_UPDATE_START = "Parser config update start";
+    private static final String PARSERS_UPDATE_COMPLETED = "Parser config update completed";
+
+    private final String parsingAppSpecification;
+    private final ZookeeperConnector zookeeperConnector;
+    private final List<AtomicReference<ParsingApplicationParser>> parsers = new ArrayList<>();
+
+    public ParsingApplicationProvider(String parsingAppSpecification,
+                                      ZookeeperConnector zookeeperConnector,
+                                      int numberOfParsers) {
+        this.parsingAppSpecification = parsingAppSpecification;
+        this.zookeeperConnector = zookeeperConnector;
+        for (int i = 0; i < numberOfParsers; i++) {
+            parsers.add(new AtomicReference<>());
+        }
+
+        updateParsers();
+        if (parsers.stream().anyMatch(x -> x.get() == null)) {
+            throw new IllegalStateException(ERROR_INIT_MESSAGE);
+        }
+        zookeeperConnector.addCacheListener(this::updateParsers);
+    }
+
+    public AtomicReference<ParsingApplicationParser> getParser(int index) {
+        return parsers.get(index);
+    }
+
+    private void updateParsers() {
+        try {
+            ParsingApplicationFactory factory = new ParsingApplicationFactoryImpl();
+
+            LOG.info(PARSERS_UPDATE_START);
+            String parserConfigs = zookeeperConnector.getData();
+            LOG.info(String.format(PARSERCONFIG_UPDATE_TRY_MSG_FORMAT, parsingAppSpecification, parserConfigs));
+            List<ParsingApplicationParser> updated = new ArrayList<>();
+            for (int i = 0; i < parsers.size(); i++) {
+                ParsingApplicationFactoryResult result = factory.create(parsingAppSpecification, parserConfigs);
+                if (result.getStatusCode() != ParsingApplicationFactoryResult.StatusCode.OK) {
+                    String errorMsg = String.format(FACTORY_EXCEPTION_MSG_FORMAT,
+                            result.getAttributes().getMessage());
+                    LOG.error(errorMsg);
+                    throw new IllegalStateException(errorMsg);
+                }
+                updated.add(result.getAttributes().getApplicationParser());
+            }
+
+            //NOTE: parsers are replaced only if all of them were created successfully
+            for (int i = 0; i < parsers.size(); i++) {
+                parsers.get(i).set(updated.get(i));
+            }
+            LOG.info(PARSERS_UPDATE_COMPLETED);
+        } catch (Exception e) {
+            LOG.error(UPDATE_EXCEPTION_LOG, ExceptionUtils.getStackTrace(e));
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        zookeeperConnector.close();
+    }
+}
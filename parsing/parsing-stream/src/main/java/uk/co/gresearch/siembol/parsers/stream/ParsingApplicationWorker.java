@@ -0,0 +1,162 @@
+package uk.co.gresearch.siembol.parsers.stream;
+
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.WakeupException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.co.gresearch.siembol.common.utils.EventFormat;
+import uk.co.gresearch.siembol.parsers.application.parsing.ParsingApplicationParser;
+import uk.co.gresearch.siembol.parsers.application.parsing.ParsingApplicationResult;
+
+import java.io.Closeable;
+import java.lang.invoke.MethodHandles;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Worker that reads raw logs by a kafka consumer, parses them by a parsing application parser
+ * and writes the results by a kafka producer.
+ * Offsets are committed after all results of the polled records have been written to kafka.
+ * If writing of a result fails the offsets are not committed and the polled records are read again.
+ */
+public class ParsingApplicationWorker implements Runnable, Closeable {
+    private static final Logger LOG = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+    private static final String WORKER_START = "Parsing worker started reading topics: {}";
+    private static final String WORKER_STOP = "Parsing worker stopped";
+    private static final String WORKER_EXCEPTION_LOG = "Exception in parsing worker: {}";
+    private static final String SEND_EXCEPTION_LOG = "Exception during writing results, " +
+            "seeking back to offset: {} of partition: {}, exception: {}";
+
+    private final Consumer<String, byte[]> consumer;
+    private final Producer<String, byte[]> producer;
+    private final AtomicReference<ParsingApplicationParser> parser;
+    private final List<String> inputTopics;
+    private final EventFormat eventsFormat;
+    private final long pollTimeoutMs;
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+    private final AtomicLong processedMessages = new AtomicLong();
+
+    public ParsingApplicationWorker(Consumer<String, byte[]> consumer,
+                                    Producer<String, byte[]> producer,
+                                    AtomicReference<ParsingApplicationParser> parser,
+                                    List<String> inputTopics,
+                                    EventFormat eventsFormat,
+                                    long pollTimeoutMs) {
+        this.consumer = consumer;
+        this.producer = producer;
+        this.parser = parser;
+        this.inputTopics = inputTopics;
+        this.eventsFormat = eventsFormat;
+        this.pollTimeoutMs = pollTimeoutMs;
+    }
+
+    @Override
+    public void run() {
+        try {
+            consumer.subscribe(inputTopics);
+            LOG.info(WORKER_START, inputTopics);
+            while (!closed.get()) {
+                pollAndProcess();
+            }
+        } catch (WakeupException e) {
+            if (!closed.get()) {
+                throw e;
+            }
+        } catch (Exception e) {
+            LOG.error(WORKER_EXCEPTION_LOG, ExceptionUtils.getStackTrace(e));
+            throw e;
+        } finally {
+            consumer.close();
+            LOG.info(WORKER_STOP);
+        }
+    }
+
+    int pollAndProcess() {
+        ConsumerRecords<String, byte[]> records = consumer.poll(pollTimeoutMs);
+        if (records.isEmpty()) {
+            return 0;
+        }
+
+        ParsingApplicationParser currentParser = parser.get();
+        List<Future<RecordMetadata>> sent = new ArrayList<>();
+        for (ConsumerRecord<String, byte[]> record : records) {
+            for (ProducerRecord<String, byte[]> result : parse(currentParser, record.key(), record.value())) {
+                sent.add(producer.send(result));
+            }
+        }
+
+        //NOTE: the whole poll is written before the commit so no message is lost after a failure
+        producer.flush();
+        Exception sendException = getSendException(sent);
+        if (sendException != null) {
+            seekToBeginning(records, sendException);
+            return 0;
+        }
+
+        consumer.commitSync();
+        processedMessages.addAndGet(records.count());
+        return records.count();
+    }
+
+    private Exception getSendException(List<Future<RecordMetadata>> sent) {
+        for (Future<RecordMetadata> future : sent) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                return e;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return e;
+            }
+        }
+        return null;
+    }
+
+    private void seekToBeginning(ConsumerRecords<String, byte[]> records, Exception exception) {
+        for (TopicPartition partition : records.partitions()) {
+            long offset = records.records(partition).get(0).offset();
+            LOG.error(SEND_EXCEPTION_LOG, offset, partition, ExceptionUtils.getStackTrace(exception));
+            consumer.seek(partition, offset);
+        }
+    }
+
+    private List<ProducerRecord<String, byte[]>> parse(ParsingApplicationParser currentParser,
+                                                       String metadata,
+                                                       byte[] log) {
+        List<ProducerRecord<String, byte[]>> ret = new ArrayList<>();
+        if (eventsFormat != EventFormat.JSON) {
+            for (ParsingApplicationResult result : currentParser.parseToBytes(metadata, log, eventsFormat)) {
+                result.getMessagesBytes().forEach(x -> ret.add(new ProducerRecord<>(result.getTopic(), x)));
+            }
+        } else {
+            for (ParsingApplicationResult result : currentParser.parse(metadata, log)) {
+                result.getMessages().forEach(x -> ret.add(
+                        new ProducerRecord<>(result.getTopic(), x.getBytes(StandardCharsets.UTF_8))));
+            }
+        }
+        return ret;
+    }
+
+    public long getProcessedMessages() {
+        return processedMessages.get();
+    }
+
+    @Override
+    public void close() {
+        closed.set(true);
+        consumer.wakeup();
+    }
+}
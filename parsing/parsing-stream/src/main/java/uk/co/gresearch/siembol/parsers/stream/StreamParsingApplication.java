@@ -0,0 +1,173 @@
+package uk.co.gresearch.siembol.parsers.stream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.co.gresearch.siembol.common.zookeper.ZookeeperConnectorFactory;
+import uk.co.gresearch.siembol.common.zookeper.ZookeeperConnectorFactoryImpl;
+import uk.co.gresearch.siembol.parsers.application.factory.ParsingApplicationFactoryAttributes;
+import uk.co.gresearch.siembol.parsers.application.factory.ParsingApplicationFactoryImpl;
+import uk.co.gresearch.siembol.parsers.application.factory.ParsingApplicationFactoryResult;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.apache.kafka.clients.consumer.ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG;
+import static org.apache.kafka.clients.consumer.ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG;
+import static org.apache.kafka.clients.consumer.ConsumerConfig.GROUP_ID_CONFIG;
+import static org.apache.kafka.clients.producer.ProducerConfig.CLIENT_ID_CONFIG;
+
+/**
+ * Parsing application running without storm. It uses a pool of parsing workers with the size
+ * of the parsing parallelism of the application. Each worker uses its own kafka consumer and parser
+ * while the kafka producer is shared by all workers.
+ * The application is closed and fails if any of its workers fails.
+ */
+public class StreamParsingApplication implements Closeable {
+    private static final Logger LOG =
+            LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+    private static final int EXPECTED_ARG_SIZE = 2;
+    private static final int STREAM_ATTR_INDEX = 0;
+    private static final int PARSING_ATTR_INDEX = 1;
+    private static final long TERMINATION_TIMEOUT_SEC = 30;
+    private static final String WRONG_ARGUMENT_MSG = "Wrong arguments. The application expects " +
+            "Base64 encoded stream attributes and parsing app attributes";
+    private static final String START_INFO_LOG = "Starting parsing application: {} with {} workers " +
+            "with stream attributes: {}\nparsing application attributes: {}";
+    private static final String CLIENT_ID_FORMAT = "%s.%d";
+    private static final String WORKER_FAILED_LOG = "Parsing worker failed, closing the application: {}";
+    private static final String WORKER_FAILED_MSG = "Parsing worker failed";
+
+    private final ParsingApplicationProvider parsingApplicationProvider;
+    private final Producer<String, byte[]> producer;
+    private final List<ParsingApplicationWorker> workers = new ArrayList<>();
+    private final ExecutorService executorService;
+    private final CompletionService<Void> completionService;
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+
+    StreamParsingApplication(StreamParsingApplicationAttributesDto streamAttributes,
+                             ParsingApplicationFactoryAttributes parsingAttributes,
+                             ZookeeperConnectorFactory zookeeperConnectorFactory) throws Exception {
+        int numWorkers = parsingAttributes.getParsingParallelism();
+        parsingApplicationProvider = new ParsingApplicationProvider(
+                parsingAttributes.getApplicationParserSpecification(),
+                zookeeperConnectorFactory.createZookeeperConnector(streamAttributes.getZookeeperAttributes()),
+                numWorkers);
+
+        Properties producerProps = new Properties();
+        producerProps.putAll(streamAttributes.getProducerProperties().getRawMap());
+        producerProps.put(BOOTSTRAP_SERVERS_CONFIG, streamAttributes.getBootstrapServers());
+        producerProps.put(CLIENT_ID_CONFIG, streamAttributes.getClientId(parsingAttributes.getName()));
+        producer = new KafkaProducer<>(producerProps, new StringSerializer(), new ByteArraySerializer());
+
+        executorService = Executors.newFixedThreadPool(numWorkers);
+        completionService = new ExecutorCompletionService<>(executorService);
+        for (int i = 0; i < numWorkers; i++) {
+            Properties consumerProps = new Properties();
+            consumerProps.putAll(streamAttributes.getConsumerProperties().getRawMap());
+            consumerProps.put(BOOTSTRAP_SERVERS_CONFIG, streamAttributes.getBootstrapServers());
+            consumerProps.put(GROUP_ID_CONFIG, streamAttributes.getGroupId(parsingAttributes.getName()));
+            consumerProps.put(CLIENT_ID_CONFIG, String.format(CLIENT_ID_FORMAT,
+                    streamAttributes.getGroupId(parsingAttributes.getName()), i));
+            consumerProps.put(ENABLE_AUTO_COMMIT_CONFIG, false);
+
+            workers.add(new ParsingApplicationWorker(
+                    new KafkaConsumer<>(consumerProps, new StringDeserializer(), new ByteArrayDeserializer()),
+                    producer,
+                    parsingApplicationProvider.getParser(i),
+                    parsingAttributes.getInputTopics(),
+                    streamAttributes.getEventsFormat(),
+                    streamAttributes.getPollTimeoutMs()));
+        }
+    }
+
+    public void start() {
+        workers.forEach(x -> completionService.submit(x, null));
+        executorService.shutdown();
+    }
+
+    public void awaitTermination() throws InterruptedException, IOException {
+        for (int i = 0; i < workers.size(); i++) {
+            try {
+                completionService.take().get();
+            } catch (ExecutionException e) {
+                //NOTE: the application is not running with fewer workers than its parallelism
+                LOG.error(WORKER_FAILED_LOG, ExceptionUtils.getStackTrace(e.getCause()));
+                close();
+                throw new IllegalStateException(WORKER_FAILED_MSG, e.getCause());
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed.getAndSet(true)) {
+            return;
+        }
+
+        workers.forEach(ParsingApplicationWorker::close);
+        try {
+            executorService.awaitTermination(TERMINATION_TIMEOUT_SEC, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        producer.close();
+        parsingApplicationProvider.close();
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != EXPECTED_ARG_SIZE) {
+            LOG.error(WRONG_ARGUMENT_MSG);
+            throw new IllegalArgumentException(WRONG_ARGUMENT_MSG);
+        }
+
+        String streamAttributesStr = new String(Base64.getDecoder().decode(args[STREAM_ATTR_INDEX]));
+        String parsingAttributesStr = new String(Base64.getDecoder().decode(args[PARSING_ATTR_INDEX]));
+
+        StreamParsingApplicationAttributesDto streamAttributes = new ObjectMapper()
+                .readerFor(StreamParsingApplicationAttributesDto.class)
+                .readValue(streamAttributesStr);
+
+        ParsingApplicationFactoryResult result = new ParsingApplicationFactoryImpl().create(parsingAttributesStr);
+        if (result.getStatusCode() != ParsingApplicationFactoryResult.StatusCode.OK) {
+            throw new IllegalArgumentException(result.getAttributes().getMessage());
+        }
+
+        ParsingApplicationFactoryAttributes parsingAttributes = result.getAttributes();
+        LOG.info(START_INFO_LOG, parsingAttributes.getName(), parsingAttributes.getParsingParallelism(),
+                streamAttributesStr, parsingAttributesStr);
+
+        StreamParsingApplication application = new StreamParsingApplication(streamAttributes,
+                parsingAttributes, new ZookeeperConnectorFactoryImpl());
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                application.close();
+            } catch (IOException e) {
+                LOG.error(e.getMessage());
+            }
+        }));
+
+        application.start();
+        application.awaitTermination();
+    }
+}
@@ -0,0 +1,117 @@
+package uk.co.gresearch.siembol.parsers.stream;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.github.reinert.jjschema.Attributes;
+import com.github.reinert.jjschema.SchemaIgnore;
+import uk.co.gresearch.siembol.common.jsonschema.JsonRawStringDto;
+import uk.co.gresearch.siembol.common.model.ZookeeperAttributesDto;
+import uk.co.gresearch.siembol.common.utils.EventFormat;
+
+@Attributes(title = "stream parsing application attributes", description = "Stream parsing application attributes")
+public class StreamParsingApplicationAttributesDto {
+    private static final String KAFKA_PRINCIPAL_FORMAT_MSG = "%s.%s";
+
+    @Attributes(description = "The prefix that will be used to create a kafka producer client id using application name",
+            required = true)
+    @JsonProperty("client.id.prefix")
+    private String clientIdPrefix = "siembol.parsing.writer";
+    @JsonProperty("group.id.prefix")
+    @Attributes(description = "The prefix that will be used to create a kafka group id reader using application name",
+            required = true)
+    private String groupIdPrefix = "siembol.parsing.reader";
+    @JsonProperty("zookeeper.attributes")
+    @Attributes(description = "Zookeeper attributes for updating parser configurations", required = true)
+    private ZookeeperAttributesDto zookeeperAttributes;
+    @JsonProperty("bootstrap.servers")
+    @Attributes(description = "Kafka brokers servers url. Multiple servers are separated by comma", required = true)
+    private String bootstrapServers;
+    @JsonProperty("consumer.properties")
+    @Attributes(description = "Defines kafka consumer properties")
+    private JsonRawStringDto consumerProperties = new JsonRawStringDto();
+    @JsonProperty("producer.properties")
+    @Attributes(description = "Defines kafka producer properties")
+    private JsonRawStringDto producerProperties = new JsonRawStringDto();
+    @JsonProperty("poll.timeout.ms")
+    @Attributes(description = "Timeout of polling messages from kafka in milliseconds", minimum = 1)
+    private Long pollTimeoutMs = 200L;
+    @JsonProperty("events.format")
+    @Attributes(description = "The format of produced events")
+    private EventFormat eventsFormat = EventFormat.JSON;
+
+    public String getClientIdPrefix() {
+        return clientIdPrefix;
+    }
+
+    public void setClientIdPrefix(String clientIdPrefix) {
+        this.clientIdPrefix = clientIdPrefix;
+    }
+
+    public String getGroupIdPrefix() {
+        return groupIdPrefix;
+    }
+
+    public void setGroupIdPrefix(String groupIdPrefix) {
+        this.groupIdPrefix = groupIdPrefix;
+    }
+
+    public ZookeeperAttributesDto getZookeeperAttributes() {
+        return zookeeperAttributes;
+    }
+
+    public void setZookeeperAttributes(ZookeeperAttributesDto zookeeperAttributes) {
+        this.zookeeperAttributes = zookeeperAttributes;
+    }
+
+    public String getBootstrapServers() {
+        return bootstrapServers;
+    }
+
+    public void setBootstrapServers(String bootstrapServers) {
+        this.bootstrapServers = bootstrapServers;
+    }
+
+    public JsonRawStringDto getConsumerProperties() {
+        return consumerProperties;
+    }
+
+    public void setConsumerProperties(JsonRawStringDto consumerProperties) {
+        this.consumerProperties = consumerProperties;
+    }
+
+    public JsonRawStringDto getProducerProperties() {
+        return producerProperties;
+    }
+
+    public void setProducerProperties(JsonRawStringDto producerProperties) {
+        this.producerProperties = producerProperties;
+    }
+
+    public Long getPollTimeoutMs() {
+        return pollTimeoutMs;
+    }
+
+    public void setPollTimeoutMs(Long pollTimeoutMs) {
+        this.pollTimeoutMs = pollTimeoutMs;
+    }
+
+    public EventFormat getEventsFormat() {
+        return eventsFormat;
+    }
+
+    public void setEventsFormat(EventFormat eventsFormat) {
+        this.eventsFormat = eventsFormat;
+    }
+
+    @SchemaIgnore
+    @JsonIgnore
+    public String getClientId(String parsingAppName) {
+        return String.format(KAFKA_PRINCIPAL_FORMAT_MSG, clientIdPrefix, parsingAppName);
+    }
+
+    @SchemaIgnore
+    @JsonIgnore
+    public String getGroupId(String parsingAppName) {
+        return String.format(KAFKA_PRINCIPAL_FORMAT_MSG, groupIdPrefix, parsingAppName);
+    }
+}
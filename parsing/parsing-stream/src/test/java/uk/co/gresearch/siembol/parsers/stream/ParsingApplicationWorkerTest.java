@@ -0,0 +1,188 @@
+package uk.co.gresearch.siembol.parsers.stream;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.adrianwalker.multilinestring.Multiline;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import uk.co.gresearch.siembol.common.constants.SiembolMessageFields;
+import uk.co.gresearch.siembol.common.utils.EventFormat;
+import uk.co.gresearch.siembol.common.zookeper.ZookeeperConnector;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.Mockito.when;
+
+public class ParsingApplicationWorkerTest {
+    private static final ObjectReader JSON_READER = new ObjectMapper()
+            .readerFor(new TypeReference<Map<String, Object>>() {});
+
+    /**
+     *{
+     *   "parsing_app_name": "test",
+     *   "parsing_app_version": 1,
+     *   "parsing_app_author": "dummy",
+     *   "parsing_app_description": "Description of parser application",
+     *   "parsing_app_settings": {
+     *     "input_topics": [
+     *       "secret"
+     *     ],
+     *     "parse_metadata" : true,
+     *     "error_topic": "error",
+     *     "input_parallelism": 1,
+     *     "parsing_parallelism": 2,
+     *     "output_parallelism": 1,
+     *     "parsing_app_type": "single_parser"
+     *   },
+     *   "parsing_settings": {
+     *     "single_parser": {
+     *       "parser_name": "single",
+     *       "output_topic": "output"
+     *     }
+     *   }
+     * }
+     **/
+    @Multiline
+    public static String simpleSingleApplicationParser;
+
+    /**
+     * {
+     *   "parsers_version": 1,
+     *   "parsers_configurations": [
+     *     {
+     *       "parser_description": "for testing single app parser",
+     *       "parser_version": 2,
+     *       "parser_name": "single",
+     *       "parser_author": "dummy",
+     *       "parser_attributes": {
+     *         "parser_type": "generic"
+     *       }
+     *     }
+     *   ]
+     * }
+     **/
+    @Multiline
+    public static String testParsersConfigs;
+
+    private final String inputTopic = "secret";
+    private final TopicPartition partition = new TopicPartition(inputTopic, 0);
+    private ZookeeperConnector zookeeperConnector;
+    private ParsingApplicationProvider provider;
+    private MockConsumer<String, byte[]> consumer;
+    private MockProducer<String, byte[]> producer;
+    private ParsingApplicationWorker worker;
+
+    @Before
+    public void setUp() {
+        zookeeperConnector = Mockito.mock(ZookeeperConnector.class);
+        when(zookeeperConnector.getData()).thenReturn(testParsersConfigs);
+        provider = new ParsingApplicationProvider(simpleSingleApplicationParser, zookeeperConnector, 2);
+
+        consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+        consumer.assign(Collections.singletonList(partition));
+        Map<TopicPartition, Long> beginningOffsets = new HashMap<>();
+        beginningOffsets.put(partition, 0L);
+        consumer.updateBeginningOffsets(beginningOffsets);
+
+        producer = new MockProducer<>(true, new StringSerializer(), new ByteArraySerializer());
+        worker = new ParsingApplicationWorker(consumer, producer, provider.getParser(0),
+                Arrays.asList(inputTopic), EventFormat.JSON, 10);
+    }
+
+    @Test
+    public void testParseAndCommit() throws Exception {
+        consumer.addRecord(new ConsumerRecord<>(inputTopic, 0, 0, "{\"a\":\"b\"}",
+                "RAW_LOG".getBytes(StandardCharsets.UTF_8)));
+        consumer.addRecord(new ConsumerRecord<>(inputTopic, 0, 1, "{\"a\":\"c\"}",
+                "RAW_LOG2".getBytes(StandardCharsets.UTF_8)));
+
+        Assert.assertEquals(2, worker.pollAndProcess());
+        Assert.assertEquals(2, worker.getProcessedMessages());
+
+        List<ProducerRecord<String, byte[]>> sent = producer.history();
+        Assert.assertEquals(2, sent.size());
+        Assert.assertEquals("output", sent.get(0).topic());
+        Map<String, Object> parsed = JSON_READER.readValue(new String(sent.get(0).value(), StandardCharsets.UTF_8));
+        Assert.assertEquals("RAW_LOG", parsed.get(SiembolMessageFields.ORIGINAL.toString()));
+        Assert.assertEquals("b", parsed.get("metadata_a"));
+        Assert.assertEquals("single", parsed.get(SiembolMessageFields.SENSOR_TYPE.toString()));
+
+        Assert.assertEquals(2L, consumer.committed(partition).offset());
+        Assert.assertEquals(0, worker.pollAndProcess());
+    }
+
+    @Test
+    public void testErrorMessage() {
+        consumer.addRecord(new ConsumerRecord<>(inputTopic, 0, 0, "INVALID",
+                "RAW_LOG".getBytes(StandardCharsets.UTF_8)));
+
+        Assert.assertEquals(1, worker.pollAndProcess());
+        Assert.assertEquals(1, producer.history().size());
+        Assert.assertEquals("error", producer.history().get(0).topic());
+        Assert.assertEquals(1L, consumer.committed(partition).offset());
+    }
+
+    @Test
+    public void testSendFailureNotCommitted() {
+        MockProducer<String, byte[]> failingProducer = new MockProducer<String, byte[]>(
+                false, new StringSerializer(), new ByteArraySerializer()) {
+            @Override
+            public synchronized void flush() {
+                errorNext(new KafkaException("send failed"));
+                super.flush();
+            }
+        };
+        worker = new ParsingApplicationWorker(consumer, failingProducer, provider.getParser(0),
+                Arrays.asList(inputTopic), EventFormat.JSON, 10);
+        consumer.addRecord(new ConsumerRecord<>(inputTopic, 0, 0, "{\"a\":\"b\"}",
+                "RAW_LOG".getBytes(StandardCharsets.UTF_8)));
+        consumer.addRecord(new ConsumerRecord<>(inputTopic, 0, 1, "{\"a\":\"c\"}",
+                "RAW_LOG2".getBytes(StandardCharsets.UTF_8)));
+
+        Assert.assertEquals(0, worker.pollAndProcess());
+        Assert.assertEquals(0, worker.getProcessedMessages());
+        Assert.assertEquals(2, failingProducer.history().size());
+        Assert.assertNull(consumer.committed(partition));
+        Assert.assertEquals(0L, consumer.position(partition));
+    }
+
+    @Test
+    public void testParsersUpdate() {
+        Assert.assertNotNull(provider.getParser(0).get());
+        Assert.assertNotNull(provider.getParser(1).get());
+        Assert.assertNotSame(provider.getParser(0).get(), provider.getParser(1).get());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testInvalidParsersConfigs() {
+        when(zookeeperConnector.getData()).thenReturn("INVALID");
+        new ParsingApplicationProvider(simpleSingleApplicationParser, zookeeperConnector, 1);
+    }
+
+    @Test
+    public void testClose() {
+        MockConsumer<String, byte[]> subscribedConsumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+        worker = new ParsingApplicationWorker(subscribedConsumer, producer, provider.getParser(0),
+                Arrays.asList(inputTopic), EventFormat.JSON, 10);
+        worker.close();
+        worker.run();
+        Assert.assertTrue(subscribedConsumer.closed());
+    }
+}
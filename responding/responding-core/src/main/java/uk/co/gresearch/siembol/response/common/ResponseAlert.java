@@ -6,8 +6,10 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.ObjectWriter;
 import uk.co.gresearch.siembol.common.constants.SiembolMessageFields;
+import uk.co.gresearch.siembol.common.utils.EventFormat;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
@@ -18,6 +20,8 @@ public class ResponseAlert extends HashMap<String, Object> {
             .readerFor(new TypeReference<Map<String, Object>>() {});
     private static ObjectWriter RESPONSE_ALERT_WRITER = new ObjectMapper()
             .writerFor(ResponseAlert.class);
+    private static ObjectWriter ORIGINAL_ALERT_WRITER = new ObjectMapper()
+            .writerFor(new TypeReference<Map<String, Object>>() {});
 
     public ResponseAlert(String alertId) {
         this.put(ResponseFields.ALERT_ID.toString(), alertId);
@@ -61,4 +65,16 @@ public class ResponseAlert extends HashMap<String, Object> {
         alert.put(ResponseFields.ORIGINAL_STRING.toString(), alertStr);
         return alert;
     }
+
+    public static ResponseAlert fromOriginalBytes(String alertId, byte[] alertBytes) throws IOException {
+        if (EventFormat.detect(alertBytes) == EventFormat.JSON) {
+            return fromOriginalString(alertId, new String(alertBytes, StandardCharsets.UTF_8));
+        }
+
+        Map<String, Object> originalAlert = EventFormat.readEvent(alertBytes);
+        ResponseAlert alert = new ResponseAlert(alertId);
+        alert.putAll(originalAlert);
+        alert.put(ResponseFields.ORIGINAL_STRING.toString(), ORIGINAL_ALERT_WRITER.writeValueAsString(originalAlert));
+        return alert;
+    }
 }
@@ -11,11 +11,13 @@ import reactor.core.publisher.Mono;
 import uk.co.gresearch.siembol.common.constants.SiembolMessageFields;
 import uk.co.gresearch.siembol.common.error.ErrorMessage;
 import uk.co.gresearch.siembol.common.error.ErrorType;
+import uk.co.gresearch.siembol.common.utils.EventFormat;
 import uk.co.gresearch.siembol.response.stream.rest.application.ResponseConfigurationProperties;
 import uk.co.gresearch.siembol.response.common.RespondingResult;
 import uk.co.gresearch.siembol.response.common.RespondingResultAttributes;
 import uk.co.gresearch.siembol.response.common.ResponseAlert;
 import uk.co.gresearch.siembol.response.common.ResponseEvaluationResult;
+import uk.co.gresearch.siembol.response.common.ResponseFields;
 
 import java.lang.invoke.MethodHandles;
 import java.util.Properties;
@@ -40,11 +42,11 @@ public class KafkaStreamRulesService implements RulesService {
     private KafkaStreams createStreams(ResponseConfigurationProperties properties) {
         LOG.info(INIT_START);
         KStreamBuilder builder = new KStreamBuilder();
-        builder.<String, String>stream(properties.getInputTopic())
+        builder.stream(Serdes.String(), Serdes.ByteArray(), properties.getInputTopic())
                 .mapValues(x -> processMessage(x))
                 .filter((x, y) -> y.getStatusCode() != OK)
                 .mapValues(x -> x.getAttributes().getMessage())
-                .to(properties.getErrorTopic());
+                .to(Serdes.String(), Serdes.String(), properties.getErrorTopic());
 
         Properties configuration = new Properties();
         configuration.putAll(properties.getStreamConfig());
@@ -67,9 +69,11 @@ public class KafkaStreamRulesService implements RulesService {
         return new RespondingResult(ERROR, attributes);
     }
 
-    private RespondingResult processMessage(String value) {
+    private RespondingResult processMessage(byte[] valueBytes) {
+        String value = null;
         try {
-            ResponseAlert alert = ResponseAlert.fromOriginalString(UUID.randomUUID().toString(), value);
+            ResponseAlert alert = ResponseAlert.fromOriginalBytes(UUID.randomUUID().toString(), valueBytes);
+            value = (String)alert.get(ResponseFields.ORIGINAL_STRING.toString());
             alert.put(SiembolMessageFields.RESPONSE_TIME.toString(), System.currentTimeMillis());
             LOG.info("Processing alert guid {}", alert.getResponseAlertId());
             LOG.debug("alert for processing: {}", value);
@@ -83,7 +87,8 @@ public class KafkaStreamRulesService implements RulesService {
             LOG.debug("Computed alert: {}", result.getAttributes().getAlert().toString());
             return result;
         } catch (Exception e) {
-            return formatErrorMessage(RespondingResult.fromException(e), value);
+            return formatErrorMessage(RespondingResult.fromException(e),
+                    value != null ? value : EventFormat.toJsonString(valueBytes));
         }
     }
 
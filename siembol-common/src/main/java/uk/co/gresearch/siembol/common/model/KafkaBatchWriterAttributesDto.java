@@ -3,6 +3,7 @@ package uk.co.gresearch.siembol.common.model;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.github.reinert.jjschema.Attributes;
 import uk.co.gresearch.siembol.common.jsonschema.JsonRawStringDto;
+import uk.co.gresearch.siembol.common.utils.EventFormat;
 
 @Attributes(title = "kafka batch writer attributes", description = "Attributes for storm configuration")
 public class KafkaBatchWriterAttributesDto {
@@ -12,6 +13,13 @@ public class KafkaBatchWriterAttributesDto {
     @JsonProperty("producer.properties")
     @Attributes(required = true, description = "Defines kafka producer properties")
     private JsonRawStringDto producerProperties;
+    @JsonProperty("async.acking")
+    @Attributes(description = "Acking tuples individually in producer callbacks without flushing the batch")
+    private Boolean asyncAcking = false;
+    @JsonProperty("events.format")
+    @Attributes(description = "The format of events written to output topics. The binary smile format " +
+            "should be used only for internal topics consumed by siembol. Error messages are always written as json")
+    private EventFormat eventsFormat = EventFormat.JSON;
 
     public Integer getBatchSize() {
         return batchSize;
@@ -28,4 +36,20 @@ public class KafkaBatchWriterAttributesDto {
     public void setProducerProperties(JsonRawStringDto producerProperties) {
         this.producerProperties = producerProperties;
     }
+
+    public Boolean getAsyncAcking() {
+        return asyncAcking;
+    }
+
+    public void setAsyncAcking(Boolean asyncAcking) {
+        this.asyncAcking = asyncAcking;
+    }
+
+    public EventFormat getEventsFormat() {
+        return eventsFormat;
+    }
+
+    public void setEventsFormat(EventFormat eventsFormat) {
+        this.eventsFormat = eventsFormat;
+    }
 }
@@ -35,6 +35,10 @@ public class StormAttributesDto {
     @Attributes(required = true, description = "Defines storm attributes for a topology")
     @JsonProperty("storm.config")
     private JsonRawStringDto stormConfig;
+    @Attributes(description = "Carrying events as UTF-8 byte arrays from the kafka spout to the kafka writer " +
+            "without decoding and encoding them to strings")
+    @JsonProperty("byte.array.events")
+    private Boolean byteArrayEvents = false;
 
     public String getBootstrapServers() {
         return bootstrapServers;
@@ -99,4 +103,12 @@ public class StormAttributesDto {
     public void setKafkaSpoutProperties(JsonRawStringDto kafkaSpoutProperties) {
         this.kafkaSpoutProperties = kafkaSpoutProperties;
     }
+
+    public Boolean getByteArrayEvents() {
+        return byteArrayEvents;
+    }
+
+    public void setByteArrayEvents(Boolean byteArrayEvents) {
+        this.byteArrayEvents = byteArrayEvents;
+    }
 }
@@ -26,6 +26,10 @@ public class StormParsingApplicationAttributesDto extends AdminConfigDto impleme
     @Attributes(description = "The prefix that will be used to create a kafka group id reader using application name",
             required = true)
     private String groupIdPrefix = "siembol.parsing.reader";
+    @JsonProperty("multi.application.name")
+    @Attributes(description = "The name used instead of the application name in a topology " +
+            "hosting multiple parsing applications, derived from the names of the hosted applications if not provided")
+    private String multiApplicationName;
     @JsonProperty("zookeeper.attributes")
     @Attributes(description = "Zookeeper attributes for updating parser configurations",
             required = true)
@@ -59,6 +63,14 @@ public class StormParsingApplicationAttributesDto extends AdminConfigDto impleme
         this.groupIdPrefix = groupIdPrefix;
     }
 
+    public String getMultiApplicationName() {
+        return multiApplicationName;
+    }
+
+    public void setMultiApplicationName(String multiApplicationName) {
+        this.multiApplicationName = multiApplicationName;
+    }
+
     public ZookeeperAttributesDto getZookeeperAttributes() {
         return zookeeperAttributes;
     }
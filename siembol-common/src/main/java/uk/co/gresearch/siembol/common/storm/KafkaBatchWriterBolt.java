@@ -1,11 +1,15 @@
 package uk.co.gresearch.siembol.common.storm;
 
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Timer;
 import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.apache.kafka.clients.producer.Callback;
 import org.apache.kafka.clients.producer.KafkaProducer;
 import org.apache.kafka.clients.producer.Producer;
 import org.apache.kafka.clients.producer.ProducerRecord;
 import org.apache.kafka.common.KafkaException;
 import org.apache.kafka.common.errors.AuthorizationException;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.apache.storm.task.OutputCollector;
 import org.apache.storm.task.TopologyContext;
@@ -16,15 +20,22 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import uk.co.gresearch.siembol.common.model.KafkaBatchWriterAttributesDto;
 
+import java.io.Serializable;
 import java.lang.invoke.MethodHandles;
 import java.util.ArrayList;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.apache.storm.utils.TupleUtils.isTick;
 import static org.apache.storm.utils.TupleUtils.putTickFrequencyIntoComponentConfig;
 
 public class KafkaBatchWriterBolt extends BaseRichBolt {
+    interface ProducerFactory extends Serializable {
+        Producer<String, byte[]> create(Properties props);
+    }
+
     private static final long serialVersionUID = 1L;
     private static final Logger LOG =
             LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
@@ -37,20 +48,34 @@ public class KafkaBatchWriterBolt extends BaseRichBolt {
             "Sending message: {} to the topic: {}";
     private static final String MISSING_MESSAGES_MSG =
             "Missing messages in tuple";
+    private static final String SEND_LATENCY_METRIC = "kafka_writer_send_latency";
+    private static final String IN_FLIGHT_TUPLES_METRIC = "kafka_writer_in_flight_tuples";
 
     private final Properties props;
     private final int batchSize;
     private final String fieldName;
+    private final boolean asyncAcking;
+    private final ProducerFactory producerFactory;
     private final ArrayList<Tuple> anchors = new ArrayList<>();
     private final ArrayList<KafkaBatchWriterMessage> messages = new ArrayList<>();
     private OutputCollector collector;
-    private Producer<String, String> producer;
+    private Producer<String, byte[]> producer;
+    private Timer sendLatency;
+    private Counter inFlightTuples;
 
     public KafkaBatchWriterBolt(KafkaBatchWriterAttributesDto attributes, String fieldName) {
+        this(attributes, fieldName, x -> new KafkaProducer<>(x, new StringSerializer(), new ByteArraySerializer()));
+    }
+
+    KafkaBatchWriterBolt(KafkaBatchWriterAttributesDto attributes,
+                         String fieldName,
+                         ProducerFactory producerFactory) {
+        this.producerFactory = producerFactory;
         this.props = new Properties();
         attributes.getProducerProperties().getRawMap().entrySet().forEach(x -> props.put(x.getKey(), x.getValue()));
         this.batchSize = attributes.getBatchSize();
         this.fieldName = fieldName;
+        this.asyncAcking = attributes.getAsyncAcking() != null && attributes.getAsyncAcking();
     }
 
     @Override
@@ -69,6 +94,11 @@ public class KafkaBatchWriterBolt extends BaseRichBolt {
         }
 
         KafkaBatchWriterMessages current = (KafkaBatchWriterMessages)messagesObject;
+        if (asyncAcking) {
+            writeTupleAsync(tuple, current);
+            return;
+        }
+
         messages.addAll(current);
         anchors.add(tuple);
         if (messages.size() > batchSize) {
@@ -80,7 +110,18 @@ public class KafkaBatchWriterBolt extends BaseRichBolt {
     @Override
     public void prepare(Map map, TopologyContext topologyContext, OutputCollector outputCollector) {
         this.collector = outputCollector;
-        producer = new KafkaProducer<>(props, new StringSerializer(), new StringSerializer());
+        producer = producerFactory.create(props);
+        if (!asyncAcking) {
+            return;
+        }
+
+        if (topologyContext != null) {
+            sendLatency = topologyContext.registerTimer(SEND_LATENCY_METRIC);
+            inFlightTuples = topologyContext.registerCounter(IN_FLIGHT_TUPLES_METRIC);
+        } else {
+            sendLatency = new Timer();
+            inFlightTuples = new Counter();
+        }
     }
 
     @Override
@@ -97,13 +138,61 @@ public class KafkaBatchWriterBolt extends BaseRichBolt {
         return putTickFrequencyIntoComponentConfig(null, ACK_INTERVAL_ACK_IN_SEC);
     }
 
+    private void writeTupleAsync(Tuple tuple, KafkaBatchWriterMessages current) {
+        if (current.isEmpty()) {
+            collector.ack(tuple);
+            return;
+        }
+
+        AnchorTracker anchor = new AnchorTracker(tuple, current.size());
+        inFlightTuples.inc();
+        try {
+            for (KafkaBatchWriterMessage message : current) {
+                logSendingMessage(message);
+                Timer.Context timerContext = sendLatency.time();
+                try {
+                    producer.send(new ProducerRecord<>(message.getTopic(), message.getKey(), message.getMessageBytes()),
+                            createCallback(anchor, timerContext));
+                } catch (KafkaException e) {
+                    timerContext.stop();
+                    throw e;
+                }
+            }
+        } catch (AuthorizationException e) {
+            LOG.error(AUTH_EXCEPTION_MESSAGE, ExceptionUtils.getStackTrace(e));
+            producer.close();
+            throw new IllegalStateException(e);
+        } catch (KafkaException e) {
+            LOG.error(KAFKA_EXCEPTION_MESSAGE, ExceptionUtils.getStackTrace(e));
+            failAnchor(anchor);
+        }
+    }
+
+    private Callback createCallback(AnchorTracker anchor, Timer.Context timerContext) {
+        return (metadata, exception) -> {
+            timerContext.stop();
+            if (exception != null) {
+                LOG.error(KAFKA_EXCEPTION_MESSAGE, ExceptionUtils.getStackTrace(exception));
+                failAnchor(anchor);
+            } else if (anchor.completeMessage()) {
+                inFlightTuples.dec();
+                collector.ack(anchor.getTuple());
+            }
+        };
+    }
+
+    private void failAnchor(AnchorTracker anchor) {
+        if (anchor.fail()) {
+            inFlightTuples.dec();
+            collector.fail(anchor.getTuple());
+        }
+    }
+
     private void writeTuples() {
         try {
             messages.forEach(x -> {
-                LOG.debug(SENDING_MESSAGE_LOG, x.getMessage(), x.getTopic());
-                producer.send(new ProducerRecord<>(x.getTopic(),
-                        String.valueOf(x.getMessage().hashCode()),
-                        x.getMessage()));
+                logSendingMessage(x);
+                producer.send(new ProducerRecord<>(x.getTopic(), x.getKey(), x.getMessageBytes()));
             });
 
             producer.flush();
@@ -120,4 +209,33 @@ public class KafkaBatchWriterBolt extends BaseRichBolt {
             messages.clear();
         }
     }
+
+    private void logSendingMessage(KafkaBatchWriterMessage message) {
+        if (LOG.isDebugEnabled()) {
+            LOG.debug(SENDING_MESSAGE_LOG, message.getMessage(), message.getTopic());
+        }
+    }
+
+    private static class AnchorTracker {
+        private final Tuple tuple;
+        private final AtomicInteger remaining;
+        private final AtomicBoolean failed = new AtomicBoolean(false);
+
+        AnchorTracker(Tuple tuple, int numMessages) {
+            this.tuple = tuple;
+            this.remaining = new AtomicInteger(numMessages);
+        }
+
+        Tuple getTuple() {
+            return tuple;
+        }
+
+        boolean completeMessage() {
+            return remaining.decrementAndGet() == 0 && !failed.get();
+        }
+
+        boolean fail() {
+            return failed.compareAndSet(false, true);
+        }
+    }
 }
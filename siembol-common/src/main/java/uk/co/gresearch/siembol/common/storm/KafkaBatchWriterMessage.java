@@ -1,15 +1,24 @@
 package uk.co.gresearch.siembol.common.storm;
 
 import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
 
 public class KafkaBatchWriterMessage implements Serializable {
     private static final long serialVersionUID = 1L;
     private final String topic;
     private final String message;
+    private final byte[] messageBytes;
 
     public KafkaBatchWriterMessage(String topic, String message) {
         this.topic = topic;
         this.message = message;
+        this.messageBytes = null;
+    }
+
+    public KafkaBatchWriterMessage(String topic, byte[] messageBytes) {
+        this.topic = topic;
+        this.message = null;
+        this.messageBytes = messageBytes;
     }
 
     public String getTopic() {
@@ -17,6 +26,83 @@ public class KafkaBatchWriterMessage implements Serializable {
     }
 
     public String getMessage() {
-        return message;
+        return message != null ? message : new String(messageBytes, StandardCharsets.UTF_8);
+    }
+
+    public byte[] getMessageBytes() {
+        return messageBytes != null ? messageBytes : message.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the key of the message computed from the hash code of the message string in both representations,
+     * so the partition of a message does not depend on the representation
+     */
+    public String getKey() {
+        return String.valueOf(message != null ? message.hashCode() : getStringHashCode(messageBytes));
+    }
+
+    /**
+     * Computes the hash code of the string decoded from UTF-8 bytes without decoding the string
+     */
+    static int getStringHashCode(byte[] bytes) {
+        int hash = 0;
+        int i = 0;
+        while (i < bytes.length) {
+            int first = bytes[i] & 0xff;
+            if (first < 0x80) {
+                hash = 31 * hash + first;
+                i++;
+                continue;
+            }
+
+            int length;
+            int codePoint;
+            int min = 0x80;
+            int max = 0xbf;
+            if (first >= 0xc2 && first <= 0xdf) {
+                length = 2;
+                codePoint = first & 0x1f;
+            } else if (first >= 0xe0 && first <= 0xef) {
+                length = 3;
+                codePoint = first & 0x0f;
+                min = first == 0xe0 ? 0xa0 : min;
+                max = first == 0xed ? 0x9f : max;
+            } else if (first >= 0xf0 && first <= 0xf4) {
+                length = 4;
+                codePoint = first & 0x07;
+                min = first == 0xf0 ? 0x90 : min;
+                max = first == 0xf4 ? 0x8f : max;
+            } else {
+                return getDecodedHashCode(bytes);
+            }
+
+            if (i + length > bytes.length) {
+                return getDecodedHashCode(bytes);
+            }
+
+            for (int j = 1; j < length; j++) {
+                int current = bytes[i + j] & 0xff;
+                if (current < min || current > max) {
+                    //NOTE: malformed input is hashed after decoding with replacement characters
+                    return getDecodedHashCode(bytes);
+                }
+                codePoint = (codePoint << 6) | (current & 0x3f);
+                min = 0x80;
+                max = 0xbf;
+            }
+
+            if (codePoint < Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+                hash = 31 * hash + codePoint;
+            } else {
+                hash = 31 * hash + Character.highSurrogate(codePoint);
+                hash = 31 * hash + Character.lowSurrogate(codePoint);
+            }
+            i += length;
+        }
+        return hash;
+    }
+
+    private static int getDecodedHashCode(byte[] bytes) {
+        return new String(bytes, StandardCharsets.UTF_8).hashCode();
     }
 }
@@ -3,9 +3,11 @@ package uk.co.gresearch.siembol.common.utils;
 import org.apache.commons.beanutils.BeanUtils;
 import org.apache.commons.beanutils.PropertyUtils;
 
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -50,6 +52,21 @@ public class EvaluationLibrary {
         return Optional.of(sb.toString());
     }
 
+    public static Set<String> getVariableNames(String str) {
+        Set<String> ret = new HashSet<>();
+        int variableIndex = str.indexOf(VARIABLE_START);
+        while (variableIndex > -1) {
+            int endVariable = str.indexOf(VARIABLE_END, variableIndex);
+            if (endVariable == -1) {
+                break;
+            }
+
+            ret.add(str.substring(variableIndex + VARIABLE_START_LEN, endVariable));
+            variableIndex = str.indexOf(VARIABLE_START, endVariable + 1);
+        }
+        return ret;
+    }
+
     public static boolean containsVariables(String str) {
         Matcher variableMatcher = VARIABLE_PATTERN.matcher(str);
         int numVariableMatches = 0;
@@ -0,0 +1,76 @@
+package uk.co.gresearch.siembol.common.utils;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.smile.SmileConstants;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+public enum EventFormat {
+    @JsonProperty("json")
+    JSON("json", new ObjectMapper()),
+    @JsonProperty("smile")
+    SMILE("smile", new ObjectMapper(new SmileFactory()));
+
+    private final String name;
+    private final ObjectMapper objectMapper;
+    private final ObjectReader eventReader;
+    private final ObjectWriter eventWriter;
+
+    EventFormat(String name, ObjectMapper objectMapper) {
+        this.name = name;
+        this.objectMapper = objectMapper;
+        this.eventReader = objectMapper.readerFor(new TypeReference<Map<String, Object>>() {});
+        this.eventWriter = objectMapper.writerFor(new TypeReference<Map<String, Object>>() {});
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    public byte[] writeEvent(Map<String, Object> event) throws JsonProcessingException {
+        return eventWriter.writeValueAsBytes(event);
+    }
+
+    public byte[] writeTree(JsonNode event) throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(event);
+    }
+
+    public static EventFormat detect(byte[] event) {
+        return event.length >= 3
+                && event[0] == SmileConstants.HEADER_BYTE_1
+                && event[1] == SmileConstants.HEADER_BYTE_2
+                && event[2] == SmileConstants.HEADER_BYTE_3
+                ? SMILE
+                : JSON;
+    }
+
+    public static Map<String, Object> readEvent(byte[] event) throws IOException {
+        return detect(event).eventReader.readValue(event);
+    }
+
+    public static JsonNode readTree(byte[] event) throws IOException {
+        return detect(event).objectMapper.readTree(event);
+    }
+
+    public static String toJsonString(byte[] event) {
+        if (detect(event) == JSON) {
+            return new String(event, StandardCharsets.UTF_8);
+        }
+
+        try {
+            return JSON.objectMapper.writeValueAsString(readTree(event));
+        } catch (IOException e) {
+            return new String(event, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -1,17 +1,30 @@
 package uk.co.gresearch.siembol.common.utils;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 public class PatternFilter implements FieldFilter {
+    private static final String ANY_SUFFIX = ".*";
+    private static final String NON_CAPTURING_GROUP_FORMAT = "(?:%s)";
+    private static final List<String> LOOKING_AHEAD_CONSTRUCTS = Arrays.asList(
+            "(?=", "(?!", "$", "\\b", "\\B", "\\z", "\\Z", "\\Q");
     private final List<Pattern> includingPatterns;
     private final List<Pattern> excludingPatterns;
+    private final List<Pattern> excludingPrefixPatterns;
 
     PatternFilter(List<Pattern> includingPattern, List<Pattern> excludingPattern) {
         this.includingPatterns = includingPattern;
         this.excludingPatterns = excludingPattern;
+        this.excludingPrefixPatterns = excludingPattern.stream()
+                .map(PatternFilter::getPrefixPattern)
+                .filter(Optional::isPresent)
+                .map(Optional::get)
+                .collect(Collectors.toList());
     }
 
     private boolean matchPatternList(List<Pattern> patterns, String str) {
@@ -28,6 +41,69 @@ public class PatternFilter implements FieldFilter {
         return matchPatternList(includingPatterns, str) && !matchPatternList(excludingPatterns, str);
     }
 
+    /**
+     * Checks whether a string starting with the prefix can be matched by the filter.
+     * The prefix is excluded only if an excluding pattern matches all its extensions.
+     */
+    public boolean matchPrefix(String prefix) {
+        for (Pattern pattern : excludingPrefixPatterns) {
+            if (pattern.matcher(prefix).lookingAt()) {
+                return false;
+            }
+        }
+
+        for (Pattern pattern : includingPatterns) {
+            Matcher matcher = pattern.matcher(prefix);
+            if (matcher.matches() || matcher.hitEnd()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the pattern P for an excluding pattern in the form P.* where P has no top level alternation
+     * and does not look beyond its match. Every extension of a string starting with a match of P
+     * is matched by the excluding pattern.
+     */
+    static Optional<Pattern> getPrefixPattern(Pattern excludingPattern) {
+        String regex = excludingPattern.pattern();
+        if (!regex.endsWith(ANY_SUFFIX) || excludingPattern.flags() != 0) {
+            return Optional.empty();
+        }
+
+        String prefixRegex = regex.substring(0, regex.length() - ANY_SUFFIX.length());
+        if (LOOKING_AHEAD_CONSTRUCTS.stream().anyMatch(prefixRegex::contains)) {
+            return Optional.empty();
+        }
+
+        boolean escaped = false;
+        boolean inClass = false;
+        int depth = 0;
+        for (char c : prefixRegex.toCharArray()) {
+            if (escaped) {
+                escaped = false;
+            } else if (c == '\\') {
+                escaped = true;
+            } else if (inClass) {
+                inClass = c != ']';
+            } else if (c == '[') {
+                inClass = true;
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (c == '|' && depth == 0) {
+                return Optional.empty();
+            }
+        }
+
+        if (escaped || inClass || depth != 0) {
+            return Optional.empty();
+        }
+        return Optional.of(Pattern.compile(String.format(NON_CAPTURING_GROUP_FORMAT, prefixRegex)));
+    }
+
     public static PatternFilter create(List<String> includingList, List<String> excludingList) {
         if (includingList == null || includingList.isEmpty()) {
             throw new IllegalArgumentException("Empty including pattern list in field filter");
@@ -0,0 +1,176 @@
+package uk.co.gresearch.siembol.common.storm;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Timer;
+import org.apache.kafka.clients.producer.Callback;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.storm.task.OutputCollector;
+import org.apache.storm.task.TopologyContext;
+import org.apache.storm.tuple.Tuple;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import uk.co.gresearch.siembol.common.jsonschema.JsonRawStringDto;
+import uk.co.gresearch.siembol.common.model.KafkaBatchWriterAttributesDto;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class KafkaBatchWriterBoltAsyncTest {
+    private final String fieldName = "field";
+    private KafkaBatchWriterAttributesDto attributes;
+    private MockProducer<String, byte[]> producer;
+    private OutputCollector collector;
+    private TopologyContext topologyContext;
+    private Counter inFlightTuples;
+    private Timer sendLatency;
+    private Tuple tuple;
+    private KafkaBatchWriterMessages messages;
+    private KafkaBatchWriterBolt writerBolt;
+
+    @Before
+    public void setUp() {
+        attributes = new KafkaBatchWriterAttributesDto();
+        attributes.setBatchSize(1);
+        attributes.setAsyncAcking(true);
+        attributes.setProducerProperties(new JsonRawStringDto());
+
+        producer = new MockProducer<>(false, new StringSerializer(), new ByteArraySerializer());
+        collector = Mockito.mock(OutputCollector.class);
+        inFlightTuples = new Counter();
+        sendLatency = new Timer();
+        topologyContext = Mockito.mock(TopologyContext.class);
+        when(topologyContext.registerCounter(any())).thenReturn(inFlightTuples);
+        when(topologyContext.registerTimer(any())).thenReturn(sendLatency);
+
+        messages = new KafkaBatchWriterMessages();
+        messages.add(new KafkaBatchWriterMessage("output", "a"));
+        messages.add(new KafkaBatchWriterMessage("output", "b"));
+        messages.add(new KafkaBatchWriterMessage("output", "c"));
+        tuple = Mockito.mock(Tuple.class);
+        when(tuple.getValueByField(eq(fieldName))).thenReturn(messages);
+
+        writerBolt = createBolt(producer);
+    }
+
+    private KafkaBatchWriterBolt createBolt(Producer<String, byte[]> currentProducer) {
+        KafkaBatchWriterBolt ret = new KafkaBatchWriterBolt(attributes, fieldName, x -> currentProducer);
+        ret.prepare(null, topologyContext, collector);
+        return ret;
+    }
+
+    @Test
+    public void testAckAfterLastCallback() {
+        writerBolt.execute(tuple);
+        Assert.assertEquals(3, producer.history().size());
+        Assert.assertEquals(1, inFlightTuples.getCount());
+
+        producer.completeNext();
+        producer.completeNext();
+        verify(collector, never()).ack(any());
+        Assert.assertEquals(1, inFlightTuples.getCount());
+
+        producer.completeNext();
+        verify(collector, times(1)).ack(tuple);
+        verify(collector, never()).fail(any());
+        Assert.assertEquals(0, inFlightTuples.getCount());
+        Assert.assertEquals(3, sendLatency.getCount());
+    }
+
+    @Test
+    public void testFailOnceAfterMultipleErrors() {
+        writerBolt.execute(tuple);
+        producer.errorNext(new KafkaException("first"));
+        producer.completeNext();
+        producer.errorNext(new KafkaException("second"));
+
+        verify(collector, times(1)).fail(tuple);
+        verify(collector, never()).ack(any());
+        Assert.assertEquals(0, inFlightTuples.getCount());
+        Assert.assertEquals(3, sendLatency.getCount());
+    }
+
+    @Test
+    public void testMultipleTuplesInFlight() {
+        Tuple other = Mockito.mock(Tuple.class);
+        when(other.getValueByField(eq(fieldName))).thenReturn(messages);
+        writerBolt.execute(tuple);
+        writerBolt.execute(other);
+        Assert.assertEquals(2, inFlightTuples.getCount());
+
+        for (int i = 0; i < 3; i++) {
+            producer.completeNext();
+        }
+        verify(collector, times(1)).ack(tuple);
+        Assert.assertEquals(1, inFlightTuples.getCount());
+
+        producer.errorNext(new KafkaException("error"));
+        producer.completeNext();
+        producer.completeNext();
+        verify(collector, times(1)).fail(other);
+        verify(collector, never()).ack(other);
+        Assert.assertEquals(0, inFlightTuples.getCount());
+    }
+
+    @Test
+    public void testEmptyTupleAcked() {
+        messages.clear();
+        writerBolt.execute(tuple);
+        verify(collector, times(1)).ack(tuple);
+        Assert.assertEquals(0, inFlightTuples.getCount());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testSynchronousExceptionDuringTuple() {
+        Producer<String, byte[]> failingProducer = Mockito.mock(Producer.class);
+        Callback[] callbacks = new Callback[1];
+        when(failingProducer.send(any(ProducerRecord.class), any(Callback.class)))
+                .thenAnswer(x -> {
+                    callbacks[0] = x.getArgument(1);
+                    return null;
+                })
+                .thenThrow(new KafkaException("synchronous"));
+        writerBolt = createBolt(failingProducer);
+
+        writerBolt.execute(tuple);
+        verify(failingProducer, times(2)).send(any(ProducerRecord.class), any(Callback.class));
+        verify(collector, times(1)).fail(tuple);
+        Assert.assertEquals(0, inFlightTuples.getCount());
+        Assert.assertEquals(1, sendLatency.getCount());
+
+        callbacks[0].onCompletion(null, null);
+        verify(collector, times(1)).fail(tuple);
+        verify(collector, never()).ack(any());
+        Assert.assertEquals(0, inFlightTuples.getCount());
+        Assert.assertEquals(2, sendLatency.getCount());
+    }
+
+    @Test
+    public void testMetricsRegisteredInAsyncMode() {
+        verify(topologyContext, times(1)).registerTimer(eq("kafka_writer_send_latency"));
+        verify(topologyContext, times(1)).registerCounter(eq("kafka_writer_in_flight_tuples"));
+    }
+
+    @Test
+    public void testNoMetricsWithoutAsyncAcking() {
+        attributes.setAsyncAcking(false);
+        topologyContext = Mockito.mock(TopologyContext.class);
+        writerBolt = createBolt(producer);
+        verify(topologyContext, never()).registerTimer(any());
+        verify(topologyContext, never()).registerCounter(any());
+
+        writerBolt.execute(tuple);
+        verify(collector, times(1)).ack(tuple);
+    }
+}
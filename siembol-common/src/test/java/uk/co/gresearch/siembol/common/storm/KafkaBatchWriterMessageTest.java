@@ -0,0 +1,41 @@
+package uk.co.gresearch.siembol.common.storm;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+public class KafkaBatchWriterMessageTest {
+    private static final String[] STRINGS = {"", "dummy", "{\"a\":\"é\"}", "€ and 中文", "emoji 😀 end"};
+
+    @Test
+    public void testSameKeyInBothRepresentations() {
+        for (String str : STRINGS) {
+            Assert.assertEquals(new KafkaBatchWriterMessage("topic", str).getKey(),
+                    new KafkaBatchWriterMessage("topic", str.getBytes(StandardCharsets.UTF_8)).getKey());
+        }
+    }
+
+    @Test
+    public void testHashCodeOfRandomBytes() {
+        Random random = new Random(42);
+        for (int i = 0; i < 100000; i++) {
+            byte[] bytes;
+            if (random.nextBoolean()) {
+                StringBuilder sb = new StringBuilder();
+                int length = random.nextInt(10);
+                for (int j = 0; j < length; j++) {
+                    sb.appendCodePoint(random.nextInt(Character.MAX_CODE_POINT + 1));
+                }
+                bytes = sb.toString().getBytes(StandardCharsets.UTF_8);
+            } else {
+                bytes = new byte[random.nextInt(8)];
+                random.nextBytes(bytes);
+            }
+
+            Assert.assertEquals(new String(bytes, StandardCharsets.UTF_8).hashCode(),
+                    KafkaBatchWriterMessage.getStringHashCode(bytes));
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package uk.co.gresearch.siembol.common.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.regex.Pattern;
+
+public class PatternFilterTest {
+
+    @Test
+    public void testMatch() {
+        PatternFilter filter = PatternFilter.create(Arrays.asList("a.*", "b"), Arrays.asList("a_secret"));
+        Assert.assertTrue(filter.match("a"));
+        Assert.assertTrue(filter.match("a_b"));
+        Assert.assertTrue(filter.match("b"));
+        Assert.assertFalse(filter.match("a_secret"));
+        Assert.assertFalse(filter.match("c"));
+    }
+
+    @Test
+    public void testMatchPrefixIncluding() {
+        PatternFilter filter = PatternFilter.create(Arrays.asList("a_b_.*", "c"), null);
+        Assert.assertTrue(filter.matchPrefix("a"));
+        Assert.assertTrue(filter.matchPrefix("a_b"));
+        Assert.assertTrue(filter.matchPrefix("a_b_c"));
+        Assert.assertTrue(filter.matchPrefix("c"));
+        Assert.assertFalse(filter.matchPrefix("a_c"));
+        Assert.assertFalse(filter.matchPrefix("d"));
+    }
+
+    @Test
+    public void testMatchPrefixExcludingExactName() {
+        PatternFilter filter = PatternFilter.create(Arrays.asList(".*"), Arrays.asList("a"));
+        Assert.assertTrue(filter.matchPrefix("a"));
+        Assert.assertTrue(filter.match("a_b"));
+        Assert.assertFalse(filter.match("a"));
+    }
+
+    @Test
+    public void testMatchPrefixExcludingAllExtensions() {
+        PatternFilter filter = PatternFilter.create(Arrays.asList(".*"), Arrays.asList("a_.*", "(b|c)_d.*"));
+        Assert.assertTrue(filter.matchPrefix("a"));
+        Assert.assertFalse(filter.matchPrefix("a_b"));
+        Assert.assertFalse(filter.matchPrefix("a_b_c"));
+        Assert.assertFalse(filter.matchPrefix("b_d"));
+        Assert.assertFalse(filter.matchPrefix("c_d_e"));
+        Assert.assertTrue(filter.matchPrefix("b"));
+        Assert.assertTrue(filter.matchPrefix("b_e"));
+    }
+
+    @Test
+    public void testPrefixPattern() {
+        Assert.assertEquals("(?:a_)", PatternFilter.getPrefixPattern(Pattern.compile("a_.*")).get().pattern());
+        Assert.assertEquals("(?:(a|b))", PatternFilter.getPrefixPattern(Pattern.compile("(a|b).*")).get().pattern());
+        Assert.assertEquals("(?:[|])", PatternFilter.getPrefixPattern(Pattern.compile("[|].*")).get().pattern());
+        Assert.assertFalse(PatternFilter.getPrefixPattern(Pattern.compile("a")).isPresent());
+        Assert.assertFalse(PatternFilter.getPrefixPattern(Pattern.compile("a|b.*")).isPresent());
+        Assert.assertFalse(PatternFilter.getPrefixPattern(Pattern.compile("a\\.*")).isPresent());
+        Assert.assertFalse(PatternFilter.getPrefixPattern(Pattern.compile("a(?!_b).*")).isPresent());
+        Assert.assertFalse(PatternFilter.getPrefixPattern(Pattern.compile("a$.*")).isPresent());
+    }
+}